@@ -1,10 +1,12 @@
 package com.aidataquality.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Async configuration for handling large file processing
@@ -22,5 +24,14 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Shared pool for CPU-bound work inside a single request, such as parallel parsing
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool dataProcessingPool(DataQualityProperties properties) {
+        int parallelism = properties.getParsing().getParallelism();
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
 }
 
@@ -0,0 +1,111 @@
+package com.aidataquality.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Typed view of the app.data-quality configuration block
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.data-quality")
+@Data
+public class DataQualityProperties {
+
+    // Rows a full analysis reads before it switches to a row sample of this size (0 = no limit)
+    private long maxRowsToProcess = 1_000_000;
+
+    // Largest upload accepted, including request bodies streamed straight into the parser
+    private DataSize maxFileSize = DataSize.ofMegabytes(100);
+
+    // Directory for spooled uploads
+    private String tempStoragePath = System.getProperty("java.io.tmpdir");
+
+    // Longest wait for a URL download's response headers or its next block of data (plain numbers are milliseconds)
+    private Duration urlDownloadTimeout = Duration.ofSeconds(30);
+
+    private Download download = new Download();
+
+    private Streaming streaming = new Streaming();
+
+    private Parsing parsing = new Parsing();
+
+    private Profiling profiling = new Profiling();
+
+    private Spill spill = new Spill();
+
+    @Data
+    public static class Streaming {
+        // Rows per batch pushed through the analyzers in streaming mode
+        private int batchSize = 10_000;
+    }
+
+    @Data
+    public static class Download {
+        // Time allowed to open a connection to the origin
+        private Duration connectTimeout = Duration.ofSeconds(10);
+
+        // Objects at least this large are fetched as parallel Range requests when the server accepts them
+        private DataSize rangeThreshold = DataSize.ofMegabytes(16);
+
+        // Size of each Range request
+        private DataSize rangeSize = DataSize.ofMegabytes(4);
+
+        // Range requests kept in flight ahead of the parser
+        private int parallelRanges = 4;
+    }
+
+    @Data
+    public static class Parsing {
+        // Worker threads of the shared data processing pool (0 = one per available core)
+        private int parallelism = 0;
+
+        // Uploads at least this large are spooled to disk and parsed in parallel chunks
+        private DataSize parallelThreshold = DataSize.ofMegabytes(8);
+
+        // Target size of each parallel parsing chunk
+        private DataSize chunkSize = DataSize.ofMegabytes(4);
+
+        // Index large CSV uploads by record offset and decode each column when an analysis first reads it
+        private boolean lazyCsv = false;
+    }
+
+    @Data
+    public static class Profiling {
+        // Columns of one request analyzed at a time on the processing pool (0 = the pool's parallelism, 1 = sequential)
+        private int parallelism = 0;
+
+        // Estimate uniqueCount with a HyperLogLog sketch once a column has more distinct values than distinctThreshold
+        private boolean approximateDistinct = true;
+
+        // Distinct values of a column counted exactly before switching to the estimate
+        private int distinctThreshold = 100_000;
+
+        // HyperLogLog precision: 2^p one-byte registers (64KB at 16), relative error about 1.04 / sqrt(2^p)
+        private int distinctPrecision = 16;
+
+        // Most frequent text values of a column tracked (Space-Saving) once it passes distinctThreshold
+        private int heavyHitters = 1_000;
+
+        // Numeric values of a column kept exactly before quartiles and outliers come from a quantile sketch
+        private int quantileThreshold = 100_000;
+
+        // Accuracy parameter k of the KLL quantile sketch: about 3k values kept, rank error well under 1 / k
+        private int quantileSketchSize = 1024;
+    }
+
+    @Data
+    public static class Spill {
+        // Build full-analysis datasets in segments that can be spilled to temp-storage-path
+        private boolean enabled = true;
+
+        // Segment data kept in memory across all requests (0 = a quarter of the max heap)
+        private DataSize memoryBudget = DataSize.ofBytes(0);
+
+        // Rows per column segment
+        private int segmentRows = 65_536;
+    }
+}
@@ -0,0 +1,24 @@
+package com.aidataquality.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+
+/**
+ * HTTP client used for URL ingestion
+ */
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * Shared client so downloads reuse pooled connections instead of opening one per request
+     */
+    @Bean
+    public HttpClient dataDownloadClient(DataQualityProperties properties) {
+        return HttpClient.newBuilder()
+            .connectTimeout(properties.getDownload().getConnectTimeout())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+}
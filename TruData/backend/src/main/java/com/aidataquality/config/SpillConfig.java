@@ -0,0 +1,24 @@
+package com.aidataquality.config;
+
+import com.aidataquality.model.dataset.SpillStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Spill-to-disk storage for datasets larger than the memory set aside for them
+ */
+@Configuration
+public class SpillConfig {
+
+    /**
+     * Store shared by all requests, so the memory budget holds for the whole node
+     */
+    @Bean(destroyMethod = "close")
+    public SpillStore spillStore(DataQualityProperties properties) {
+        long budget = properties.getSpill().getMemoryBudget().toBytes();
+        return new SpillStore(Path.of(properties.getTempStoragePath()),
+                              budget > 0 ? budget : Runtime.getRuntime().maxMemory() / 4);
+    }
+}
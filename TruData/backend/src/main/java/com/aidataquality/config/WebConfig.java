@@ -0,0 +1,24 @@
+package com.aidataquality.config;
+
+import com.aidataquality.export.ArrowProfileMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Web MVC configuration
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Arrow goes after the default converters, so JSON stays the response format unless
+     * the client asks for Arrow
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ArrowProfileMessageConverter());
+    }
+}
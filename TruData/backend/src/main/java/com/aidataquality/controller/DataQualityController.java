@@ -13,6 +13,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.util.List;
+
 /**
  * REST controller for data quality analysis endpoints
  */
@@ -28,19 +31,31 @@ public class DataQualityController {
 
     @PostMapping(value = "/analyze/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Analyze data quality from file upload",
-               description = "Upload a file (CSV, JSON, XLSX, Parquet) and get comprehensive data quality analysis")
+               description = "Upload a file (CSV, JSON, JSON Lines, XLSX, Parquet, Arrow IPC) and get comprehensive data quality analysis")
     public ResponseEntity<DataQualityResponse> analyzeFromFile(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "dataType", required = false) String dataType,
             @RequestParam(value = "sensitivityLevel", required = false) String sensitivityLevel,
             @RequestParam(value = "performBiasCheck", required = false, defaultValue = "false") Boolean performBiasCheck,
-            @RequestParam(value = "performPIICheck", required = false, defaultValue = "true") Boolean performPIICheck) {
+            @RequestParam(value = "performPIICheck", required = false, defaultValue = "true") Boolean performPIICheck,
+            @RequestParam(value = "streaming", required = false, defaultValue = "false") Boolean streaming,
+            @RequestParam(value = "quickCheck", required = false, defaultValue = "false") Boolean quickCheck,
+            @RequestParam(value = "stratifyBy", required = false) String stratifyBy,
+            @RequestParam(value = "sheets", required = false) List<String> sheets,
+            @RequestParam(value = "includeColumns", required = false) List<String> includeColumns,
+            @RequestParam(value = "excludeColumns", required = false) List<String> excludeColumns) {
         
         log.info("Received file upload request: {}", file.getOriginalFilename());
         
         DataQualityRequest request = DataQualityRequest.builder()
             .performBiasCheck(performBiasCheck)
             .performPIICheck(performPIICheck)
+            .streaming(streaming)
+            .quickCheck(quickCheck)
+            .stratifyBy(stratifyBy)
+            .sheets(sheets)
+            .includeColumns(includeColumns)
+            .excludeColumns(excludeColumns)
             .build();
         
         DataQualityResponse response = orchestrationService.analyzeFromFile(file, request);
@@ -48,6 +63,44 @@ public class DataQualityController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/analyze/stream",
+                 consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "text/csv", "text/tab-separated-values",
+                             MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+                             "application/x-ndjson", "application/gzip", "application/zstd", "application/zip",
+                             "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                             "application/vnd.apache.parquet", "application/vnd.apache.arrow.stream",
+                             "application/vnd.apache.arrow.file"})
+    @Operation(summary = "Analyze data quality from a streamed upload",
+               description = "Send the file as the raw request body; it is parsed while it is received, without a temporary copy. "
+                           + "The filename parameter names its format and compression (e.g. data.csv.gz)")
+    public ResponseEntity<DataQualityResponse> analyzeFromStream(
+            InputStream body,
+            @RequestParam("filename") String filename,
+            @RequestParam(value = "performBiasCheck", required = false, defaultValue = "false") Boolean performBiasCheck,
+            @RequestParam(value = "performPIICheck", required = false, defaultValue = "true") Boolean performPIICheck,
+            @RequestParam(value = "streaming", required = false, defaultValue = "false") Boolean streaming,
+            @RequestParam(value = "quickCheck", required = false, defaultValue = "false") Boolean quickCheck,
+            @RequestParam(value = "stratifyBy", required = false) String stratifyBy,
+            @RequestParam(value = "includeColumns", required = false) List<String> includeColumns,
+            @RequestParam(value = "excludeColumns", required = false) List<String> excludeColumns) {
+        
+        log.info("Received streamed upload request: {}", filename);
+        
+        DataQualityRequest request = DataQualityRequest.builder()
+            .performBiasCheck(performBiasCheck)
+            .performPIICheck(performPIICheck)
+            .streaming(streaming)
+            .quickCheck(quickCheck)
+            .stratifyBy(stratifyBy)
+            .includeColumns(includeColumns)
+            .excludeColumns(excludeColumns)
+            .build();
+        
+        DataQualityResponse response = orchestrationService.analyzeFromStream(body, filename, request);
+        
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/analyze/url")
     @Operation(summary = "Analyze data quality from URL",
                description = "Provide a URL to a data file and get comprehensive data quality analysis")
@@ -0,0 +1,42 @@
+package com.aidataquality.export;
+
+import com.aidataquality.model.dto.DataQualityResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes analysis responses as Arrow IPC streams of their column profiles when the client
+ * asks for application/vnd.apache.arrow.stream. Write-only: Arrow request bodies are read
+ * by the ingestion layer.
+ */
+public class ArrowProfileMessageConverter extends AbstractHttpMessageConverter<DataQualityResponse> {
+
+    public ArrowProfileMessageConverter() {
+        super(MediaType.parseMediaType(ArrowProfileWriter.MEDIA_TYPE));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return DataQualityResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected DataQualityResponse readInternal(Class<? extends DataQualityResponse> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Analysis responses cannot be read from Arrow", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(DataQualityResponse response, HttpOutputMessage outputMessage) throws IOException {
+        ArrowProfileWriter.write(response, outputMessage.getBody());
+    }
+}
@@ -0,0 +1,478 @@
+package com.aidataquality.export;
+
+import com.aidataquality.model.dto.ColumnProfile;
+import com.aidataquality.model.dto.DataQualityResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Writes the column profiles of an analysis as an Arrow IPC stream: the schema, one record
+ * batch with a row per profiled column, and the end-of-stream marker.
+ *
+ * Counts are int64, percentages and statistics float64, flags bool; top values, PII types,
+ * outliers and quality issues are lists of strings and value counts a map from value to
+ * count. Rows of a multi-sheet workbook analysis carry their sheet name in the sheet column,
+ * which is null otherwise.
+ */
+public final class ArrowProfileWriter {
+
+    public static final String MEDIA_TYPE = "application/vnd.apache.arrow.stream";
+
+    private static final int CONTINUATION = 0xFFFFFFFF;
+
+    // MetadataVersion V5
+    private static final int VERSION = 4;
+
+    // MessageHeader union
+    private static final int SCHEMA = 1;
+    private static final int RECORD_BATCH = 3;
+
+    // Type union
+    private static final int INT = 2;
+    private static final int FLOATING_POINT = 3;
+    private static final int UTF8 = 5;
+    private static final int BOOL = 6;
+    private static final int LIST = 12;
+    private static final int STRUCT = 13;
+    private static final int MAP = 17;
+
+    private ArrowProfileWriter() {
+    }
+
+    public static void write(DataQualityResponse response, OutputStream out) throws IOException {
+        List<String> sheets = new ArrayList<>();
+        List<ColumnProfile> profiles = new ArrayList<>();
+        if (response.getSheets() != null) {
+            response.getSheets().forEach((sheet, result) -> {
+                for (ColumnProfile profile : nullToEmpty(result.getColumnProfiles())) {
+                    sheets.add(sheet);
+                    profiles.add(profile);
+                }
+            });
+        } else {
+            for (ColumnProfile profile : nullToEmpty(response.getColumnProfiles())) {
+                sheets.add(null);
+                profiles.add(profile);
+            }
+        }
+
+        List<Vector> columns = List.of(
+                new TextVector("sheet", sheets, true),
+                new TextVector("columnName", map(profiles, ColumnProfile::getColumnName), true),
+                new TextVector("dataType", map(profiles, ColumnProfile::getDataType), true),
+                new LongVector("totalCount", map(profiles, ColumnProfile::getTotalCount), true),
+                new LongVector("nullCount", map(profiles, ColumnProfile::getNullCount), true),
+                new LongVector("uniqueCount", map(profiles, ColumnProfile::getUniqueCount), true),
+                new DoubleVector("nullPercentage", map(profiles, ColumnProfile::getNullPercentage)),
+                new DoubleVector("uniquePercentage", map(profiles, ColumnProfile::getUniquePercentage)),
+                new DoubleVector("uniqueCountError", map(profiles, ColumnProfile::getUniqueCountError)),
+                new DoubleVector("mean", map(profiles, ColumnProfile::getMean)),
+                new DoubleVector("median", map(profiles, ColumnProfile::getMedian)),
+                new DoubleVector("stdDev", map(profiles, ColumnProfile::getStdDev)),
+                new DoubleVector("min", map(profiles, ColumnProfile::getMin)),
+                new DoubleVector("max", map(profiles, ColumnProfile::getMax)),
+                new DoubleVector("q1", map(profiles, ColumnProfile::getQ1)),
+                new DoubleVector("q3", map(profiles, ColumnProfile::getQ3)),
+                new MapVector("valueCounts", map(profiles, ColumnProfile::getValueCounts)),
+                new ListVector("topValues", map(profiles, ColumnProfile::getTopValues)),
+                new BooleanVector("hasPII", map(profiles, ColumnProfile::getHasPII)),
+                new ListVector("piiTypes", map(profiles, ColumnProfile::getPiiTypes)),
+                new BooleanVector("hasOutliers", map(profiles, ColumnProfile::getHasOutliers)),
+                new ListVector("outlierValues", map(profiles, ColumnProfile::getOutlierValues)),
+                new BooleanVector("hasAnomalies", map(profiles, ColumnProfile::getHasAnomalies)),
+                new ListVector("qualityIssues", map(profiles, ColumnProfile::getQualityIssues)));
+
+        writeSchema(columns, out);
+        writeRecordBatch(columns, profiles.size(), out);
+        writeInt(out, CONTINUATION);
+        writeInt(out, 0);
+        out.flush();
+    }
+
+    private static void writeSchema(List<Vector> columns, OutputStream out) throws IOException {
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        int[] fields = new int[columns.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = writeField(builder, columns.get(i));
+        }
+        int fieldVector = builder.createOffsetVector(fields);
+
+        builder.startTable(4);
+        builder.addShort(0, 0); // little-endian
+        builder.addOffset(1, fieldVector);
+        int schema = builder.endTable();
+
+        writeMessage(out, message(builder, SCHEMA, schema, 0), new byte[0]);
+    }
+
+    private static int writeField(FlatBufferBuilder builder, Vector vector) {
+        int name = builder.createString(vector.name);
+        int type = vector.writeType(builder);
+        int[] children = vector.children().stream().mapToInt(child -> writeField(builder, child)).toArray();
+        int childVector = builder.createOffsetVector(children);
+
+        builder.startTable(7);
+        builder.addOffset(0, name);
+        builder.addBoolean(1, vector.nullable);
+        builder.addByte(2, vector.typeId);
+        builder.addOffset(3, type);
+        builder.addOffset(5, childVector);
+        return builder.endTable();
+    }
+
+    private static void writeRecordBatch(List<Vector> columns, int rows, OutputStream out) throws IOException {
+        Body body = new Body();
+        for (Vector column : columns) {
+            column.writeBuffers(body);
+        }
+
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        int nodes = builder.createLongPairVector(body.nodes());
+        int buffers = builder.createLongPairVector(body.buffers());
+        builder.startTable(5);
+        builder.addLong(0, rows);
+        builder.addOffset(1, nodes);
+        builder.addOffset(2, buffers);
+        int recordBatch = builder.endTable();
+
+        byte[] data = body.data.toByteArray();
+        writeMessage(out, message(builder, RECORD_BATCH, recordBatch, data.length), data);
+    }
+
+    private static byte[] message(FlatBufferBuilder builder, int headerType, int header, long bodyLength) {
+        builder.startTable(5);
+        builder.addShort(0, VERSION);
+        builder.addByte(1, headerType);
+        builder.addOffset(2, header);
+        builder.addLong(3, bodyLength);
+        return builder.finish(builder.endTable());
+    }
+
+    /**
+     * Continuation marker, metadata length, metadata padded to 8 bytes, then the body
+     */
+    private static void writeMessage(OutputStream out, byte[] metadata, byte[] body) throws IOException {
+        int padded = (metadata.length + 7) & ~7;
+        writeInt(out, CONTINUATION);
+        writeInt(out, padded);
+        out.write(metadata);
+        out.write(new byte[padded - metadata.length]);
+        out.write(body);
+    }
+
+    private static void writeInt(OutputStream out, int value) throws IOException {
+        out.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array());
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> values) {
+        return values != null ? values : List.of();
+    }
+
+    private static <T> List<T> map(List<ColumnProfile> profiles, Function<ColumnProfile, T> getter) {
+        List<T> values = new ArrayList<>(profiles.size());
+        for (ColumnProfile profile : profiles) {
+            values.add(getter.apply(profile));
+        }
+        return values;
+    }
+
+    /**
+     * Field nodes, buffer locations and the 8-byte aligned buffer contents of a record batch
+     */
+    private static final class Body {
+
+        private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        private final List<long[]> nodes = new ArrayList<>();
+        private final List<long[]> buffers = new ArrayList<>();
+
+        void node(long length, long nullCount) {
+            nodes.add(new long[]{length, nullCount});
+        }
+
+        void buffer(byte[] bytes) {
+            buffers.add(new long[]{data.size(), bytes.length});
+            data.writeBytes(bytes);
+            data.writeBytes(new byte[(-bytes.length) & 7]);
+        }
+
+        long[] nodes() {
+            return flatten(nodes);
+        }
+
+        long[] buffers() {
+            return flatten(buffers);
+        }
+
+        private static long[] flatten(List<long[]> pairs) {
+            long[] flat = new long[pairs.size() * 2];
+            for (int i = 0; i < pairs.size(); i++) {
+                flat[i * 2] = pairs.get(i)[0];
+                flat[i * 2 + 1] = pairs.get(i)[1];
+            }
+            return flat;
+        }
+    }
+
+    /**
+     * A column of the record batch: its schema field and its buffers
+     */
+    private abstract static class Vector {
+
+        final String name;
+        final int typeId;
+        final boolean nullable;
+        final List<?> values;
+
+        Vector(String name, int typeId, boolean nullable, List<?> values) {
+            this.name = name;
+            this.typeId = typeId;
+            this.nullable = nullable;
+            this.values = values;
+        }
+
+        /**
+         * The type table; types without parameters are empty tables
+         */
+        int writeType(FlatBufferBuilder builder) {
+            builder.startTable(0);
+            return builder.endTable();
+        }
+
+        List<Vector> children() {
+            return List.of();
+        }
+
+        /**
+         * Add the node and validity bitmap, then the type's own buffers and those of its children
+         */
+        void writeBuffers(Body body) {
+            int nullCount = (int) values.stream().filter(Objects::isNull).count();
+            body.node(values.size(), nullCount);
+            byte[] validity = new byte[nullCount > 0 ? (values.size() + 7) / 8 : 0];
+            for (int row = 0; nullCount > 0 && row < values.size(); row++) {
+                if (values.get(row) != null) {
+                    validity[row / 8] |= (byte) (1 << (row % 8));
+                }
+            }
+            body.buffer(validity);
+            writeData(body);
+            for (Vector child : children()) {
+                child.writeBuffers(body);
+            }
+        }
+
+        abstract void writeData(Body body);
+
+        static ByteBuffer allocate(int bytes) {
+            return ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private static final class TextVector extends Vector {
+
+        TextVector(String name, List<String> values, boolean nullable) {
+            super(name, UTF8, nullable, values);
+        }
+
+        @Override
+        void writeData(Body body) {
+            ByteBuffer offsets = allocate((values.size() + 1) * 4);
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            offsets.putInt(0);
+            for (Object value : values) {
+                if (value != null) {
+                    data.writeBytes(value.toString().getBytes(StandardCharsets.UTF_8));
+                }
+                offsets.putInt(data.size());
+            }
+            body.buffer(offsets.array());
+            body.buffer(data.toByteArray());
+        }
+    }
+
+    private static final class LongVector extends Vector {
+
+        LongVector(String name, List<Long> values, boolean nullable) {
+            super(name, INT, nullable, values);
+        }
+
+        @Override
+        int writeType(FlatBufferBuilder builder) {
+            builder.startTable(2);
+            builder.addInt(0, 64);
+            builder.addBoolean(1, true);
+            return builder.endTable();
+        }
+
+        @Override
+        void writeData(Body body) {
+            ByteBuffer data = allocate(values.size() * 8);
+            for (Object value : values) {
+                data.putLong(value != null ? (Long) value : 0L);
+            }
+            body.buffer(data.array());
+        }
+    }
+
+    private static final class DoubleVector extends Vector {
+
+        DoubleVector(String name, List<Double> values) {
+            super(name, FLOATING_POINT, true, values);
+        }
+
+        @Override
+        int writeType(FlatBufferBuilder builder) {
+            builder.startTable(1);
+            builder.addShort(0, 2); // double precision
+            return builder.endTable();
+        }
+
+        @Override
+        void writeData(Body body) {
+            ByteBuffer data = allocate(values.size() * 8);
+            for (Object value : values) {
+                data.putDouble(value != null ? (Double) value : 0.0);
+            }
+            body.buffer(data.array());
+        }
+    }
+
+    private static final class BooleanVector extends Vector {
+
+        BooleanVector(String name, List<Boolean> values) {
+            super(name, BOOL, true, values);
+        }
+
+        @Override
+        void writeData(Body body) {
+            byte[] bits = new byte[(values.size() + 7) / 8];
+            for (int row = 0; row < values.size(); row++) {
+                if (Boolean.TRUE.equals(values.get(row))) {
+                    bits[row / 8] |= (byte) (1 << (row % 8));
+                }
+            }
+            body.buffer(bits);
+        }
+    }
+
+    /**
+     * A list of strings per row; list elements are written in their text form
+     */
+    private static final class ListVector extends Vector {
+
+        private final TextVector items;
+
+        ListVector(String name, List<? extends Collection<?>> values) {
+            super(name, LIST, true, values);
+            List<String> flattened = new ArrayList<>();
+            for (Collection<?> list : values) {
+                if (list != null) {
+                    list.forEach(item -> flattened.add(item != null ? item.toString() : null));
+                }
+            }
+            this.items = new TextVector("item", flattened, true);
+        }
+
+        @Override
+        List<Vector> children() {
+            return List.of(items);
+        }
+
+        @Override
+        void writeData(Body body) {
+            body.buffer(listOffsets(values));
+        }
+    }
+
+    /**
+     * Value counts as a map column: per row a list of non-null keys with their counts
+     */
+    private static final class MapVector extends Vector {
+
+        private final StructVector entries;
+
+        MapVector(String name, List<Map<String, Long>> values) {
+            super(name, MAP, true, values);
+            List<String> keys = new ArrayList<>();
+            List<Long> counts = new ArrayList<>();
+            for (Map<String, Long> map : values) {
+                if (map != null) {
+                    map.forEach((key, count) -> {
+                        keys.add(String.valueOf(key));
+                        counts.add(count);
+                    });
+                }
+            }
+            this.entries = new StructVector("entries", keys.size(), List.of(
+                    new TextVector("key", keys, false),
+                    new LongVector("value", counts, true)));
+        }
+
+        @Override
+        int writeType(FlatBufferBuilder builder) {
+            builder.startTable(1);
+            builder.addBoolean(0, false); // keys are not sorted
+            return builder.endTable();
+        }
+
+        @Override
+        List<Vector> children() {
+            return List.of(entries);
+        }
+
+        @Override
+        void writeData(Body body) {
+            body.buffer(listOffsets(values));
+        }
+    }
+
+    private static final class StructVector extends Vector {
+
+        private final List<Vector> fields;
+
+        StructVector(String name, int rows, List<Vector> fields) {
+            super(name, STRUCT, false, Collections.nCopies(rows, Boolean.TRUE));
+            this.fields = fields;
+        }
+
+        @Override
+        List<Vector> children() {
+            return fields;
+        }
+
+        @Override
+        void writeData(Body body) {
+            // a struct has no buffers besides its validity bitmap
+        }
+    }
+
+    /**
+     * Int32 offsets of each row's entries into the flattened child values
+     */
+    private static byte[] listOffsets(List<?> values) {
+        ByteBuffer offsets = Vector.allocate((values.size() + 1) * 4);
+        int end = 0;
+        offsets.putInt(end);
+        for (Object value : values) {
+            if (value instanceof Collection<?> list) {
+                end += list.size();
+            } else if (value instanceof Map<?, ?> map) {
+                end += map.size();
+            }
+            offsets.putInt(end);
+        }
+        return offsets.array();
+    }
+}
@@ -0,0 +1,196 @@
+package com.aidataquality.export;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal FlatBuffers encoder for Arrow IPC metadata. Like the reference builder it fills
+ * its buffer back to front, so children (strings, vectors, tables) are created before the
+ * tables that refer to them. Every table field is written, defaults included.
+ */
+final class FlatBufferBuilder {
+
+    private ByteBuffer buffer;
+    private int space;
+    private int minAlign = 1;
+    private int[] vtable;
+    private int objectStart;
+    private int vectorLength;
+
+    FlatBufferBuilder() {
+        buffer = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+        space = buffer.capacity();
+    }
+
+    /**
+     * Distance of the write position from the end of the buffer, which is how objects are referenced
+     */
+    int offset() {
+        return buffer.capacity() - space;
+    }
+
+    /**
+     * Pad so that a value of the given size, written after additional bytes, is aligned
+     */
+    private void prep(int size, int additional) {
+        minAlign = Math.max(minAlign, size);
+        int padding = (-(offset() + additional)) & (size - 1);
+        while (space < padding + size + additional) {
+            grow();
+        }
+        space -= padding;
+    }
+
+    private void grow() {
+        int capacity = buffer.capacity();
+        ByteBuffer grown = ByteBuffer.allocate(capacity * 2).order(ByteOrder.LITTLE_ENDIAN);
+        System.arraycopy(buffer.array(), 0, grown.array(), capacity, capacity);
+        buffer = grown;
+        space += capacity;
+    }
+
+    void addByte(int value) {
+        prep(1, 0);
+        buffer.put(--space, (byte) value);
+    }
+
+    void addShort(int value) {
+        prep(2, 0);
+        space -= 2;
+        buffer.putShort(space, (short) value);
+    }
+
+    void addInt(int value) {
+        prep(4, 0);
+        space -= 4;
+        buffer.putInt(space, value);
+    }
+
+    void addLong(long value) {
+        prep(8, 0);
+        space -= 8;
+        buffer.putLong(space, value);
+    }
+
+    /**
+     * A reference to an object created earlier, relative to where it is stored
+     */
+    void addOffset(int target) {
+        prep(4, 0);
+        int relative = offset() - target + 4;
+        space -= 4;
+        buffer.putInt(space, relative);
+    }
+
+    void startTable(int fieldCount) {
+        vtable = new int[fieldCount];
+        objectStart = offset();
+    }
+
+    void addByte(int field, int value) {
+        addByte(value);
+        vtable[field] = offset();
+    }
+
+    void addBoolean(int field, boolean value) {
+        addByte(field, value ? 1 : 0);
+    }
+
+    void addShort(int field, int value) {
+        addShort(value);
+        vtable[field] = offset();
+    }
+
+    void addInt(int field, int value) {
+        addInt(value);
+        vtable[field] = offset();
+    }
+
+    void addLong(int field, long value) {
+        addLong(value);
+        vtable[field] = offset();
+    }
+
+    void addOffset(int field, int target) {
+        addOffset(target);
+        vtable[field] = offset();
+    }
+
+    /**
+     * Write the table's vtable in front of it and return the table
+     */
+    int endTable() {
+        addInt(0);
+        int object = offset();
+
+        int fieldCount = vtable.length;
+        while (fieldCount > 0 && vtable[fieldCount - 1] == 0) {
+            fieldCount--;
+        }
+        for (int field = fieldCount - 1; field >= 0; field--) {
+            addShort(vtable[field] != 0 ? object - vtable[field] : 0);
+        }
+        addShort(object - objectStart);
+        addShort((fieldCount + 2) * 2);
+
+        buffer.putInt(buffer.capacity() - object, offset() - object);
+        vtable = null;
+        return object;
+    }
+
+    /**
+     * Start a vector; its elements are then added last to first
+     */
+    void startVector(int elementSize, int count, int alignment) {
+        vectorLength = count;
+        prep(4, elementSize * count);
+        prep(alignment, elementSize * count);
+    }
+
+    int endVector() {
+        space -= 4;
+        buffer.putInt(space, vectorLength);
+        return offset();
+    }
+
+    int createString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        addByte(0);
+        startVector(1, bytes.length, 1);
+        space -= bytes.length;
+        System.arraycopy(bytes, 0, buffer.array(), space, bytes.length);
+        return endVector();
+    }
+
+    int createOffsetVector(int[] targets) {
+        startVector(4, targets.length, 4);
+        for (int i = targets.length - 1; i >= 0; i--) {
+            addOffset(targets[i]);
+        }
+        return endVector();
+    }
+
+    /**
+     * A vector of structs made of two longs each (Arrow's FieldNode and Buffer), given as
+     * consecutive pairs
+     */
+    int createLongPairVector(long[] pairs) {
+        startVector(16, pairs.length / 2, 8);
+        for (int i = pairs.length - 2; i >= 0; i -= 2) {
+            addLong(pairs[i + 1]);
+            addLong(pairs[i]);
+        }
+        return endVector();
+    }
+
+    /**
+     * Finish with the root table and return the encoded bytes
+     */
+    byte[] finish(int root) {
+        prep(minAlign, 4);
+        addOffset(root);
+        return Arrays.copyOfRange(buffer.array(), space, buffer.capacity());
+    }
+}
@@ -0,0 +1,913 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.exception.UnsupportedFileFormatException;
+import com.aidataquality.model.dataset.BooleanColumn;
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.aidataquality.model.dataset.DateColumn;
+import com.aidataquality.model.dataset.DictionaryColumn;
+import com.aidataquality.model.dataset.DoubleColumn;
+import com.aidataquality.model.dataset.LongColumn;
+import com.aidataquality.model.dataset.StringColumn;
+import com.aidataquality.model.enums.ColumnType;
+import com.github.luben.zstd.Zstd;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Reads Arrow IPC data, in the streaming format or the file format read front to back,
+ * into datasets.
+ *
+ * Each record batch is mapped buffer by buffer onto typed column arrays and appended to
+ * the builder whole: integers become long columns, floating point and decimals double
+ * columns, dates and timestamps epoch millis, and dictionary-encoded strings keep their
+ * Arrow dictionary as a {@link DictionaryColumn}. Lists, structs and maps become their
+ * text form, as nested Parquet values do; intervals, unions, run-end encoded and view
+ * fields are skipped. Buffers compressed with ZSTD are decompressed, LZ4 is not supported.
+ *
+ * The IPC metadata is read straight from its FlatBuffers encoding, so no Arrow library
+ * is needed.
+ */
+@Slf4j
+public class ArrowReader {
+
+    private static final byte[] FILE_MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+    private static final int CONTINUATION = 0xFFFFFFFF;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // MetadataVersion
+    private static final int V5 = 4;
+
+    // MessageHeader union
+    private static final int SCHEMA = 1;
+    private static final int DICTIONARY_BATCH = 2;
+    private static final int RECORD_BATCH = 3;
+
+    // Type union
+    private static final int NULL = 1;
+    private static final int INT = 2;
+    private static final int FLOATING_POINT = 3;
+    private static final int BINARY = 4;
+    private static final int UTF8 = 5;
+    private static final int BOOL = 6;
+    private static final int DECIMAL = 7;
+    private static final int DATE = 8;
+    private static final int TIME = 9;
+    private static final int TIMESTAMP = 10;
+    private static final int INTERVAL = 11;
+    private static final int LIST = 12;
+    private static final int STRUCT = 13;
+    private static final int UNION = 14;
+    private static final int FIXED_SIZE_BINARY = 15;
+    private static final int FIXED_SIZE_LIST = 16;
+    private static final int MAP = 17;
+    private static final int DURATION = 18;
+    private static final int LARGE_BINARY = 19;
+    private static final int LARGE_UTF8 = 20;
+    private static final int LARGE_LIST = 21;
+    private static final int RUN_END_ENCODED = 22;
+    private static final int BINARY_VIEW = 23;
+    private static final int UTF8_VIEW = 24;
+    private static final int LIST_VIEW = 25;
+    private static final int LARGE_LIST_VIEW = 26;
+
+    // CompressionType
+    private static final int ZSTD = 1;
+
+    private final InputStream in;
+    private final ColumnSelection selection;
+    private final byte[] prefix = new byte[4];
+    private final Map<Long, Column> dictionaries = new HashMap<>();
+    private final Map<Long, TextDictionary> textDictionaries = new HashMap<>();
+    private List<Field> fields;
+    private boolean[] included;
+    private int version = V5;
+
+    public ArrowReader(InputStream in, ColumnSelection selection) {
+        this.in = in.markSupported() ? in : new BufferedInputStream(in);
+        this.selection = selection;
+    }
+
+    /**
+     * Read all record batches into the builder and return the number of rows
+     */
+    public long read(DatasetBuilder builder) throws IOException {
+        skipFileMagic();
+
+        long rows = 0;
+        Message message;
+        while ((message = readMessage()) != null) {
+            switch (message.headerType()) {
+                case SCHEMA -> readSchema(message.header(), builder);
+                case DICTIONARY_BATCH -> readDictionaryBatch(message.header(), message.body());
+                case RECORD_BATCH -> {
+                    Dataset batch = readRecordBatch(message.header(), message.body());
+                    builder.append(batch);
+                    rows += batch.getRowCount();
+                }
+                default -> log.debug("Skipping Arrow message of type {}", message.headerType());
+            }
+        }
+
+        if (fields == null) {
+            throw new IOException("Arrow data has no schema");
+        }
+        return rows;
+    }
+
+    /**
+     * The file format is the stream format between a magic prefix and a footer; the footer
+     * follows the end-of-stream marker and is never reached
+     */
+    private void skipFileMagic() throws IOException {
+        byte[] magic = new byte[8];
+        in.mark(magic.length);
+        int read = in.readNBytes(magic, 0, magic.length);
+        if (read == magic.length && Arrays.equals(magic, 0, FILE_MAGIC.length, FILE_MAGIC, 0, FILE_MAGIC.length)) {
+            return;
+        }
+        in.reset();
+    }
+
+    /**
+     * Next message, or null at the end-of-stream marker or the end of the input
+     */
+    private Message readMessage() throws IOException {
+        if (in.readNBytes(prefix, 0, 4) < 4) {
+            return null;
+        }
+        int length = ByteBuffer.wrap(prefix).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        if (length == CONTINUATION) {
+            readFully(prefix);
+            length = ByteBuffer.wrap(prefix).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        }
+        if (length == 0) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("Invalid Arrow message length: " + length);
+        }
+
+        byte[] metadata = new byte[length];
+        readFully(metadata);
+        Table message = Table.root(ByteBuffer.wrap(metadata).order(ByteOrder.LITTLE_ENDIAN));
+        version = message.getShort(0, 0);
+
+        long bodyLength = message.getLong(3, 0);
+        if (bodyLength < 0 || bodyLength > Integer.MAX_VALUE - 8) {
+            throw new IOException("Arrow message body is too large: " + bodyLength + " bytes");
+        }
+        byte[] body = new byte[(int) bodyLength];
+        readFully(body);
+        return new Message(message.getByte(1, 0), message.getTable(2),
+                ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    private void readFully(byte[] buffer) throws IOException {
+        if (in.readNBytes(buffer, 0, buffer.length) < buffer.length) {
+            throw new EOFException("Arrow data ends in the middle of a message");
+        }
+    }
+
+    /**
+     * Declare the selected columns of the schema; fields that cannot be read and repeated names are skipped
+     */
+    private void readSchema(Table schema, DatasetBuilder builder) {
+        if (schema.getShort(0, 0) != 0) {
+            throw new UnsupportedFileFormatException("Big-endian Arrow data is not supported");
+        }
+        fields = readFields(schema, 1);
+        included = new boolean[fields.size()];
+
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            if (!selection.includes(field.name())) {
+                continue;
+            }
+            if (!isReadable(field)) {
+                log.warn("Skipping Arrow column {} of unsupported type {}", field.name(), field.typeId());
+            } else if (!names.add(field.name())) {
+                log.warn("Skipping repeated Arrow column {}", field.name());
+            } else {
+                included[i] = true;
+                builder.addColumn(field.name());
+            }
+        }
+    }
+
+    private static List<Field> readFields(Table table, int vectorField) {
+        List<Field> result = new ArrayList<>();
+        for (Table field : table.getTables(vectorField)) {
+            Table encoding = field.getTable(4);
+            DictionaryEncoding dictionary = null;
+            if (encoding != null) {
+                Table indexType = encoding.getTable(1);
+                dictionary = new DictionaryEncoding(encoding.getLong(0, 0),
+                        indexType != null ? indexType.getInt(0, 32) : 32,
+                        indexType == null || indexType.getBoolean(1));
+            }
+            result.add(new Field(Objects.requireNonNullElse(field.getString(0), ""), field.getByte(2, 0), field.getTable(3),
+                    dictionary, readFields(field, 5)));
+        }
+        return result;
+    }
+
+    private static boolean isReadable(Field field) {
+        return switch (field.typeId()) {
+            case NULL, INT, FLOATING_POINT, BINARY, UTF8, BOOL, DECIMAL, DATE, TIME, TIMESTAMP,
+                 FIXED_SIZE_BINARY, DURATION, LARGE_BINARY, LARGE_UTF8 -> true;
+            case LIST, STRUCT, FIXED_SIZE_LIST, MAP, LARGE_LIST ->
+                    field.children().stream().allMatch(ArrowReader::isReadable);
+            default -> false;
+        };
+    }
+
+    /**
+     * Decode a dictionary for the dictionary-encoded fields that refer to it by id
+     */
+    private void readDictionaryBatch(Table dictionaryBatch, ByteBuffer body) throws IOException {
+        long id = dictionaryBatch.getLong(0, 0);
+        Field field = findDictionaryField(fields, id);
+        if (field == null) {
+            throw new IOException("Arrow dictionary " + id + " is not used by the schema");
+        }
+
+        Batch batch = new Batch(dictionaryBatch.getTable(1), body);
+        Field valueField = new Field("", field.typeId(), field.type(), null, field.children());
+        Column values = readColumn(valueField, batch);
+
+        Column previous = dictionaries.get(id);
+        if (dictionaryBatch.getBoolean(2) && previous != null) {
+            DatasetBuilder concatenated = new DatasetBuilder();
+            concatenated.append(new Dataset(List.of(previous), previous.size()));
+            concatenated.append(new Dataset(List.of(values), values.size()));
+            values = concatenated.build().getColumn(0);
+        }
+        dictionaries.put(id, values);
+        textDictionaries.remove(id);
+    }
+
+    private static Field findDictionaryField(List<Field> candidates, long id) {
+        for (Field field : candidates) {
+            if (field.dictionary() != null && field.dictionary().id() == id) {
+                return field;
+            }
+            Field child = findDictionaryField(field.children(), id);
+            if (child != null) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private Dataset readRecordBatch(Table recordBatch, ByteBuffer body) throws IOException {
+        if (fields == null) {
+            throw new IOException("Arrow record batch before the schema");
+        }
+        Batch batch = new Batch(recordBatch, body);
+        int rows = toRowCount(recordBatch.getLong(0, 0));
+
+        List<Column> columns = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            if (included[i]) {
+                columns.add(readColumn(fields.get(i), batch));
+            } else {
+                skip(fields.get(i), batch);
+            }
+        }
+        return new Dataset(columns, rows);
+    }
+
+    /**
+     * Decode the next field node and its buffers into a column
+     */
+    private Column readColumn(Field field, Batch batch) throws IOException {
+        if (field.dictionary() != null) {
+            return readDictionaryEncoded(field, batch);
+        }
+        if (isNested(field)) {
+            Object[] values = readNested(field, batch);
+            String[] text = new String[values.length];
+            BitSet nulls = new BitSet(values.length);
+            for (int row = 0; row < values.length; row++) {
+                if (values[row] == null) {
+                    nulls.set(row);
+                } else {
+                    text[row] = values[row].toString();
+                }
+            }
+            return new StringColumn(field.name(), values.length, text, nulls);
+        }
+
+        long[] node = batch.nextNode();
+        int rows = toRowCount(node[0]);
+        String name = field.name();
+        if (field.typeId() == NULL) {
+            BitSet nulls = new BitSet(rows);
+            nulls.set(0, rows);
+            return new StringColumn(name, rows, new String[rows], nulls);
+        }
+
+        BitSet nulls = readNulls(batch.nextBuffer(), rows, node[1]);
+        Table type = field.type();
+        return switch (field.typeId()) {
+            case INT -> readInt(name, rows, nulls, batch.nextBuffer(), type.getInt(0, 0), type.getBoolean(1));
+            case FLOATING_POINT -> new DoubleColumn(name, rows,
+                    readFloats(batch.nextBuffer(), rows, type.getShort(0, 0)), nulls);
+            case BOOL -> {
+                BitSet values = BitSet.valueOf(batch.nextBuffer());
+                values.clear(rows, Math.max(rows, values.length()));
+                values.andNot(nulls);
+                yield new BooleanColumn(name, rows, values, nulls);
+            }
+            case UTF8, BINARY -> new StringColumn(name, rows, readStrings(batch, rows, nulls, false), nulls);
+            case LARGE_UTF8, LARGE_BINARY -> new StringColumn(name, rows, readStrings(batch, rows, nulls, true), nulls);
+            case FIXED_SIZE_BINARY -> new StringColumn(name, rows,
+                    readHex(batch.nextBuffer(), rows, nulls, type.getInt(0, 0)), nulls);
+            case DECIMAL -> new DoubleColumn(name, rows,
+                    readDecimals(batch.nextBuffer(), rows, type.getInt(2, 128) / 8, type.getInt(1, 0)), nulls);
+            case DATE -> new DateColumn(name, rows, readDates(batch.nextBuffer(), rows, type.getShort(0, 1)), nulls);
+            case TIMESTAMP -> new DateColumn(name, rows,
+                    readTimestamps(batch.nextBuffer(), rows, type.getShort(0, 0)), nulls);
+            case TIME -> new LongColumn(name, rows, readLongs(batch.nextBuffer(), rows, type.getInt(1, 32), true), nulls);
+            case DURATION -> new LongColumn(name, rows, readLongs(batch.nextBuffer(), rows, 64, true), nulls);
+            default -> throw new IOException("Unsupported Arrow type " + field.typeId() + " for column " + name);
+        };
+    }
+
+    private static boolean isNested(Field field) {
+        int typeId = field.typeId();
+        return typeId == LIST || typeId == LARGE_LIST || typeId == FIXED_SIZE_LIST
+                || typeId == MAP || typeId == STRUCT;
+    }
+
+    /**
+     * Unsigned 64-bit integers beyond the long range make the column a double column
+     */
+    private static Column readInt(String name, int rows, BitSet nulls, ByteBuffer data, int bitWidth, boolean signed) {
+        long[] values = readLongs(data, rows, bitWidth, signed);
+        if (bitWidth == 64 && !signed) {
+            for (int row = 0; row < rows; row++) {
+                if (values[row] < 0 && !nulls.get(row)) {
+                    double[] doubles = new double[rows];
+                    for (int i = 0; i < rows; i++) {
+                        long value = values[i];
+                        doubles[i] = value >= 0 ? value : (double) (value >>> 1) * 2 + (value & 1);
+                    }
+                    return new DoubleColumn(name, rows, doubles, nulls);
+                }
+            }
+        }
+        return new LongColumn(name, rows, values, nulls);
+    }
+
+    private static long[] readLongs(ByteBuffer data, int rows, int bitWidth, boolean signed) {
+        long[] values = new long[rows];
+        switch (bitWidth) {
+            case 8 -> {
+                for (int row = 0; row < rows; row++) {
+                    byte value = data.get(row);
+                    values[row] = signed ? value : value & 0xFFL;
+                }
+            }
+            case 16 -> {
+                for (int row = 0; row < rows; row++) {
+                    short value = data.getShort(row * 2);
+                    values[row] = signed ? value : value & 0xFFFFL;
+                }
+            }
+            case 32 -> {
+                for (int row = 0; row < rows; row++) {
+                    int value = data.getInt(row * 4);
+                    values[row] = signed ? value : value & 0xFFFFFFFFL;
+                }
+            }
+            case 64 -> data.asLongBuffer().get(values, 0, rows);
+            default -> throw new UnsupportedFileFormatException("Unsupported Arrow integer width: " + bitWidth);
+        }
+        return values;
+    }
+
+    private static double[] readFloats(ByteBuffer data, int rows, int precision) {
+        double[] values = new double[rows];
+        switch (precision) {
+            case 0 -> {
+                for (int row = 0; row < rows; row++) {
+                    values[row] = halfToFloat(data.getShort(row * 2));
+                }
+            }
+            case 1 -> {
+                for (int row = 0; row < rows; row++) {
+                    values[row] = data.getFloat(row * 4);
+                }
+            }
+            default -> data.asDoubleBuffer().get(values, 0, rows);
+        }
+        return values;
+    }
+
+    private static float halfToFloat(short half) {
+        int sign = (half & 0x8000) << 16;
+        int exponent = (half >>> 10) & 0x1F;
+        int mantissa = half & 0x3FF;
+        if (exponent == 0x1F) {
+            return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+        }
+        if (exponent == 0) {
+            float value = mantissa * 0x1p-24f;
+            return sign != 0 ? -value : value;
+        }
+        return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+    }
+
+    private static double[] readDecimals(ByteBuffer data, int rows, int width, int scale) {
+        double[] values = new double[rows];
+        byte[] bigEndian = new byte[width];
+        for (int row = 0; row < rows; row++) {
+            int offset = row * width;
+            if (width == 4) {
+                values[row] = BigDecimal.valueOf(data.getInt(offset), scale).doubleValue();
+                continue;
+            }
+            long low = data.getLong(offset);
+            if (width == 8 || fitsLong(data, offset, width, low)) {
+                values[row] = BigDecimal.valueOf(low, scale).doubleValue();
+                continue;
+            }
+            for (int i = 0; i < width; i++) {
+                bigEndian[i] = data.get(offset + width - 1 - i);
+            }
+            values[row] = new BigDecimal(new BigInteger(bigEndian), scale).doubleValue();
+        }
+        return values;
+    }
+
+    /**
+     * Whether the bytes above the low 64 bits only extend its sign
+     */
+    private static boolean fitsLong(ByteBuffer data, int offset, int width, long low) {
+        long extension = low >> 63;
+        for (int i = 8; i < width; i += 8) {
+            if (data.getLong(offset + i) != extension) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] readDates(ByteBuffer data, int rows, int unit) {
+        if (unit != 0) {
+            return readLongs(data, rows, 64, true);
+        }
+        long[] values = new long[rows];
+        for (int row = 0; row < rows; row++) {
+            values[row] = data.getInt(row * 4) * MILLIS_PER_DAY;
+        }
+        return values;
+    }
+
+    private static long[] readTimestamps(ByteBuffer data, int rows, int unit) {
+        long[] values = readLongs(data, rows, 64, true);
+        for (int row = 0; row < rows; row++) {
+            values[row] = switch (unit) {
+                case 0 -> values[row] * 1_000L;
+                case 1 -> values[row];
+                case 2 -> Math.floorDiv(values[row], 1_000L);
+                default -> Math.floorDiv(values[row], 1_000_000L);
+            };
+        }
+        return values;
+    }
+
+    /**
+     * Variable-length values as UTF-8 text; like Parquet, un-annotated binary is read as text too
+     */
+    private static String[] readStrings(Batch batch, int rows, BitSet nulls, boolean large) {
+        ByteBuffer offsets = batch.nextBuffer();
+        ByteBuffer data = batch.nextBuffer();
+        byte[] bytes = data.array();
+        int base = data.arrayOffset() + data.position();
+
+        String[] values = new String[rows];
+        long start = large ? offsets.getLong(0) : offsets.getInt(0);
+        for (int row = 0; row < rows; row++) {
+            long end = large ? offsets.getLong((row + 1) * 8) : offsets.getInt((row + 1) * 4);
+            if (!nulls.get(row)) {
+                values[row] = new String(bytes, base + (int) start, (int) (end - start), StandardCharsets.UTF_8);
+            }
+            start = end;
+        }
+        return values;
+    }
+
+    private static String[] readHex(ByteBuffer data, int rows, BitSet nulls, int width) {
+        byte[] bytes = data.array();
+        int base = data.arrayOffset() + data.position();
+        String[] values = new String[rows];
+        for (int row = 0; row < rows; row++) {
+            if (!nulls.get(row)) {
+                values[row] = HexFormat.of().formatHex(bytes, base + row * width, base + (row + 1) * width);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Dictionary indices of the batch; text dictionaries are kept as the column's dictionary,
+     * other value types are looked up row by row
+     */
+    private Column readDictionaryEncoded(Field field, Batch batch) throws IOException {
+        DictionaryEncoding encoding = field.dictionary();
+        Column values = dictionaries.get(encoding.id());
+        if (values == null) {
+            throw new IOException("Arrow dictionary " + encoding.id() + " is used before it is sent");
+        }
+
+        long[] node = batch.nextNode();
+        int rows = toRowCount(node[0]);
+        BitSet nulls = readNulls(batch.nextBuffer(), rows, node[1]);
+        long[] indices = readLongs(batch.nextBuffer(), rows, encoding.bitWidth(), encoding.signed());
+        for (int row = 0; row < rows; row++) {
+            if (!nulls.get(row) && (indices[row] < 0 || indices[row] >= values.size())) {
+                throw new IOException("Arrow dictionary index " + indices[row] + " out of range in column " + field.name());
+            }
+        }
+
+        TextDictionary text = textDictionaries.computeIfAbsent(encoding.id(), id -> TextDictionary.of(values));
+        if (text != null && text.distinct().length <= rows) {
+            int[] codes = new int[rows];
+            for (int row = 0; row < rows; row++) {
+                codes[row] = nulls.get(row) ? DictionaryColumn.NULL_CODE : text.codes()[(int) indices[row]];
+                if (codes[row] == DictionaryColumn.NULL_CODE) {
+                    nulls.set(row);
+                }
+            }
+            return new DictionaryColumn(field.name(), rows, codes, text.distinct(), nulls);
+        }
+
+        DatasetBuilder lookup = new DatasetBuilder(List.of(field.name()));
+        for (int row = 0; row < rows; row++) {
+            if (!nulls.get(row)) {
+                lookup.set(0, values.get((int) indices[row]));
+            }
+            lookup.endRow();
+        }
+        return lookup.build().getColumn(0);
+    }
+
+    /**
+     * Values of a list, map or struct field as List and Map objects, null for null rows
+     */
+    private Object[] readNested(Field field, Batch batch) throws IOException {
+        long[] node = batch.nextNode();
+        int rows = toRowCount(node[0]);
+        BitSet nulls = readNulls(batch.nextBuffer(), rows, node[1]);
+        Object[] values = new Object[rows];
+
+        switch (field.typeId()) {
+            case LIST, LARGE_LIST, MAP -> {
+                boolean large = field.typeId() == LARGE_LIST;
+                ByteBuffer offsets = batch.nextBuffer();
+                Object[] items = readValues(field.children().get(0), batch);
+                for (int row = 0; row < rows; row++) {
+                    if (nulls.get(row)) {
+                        continue;
+                    }
+                    int start = large ? (int) offsets.getLong(row * 8) : offsets.getInt(row * 4);
+                    int end = large ? (int) offsets.getLong((row + 1) * 8) : offsets.getInt((row + 1) * 4);
+                    values[row] = field.typeId() == MAP ? toMap(items, start, end) : toList(items, start, end);
+                }
+            }
+            case FIXED_SIZE_LIST -> {
+                int size = field.type().getInt(0, 0);
+                Object[] items = readValues(field.children().get(0), batch);
+                for (int row = 0; row < rows; row++) {
+                    if (!nulls.get(row)) {
+                        values[row] = toList(items, row * size, (row + 1) * size);
+                    }
+                }
+            }
+            default -> {
+                List<Object[]> children = new ArrayList<>();
+                for (Field child : field.children()) {
+                    children.add(readValues(child, batch));
+                }
+                for (int row = 0; row < rows; row++) {
+                    if (nulls.get(row)) {
+                        continue;
+                    }
+                    Map<String, Object> struct = new LinkedHashMap<>();
+                    for (int i = 0; i < children.size(); i++) {
+                        struct.put(field.children().get(i).name(), children.get(i)[row]);
+                    }
+                    values[row] = struct;
+                }
+            }
+        }
+        return values;
+    }
+
+    private Object[] readValues(Field field, Batch batch) throws IOException {
+        if (isNested(field) && field.dictionary() == null) {
+            return readNested(field, batch);
+        }
+        Column column = readColumn(field, batch);
+        Object[] values = new Object[column.size()];
+        for (int row = 0; row < values.length; row++) {
+            values[row] = column.get(row);
+        }
+        return values;
+    }
+
+    private static List<Object> toList(Object[] items, int start, int end) {
+        return new ArrayList<>(Arrays.asList(items).subList(start, end));
+    }
+
+    /**
+     * Map entries are structs of a key and a value
+     */
+    private static Map<Object, Object> toMap(Object[] entries, int start, int end) {
+        Map<Object, Object> map = new LinkedHashMap<>();
+        for (int i = start; i < end; i++) {
+            if (entries[i] instanceof Map<?, ?> entry) {
+                List<?> keyAndValue = new ArrayList<>(entry.values());
+                map.put(keyAndValue.get(0), keyAndValue.size() > 1 ? keyAndValue.get(1) : null);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Consume the nodes and buffers of a field that is not read
+     */
+    private void skip(Field field, Batch batch) {
+        batch.nextNode();
+        int buffers = field.dictionary() != null ? 2 : switch (field.typeId()) {
+            case NULL, RUN_END_ENCODED -> 0;
+            case STRUCT, FIXED_SIZE_LIST -> 1;
+            case UNION -> (field.type().getShort(0, 0) == 0 ? 1 : 2) + (version < V5 ? 1 : 0);
+            case BINARY, UTF8, LARGE_BINARY, LARGE_UTF8, LIST_VIEW, LARGE_LIST_VIEW -> 3;
+            case BINARY_VIEW, UTF8_VIEW -> 2 + (int) batch.nextVariadicCount();
+            default -> 2;
+        };
+        for (int i = 0; i < buffers; i++) {
+            batch.skipBuffer();
+        }
+        if (field.dictionary() == null) {
+            for (Field child : field.children()) {
+                skip(child, batch);
+            }
+        }
+    }
+
+    /**
+     * Null rows of a validity bitmap (set bits are valid values); an empty bitmap means no nulls
+     */
+    private static BitSet readNulls(ByteBuffer validity, int rows, long nullCount) {
+        BitSet nulls = new BitSet(rows);
+        if (nullCount == 0) {
+            return nulls;
+        }
+        nulls.set(0, rows);
+        if (validity.hasRemaining()) {
+            nulls.andNot(BitSet.valueOf(validity));
+        }
+        return nulls;
+    }
+
+    private static int toRowCount(long length) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Invalid Arrow record batch length: " + length);
+        }
+        return (int) length;
+    }
+
+    private record Message(int headerType, Table header, ByteBuffer body) {
+    }
+
+    private record Field(String name, int typeId, Table type, DictionaryEncoding dictionary, List<Field> children) {
+    }
+
+    private record DictionaryEncoding(long id, int bitWidth, boolean signed) {
+    }
+
+    /**
+     * A text dictionary with repeated values merged: the code of each dictionary index into
+     * the distinct values (null entries become null codes)
+     */
+    private record TextDictionary(int[] codes, String[] distinct) {
+
+        static TextDictionary of(Column values) {
+            if (values.getType() != ColumnType.STRING) {
+                return null;
+            }
+            Map<String, Integer> index = new HashMap<>();
+            int[] codes = new int[values.size()];
+            for (int i = 0; i < codes.length; i++) {
+                String value = values.getString(i);
+                codes[i] = value == null ? DictionaryColumn.NULL_CODE
+                        : index.computeIfAbsent(value, v -> index.size());
+            }
+            String[] distinct = new String[index.size()];
+            index.forEach((value, code) -> distinct[code] = value);
+            return new TextDictionary(codes, distinct);
+        }
+    }
+
+    /**
+     * The field nodes and buffers of one record batch, consumed in schema order
+     */
+    private static final class Batch {
+
+        private final ByteBuffer body;
+        private final long[] nodes;
+        private final long[] buffers;
+        private final long[] variadicCounts;
+        private final boolean compressed;
+        private int node;
+        private int buffer;
+        private int variadic;
+
+        Batch(Table recordBatch, ByteBuffer body) {
+            this.body = body;
+            this.nodes = recordBatch.getLongs(1, 2);
+            this.buffers = recordBatch.getLongs(2, 2);
+            this.variadicCounts = recordBatch.getLongs(4, 1);
+            Table compression = recordBatch.getTable(3);
+            if (compression != null && compression.getByte(0, 0) != ZSTD) {
+                throw new UnsupportedFileFormatException("Arrow data compressed with LZ4 is not supported; use ZSTD or no compression");
+            }
+            this.compressed = compression != null;
+        }
+
+        /**
+         * Length and null count of the next field node
+         */
+        long[] nextNode() {
+            if (node * 2 >= nodes.length) {
+                throw new IllegalStateException("Arrow record batch has fewer field nodes than the schema");
+            }
+            long[] result = {nodes[node * 2], nodes[node * 2 + 1]};
+            node++;
+            return result;
+        }
+
+        long nextVariadicCount() {
+            return variadic < variadicCounts.length ? variadicCounts[variadic++] : 0;
+        }
+
+        void skipBuffer() {
+            buffer++;
+        }
+
+        /**
+         * Contents of the next buffer, decompressed if the batch is compressed
+         */
+        ByteBuffer nextBuffer() {
+            if (buffer * 2 >= buffers.length) {
+                throw new IllegalStateException("Arrow record batch has fewer buffers than the schema");
+            }
+            int offset = (int) buffers[buffer * 2];
+            int length = (int) buffers[buffer * 2 + 1];
+            buffer++;
+
+            if (!compressed || length == 0) {
+                return slice(body, offset, length);
+            }
+            long uncompressedLength = body.getLong(offset);
+            if (uncompressedLength == -1) {
+                return slice(body, offset + 8, length - 8);
+            }
+            byte[] source = new byte[length - 8];
+            body.get(offset + 8, source);
+            return ByteBuffer.wrap(Zstd.decompress(source, (int) uncompressedLength)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private static ByteBuffer slice(ByteBuffer body, int offset, int length) {
+            return body.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Read access to a FlatBuffers table: fields are located through the table's vtable,
+     * and absent fields read as their default
+     */
+    private static final class Table {
+
+        private final ByteBuffer bb;
+        private final int position;
+        private final int vtable;
+        private final int vtableSize;
+
+        Table(ByteBuffer bb, int position) {
+            this.bb = bb;
+            this.position = position;
+            this.vtable = position - bb.getInt(position);
+            this.vtableSize = bb.getShort(vtable) & 0xFFFF;
+        }
+
+        static Table root(ByteBuffer bb) {
+            return new Table(bb, bb.getInt(0));
+        }
+
+        private int offset(int field) {
+            int entry = 4 + 2 * field;
+            return entry < vtableSize ? bb.getShort(vtable + entry) & 0xFFFF : 0;
+        }
+
+        int getByte(int field, int defaultValue) {
+            int offset = offset(field);
+            return offset != 0 ? bb.get(position + offset) & 0xFF : defaultValue;
+        }
+
+        boolean getBoolean(int field) {
+            return getByte(field, 0) != 0;
+        }
+
+        int getShort(int field, int defaultValue) {
+            int offset = offset(field);
+            return offset != 0 ? bb.getShort(position + offset) : defaultValue;
+        }
+
+        int getInt(int field, int defaultValue) {
+            int offset = offset(field);
+            return offset != 0 ? bb.getInt(position + offset) : defaultValue;
+        }
+
+        long getLong(int field, long defaultValue) {
+            int offset = offset(field);
+            return offset != 0 ? bb.getLong(position + offset) : defaultValue;
+        }
+
+        Table getTable(int field) {
+            int offset = offset(field);
+            return offset != 0 ? new Table(bb, indirect(position + offset)) : null;
+        }
+
+        String getString(int field) {
+            int offset = offset(field);
+            if (offset == 0) {
+                return null;
+            }
+            int start = indirect(position + offset);
+            byte[] bytes = new byte[bb.getInt(start)];
+            bb.get(start + 4, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        List<Table> getTables(int field) {
+            int offset = offset(field);
+            if (offset == 0) {
+                return List.of();
+            }
+            int start = indirect(position + offset);
+            List<Table> tables = new ArrayList<>();
+            for (int i = 0; i < bb.getInt(start); i++) {
+                tables.add(new Table(bb, indirect(start + 4 + i * 4)));
+            }
+            return tables;
+        }
+
+        /**
+         * A vector of 64-bit scalars, or of structs made of longsPerElement longs
+         */
+        long[] getLongs(int field, int longsPerElement) {
+            int offset = offset(field);
+            if (offset == 0) {
+                return new long[0];
+            }
+            int start = indirect(position + offset);
+            long[] values = new long[bb.getInt(start) * longsPerElement];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = bb.getLong(start + 4 + i * 8);
+            }
+            return values;
+        }
+
+        private int indirect(int at) {
+            return at + bb.getInt(at);
+        }
+    }
+}
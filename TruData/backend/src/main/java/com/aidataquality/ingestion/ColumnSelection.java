@@ -0,0 +1,84 @@
+package com.aidataquality.ingestion;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Columns an analysis is restricted to: an optional list of names to include and a list of
+ * names to exclude, matched exactly against the column names of the data. The readers apply
+ * it while parsing, so the values of columns that are not selected are never materialized.
+ * Names that do not occur in the data are ignored.
+ */
+public final class ColumnSelection {
+
+    public static final ColumnSelection ALL = new ColumnSelection(null, Set.of());
+
+    private final Set<String> include;
+    private final Set<String> exclude;
+
+    private ColumnSelection(Set<String> include, Set<String> exclude) {
+        this.include = include;
+        this.exclude = exclude;
+    }
+
+    /**
+     * Selection from request parameters; a null or empty include list includes every column
+     */
+    public static ColumnSelection of(List<String> include, List<String> exclude) {
+        Set<String> included = names(include);
+        Set<String> excluded = names(exclude);
+        if (included.isEmpty() && excluded.isEmpty()) {
+            return ALL;
+        }
+        return new ColumnSelection(included.isEmpty() ? null : included, excluded);
+    }
+
+    /**
+     * Exactly the given columns, names taken as they are
+     */
+    public static ColumnSelection only(Collection<String> names) {
+        return new ColumnSelection(new HashSet<>(names), Set.of());
+    }
+
+    public boolean includes(String name) {
+        return (include == null || include.contains(name)) && !exclude.contains(name);
+    }
+
+    /**
+     * Whether every column is selected, so readers can skip the per-column checks
+     */
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    /**
+     * Which of the given columns are selected, by position
+     */
+    public boolean[] select(List<String> names) {
+        boolean[] selected = new boolean[names.size()];
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = includes(names.get(i));
+        }
+        return selected;
+    }
+
+    private static Set<String> names(List<String> names) {
+        Set<String> result = new LinkedHashSet<>();
+        if (names != null) {
+            for (String name : names) {
+                if (name != null && !name.isBlank()) {
+                    result.add(name.trim());
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return isAll() ? "all columns" : "include " + (include != null ? include : "all") + ", exclude " + exclude;
+    }
+}
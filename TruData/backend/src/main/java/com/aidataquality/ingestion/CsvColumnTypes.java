@@ -0,0 +1,166 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.dataset.DoubleColumn;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Column types of a CSV file, inferred once from its leading records so values can be
+ * stored already parsed instead of every analysis re-parsing the same text.
+ *
+ * Empty and blank cells are nulls, in every column. A column is numeric if every other
+ * value of the sample is a plain number that reads back as it was written: integers that
+ * fit a long ("007" and "+5" stay text) or decimals of at most
+ * {@link DoubleColumn#MAX_DECIMAL_DIGITS} digits without an exponent. Values of numeric
+ * columns become Long or BigDecimal as they are read, the latter stored as a double with
+ * its scale; text columns are stored without a parse attempt. A later value that does not
+ * parse is kept as text and the column falls back to text when it is built, with every
+ * number in the form it was read ("1.50" stays "1.50"). Read-only, and so safe to share
+ * between chunk parsers, after {@link #finish()}.
+ */
+public class CsvColumnTypes {
+
+    /**
+     * Leading records the types are inferred from
+     */
+    public static final int SAMPLE_ROWS = 1000;
+
+    private static final String MAX_LONG_DIGITS = "9223372036854775807";
+    private static final String MIN_LONG_DIGITS = "9223372036854775808";
+
+    private final boolean[] numeric;
+    private final boolean[] sampled;
+
+    public CsvColumnTypes(int columnCount) {
+        numeric = new boolean[columnCount];
+        sampled = new boolean[columnCount];
+        Arrays.fill(numeric, true);
+    }
+
+    /**
+     * Account for a value of the sample; blank values say nothing about the type
+     */
+    public void sample(int column, String value) {
+        if (column >= numeric.length || value == null || value.isBlank()) {
+            return;
+        }
+        sampled[column] = true;
+        if (numeric[column] && parseNumber(value) == null) {
+            numeric[column] = false;
+        }
+    }
+
+    /**
+     * Settle the types once the sample is complete; columns without sampled values are text
+     */
+    public CsvColumnTypes finish() {
+        for (int column = 0; column < numeric.length; column++) {
+            numeric[column] &= sampled[column];
+        }
+        return this;
+    }
+
+    public boolean isNumeric(int column) {
+        return column < numeric.length && numeric[column];
+    }
+
+    /**
+     * Stored form of a field: null if blank, a Long or BigDecimal in numeric columns, the text
+     * itself otherwise
+     */
+    public Object convert(int column, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        if (!isNumeric(column)) {
+            return value;
+        }
+        Object number = parseNumber(value);
+        return number != null ? number : value;
+    }
+
+    /**
+     * Long or BigDecimal for a plain decimal number that can be written back as it is, null for
+     * anything else (including exponents, and NaN, Infinity, hex and type suffixes that
+     * Double.parseDouble accepts)
+     */
+    static Object parseNumber(String text) {
+        int length = text.length();
+        int start = length > 0 && text.charAt(0) == '-' ? 1 : 0;
+        if (start == length || !isDigit(text.charAt(start)) || !isDigit(text.charAt(length - 1))) {
+            return null;
+        }
+        if (text.charAt(start) == '0' && start + 1 < length && isDigit(text.charAt(start + 1))) {
+            return null; // leading zeros mark codes such as zip codes
+        }
+
+        int point = -1;
+        for (int i = start + 1; i < length; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                continue;
+            }
+            if (c != '.' || point >= 0) {
+                return null;
+            }
+            point = i;
+        }
+
+        if (point < 0) {
+            if (start == 1 && length == 2 && text.charAt(1) == '0') {
+                return null; // "-0" would read back as "0"
+            }
+            return fitsLong(text, start) ? Long.parseLong(text) : null;
+        }
+        return parseDecimal(text, start, point);
+    }
+
+    /**
+     * BigDecimal for digits with a decimal point, if they are few enough for a double to give
+     * them back (see {@link DoubleColumn})
+     */
+    private static BigDecimal parseDecimal(String text, int start, int point) {
+        int scale = text.length() - point - 1;
+        if (scale > DoubleColumn.MAX_DECIMAL_DIGITS) {
+            return null;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        for (int i = start; i < text.length(); i++) {
+            if (i == point || (unscaled == 0 && text.charAt(i) == '0')) {
+                continue; // leading zeros are not significant
+            }
+            if (++digits > DoubleColumn.MAX_DECIMAL_DIGITS) {
+                return null;
+            }
+            unscaled = unscaled * 10 + (text.charAt(i) - '0');
+        }
+        if (unscaled == 0 && start == 1) {
+            return null; // "-0.0" would read back without its sign
+        }
+        return BigDecimal.valueOf(start == 1 ? -unscaled : unscaled, scale);
+    }
+
+    /**
+     * Whether the digits from start, without leading zeros, are within the long range
+     */
+    private static boolean fitsLong(String text, int start) {
+        int digits = text.length() - start;
+        if (digits != MAX_LONG_DIGITS.length()) {
+            return digits < MAX_LONG_DIGITS.length();
+        }
+        String limit = start == 1 ? MIN_LONG_DIGITS : MAX_LONG_DIGITS;
+        for (int i = 0; i < digits; i++) {
+            char c = text.charAt(start + i);
+            if (c != limit.charAt(i)) {
+                return c < limit.charAt(i);
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,233 @@
+package com.aidataquality.ingestion;
+
+import org.apache.commons.csv.CSVFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delimiter, quote character and header presence of a CSV file, sniffed from its first
+ * {@link #SAMPLE_BYTES} bytes so tab- and pipe-separated files are read without a
+ * conversion pass. Line separators need no sniffing: the parsers end a record at any of
+ * \n, \r\n and \r.
+ *
+ * The delimiter is the candidate (comma, tab, pipe, semicolon) that splits the most sample
+ * records into the same number of fields, with ties going to the earlier candidate. The
+ * header is detected as Python's csv.Sniffer does it: columns whose later records are all
+ * numbers, or all text of one length, vote on whether the first record fits in with them,
+ * and the first record is taken as data only if more columns say it fits than say it does
+ * not. Files whose sample holds no quote character at all are read by the byte-level
+ * {@link CsvStreamReader}.
+ *
+ * @param quotesSeen whether the quote character occurs anywhere in the sample
+ */
+public record CsvDialect(char delimiter, char quote, boolean header, boolean quotesSeen) {
+
+    /**
+     * Leading bytes the dialect is sniffed from
+     */
+    public static final int SAMPLE_BYTES = 16 * 1024;
+
+    public static final CsvDialect DEFAULT = new CsvDialect(',', '"', true, true);
+
+    private static final char[] DELIMITERS = {',', '\t', '|', ';'};
+
+    // Column types in header detection besides text lengths
+    private static final int NUMBER = -1;
+    private static final int MIXED = -2;
+
+    /**
+     * Sniff the dialect from the start of a stream, which is reset to where it was
+     */
+    public static CsvDialect sniff(InputStream in) throws IOException {
+        in.mark(SAMPLE_BYTES);
+        byte[] sample = in.readNBytes(SAMPLE_BYTES);
+        in.reset();
+        return sniff(sample, sample.length, sample.length < SAMPLE_BYTES);
+    }
+
+    /**
+     * Sniff the dialect from the first length bytes of a file
+     *
+     * @param complete whether the sample is the whole file, so its last record is not cut off
+     */
+    public static CsvDialect sniff(byte[] sample, int length, boolean complete) {
+        // Delimiters and quotes are ASCII, so a byte-per-char decoding keeps the structure
+        String text = new String(sample, 0, length, StandardCharsets.ISO_8859_1);
+
+        char delimiter = DELIMITERS[0];
+        double bestConsistency = 0;
+        for (char candidate : DELIMITERS) {
+            List<List<String>> records = split(text, candidate, '"', complete);
+            Map<Integer, Integer> fieldCounts = new HashMap<>();
+            records.forEach(record -> fieldCounts.merge(record.size(), 1, Integer::sum));
+            int modeCount = fieldCounts.entrySet().stream()
+                .filter(entry -> entry.getKey() > 1)
+                .mapToInt(Map.Entry::getValue)
+                .max()
+                .orElse(0);
+            double consistency = records.isEmpty() ? 0 : (double) modeCount / records.size();
+            if (consistency > bestConsistency) {
+                bestConsistency = consistency;
+                delimiter = candidate;
+            }
+        }
+
+        char quote = '"';
+        List<List<String>> records = split(text, delimiter, quote, complete);
+        if (text.indexOf('"') < 0 && isSingleQuoted(records)) {
+            quote = '\'';
+            records = split(text, delimiter, quote, complete);
+        }
+        return new CsvDialect(delimiter, quote, hasHeader(records), text.indexOf(quote) >= 0);
+    }
+
+    /**
+     * commons-csv format for the dialect, with the repository's usual trimming
+     */
+    public CSVFormat toFormat() {
+        CSVFormat.Builder format = CSVFormat.DEFAULT.builder()
+            .setDelimiter(delimiter)
+            .setQuote(quote)
+            .setIgnoreHeaderCase(true)
+            .setTrim(true);
+        if (header) {
+            format.setHeader().setSkipHeaderRecord(true);
+        }
+        return format.build();
+    }
+
+    public CsvRecordParser newParser() {
+        return new CsvRecordParser((byte) delimiter, (byte) quote, true);
+    }
+
+    /**
+     * Names for the columns of a file without a header: column_1, column_2, ...
+     */
+    public static List<String> columnNames(int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            names.add("column_" + i);
+        }
+        return names;
+    }
+
+    /**
+     * Non-empty records of the sample, split with the CsvRecordParser rules; a record cut off
+     * by the end of an incomplete sample is dropped
+     */
+    private static List<List<String>> split(String text, char delimiter, char quote, boolean complete) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != quote) {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == quote) {
+                    field.append(quote);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == quote && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == delimiter) {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\n' || c == '\r') {
+                if (!fields.isEmpty() || !field.isEmpty()) {
+                    fields.add(field.toString().trim());
+                    records.add(fields);
+                    fields = new ArrayList<>();
+                }
+                field.setLength(0);
+                fieldStart = true;
+            } else {
+                field.append(c);
+                fieldStart = false;
+            }
+        }
+        if (complete && !quoted && (!fields.isEmpty() || !field.isEmpty())) {
+            fields.add(field.toString().trim());
+            records.add(fields);
+        }
+        return records;
+    }
+
+    /**
+     * Whether fields enclosed in single quotes are common enough to make them the quote character
+     */
+    private static boolean isSingleQuoted(List<List<String>> records) {
+        long enclosed = 0;
+        long fields = 0;
+        for (List<String> record : records) {
+            for (String field : record) {
+                fields++;
+                if (field.length() >= 2 && field.charAt(0) == '\'' && field.charAt(field.length() - 1) == '\'') {
+                    enclosed++;
+                }
+            }
+        }
+        return enclosed > 0 && enclosed * 10 >= fields;
+    }
+
+    /**
+     * The first record is a header unless it looks like the later records in more columns
+     * than it looks different from them
+     */
+    private static boolean hasHeader(List<List<String>> records) {
+        if (records.size() < 2) {
+            return true;
+        }
+
+        List<String> first = records.get(0);
+        int votes = 0;
+        for (int column = 0; column < first.size(); column++) {
+            String value = first.get(column);
+            int type = columnType(records, column);
+            if (value.isEmpty() || type == MIXED) {
+                continue;
+            }
+            boolean fits = type == NUMBER
+                ? CsvColumnTypes.parseNumber(value) != null
+                : value.length() == type;
+            votes += fits ? -1 : 1;
+        }
+        return votes >= 0;
+    }
+
+    /**
+     * Type of the non-empty values of a column after the first record: {@link #NUMBER} when
+     * they are all numbers, their length when they are all text of one length, otherwise
+     * {@link #MIXED}
+     */
+    private static int columnType(List<List<String>> records, int column) {
+        int type = MIXED;
+        boolean seen = false;
+        for (List<String> record : records.subList(1, records.size())) {
+            if (column >= record.size() || record.get(column).isEmpty()) {
+                continue;
+            }
+            String value = record.get(column);
+            int valueType = CsvColumnTypes.parseNumber(value) != null ? NUMBER : value.length();
+            if (seen && valueType != type) {
+                return MIXED;
+            }
+            type = valueType;
+            seen = true;
+        }
+        return type;
+    }
+}
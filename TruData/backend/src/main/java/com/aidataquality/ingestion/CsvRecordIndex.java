@@ -0,0 +1,147 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.ColumnLoader;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Start offsets of the records of a memory-mapped CSV file, built by
+ * {@link ParallelCsvParser#index(Path, ColumnSelection)}. Columns are decoded from the file
+ * when a dataset asks for them: every chunk of records is read in parallel, and each record
+ * is only parsed up to the last requested field since the start of the next one is known.
+ * Owns the file, which is closed and deleted with the dataset.
+ */
+@Slf4j
+class CsvRecordIndex implements ColumnLoader {
+
+    private final ForkJoinPool pool;
+    private final FileChannel channel;
+    private final Path file;
+    private final CsvDialect dialect;
+    private final CsvColumnTypes types;
+    private final int[] fileColumns;
+    private final List<String> names;
+    private final long[] offsets;
+    private final int[] chunkRows;
+    private final long[] chunkEnds;
+
+    /**
+     * @param headers    column names of the file
+     * @param names      names of the columns of the dataset, each taken from its first
+     *                   occurrence in the file as when parsing
+     * @param boundaries chunk boundaries in the file
+     * @param chunks     start offsets of the records of each chunk, relative to the chunk
+     */
+    CsvRecordIndex(ForkJoinPool pool, FileChannel channel, Path file, CsvDialect dialect, List<String> headers,
+                   List<String> names, CsvColumnTypes types, long[] boundaries, List<int[]> chunks) {
+        this.pool = pool;
+        this.channel = channel;
+        this.file = file;
+        this.dialect = dialect;
+        this.types = types;
+        this.names = names;
+        this.fileColumns = names.stream().mapToInt(headers::indexOf).toArray();
+
+        int recordCount = chunks.stream().mapToInt(chunk -> chunk.length).sum();
+        this.offsets = new long[recordCount];
+        this.chunkRows = new int[chunks.size() + 1];
+        this.chunkEnds = new long[chunks.size()];
+        int row = 0;
+        for (int c = 0; c < chunks.size(); c++) {
+            chunkRows[c] = row;
+            chunkEnds[c] = boundaries[c + 1];
+            for (int offset : chunks.get(c)) {
+                offsets[row++] = boundaries[c] + offset;
+            }
+        }
+        chunkRows[chunks.size()] = row;
+    }
+
+    int getRecordCount() {
+        return offsets.length;
+    }
+
+    @Override
+    public List<Column> load(int[] columns) {
+        int width = 0;
+        for (int column : columns) {
+            width = Math.max(width, fileColumns[column] + 1);
+        }
+        boolean[] selected = new boolean[width];
+        String[] fileNames = new String[width];
+        List<String> requested = new ArrayList<>(columns.length);
+        for (int column : columns) {
+            selected[fileColumns[column]] = true;
+            fileNames[fileColumns[column]] = names.get(column);
+            requested.add(names.get(column));
+        }
+
+        List<Callable<Dataset>> tasks = new ArrayList<>(chunkEnds.length);
+        for (int c = 0; c < chunkEnds.length; c++) {
+            int firstRow = chunkRows[c];
+            int endRow = chunkRows[c + 1];
+            long end = chunkEnds[c];
+            if (endRow > firstRow) {
+                tasks.add(() -> decodeChunk(firstRow, endRow, end, selected, fileNames));
+            }
+        }
+
+        try {
+            DatasetBuilder builder = new DatasetBuilder(requested);
+            for (Dataset chunk : ParallelTasks.invokeAll(pool, tasks)) {
+                builder.append(chunk);
+            }
+            log.debug("Decoded {} CSV columns from {} records", columns.length, offsets.length);
+            return builder.build().getColumns();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error decoding CSV columns: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decode the selected fields of the records [firstRow, endRow) of a chunk ending at end
+     */
+    private Dataset decodeChunk(int firstRow, int endRow, long end, boolean[] selected,
+                                String[] fileNames) throws IOException {
+        long base = offsets[firstRow];
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, end - base);
+        DatasetBuilder builder = new DatasetBuilder();
+        int[] targets = new int[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            targets[i] = selected[i] ? builder.addColumn(fileNames[i]) : -1;
+        }
+
+        CsvRecordParser parser = dialect.newParser();
+        CsvRecordParser.FieldHandler handler = (index, value) -> builder.set(targets[index], types.convert(index, value));
+        int limit = buffer.limit();
+        for (int row = firstRow; row < endRow; row++) {
+            int next = row + 1 < endRow ? (int) (offsets[row + 1] - base) : limit;
+            parser.parseLeadingFields(buffer, (int) (offsets[row] - base), next, selected, handler);
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete indexed CSV file {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.aidataquality.ingestion;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Byte-level RFC 4180 record parser that reads UTF-8 CSV straight from a (memory-mapped) buffer.
+ * Follows the commons-csv DEFAULT rules used elsewhere: quotes only open a field at its start,
+ * doubled quotes are escapes, CR, LF and CRLF end a record, empty lines are skipped and
+ * values are trimmed. Fields that are not wanted are skipped without being copied or decoded.
+ * Instances keep a scratch buffer and are not thread-safe.
+ */
+public class CsvRecordParser {
+
+    /**
+     * Receives the decoded fields of a record
+     */
+    @FunctionalInterface
+    public interface FieldHandler {
+        void field(int index, String value);
+    }
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private final byte delimiter;
+    private final byte quote;
+    private final boolean trim;
+
+    private byte[] scratch = new byte[256];
+    private int length;
+    private int fieldCount;
+    private boolean skipping;
+    private boolean terminated;
+    private boolean unterminatedQuote;
+
+    public CsvRecordParser() {
+        this((byte) ',', (byte) '"', true);
+    }
+
+    public CsvRecordParser(byte delimiter, byte quote, boolean trim) {
+        this.delimiter = delimiter;
+        this.quote = quote;
+        this.trim = trim;
+    }
+
+    /**
+     * Parse one record starting at the given position and return the position after it.
+     * Fields at or beyond maxFields are skipped without being decoded.
+     * A field count of zero after the call means the line was empty.
+     */
+    public int parseRecord(ByteBuffer buffer, int position, int limit, int maxFields, FieldHandler handler) {
+        return parseRecord(buffer, position, limit, maxFields, null, false, handler);
+    }
+
+    /**
+     * Parse one record like {@link #parseRecord(ByteBuffer, int, int, int, FieldHandler)}, decoding only
+     * the fields whose index is selected
+     */
+    public int parseRecord(ByteBuffer buffer, int position, int limit, boolean[] selected, FieldHandler handler) {
+        return parseRecord(buffer, position, limit, selected.length, selected, false, handler);
+    }
+
+    /**
+     * Decode the selected fields of a record whose end is already known, stopping after the
+     * last field the selection covers instead of scanning on to the end of the record.
+     * Returns the position after the last field read; the record is not marked terminated
+     * when parsing stops early.
+     */
+    public int parseLeadingFields(ByteBuffer buffer, int position, int limit, boolean[] selected,
+                                  FieldHandler handler) {
+        return parseRecord(buffer, position, limit, selected.length, selected, true, handler);
+    }
+
+    private int parseRecord(ByteBuffer buffer, int position, int limit, int maxFields, boolean[] selected,
+                            boolean leading, FieldHandler handler) {
+        fieldCount = 0;
+        terminated = false;
+        unterminatedQuote = false;
+
+        while (true) {
+            length = 0;
+            skipping = fieldCount >= maxFields || (selected != null && !selected[fieldCount]);
+            boolean quoted = position < limit && buffer.get(position) == quote;
+            if (quoted) {
+                position = readQuoted(buffer, position + 1, limit);
+                if (unterminatedQuote) {
+                    emit(handler);
+                    return limit;
+                }
+            }
+
+            // Unquoted field, or whatever trails the closing quote up to the delimiter
+            int start = position;
+            while (position < limit) {
+                byte b = buffer.get(position);
+                if (b == delimiter || b == LF || b == CR) {
+                    break;
+                }
+                position++;
+            }
+            append(buffer, start, position - start);
+
+            boolean atDelimiter = position < limit && buffer.get(position) == delimiter;
+            if (fieldCount == 0 && !quoted && position == start && !atDelimiter) {
+                return skipLineEnd(buffer, position, limit);
+            }
+
+            emit(handler);
+            if (leading && fieldCount == maxFields) {
+                return position;
+            }
+            if (!atDelimiter) {
+                return skipLineEnd(buffer, position, limit);
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Number of fields in the last parsed record (including skipped ones)
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Whether the last record ended with a line break rather than the end of the buffer
+     */
+    public boolean isTerminated() {
+        return terminated;
+    }
+
+    /**
+     * Whether the last record reached the end of the buffer inside a quoted field
+     */
+    public boolean isUnterminatedQuote() {
+        return unterminatedQuote;
+    }
+
+    private int readQuoted(ByteBuffer buffer, int position, int limit) {
+        while (position < limit) {
+            int start = position;
+            while (position < limit && buffer.get(position) != quote) {
+                position++;
+            }
+            append(buffer, start, position - start);
+            if (position == limit) {
+                break;
+            }
+
+            position++;
+            if (position < limit && buffer.get(position) == quote) {
+                append(buffer, position, 1); // escaped quote
+                position++;
+            } else {
+                return position;
+            }
+        }
+
+        unterminatedQuote = true;
+        return limit;
+    }
+
+    private int skipLineEnd(ByteBuffer buffer, int position, int limit) {
+        if (position < limit) {
+            byte b = buffer.get(position++);
+            if (b == CR && position < limit && buffer.get(position) == LF) {
+                position++;
+            }
+            terminated = true;
+        }
+        return position;
+    }
+
+    private void append(ByteBuffer buffer, int position, int count) {
+        if (count == 0 || skipping) {
+            return;
+        }
+        if (length + count > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(length + count, scratch.length * 2));
+        }
+        buffer.get(position, scratch, length, count);
+        length += count;
+    }
+
+    private void emit(FieldHandler handler) {
+        if (!skipping) {
+            handler.field(fieldCount, decode());
+        }
+        fieldCount++;
+    }
+
+    private String decode() {
+        int start = 0;
+        int end = length;
+        if (trim) {
+            // Bytes <= 0x20 are single-byte in UTF-8, so this matches String.trim()
+            while (start < end && (scratch[start] & 0xff) <= ' ') {
+                start++;
+            }
+            while (end > start && (scratch[end - 1] & 0xff) <= ' ') {
+                end--;
+            }
+        }
+        return new String(scratch, start, end - start, StandardCharsets.UTF_8);
+    }
+}
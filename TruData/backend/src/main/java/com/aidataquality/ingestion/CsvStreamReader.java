@@ -0,0 +1,132 @@
+package com.aidataquality.ingestion;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the records of a CSV stream with a {@link CsvRecordParser} over a refilled byte
+ * buffer, skipping the character decoding and per-character lexing of commons-csv.
+ * The buffer grows when a single record does not fit in it. Empty lines are skipped.
+ * After {@link #select(boolean[])} the fields that are not selected are left null.
+ */
+public class CsvStreamReader implements Iterator<String[]>, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final CsvRecordParser parser;
+
+    private String[] fields = new String[16];
+    private boolean[] selected;
+    private byte[] bytes = new byte[BUFFER_SIZE];
+    private ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    private int position;
+    private int limit;
+    private boolean endOfStream;
+    private String[] next;
+
+    public CsvStreamReader(InputStream in, CsvRecordParser parser) {
+        this.in = in;
+        this.parser = parser;
+    }
+
+    /**
+     * Decode only the fields of later records whose index is selected
+     */
+    public void select(boolean[] selected) {
+        this.selected = selected;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public String[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String[] record = next;
+        next = null;
+        return record;
+    }
+
+    /**
+     * The next non-empty record, or null at the end of the stream
+     */
+    private String[] readRecord() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) {
+                return null;
+            }
+
+            Arrays.fill(fields, null);
+            int end = selected != null
+                ? parser.parseRecord(buffer, position, limit, selected, this::setField)
+                : parser.parseRecord(buffer, position, limit, Integer.MAX_VALUE, this::setField);
+            if (!parser.isTerminated() && !endOfStream) {
+                fill(); // the record may continue past the buffered bytes
+                continue;
+            }
+            if (parser.isUnterminatedQuote()) {
+                throw new IOException("EOF reached before encapsulated token finished");
+            }
+
+            position = end;
+            if (parser.getFieldCount() > 0) {
+                return Arrays.copyOf(fields, parser.getFieldCount());
+            }
+        }
+    }
+
+    private void setField(int index, String value) {
+        if (index >= fields.length) {
+            fields = Arrays.copyOf(fields, Math.max(index + 1, fields.length * 2));
+        }
+        fields[index] = value;
+    }
+
+    /**
+     * Move the unparsed bytes to the front of the buffer, growing it if they fill it, and read
+     * more behind them. Returns false once the stream is exhausted.
+     */
+    private boolean fill() throws IOException {
+        int remaining = limit - position;
+        if (remaining == bytes.length) {
+            byte[] grown = new byte[bytes.length * 2];
+            System.arraycopy(bytes, position, grown, 0, remaining);
+            bytes = grown;
+            buffer = ByteBuffer.wrap(bytes);
+        } else {
+            System.arraycopy(bytes, position, bytes, 0, remaining);
+        }
+        position = 0;
+        limit = remaining;
+
+        int read = in.readNBytes(bytes, limit, bytes.length - limit);
+        limit += read;
+        if (limit < bytes.length) {
+            endOfStream = true;
+        }
+        return read > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
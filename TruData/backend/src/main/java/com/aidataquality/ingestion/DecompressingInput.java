@@ -0,0 +1,121 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.enums.Compression;
+import com.github.luben.zstd.ZstdInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * An input stream that is decompressed on the fly when it starts with gzip, zstd or zip
+ * magic bytes, together with the name of the data it carries ("data.csv.gz" carries
+ * "data.csv", a zip bundle carries its first file entry). Uncompressed streams pass through.
+ * A zip stream named .xlsx is the workbook itself and is not unpacked.
+ */
+public class DecompressingInput implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAGIC_LENGTH = 4;
+
+    private final InputStream stream;
+    private final String filename;
+    private final Compression compression;
+
+    private DecompressingInput(InputStream stream, String filename, Compression compression) {
+        this.stream = stream;
+        this.filename = filename;
+        this.compression = compression;
+    }
+
+    public static DecompressingInput open(InputStream raw, String filename) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(raw, BUFFER_SIZE);
+        String name = filename != null ? Compression.stripExtension(filename) : null;
+
+        try {
+            return switch (detect(buffered, filename)) {
+                case GZIP -> new DecompressingInput(new GZIPInputStream(buffered, BUFFER_SIZE), name, Compression.GZIP);
+                case ZSTD -> new DecompressingInput(
+                    new BufferedInputStream(new ZstdInputStream(buffered), BUFFER_SIZE), name, Compression.ZSTD);
+                case ZIP -> openFirstEntry(new ZipInputStream(buffered));
+                case NONE -> new DecompressingInput(buffered, name, Compression.NONE);
+            };
+        } catch (IOException | RuntimeException e) {
+            buffered.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Compression found in the leading bytes of a stream (read and reset, so the stream must support mark)
+     */
+    public static Compression detect(InputStream stream, String filename) throws IOException {
+        byte[] magic = new byte[MAGIC_LENGTH];
+        stream.mark(MAGIC_LENGTH);
+        int length = stream.readNBytes(magic, 0, MAGIC_LENGTH);
+        stream.reset();
+
+        if (length >= 2 && (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b) {
+            return Compression.GZIP;
+        }
+        if (length == MAGIC_LENGTH && (magic[0] & 0xff) == 0x28 && (magic[1] & 0xff) == 0xb5
+                && (magic[2] & 0xff) == 0x2f && (magic[3] & 0xff) == 0xfd) {
+            return Compression.ZSTD;
+        }
+        if (length == MAGIC_LENGTH && magic[0] == 'P' && magic[1] == 'K' && magic[2] == 3 && magic[3] == 4
+                && (filename == null || !filename.toLowerCase().endsWith(".xlsx"))) {
+            return Compression.ZIP;
+        }
+        return Compression.NONE;
+    }
+
+    /**
+     * The decompressed data
+     */
+    public InputStream getStream() {
+        return stream;
+    }
+
+    /**
+     * Name of the decompressed data, used to pick its format
+     */
+    public String getFilename() {
+        return filename;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public boolean isCompressed() {
+        return compression != Compression.NONE;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+
+    private static DecompressingInput openFirstEntry(ZipInputStream zip) throws IOException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (isDataEntry(entry)) {
+                return new DecompressingInput(zip, entry.getName(), Compression.ZIP);
+            }
+        }
+        throw new IOException("Zip archive contains no data file");
+    }
+
+    /**
+     * Skips directories and the metadata that archivers add next to the data (__MACOSX/, dot files)
+     */
+    private static boolean isDataEntry(ZipEntry entry) {
+        String name = entry.getName();
+        String baseName = name.substring(name.lastIndexOf('/') + 1);
+        return !entry.isDirectory() && !name.startsWith("__MACOSX/") && !baseName.startsWith(".");
+    }
+}
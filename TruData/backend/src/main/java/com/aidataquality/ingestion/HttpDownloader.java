@@ -0,0 +1,381 @@
+package com.aidataquality.ingestion;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Opens http(s) URLs as input streams on a shared {@link HttpClient}.
+ *
+ * Every wait for response headers or the next block of data is bounded by the read
+ * timeout, so a stalled origin fails the request instead of holding the calling thread,
+ * while a slow one that keeps sending does not. Objects of at least the range threshold
+ * on servers that accept byte ranges are fetched as several Range requests in flight at
+ * once; the stream hands them out in order, so parsing starts with the first range while
+ * the following ones are still downloading. Each range must answer with its own
+ * Content-Range and length.
+ */
+@Slf4j
+public class HttpDownloader {
+
+    private final HttpClient client;
+    private final Duration readTimeout;
+    private final long rangeThreshold;
+    private final long rangeSize;
+    private final int parallelRanges;
+
+    public HttpDownloader(HttpClient client, Duration readTimeout,
+                          long rangeThreshold, long rangeSize, int parallelRanges) {
+        this.client = client;
+        this.readTimeout = readTimeout;
+        this.rangeThreshold = rangeThreshold;
+        this.rangeSize = Math.max(1, rangeSize);
+        this.parallelRanges = Math.max(1, parallelRanges);
+    }
+
+    public InputStream open(URI uri) throws IOException {
+        Probe probe = probe(uri);
+        if (probe != null && probe.acceptsRanges && probe.length >= rangeThreshold) {
+            log.info("Downloading {} bytes in {} parallel ranges", probe.length, parallelRanges);
+            return new RangedStream(probe);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(readTimeout).GET().build();
+        HttpResponse<Flow.Publisher<List<ByteBuffer>>> response = send(request, info -> info.statusCode() == 200
+            ? HttpResponse.BodySubscribers.ofPublisher()
+            : HttpResponse.BodySubscribers.replacing(null));
+        checkStatus(response, 200);
+
+        BodyStream body = new BodyStream(false);
+        response.body().subscribe(body);
+        return body;
+    }
+
+    /**
+     * Size and range support of the object, or null if the server does not answer HEAD requests
+     */
+    private Probe probe(URI uri) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .timeout(readTimeout)
+            .method("HEAD", HttpRequest.BodyPublishers.noBody())
+            .build();
+        HttpResponse<Void> response = send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            return null;
+        }
+
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        return new Probe(
+            response.uri(),
+            response.headers().firstValueAsLong("Content-Length").orElse(-1),
+            response.headers().firstValue("Accept-Ranges").filter("bytes"::equalsIgnoreCase).isPresent(),
+            etag != null && !etag.startsWith("W/") ? etag : null // If-Range needs a strong validator
+        );
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return client.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while downloading " + request.uri());
+        }
+    }
+
+    private static void checkStatus(HttpResponse<?> response, int expected) throws IOException {
+        if (response.statusCode() != expected) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + response.uri());
+        }
+    }
+
+    private record Probe(URI uri, long length, boolean acceptsRanges, String etag) {
+    }
+
+    /**
+     * Response body delivered by the client's publisher, with a timeout on every wait.
+     * Prefetching bodies take data as fast as it arrives; others one item per read.
+     */
+    private class BodyStream extends InputStream implements Flow.Subscriber<List<ByteBuffer>> {
+
+        private final List<ByteBuffer> end = Collections.unmodifiableList(new ArrayList<>());
+        private final BlockingQueue<List<ByteBuffer>> queue = new LinkedBlockingQueue<>();
+        private final boolean prefetch;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean closed;
+        private volatile Throwable failure;
+
+        private Iterator<ByteBuffer> buffers = Collections.emptyIterator();
+        private ByteBuffer current;
+        private boolean finished;
+
+        BodyStream(boolean prefetch) {
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (closed) {
+                subscription.cancel();
+            } else {
+                subscription.request(prefetch ? Long.MAX_VALUE : 1);
+            }
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            queue.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failure = throwable;
+            queue.add(end);
+        }
+
+        @Override
+        public void onComplete() {
+            queue.add(end);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (current == null || !current.hasRemaining()) {
+                if (buffers.hasNext()) {
+                    current = buffers.next();
+                } else if (finished || !nextItem()) {
+                    return -1;
+                }
+            }
+
+            int count = Math.min(length, current.remaining());
+            current.get(target, offset, count);
+            return count;
+        }
+
+        private boolean nextItem() throws IOException {
+            List<ByteBuffer> item;
+            try {
+                item = queue.poll(readTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while downloading");
+            }
+
+            if (item == null) {
+                close();
+                throw new HttpTimeoutException("No data received for " + readTimeout.toMillis() + "ms");
+            }
+            if (item == end) {
+                finished = true;
+                if (failure != null) {
+                    throw new IOException("Download failed: " + failure.getMessage(), failure);
+                }
+                return false;
+            }
+
+            buffers = item.iterator();
+            if (!prefetch) {
+                subscription.request(1);
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+
+    /**
+     * Concatenation of byte ranges that are requested ahead of the reader, at most
+     * parallelRanges at a time. The body of each range is buffered as it arrives, so the
+     * read timeout bounds every wait for data rather than a whole range.
+     */
+    private class RangedStream extends InputStream {
+
+        private final Probe probe;
+        private final ArrayDeque<Range> pending = new ArrayDeque<>();
+        private long nextStart;
+
+        private Range current;
+        private long received;
+
+        RangedStream(Probe probe) {
+            this.probe = probe;
+            for (int i = 0; i < parallelRanges; i++) {
+                requestNext();
+            }
+        }
+
+        private void requestNext() {
+            if (nextStart >= probe.length) {
+                return;
+            }
+
+            long end = Math.min(nextStart + rangeSize, probe.length) - 1;
+            HttpRequest.Builder request = HttpRequest.newBuilder(probe.uri)
+                .timeout(readTimeout)
+                .header("Range", "bytes=" + nextStart + "-" + end)
+                .GET();
+            if (probe.etag != null) {
+                request.header("If-Range", probe.etag); // a changed object answers 200 and fails below
+            }
+
+            pending.add(new Range(nextStart, end, client.sendAsync(request.build(), info -> info.statusCode() == 206
+                ? HttpResponse.BodySubscribers.ofPublisher()
+                : HttpResponse.BodySubscribers.replacing(null))));
+            nextStart = end + 1;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (current != null || nextRange()) {
+                int count = current.body.read(target, offset, length);
+                if (count >= 0) {
+                    received += count;
+                    if (received > current.length()) {
+                        throw rangeFailure("sent more than");
+                    }
+                    return count;
+                }
+                if (received < current.length()) {
+                    throw rangeFailure("ended after " + received + " of");
+                }
+                current = null;
+            }
+            return -1;
+        }
+
+        private boolean nextRange() throws IOException {
+            Range next = pending.poll();
+            if (next == null) {
+                return false;
+            }
+
+            HttpResponse<?> response = await(next.response);
+            checkStatus(response, 206);
+            String contentRange = response.headers().firstValue("Content-Range").orElse(null);
+            String expected = "bytes " + next.start + "-" + next.end + "/";
+            if (!(expected + probe.length).equals(contentRange) && !(expected + "*").equals(contentRange)) {
+                close();
+                throw new IOException("Content-Range " + contentRange + " from " + probe.uri
+                    + " does not match the requested bytes " + next.start + "-" + next.end);
+            }
+
+            current = next;
+            received = 0;
+            requestNext();
+            return true;
+        }
+
+        private IOException rangeFailure(String problem) {
+            IOException failure = new IOException("Range " + current.start + "-" + current.end + " from " + probe.uri
+                + " " + problem + " " + current.length() + " bytes");
+            close();
+            return failure;
+        }
+
+        private HttpResponse<?> await(CompletableFuture<? extends HttpResponse<?>> future) throws IOException {
+            try {
+                return future.get(readTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                close();
+                throw new HttpTimeoutException("No response received for " + readTimeout.toMillis() + "ms");
+            } catch (ExecutionException e) {
+                close();
+                Throwable cause = e.getCause();
+                throw cause instanceof IOException io ? io : new IOException("Download failed: " + cause.getMessage(), cause);
+            } catch (InterruptedException e) {
+                close();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while downloading " + probe.uri);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (current != null) {
+                current.cancel();
+                current = null;
+            }
+            for (Range range : pending) {
+                range.cancel();
+            }
+            pending.clear();
+        }
+    }
+
+    /**
+     * One requested range; its body starts buffering as soon as the response headers arrive
+     */
+    private class Range {
+
+        private final long start;
+        private final long end;
+        private final CompletableFuture<HttpResponse<Flow.Publisher<List<ByteBuffer>>>> response;
+        private final BodyStream body = new BodyStream(true);
+
+        Range(long start, long end, CompletableFuture<HttpResponse<Flow.Publisher<List<ByteBuffer>>>> response) {
+            this.start = start;
+            this.end = end;
+            this.response = response;
+            response.thenAccept(received -> {
+                if (received.body() != null) {
+                    received.body().subscribe(body);
+                }
+            });
+        }
+
+        long length() {
+            return end - start + 1;
+        }
+
+        void cancel() {
+            response.cancel(true);
+            body.close();
+        }
+    }
+}
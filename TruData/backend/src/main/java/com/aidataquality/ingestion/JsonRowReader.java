@@ -0,0 +1,95 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.exception.DataQualityException;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * Reads JSON objects token by token into a {@link DatasetBuilder}, one object per row,
+ * so only the current row is ever held in memory. Values of fields that are not selected
+ * are skipped without being built.
+ */
+public class JsonRowReader {
+
+    private final ObjectMapper objectMapper;
+    private final ColumnSelection selection;
+
+    public JsonRowReader(ObjectMapper objectMapper, ColumnSelection selection) {
+        this.objectMapper = objectMapper;
+        this.selection = selection;
+    }
+
+    /**
+     * Read a top-level array of objects (or a single object).
+     * Returns the number of rows, or -1 if the root is neither an array nor an object.
+     */
+    public long readDocument(JsonParser parser, DatasetBuilder builder) throws IOException {
+        JsonToken token = parser.nextToken();
+
+        if (token == JsonToken.START_OBJECT) {
+            readObject(parser, builder);
+            return 1;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            return -1;
+        }
+
+        long rows = 0;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new DataQualityException("Invalid JSON format. Expected an array of objects but found " + token);
+            }
+            readObject(parser, builder);
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Read a sequence of root-level objects, as in JSON Lines, and return the number of rows
+     */
+    public long readLines(JsonParser parser, DatasetBuilder builder) throws IOException {
+        long rows = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new DataQualityException("Invalid JSON Lines format. Expected an object per line but found " + token);
+            }
+            readObject(parser, builder);
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Read one object (parser positioned on its START_OBJECT) as a row
+     */
+    private void readObject(JsonParser parser, DatasetBuilder builder) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (!selection.isAll() && !selection.includes(name)) {
+                parser.skipChildren();
+                continue;
+            }
+            builder.set(builder.addColumn(name), readValue(parser, token));
+        }
+        builder.endRow();
+    }
+
+    private Object readValue(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getNumberValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            // Nested objects and arrays are kept whole (as Map / List) and stored in their string form
+            default -> objectMapper.readValue(parser, Object.class);
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.aidataquality.ingestion;
+
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Parquet {@link InputFile} over a local file, without going through a Hadoop FileSystem
+ */
+final class LocalInputFile implements InputFile {
+
+    private final Path path;
+
+    LocalInputFile(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public long getLength() throws IOException {
+        return Files.size(path);
+    }
+
+    @Override
+    public SeekableInputStream newStream() throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path.toFile(), "r");
+        return new DelegatingSeekableInputStream(Channels.newInputStream(file.getChannel())) {
+            @Override
+            public long getPos() throws IOException {
+                return file.getFilePointer();
+            }
+
+            @Override
+            public void seek(long newPos) throws IOException {
+                file.seek(newPos);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
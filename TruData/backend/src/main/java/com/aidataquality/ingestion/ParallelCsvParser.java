@@ -0,0 +1,376 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parses a CSV file in parallel from memory-mapped chunks.
+ *
+ * The data after the header is cut into nominal chunks whose quote characters are counted
+ * in parallel; a running quote parity then moves every cut to the first line feed outside
+ * quotes. Chunks are parsed independently and appended in file order. If a chunk does not
+ * end on a record boundary (stray quotes fooled the parity count) the file is re-parsed
+ * as a single chunk. Column types are inferred once from the records at the start of the
+ * data and shared by all chunks, so every chunk stores the same columns as numbers.
+ * The delimiter, quote character and header presence are sniffed from the head of the file.
+ * Fields of columns that are not selected are skipped without being decoded.
+ *
+ * {@link #index(Path, ColumnSelection)} reads the file the same way but decodes no fields:
+ * it only records where each record starts, and the returned dataset decodes a column from
+ * the mapped file the first time an analysis asks for it.
+ */
+@Slf4j
+public class ParallelCsvParser {
+
+    private static final int HEADER_WINDOW = 64 * 1024;
+
+    // Bytes after the header searched for the records that column types are inferred from
+    private static final int SAMPLE_WINDOW = 1024 * 1024;
+
+    private final ForkJoinPool pool;
+    private final long chunkSize;
+
+    public ParallelCsvParser(ForkJoinPool pool, long chunkSize) {
+        this.pool = pool;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public Dataset parse(Path file, ColumnSelection selection) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            CsvDialect dialect = sniff(channel, size);
+
+            List<String> headers = new ArrayList<>();
+            long dataStart = readColumnNames(channel, size, dialect, headers);
+            if (headers.isEmpty()) {
+                return new DatasetBuilder().build();
+            }
+
+            boolean[] selected = selection.select(headers);
+            CsvColumnTypes types = sampleTypes(channel, dataStart, size, dialect, selected);
+            long[] boundaries = split(channel, dataStart, size, (byte) dialect.quote());
+            List<Dataset> chunks = parseChunks(channel, boundaries, dialect, headers, selected, types);
+            if (chunks == null) {
+                log.warn("CSV chunk boundaries did not match the quoting, parsing sequentially");
+                chunks = parseChunks(channel, new long[]{dataStart, size}, dialect, headers, selected, types);
+                if (chunks == null) {
+                    throw new IOException("EOF reached before encapsulated token finished");
+                }
+            }
+
+            DatasetBuilder builder = new DatasetBuilder(selectedHeaders(headers, selected));
+            for (Dataset chunk : chunks) {
+                builder.append(chunk);
+            }
+
+            log.debug("Parsed {} CSV chunks in parallel", chunks.size());
+            return builder.build();
+        }
+    }
+
+    /**
+     * Index the records of a CSV file without decoding their fields. The returned dataset keeps
+     * the file mapped and decodes columns on demand; closing it closes the file and deletes it.
+     * Column types are inferred up front exactly as {@link #parse(Path, ColumnSelection)} does.
+     */
+    public Dataset index(Path file, ColumnSelection selection) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            CsvDialect dialect = sniff(channel, size);
+
+            List<String> headers = new ArrayList<>();
+            long dataStart = readColumnNames(channel, size, dialect, headers);
+            boolean[] selected = selection.select(headers);
+            CsvColumnTypes types = sampleTypes(channel, dataStart, size, dialect, selected);
+            long[] boundaries = split(channel, dataStart, size, (byte) dialect.quote());
+            List<int[]> chunks = indexChunks(channel, boundaries, dialect);
+            if (chunks == null) {
+                log.warn("CSV chunk boundaries did not match the quoting, indexing sequentially");
+                boundaries = new long[]{dataStart, size};
+                chunks = indexChunks(channel, boundaries, dialect);
+                if (chunks == null) {
+                    throw new IOException("EOF reached before encapsulated token finished");
+                }
+            }
+
+            List<String> names = selectedHeaders(headers, selected);
+            CsvRecordIndex index = new CsvRecordIndex(pool, channel, file, dialect, headers, names, types,
+                boundaries, chunks);
+            log.debug("Indexed {} CSV records in {} chunks", index.getRecordCount(), chunks.size());
+            return new Dataset(names, index.getRecordCount(), index);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private CsvDialect sniff(FileChannel channel, long size) throws IOException {
+        ByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(CsvDialect.SAMPLE_BYTES, size));
+        byte[] sample = new byte[head.limit()];
+        head.get(sample);
+        return CsvDialect.sniff(sample, sample.length, sample.length == size);
+    }
+
+    /**
+     * Read the column names into headers, generating them for a file without a header, and
+     * return the offset where the data starts
+     */
+    private long readColumnNames(FileChannel channel, long size, CsvDialect dialect,
+                                 List<String> headers) throws IOException {
+        long dataStart = readHeader(channel, size, dialect, headers);
+        if (!dialect.header() && !headers.isEmpty()) {
+            int columnCount = headers.size();
+            headers.clear();
+            headers.addAll(CsvDialect.columnNames(columnCount));
+            dataStart = 0;
+        }
+        return dataStart;
+    }
+
+    /**
+     * Distinct names of the selected columns in file order; repeated names share a column
+     */
+    private static List<String> selectedHeaders(List<String> headers, boolean[] selected) {
+        Set<String> names = new LinkedHashSet<>();
+        for (int i = 0; i < selected.length; i++) {
+            if (selected[i]) {
+                names.add(headers.get(i));
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Read the first non-empty record into headers and return the offset where the data starts
+     */
+    private long readHeader(FileChannel channel, long size, CsvDialect dialect, List<String> headers) throws IOException {
+        CsvRecordParser parser = dialect.newParser();
+        long position = 0;
+        long window = HEADER_WINDOW;
+
+        while (position < size) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(window, size - position));
+            headers.clear();
+            int end = parser.parseRecord(buffer, 0, buffer.limit(), Integer.MAX_VALUE, (index, value) -> headers.add(value));
+
+            if (!parser.isTerminated() && position + buffer.limit() < size) {
+                window = Math.min(window * 2, Integer.MAX_VALUE); // header longer than the window
+                continue;
+            }
+
+            position += end;
+            if (parser.getFieldCount() > 0) {
+                return position;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Infer the column types from up to {@link CsvColumnTypes#SAMPLE_ROWS} complete records
+     * at the start of the data
+     */
+    private CsvColumnTypes sampleTypes(FileChannel channel, long start, long size, CsvDialect dialect,
+                                       boolean[] selected) throws IOException {
+        int columnCount = selected.length;
+        CsvColumnTypes types = new CsvColumnTypes(columnCount);
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SAMPLE_WINDOW, size - start));
+        boolean endOfFile = start + buffer.limit() == size;
+
+        CsvRecordParser parser = dialect.newParser();
+        String[] fields = new String[columnCount];
+        int position = 0;
+        int rows = 0;
+        while (position < buffer.limit() && rows < CsvColumnTypes.SAMPLE_ROWS) {
+            position = parser.parseRecord(buffer, position, buffer.limit(), selected, (index, value) -> fields[index] = value);
+            if (parser.isUnterminatedQuote() || !(parser.isTerminated() || endOfFile)) {
+                break; // the last record is cut off by the window
+            }
+            for (int i = 0; i < parser.getFieldCount() && i < columnCount; i++) {
+                if (selected[i]) {
+                    types.sample(i, fields[i]);
+                }
+            }
+            if (parser.getFieldCount() > 0) {
+                rows++;
+            }
+        }
+        return types.finish();
+    }
+
+    /**
+     * Chunk boundaries in [start, end], each one just after a line feed outside quotes
+     */
+    private long[] split(FileChannel channel, long start, long end, byte quote) throws IOException {
+        long length = end - start;
+        int count = (int) Math.min(Integer.MAX_VALUE - 1, Math.max(1, length / chunkSize));
+        if (count == 1) {
+            return new long[]{start, end};
+        }
+
+        long[] nominal = new long[count + 1];
+        List<Callable<QuoteScan>> scans = new ArrayList<>(count);
+        for (int i = 0; i <= count; i++) {
+            nominal[i] = start + length * i / count;
+        }
+        for (int i = 0; i < count; i++) {
+            long from = nominal[i];
+            long to = nominal[i + 1];
+            scans.add(() -> scan(channel, from, to, quote));
+        }
+        List<QuoteScan> results = ParallelTasks.invokeAll(pool, scans);
+
+        long[] boundaries = new long[count + 1];
+        boundaries[0] = start;
+        boundaries[count] = end;
+        long parity = results.get(0).quotes & 1;
+        for (int i = 1; i < count; i++) {
+            QuoteScan scan = results.get(i);
+            long lineFeed = scan.firstLineFeed[(int) parity];
+            boundaries[i] = lineFeed >= 0 ? nominal[i] + lineFeed + 1 : -1;
+            parity = (parity + scan.quotes) & 1;
+        }
+
+        // A chunk without a usable line feed is merged into the one before it
+        for (int i = count - 1; i > 0; i--) {
+            if (boundaries[i] < 0) {
+                boundaries[i] = boundaries[i + 1];
+            }
+        }
+        return boundaries;
+    }
+
+    private QuoteScan scan(FileChannel channel, long from, long to, byte quote) throws IOException {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        QuoteScan scan = new QuoteScan();
+        int limit = buffer.limit();
+        int parity = 0;
+
+        for (int i = 0; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == quote) {
+                scan.quotes++;
+                parity ^= 1;
+            } else if (b == '\n' && scan.firstLineFeed[parity] < 0) {
+                scan.firstLineFeed[parity] = i;
+            }
+        }
+        return scan;
+    }
+
+    /**
+     * Parse every non-empty chunk in parallel; null if any chunk ends inside a quoted field
+     */
+    private List<Dataset> parseChunks(FileChannel channel, long[] boundaries, CsvDialect dialect, List<String> headers,
+                                      boolean[] selected, CsvColumnTypes types) throws IOException {
+        List<Callable<Dataset>> tasks = new ArrayList<>(boundaries.length);
+        for (int i = 0; i + 1 < boundaries.length; i++) {
+            long from = boundaries[i];
+            long to = boundaries[i + 1];
+            if (to > from) {
+                tasks.add(() -> parseChunk(channel, from, to, dialect, headers, selected, types));
+            }
+        }
+
+        List<Dataset> chunks = ParallelTasks.invokeAll(pool, tasks);
+        return chunks.contains(null) ? null : chunks;
+    }
+
+    private Dataset parseChunk(FileChannel channel, long from, long to, CsvDialect dialect, List<String> headers,
+                               boolean[] selected, CsvColumnTypes types) throws IOException {
+        if (to - from > Integer.MAX_VALUE) {
+            throw new IOException("CSV record larger than 2GB starting at offset " + from);
+        }
+
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        DatasetBuilder builder = new DatasetBuilder();
+        int[] columns = new int[headers.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = selected[i] ? builder.addColumn(headers.get(i)) : -1;
+        }
+
+        CsvRecordParser parser = dialect.newParser();
+        CsvRecordParser.FieldHandler handler = (index, value) -> builder.set(columns[index], types.convert(index, value));
+        int limit = buffer.limit();
+        int position = 0;
+        while (position < limit) {
+            position = parser.parseRecord(buffer, position, limit, selected, handler);
+            if (parser.isUnterminatedQuote()) {
+                return null;
+            }
+            if (parser.getFieldCount() > 0) {
+                builder.endRow();
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Index every non-empty chunk in parallel; null if any chunk ends inside a quoted field
+     */
+    private List<int[]> indexChunks(FileChannel channel, long[] boundaries, CsvDialect dialect) throws IOException {
+        List<Callable<int[]>> tasks = new ArrayList<>(boundaries.length);
+        for (int i = 0; i + 1 < boundaries.length; i++) {
+            long from = boundaries[i];
+            long to = boundaries[i + 1];
+            tasks.add(() -> indexChunk(channel, from, to, dialect));
+        }
+
+        List<int[]> chunks = ParallelTasks.invokeAll(pool, tasks);
+        return chunks.contains(null) ? null : chunks;
+    }
+
+    /**
+     * Start offsets of the non-empty records of a chunk, relative to the chunk
+     */
+    private int[] indexChunk(FileChannel channel, long from, long to, CsvDialect dialect) throws IOException {
+        if (to - from > Integer.MAX_VALUE) {
+            throw new IOException("CSV record larger than 2GB starting at offset " + from);
+        }
+
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        CsvRecordParser parser = dialect.newParser();
+        CsvRecordParser.FieldHandler ignore = (index, value) -> { };
+        int[] offsets = new int[1024];
+        int count = 0;
+        int limit = buffer.limit();
+        int position = 0;
+        while (position < limit) {
+            int start = position;
+            position = parser.parseRecord(buffer, position, limit, 0, ignore);
+            if (parser.isUnterminatedQuote()) {
+                return null;
+            }
+            if (parser.getFieldCount() > 0) {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = start;
+            }
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    /**
+     * Quote count of a nominal chunk and its first line feed at even / odd local quote parity
+     */
+    private static final class QuoteScan {
+        private long quotes;
+        private final long[] firstLineFeed = {-1, -1};
+    }
+}
@@ -0,0 +1,132 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parses a JSON Lines file in parallel. Every line is an independent object, so the
+ * memory-mapped file is cut into blocks that end on a line feed and each block is
+ * parsed on its own; the blocks are appended in file order.
+ */
+@Slf4j
+public class ParallelNdjsonParser {
+
+    private static final int SEARCH_WINDOW = 64 * 1024;
+
+    private final ForkJoinPool pool;
+    private final long chunkSize;
+    private final ObjectMapper objectMapper;
+
+    public ParallelNdjsonParser(ForkJoinPool pool, long chunkSize, ObjectMapper objectMapper) {
+        this.pool = pool;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.objectMapper = objectMapper;
+    }
+
+    public Dataset parse(Path file, ColumnSelection selection) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] boundaries = split(channel, channel.size());
+
+            List<Callable<Dataset>> tasks = new ArrayList<>(boundaries.length);
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                long from = boundaries[i];
+                long to = boundaries[i + 1];
+                if (to > from) {
+                    tasks.add(() -> parseBlock(channel, from, to, selection));
+                }
+            }
+            List<Dataset> blocks = ParallelTasks.invokeAll(pool, tasks);
+
+            DatasetBuilder builder = new DatasetBuilder();
+            for (Dataset block : blocks) {
+                builder.append(block);
+            }
+
+            log.debug("Parsed {} JSON Lines blocks in parallel", blocks.size());
+            return builder.build();
+        }
+    }
+
+    /**
+     * Block boundaries in [0, size], each one just after a line feed
+     */
+    private long[] split(FileChannel channel, long size) throws IOException {
+        int count = (int) Math.min(Integer.MAX_VALUE - 1, Math.max(1, size / chunkSize));
+        long[] boundaries = new long[count + 1];
+        boundaries[count] = size;
+
+        for (int i = 1; i < count; i++) {
+            long nominal = Math.max(size * i / count, boundaries[i - 1]);
+            boundaries[i] = nextLineStart(channel, nominal, size);
+        }
+        return boundaries;
+    }
+
+    private long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        while (position < size) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEARCH_WINDOW, size - position));
+            int limit = buffer.limit();
+            for (int i = 0; i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += limit;
+        }
+        return size;
+    }
+
+    private Dataset parseBlock(FileChannel channel, long from, long to, ColumnSelection selection) throws IOException {
+        if (to - from > Integer.MAX_VALUE) {
+            throw new IOException("JSON line larger than 2GB starting at offset " + from);
+        }
+
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        DatasetBuilder builder = new DatasetBuilder();
+        try (JsonParser parser = objectMapper.getFactory().createParser(new ByteBufferInputStream(buffer))) {
+            new JsonRowReader(objectMapper, selection).readLines(parser, builder);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Lets Jackson read straight from a mapped buffer
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
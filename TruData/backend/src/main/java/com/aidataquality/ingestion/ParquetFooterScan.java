@@ -0,0 +1,225 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Quick look at a Parquet file that answers from the footer where it can.
+ *
+ * Row counts, null counts and numeric min / max of flat columns are summed from the row
+ * group statistics without reading any page. Columns the footer cannot answer for (nested
+ * fields, or row groups written without statistics) are decoded in full, and an optional
+ * sample of leading rows is decoded for checks that need to look at values.
+ */
+public class ParquetFooterScan {
+
+    /**
+     * Footer-derived statistics of one top-level column; min / max are null unless the column is numeric
+     */
+    public record ColumnStatistics(String name, boolean numeric, long nullCount, Double min, Double max) {
+    }
+
+    private final long rowCount;
+    private final List<String> columnNames;
+    private final Map<String, ColumnStatistics> statistics;
+    private final Dataset decoded;
+    private final Dataset sample;
+
+    private ParquetFooterScan(long rowCount, List<String> columnNames, Map<String, ColumnStatistics> statistics,
+                              Dataset decoded, Dataset sample) {
+        this.rowCount = rowCount;
+        this.columnNames = columnNames;
+        this.statistics = statistics;
+        this.decoded = decoded;
+        this.sample = sample;
+    }
+
+    /**
+     * Scan the selected columns of a local file, decoding up to sampleRows leading rows of each (none if zero)
+     */
+    public static ParquetFooterScan scan(Path file, ColumnSelection selection, long sampleRows,
+                                         ForkJoinPool pool) throws IOException {
+        long rowCount = 0;
+        List<String> columnNames = new ArrayList<>();
+        Map<String, ColumnStatistics> statistics = new HashMap<>();
+
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file))) {
+            MessageType schema = reader.getFileMetaData().getSchema();
+            List<BlockMetaData> blocks = reader.getFooter().getBlocks();
+            for (BlockMetaData block : blocks) {
+                rowCount += block.getRowCount();
+            }
+            for (Type field : schema.getFields()) {
+                if (!selection.includes(field.getName())) {
+                    continue;
+                }
+                columnNames.add(field.getName());
+                ColumnStatistics columnStatistics = columnStatistics(field, blocks);
+                if (columnStatistics != null) {
+                    statistics.put(field.getName(), columnStatistics);
+                }
+            }
+        }
+
+        List<String> undecided = new ArrayList<>(columnNames);
+        undecided.removeAll(statistics.keySet());
+        Dataset decoded = undecided.isEmpty()
+            ? Dataset.empty()
+            : new ParquetReader(file, ColumnSelection.only(undecided)).read(pool);
+
+        Dataset sample = Dataset.empty();
+        if (sampleRows > 0) {
+            DatasetBuilder builder = new DatasetBuilder();
+            new ParquetReader(file, selection).read(builder, sampleRows);
+            sample = builder.build();
+        }
+
+        return new ParquetFooterScan(rowCount, columnNames, statistics, decoded, sample);
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * The selected top-level columns in schema order
+     */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Footer statistics of a column, or null if the column had to be decoded instead
+     */
+    public ColumnStatistics getStatistics(String columnName) {
+        return statistics.get(columnName);
+    }
+
+    /**
+     * Every row of the columns the footer could not describe
+     */
+    public Dataset getDecoded() {
+        return decoded;
+    }
+
+    /**
+     * Leading rows of all columns (empty unless a sample was requested)
+     */
+    public Dataset getSample() {
+        return sample;
+    }
+
+    /**
+     * Sum the statistics of a flat column over all row groups; null if any row group lacks them
+     */
+    private static ColumnStatistics columnStatistics(Type field, List<BlockMetaData> blocks) {
+        if (!field.isPrimitive() || field.isRepetition(Type.Repetition.REPEATED)) {
+            return null; // leaf null counts of nested data do not count missing rows
+        }
+
+        PrimitiveType type = field.asPrimitiveType();
+        boolean numeric = isNumeric(type);
+        long nullCount = 0;
+        Double min = null;
+        Double max = null;
+        boolean rangeKnown = numeric;
+
+        for (BlockMetaData block : blocks) {
+            ColumnChunkMetaData chunk = findChunk(block, field.getName());
+            if (chunk == null) {
+                return null;
+            }
+
+            Statistics<?> chunkStatistics = chunk.getStatistics();
+            boolean nullsKnown = chunkStatistics != null && chunkStatistics.isNumNullsSet();
+            if (!nullsKnown && !field.isRepetition(Type.Repetition.REQUIRED)) {
+                return null;
+            }
+            long chunkNulls = nullsKnown ? chunkStatistics.getNumNulls() : 0;
+            nullCount += chunkNulls;
+
+            if (!rangeKnown || chunk.getValueCount() == chunkNulls) {
+                continue; // nothing to compare in an all-null chunk
+            }
+            if (chunkStatistics == null || !chunkStatistics.hasNonNullValue()) {
+                rangeKnown = false;
+                continue;
+            }
+            // Writers widen a floating-point zero bound to -0.0 / +0.0; adding 0.0 folds both to 0.0
+            double chunkMin = toDouble(chunkStatistics.genericGetMin(), type) + 0.0;
+            double chunkMax = toDouble(chunkStatistics.genericGetMax(), type) + 0.0;
+            min = min == null ? chunkMin : Math.min(min, chunkMin);
+            max = max == null ? chunkMax : Math.max(max, chunkMax);
+        }
+
+        return rangeKnown
+            ? new ColumnStatistics(field.getName(), true, nullCount, min, max)
+            : new ColumnStatistics(field.getName(), numeric, nullCount, null, null);
+    }
+
+    private static ColumnChunkMetaData findChunk(BlockMetaData block, String name) {
+        for (ColumnChunkMetaData chunk : block.getColumns()) {
+            String[] path = chunk.getPath().toArray();
+            if (path.length == 1 && path[0].equals(name)) {
+                return chunk;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether {@link ParquetReader} reads the column as numbers (dates and timestamps are not)
+     */
+    private static boolean isNumeric(PrimitiveType type) {
+        LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+        return switch (type.getPrimitiveTypeName()) {
+            case INT32, INT64 -> !(annotation instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation)
+                && !(annotation instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation);
+            case FLOAT, DOUBLE -> true;
+            case BINARY, FIXED_LEN_BYTE_ARRAY -> annotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+            default -> false;
+        };
+    }
+
+    private static double toDouble(Object value, PrimitiveType type) {
+        LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+        boolean unsigned = annotation instanceof LogicalTypeAnnotation.IntLogicalTypeAnnotation integer
+            && !integer.isSigned();
+        int scale = annotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimal
+            ? decimal.getScale() : 0;
+
+        if (value instanceof Integer number) {
+            long longValue = unsigned ? Integer.toUnsignedLong(number) : number;
+            return scale > 0 ? BigDecimal.valueOf(longValue, scale).doubleValue() : longValue;
+        }
+        if (value instanceof Long number) {
+            if (scale > 0) {
+                return BigDecimal.valueOf(number, scale).doubleValue();
+            }
+            return unsigned && number < 0 ? new BigInteger(Long.toUnsignedString(number)).doubleValue() : number;
+        }
+        if (value instanceof Binary binary) {
+            return new BigDecimal(new BigInteger(binary.getBytes()), scale).doubleValue();
+        }
+        return ((Number) value).doubleValue();
+    }
+}
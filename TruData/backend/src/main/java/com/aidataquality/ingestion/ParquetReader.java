@@ -0,0 +1,453 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Reads a local Parquet file into datasets, one top-level field per column.
+ *
+ * Values are pushed from Parquet's record assembly straight into the dataset builder,
+ * converted by logical type (dates and timestamps become Date, decimals BigDecimal, strings
+ * are decoded once per dictionary entry). Nested groups, lists and maps become Map / List
+ * values. Only the projected columns are decoded, and row groups can be decoded in parallel.
+ */
+@Slf4j
+public class ParquetReader {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long JULIAN_EPOCH_DAY = 2_440_588L;
+
+    private final Path file;
+    private final ColumnSelection projection;
+
+    /**
+     * @param projection top-level columns to read
+     */
+    public ParquetReader(Path file, ColumnSelection projection) {
+        this.file = file;
+        this.projection = projection;
+    }
+
+    /**
+     * Read all row groups sequentially into the builder and return the number of rows
+     */
+    public long read(DatasetBuilder builder) throws IOException {
+        return read(builder, Long.MAX_VALUE);
+    }
+
+    /**
+     * Read at most maxRows leading rows into the builder; later row groups are not loaded
+     */
+    public long read(DatasetBuilder builder, long maxRows) throws IOException {
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file))) {
+            MessageType schema = requestedSchema(reader.getFileMetaData().getSchema());
+            reader.setRequestedSchema(schema);
+            addColumns(schema, builder);
+
+            long rows = 0;
+            PageReadStore pages;
+            while (rows < maxRows && (pages = reader.readNextRowGroup()) != null) {
+                rows += readRowGroup(pages, schema, builder, maxRows - rows);
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Decode every row group on the pool and append them in file order
+     */
+    public Dataset read(ForkJoinPool pool) throws IOException {
+        MessageType schema;
+        int rowGroups;
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file))) {
+            schema = requestedSchema(reader.getFileMetaData().getSchema());
+            rowGroups = reader.getRowGroups().size();
+        }
+
+        List<Callable<Dataset>> tasks = new ArrayList<>(rowGroups);
+        for (int i = 0; i < rowGroups; i++) {
+            int rowGroup = i;
+            tasks.add(() -> readRowGroup(rowGroup, schema));
+        }
+        List<Dataset> parts = ParallelTasks.invokeAll(pool, tasks);
+
+        DatasetBuilder builder = new DatasetBuilder();
+        addColumns(schema, builder);
+        for (Dataset part : parts) {
+            builder.append(part);
+        }
+
+        log.debug("Decoded {} Parquet row groups in parallel", rowGroups);
+        return builder.build();
+    }
+
+    private Dataset readRowGroup(int rowGroup, MessageType schema) throws IOException {
+        // Readers are not thread-safe, so every task opens its own
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file))) {
+            reader.setRequestedSchema(schema);
+            DatasetBuilder builder = new DatasetBuilder();
+            addColumns(schema, builder);
+            readRowGroup(reader.readRowGroup(rowGroup), schema, builder, Long.MAX_VALUE);
+            return builder.build();
+        }
+    }
+
+    private long readRowGroup(PageReadStore pages, MessageType schema, DatasetBuilder builder, long maxRows) {
+        RowMaterializer materializer = new RowMaterializer(schema, builder);
+        RecordReader<Void> records = new ColumnIOFactory().getColumnIO(schema).getRecordReader(pages, materializer);
+
+        long rows = Math.min(pages.getRowCount(), maxRows);
+        for (long i = 0; i < rows; i++) {
+            records.read();
+        }
+        return rows;
+    }
+
+    private MessageType requestedSchema(MessageType fileSchema) {
+        if (projection.isAll()) {
+            return fileSchema;
+        }
+
+        List<Type> fields = new ArrayList<>();
+        for (Type field : fileSchema.getFields()) {
+            if (projection.includes(field.getName())) {
+                fields.add(field);
+            }
+        }
+        return new MessageType(fileSchema.getName(), fields);
+    }
+
+    private static void addColumns(MessageType schema, DatasetBuilder builder) {
+        for (Type field : schema.getFields()) {
+            builder.addColumn(field.getName());
+        }
+    }
+
+    /**
+     * Root of the converter tree: one row per record
+     */
+    private static class RowMaterializer extends RecordMaterializer<Void> {
+
+        private final RowConverter root;
+
+        RowMaterializer(MessageType schema, DatasetBuilder builder) {
+            this.root = new RowConverter(schema, builder);
+        }
+
+        @Override
+        public Void getCurrentRecord() {
+            return null;
+        }
+
+        @Override
+        public GroupConverter getRootConverter() {
+            return root;
+        }
+    }
+
+    private static class RowConverter extends GroupConverter {
+
+        private final DatasetBuilder builder;
+        private final Converter[] converters;
+        private final int[] columns;
+        private final List<List<Object>> repeated = new ArrayList<>();
+
+        RowConverter(MessageType schema, DatasetBuilder builder) {
+            this.builder = builder;
+            this.converters = new Converter[schema.getFieldCount()];
+            this.columns = new int[schema.getFieldCount()];
+
+            for (int i = 0; i < converters.length; i++) {
+                Type field = schema.getType(i);
+                int column = builder.addColumn(field.getName());
+                columns[i] = column;
+
+                Consumer<Object> sink;
+                if (field.isRepetition(Type.Repetition.REPEATED)) {
+                    // Legacy repeated fields: collect all occurrences of the row into a list
+                    List<Object> values = new ArrayList<>();
+                    repeated.add(values);
+                    sink = values::add;
+                } else {
+                    repeated.add(null);
+                    sink = value -> builder.set(column, value);
+                }
+                converters[i] = converterFor(field, sink);
+            }
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return converters[fieldIndex];
+        }
+
+        @Override
+        public void start() {
+            for (List<Object> values : repeated) {
+                if (values != null) {
+                    values.clear();
+                }
+            }
+        }
+
+        @Override
+        public void end() {
+            for (int i = 0; i < columns.length; i++) {
+                List<Object> values = repeated.get(i);
+                if (values != null && !values.isEmpty()) {
+                    builder.set(columns[i], new ArrayList<>(values));
+                }
+            }
+            builder.endRow();
+        }
+    }
+
+    private static Converter converterFor(Type field, Consumer<Object> sink) {
+        return field.isPrimitive()
+            ? new ValueConverter(field.asPrimitiveType(), sink)
+            : new NestedConverter(field.asGroupType(), sink);
+    }
+
+    /**
+     * Collects a nested group into a Map, unwrapping LIST and MAP annotated groups into List / Map
+     */
+    private static class NestedConverter extends GroupConverter {
+
+        private final GroupType type;
+        private final Consumer<Object> sink;
+        private final Converter[] converters;
+        private Map<String, Object> current;
+
+        NestedConverter(GroupType type, Consumer<Object> sink) {
+            this.type = type;
+            this.sink = sink;
+            this.converters = new Converter[type.getFieldCount()];
+
+            for (int i = 0; i < converters.length; i++) {
+                Type field = type.getType(i);
+                String name = field.getName();
+                boolean repeatedField = field.isRepetition(Type.Repetition.REPEATED);
+                converters[i] = converterFor(field, value -> put(name, value, repeatedField));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void put(String name, Object value, boolean repeatedField) {
+            if (repeatedField) {
+                ((List<Object>) current.computeIfAbsent(name, key -> new ArrayList<>())).add(value);
+            } else {
+                current.put(name, value);
+            }
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return converters[fieldIndex];
+        }
+
+        @Override
+        public void start() {
+            current = new LinkedHashMap<>();
+        }
+
+        @Override
+        public void end() {
+            sink.accept(simplify(current));
+        }
+
+        private Object simplify(Map<String, Object> group) {
+            LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+            if (annotation instanceof LogicalTypeAnnotation.ListLogicalTypeAnnotation) {
+                List<Object> elements = new ArrayList<>();
+                for (Object entry : repeatedEntries(group)) {
+                    elements.add(entry instanceof Map<?, ?> element && element.size() == 1
+                        ? element.values().iterator().next()
+                        : entry);
+                }
+                return elements;
+            }
+            if (annotation instanceof LogicalTypeAnnotation.MapLogicalTypeAnnotation) {
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (Object entry : repeatedEntries(group)) {
+                    if (entry instanceof Map<?, ?> keyValue) {
+                        map.put(keyValue.get("key"), keyValue.get("value"));
+                    }
+                }
+                return map;
+            }
+            return group;
+        }
+
+        private static List<?> repeatedEntries(Map<String, Object> group) {
+            if (group.size() == 1 && group.values().iterator().next() instanceof List<?> entries) {
+                return entries;
+            }
+            return List.of();
+        }
+    }
+
+    /**
+     * Converts primitive values by their logical type; dictionary entries are converted once
+     */
+    private static class ValueConverter extends PrimitiveConverter {
+
+        private final PrimitiveType type;
+        private final LogicalTypeAnnotation annotation;
+        private final Consumer<Object> sink;
+        private Object[] dictionary;
+
+        ValueConverter(PrimitiveType type, Consumer<Object> sink) {
+            this.type = type;
+            this.annotation = type.getLogicalTypeAnnotation();
+            this.sink = sink;
+        }
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return true;
+        }
+
+        @Override
+        public void setDictionary(Dictionary dictionary) {
+            Object[] values = new Object[dictionary.getMaxId() + 1];
+            for (int id = 0; id < values.length; id++) {
+                values[id] = switch (type.getPrimitiveTypeName()) {
+                    case INT32 -> convertInt(dictionary.decodeToInt(id));
+                    case INT64 -> convertLong(dictionary.decodeToLong(id));
+                    case FLOAT -> dictionary.decodeToFloat(id);
+                    case DOUBLE -> dictionary.decodeToDouble(id);
+                    case BOOLEAN -> dictionary.decodeToBoolean(id);
+                    default -> convertBinary(dictionary.decodeToBinary(id));
+                };
+            }
+            this.dictionary = values;
+        }
+
+        @Override
+        public void addValueFromDictionary(int dictionaryId) {
+            sink.accept(dictionary[dictionaryId]);
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+            sink.accept(value);
+        }
+
+        @Override
+        public void addInt(int value) {
+            sink.accept(convertInt(value));
+        }
+
+        @Override
+        public void addLong(long value) {
+            sink.accept(convertLong(value));
+        }
+
+        @Override
+        public void addFloat(float value) {
+            sink.accept(value);
+        }
+
+        @Override
+        public void addDouble(double value) {
+            sink.accept(value);
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            sink.accept(convertBinary(value));
+        }
+
+        private Object convertInt(int value) {
+            if (annotation instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation) {
+                return new Date(value * MILLIS_PER_DAY);
+            }
+            if (annotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimal) {
+                return BigDecimal.valueOf(value, decimal.getScale());
+            }
+            if (annotation instanceof LogicalTypeAnnotation.IntLogicalTypeAnnotation integer && !integer.isSigned()) {
+                return Integer.toUnsignedLong(value);
+            }
+            return value;
+        }
+
+        private Object convertLong(long value) {
+            if (annotation instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation timestamp) {
+                return switch (timestamp.getUnit()) {
+                    case MILLIS -> new Date(value);
+                    case MICROS -> new Date(Math.floorDiv(value, 1_000L));
+                    case NANOS -> new Date(Math.floorDiv(value, 1_000_000L));
+                };
+            }
+            if (annotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimal) {
+                return BigDecimal.valueOf(value, decimal.getScale());
+            }
+            if (annotation instanceof LogicalTypeAnnotation.IntLogicalTypeAnnotation integer
+                    && !integer.isSigned() && value < 0) {
+                return new BigInteger(Long.toUnsignedString(value));
+            }
+            return value;
+        }
+
+        private Object convertBinary(Binary value) {
+            if (type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.INT96) {
+                return int96ToDate(value);
+            }
+            if (annotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimal) {
+                return new BigDecimal(new BigInteger(value.getBytes()), decimal.getScale());
+            }
+            if (annotation instanceof LogicalTypeAnnotation.UUIDLogicalTypeAnnotation) {
+                ByteBuffer bytes = value.toByteBuffer();
+                return new UUID(bytes.getLong(), bytes.getLong()).toString();
+            }
+            if (annotation == null && type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY) {
+                return HexFormat.of().formatHex(value.getBytes());
+            }
+            // Strings, enums, JSON and un-annotated binary (legacy writers) are read as UTF-8 text
+            return value.toStringUsingUTF8();
+        }
+
+        /**
+         * Legacy Impala/Hive timestamp: nanos of day (8 bytes) then Julian day (4 bytes), little-endian
+         */
+        private static Date int96ToDate(Binary value) {
+            ByteBuffer bytes = value.toByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+            long nanosOfDay = bytes.getLong();
+            long julianDay = bytes.getInt();
+            return new Date((julianDay - JULIAN_EPOCH_DAY) * MILLIS_PER_DAY + nanosOfDay / 1_000_000L);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.aidataquality.ingestion;
+
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream that fails once more than a set number of bytes has been read from it.
+ * Request bodies read directly (not as multipart uploads) bypass the container's upload
+ * limits, so this enforces the same limit while the body is being parsed.
+ */
+public class SizeLimitedInputStream extends FilterInputStream {
+
+    private final long limit;
+    private long count;
+    private long mark;
+
+    public SizeLimitedInputStream(InputStream in, long limit) {
+        super(in);
+        this.limit = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+        super.mark(readLimit);
+        mark = count;
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        super.reset();
+        count = mark;
+    }
+
+    private void count(long bytes) {
+        count += bytes;
+        if (count > limit) {
+            throw new MaxUploadSizeExceededException(limit);
+        }
+    }
+}
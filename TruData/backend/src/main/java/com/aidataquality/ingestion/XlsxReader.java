@@ -0,0 +1,293 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.dataset.DatasetBuilder;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming XLSX reader on POI's event model: sheet XML is parsed with SAX and rows are
+ * written to a {@link DatasetBuilder} as they are read, so memory holds the shared
+ * strings table and one row instead of a whole workbook DOM.
+ * Formula cells contribute their cached results.
+ *
+ * The sheet parts are located when the workbook is opened and the shared strings and styles
+ * are only read afterwards, so different sheets can be read concurrently.
+ */
+public class XlsxReader implements Closeable {
+
+    private final OPCPackage pkg;
+    private final XSSFReader reader;
+    private final SharedStrings sharedStrings;
+    private final StylesTable styles;
+    private final boolean date1904;
+    private final List<String> sheetNames = new ArrayList<>();
+    private final List<PackagePart> sheetParts = new ArrayList<>();
+    private final Map<Integer, Boolean> dateStyles = new ConcurrentHashMap<>();
+
+    private XlsxReader(OPCPackage pkg) throws IOException {
+        this.pkg = pkg;
+        try {
+            this.reader = new XSSFReader(pkg);
+            this.sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            this.styles = reader.getStylesTable();
+            this.date1904 = readDate1904(reader);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream ignored = sheets.next()) {
+                    sheetNames.add(sheets.getSheetName());
+                    sheetParts.add(sheets.getSheetPart());
+                }
+            }
+        } catch (OpenXML4JException | SAXException | IOException e) {
+            pkg.revert();
+            throw new IOException("Invalid XLSX file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Open a workbook from a file; only the parts being read are decompressed
+     */
+    public static XlsxReader open(Path file) throws IOException {
+        try {
+            return new XlsxReader(OPCPackage.open(file.toFile(), PackageAccess.READ));
+        } catch (OpenXML4JException e) {
+            throw new IOException("Invalid XLSX file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Names of the sheets in workbook order
+     */
+    public List<String> getSheetNames() {
+        return Collections.unmodifiableList(sheetNames);
+    }
+
+    /**
+     * Read the selected columns of a sheet whose first row holds the column names; returns the
+     * number of data rows. May be called from several threads at once for different sheets.
+     */
+    public long readSheet(int sheetIndex, ColumnSelection selection, DatasetBuilder builder) throws IOException {
+        if (sheetIndex >= sheetParts.size()) {
+            return 0;
+        }
+        try (InputStream sheet = sheetParts.get(sheetIndex).getInputStream()) {
+            SheetHandler handler = new SheetHandler(selection, builder);
+            parse(sheet, handler);
+            return handler.rows;
+        } catch (SAXException e) {
+            throw new IOException("Invalid XLSX file: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        pkg.revert(); // read-only: release the package without saving
+    }
+
+    private static void parse(InputStream xml, DefaultHandler handler) throws IOException, SAXException {
+        try {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(handler);
+            parser.parse(new InputSource(xml));
+        } catch (ParserConfigurationException e) {
+            throw new IOException("Could not create XML parser", e);
+        }
+    }
+
+    private static boolean readDate1904(XSSFReader reader) throws IOException, OpenXML4JException, SAXException {
+        boolean[] date1904 = {false};
+        try (InputStream workbook = reader.getWorkbookData()) {
+            parse(workbook, new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if ("workbookPr".equals(localName)) {
+                        String value = attributes.getValue("date1904");
+                        date1904[0] = "1".equals(value) || "true".equalsIgnoreCase(value);
+                    }
+                }
+            });
+        }
+        return date1904[0];
+    }
+
+    /**
+     * Zero-based column of an A1-style cell reference ("C12" -> 2)
+     */
+    private static int columnIndex(String reference) {
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    /**
+     * SAX handler for one worksheet: the first row becomes the header, later rows become dataset rows
+     */
+    private class SheetHandler extends DefaultHandler {
+
+        private final ColumnSelection selection;
+        private final DatasetBuilder builder;
+        private final Map<Integer, Integer> columnsByCell = new HashMap<>();
+        private final StringBuilder text = new StringBuilder();
+        private final Map<Integer, String> header = new HashMap<>();
+
+        private boolean headerRead;
+        private long rows;
+
+        private int cellIndex;
+        private String cellType;
+        private String cellStyle;
+        private boolean inValue;
+        private boolean inInlineText;
+        private boolean hasValue;
+
+        SheetHandler(ColumnSelection selection, DatasetBuilder builder) {
+            this.selection = selection;
+            this.builder = builder;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> cellIndex = -1;
+                case "c" -> {
+                    String reference = attributes.getValue("r");
+                    cellIndex = reference != null ? columnIndex(reference) : cellIndex + 1;
+                    cellType = attributes.getValue("t");
+                    cellStyle = attributes.getValue("s");
+                    hasValue = false;
+                    text.setLength(0);
+                }
+                case "v" -> {
+                    inValue = true;
+                    hasValue = true;
+                }
+                case "t" -> {
+                    if ("inlineStr".equals(cellType)) {
+                        inInlineText = true;
+                        hasValue = true;
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue || inInlineText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v" -> inValue = false;
+                case "t" -> inInlineText = false;
+                case "c" -> endCell();
+                case "row" -> endRow();
+                default -> { }
+            }
+        }
+
+        private void endCell() {
+            if (!headerRead) {
+                header.put(cellIndex, headerName(hasValue ? cellValue() : null));
+                return;
+            }
+
+            // Cells outside the selected columns are not converted
+            Integer column = columnsByCell.get(cellIndex);
+            if (column != null) {
+                builder.set(column, hasValue ? cellValue() : null);
+            }
+        }
+
+        private void endRow() {
+            if (!headerRead) {
+                header.entrySet().stream()
+                    .filter(entry -> selection.includes(entry.getValue()))
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> columnsByCell.put(entry.getKey(), builder.addColumn(entry.getValue())));
+                headerRead = true;
+                return;
+            }
+
+            builder.endRow();
+            rows++;
+        }
+
+        /**
+         * Typed value of the current cell: String, Double, Boolean, Date or null (errors)
+         */
+        private Object cellValue() {
+            String raw = text.toString();
+            if (cellType == null || "n".equals(cellType)) {
+                if (raw.isEmpty()) {
+                    return null;
+                }
+                double number = Double.parseDouble(raw);
+                return isDateFormatted(number) ? DateUtil.getJavaDate(number, date1904) : number;
+            }
+
+            return switch (cellType) {
+                case "s" -> sharedStrings.getItemAt(Integer.parseInt(raw.trim())).getString();
+                case "inlineStr", "str" -> raw;
+                case "b" -> "1".equals(raw) || "true".equalsIgnoreCase(raw);
+                default -> null; // "e": error results are treated as missing
+            };
+        }
+
+        private boolean isDateFormatted(double number) {
+            if (cellStyle == null || styles == null || !DateUtil.isValidExcelDate(number)) {
+                return false;
+            }
+            return dateStyles.computeIfAbsent(Integer.parseInt(cellStyle), index -> {
+                XSSFCellStyle style = styles.getStyleAt(index);
+                return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+            });
+        }
+
+        private String headerName(Object value) {
+            if (value == null) {
+                return "";
+            }
+            if (value instanceof Date date) {
+                return String.valueOf(DateUtil.getExcelDate(date, date1904));
+            }
+            return value.toString();
+        }
+    }
+}
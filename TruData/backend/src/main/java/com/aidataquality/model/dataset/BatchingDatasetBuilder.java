@@ -0,0 +1,53 @@
+package com.aidataquality.model.dataset;
+
+/**
+ * Dataset builder that hands off fixed-size row batches to a sink instead of
+ * keeping the whole dataset in memory
+ */
+public class BatchingDatasetBuilder extends DatasetBuilder {
+
+    private final int batchSize;
+    private final DatasetSink sink;
+    private boolean emitted;
+
+    public BatchingDatasetBuilder(int batchSize, DatasetSink sink) {
+        this.batchSize = Math.max(1, batchSize);
+        this.sink = sink;
+    }
+
+    @Override
+    public void endRow() {
+        super.endRow();
+        if (getRowCount() >= batchSize) {
+            emit();
+        }
+    }
+
+    /**
+     * Hand a part that was read as a whole to the sink as its own batch,
+     * after the rows collected before it
+     */
+    @Override
+    public void append(Dataset part) {
+        if (getRowCount() > 0) {
+            emit();
+        }
+        sink.accept(part);
+        emitted = true;
+    }
+
+    /**
+     * Emit the final partial batch. An empty batch is emitted if no rows were read at all,
+     * so the sink still learns the column names.
+     */
+    public void finish() {
+        if (getRowCount() > 0 || !emitted) {
+            emit();
+        }
+    }
+
+    private void emit() {
+        sink.accept(flush());
+        emitted = true;
+    }
+}
@@ -0,0 +1,36 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+
+import java.util.BitSet;
+
+/**
+ * Column of booleans packed into a BitSet
+ */
+public class BooleanColumn extends Column {
+
+    private final BitSet values;
+
+    public BooleanColumn(String name, int size, BitSet values, BitSet nulls) {
+        super(name, size, nulls);
+        this.values = values;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.BOOLEAN;
+    }
+
+    BitSet values() {
+        return values;
+    }
+
+    public boolean getBoolean(int row) {
+        return values.get(row);
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : values.get(row);
+    }
+}
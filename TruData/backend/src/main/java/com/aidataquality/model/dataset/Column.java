@@ -0,0 +1,74 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A single immutable column of a {@link Dataset}, stored in its own typed array
+ */
+public abstract class Column {
+
+    private final String name;
+    private final int size;
+    private final BitSet nulls;
+
+    protected Column(String name, int size, BitSet nulls) {
+        this.name = name;
+        this.size = size;
+        this.nulls = nulls;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Number of rows in the column (including nulls)
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    public long getNullCount() {
+        return nulls.cardinality();
+    }
+
+    BitSet nulls() {
+        return nulls;
+    }
+
+    /**
+     * Physical representation of the column values
+     */
+    public abstract ColumnType getType();
+
+    /**
+     * Boxed value at the given row, or null.
+     * Prefer the typed accessors of subclasses in hot loops.
+     */
+    public abstract Object get(int row);
+
+    /**
+     * String form of the value at the given row, or null
+     */
+    public String getString(int row) {
+        Object value = get(row);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * The column as in-memory columns over consecutive runs of its rows, in row order: the
+     * column itself, or one column per segment of a spilled column, loaded as it is reached.
+     * Each part keeps its typed form (dates, dictionaries), so code that checks for one can
+     * walk the parts like batches.
+     */
+    public Iterable<Column> segments() {
+        return List.of(this);
+    }
+}
@@ -0,0 +1,412 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Growable, self-typing storage for one column while a dataset is being ingested.
+ * The representation is chosen from the first non-null value and widened
+ * (LONG -> DOUBLE, anything -> STRING) when a later value does not fit.
+ * Text is dictionary-encoded while the column has few distinct values.
+ * BigDecimal values are stored as doubles with their scale, so they keep
+ * their text form.
+ */
+class ColumnBuilder {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Distinct values beyond which text is stored as one String per row
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    private final String name;
+    private ColumnType type;
+    private int size;
+    private final BitSet nulls = new BitSet();
+
+    private long[] longs;
+    private double[] doubles;
+    private BitSet booleans;
+
+    // Decimal places of the doubles, once a BigDecimal was stored (see DoubleColumn)
+    private byte[] scales;
+    private String[] strings;
+
+    // Dictionary encoding of text, replaced by strings once it grows past MAX_DICTIONARY_SIZE
+    private int[] codes;
+    private Map<String, Integer> dictionaryIndex;
+    private List<String> dictionary;
+
+    ColumnBuilder(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void appendNull() {
+        ensureCapacity(size + 1);
+        if (codes != null) {
+            codes[size] = DictionaryColumn.NULL_CODE;
+        }
+        nulls.set(size);
+        size++;
+    }
+
+    private void appendNulls(int count) {
+        ensureCapacity(size + count);
+        if (codes != null) {
+            Arrays.fill(codes, size, size + count, DictionaryColumn.NULL_CODE);
+        }
+        nulls.set(size, size + count);
+        size += count;
+    }
+
+    void append(Object value) {
+        if (value == null) {
+            appendNull();
+            return;
+        }
+
+        ColumnType valueType = typeOf(value);
+        if (type == null) {
+            initialize(valueType);
+        } else if (type != valueType) {
+            widen(valueType);
+        }
+
+        ensureCapacity(size + 1);
+        switch (type) {
+            case LONG -> longs[size] = ((Number) value).longValue();
+            case DOUBLE -> setDouble(size, (Number) value);
+            case BOOLEAN -> booleans.set(size, (Boolean) value);
+            case DATE -> longs[size] = ((Date) value).getTime();
+            case STRING -> setString(size, value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString());
+        }
+        size++;
+    }
+
+    private void setDouble(int row, Number value) {
+        doubles[row] = value.doubleValue();
+        if (value instanceof BigDecimal decimal) {
+            trackScales();
+            scales[row] = decimal.scale() >= 0 && decimal.scale() <= DoubleColumn.MAX_DECIMAL_DIGITS
+                    && decimal.precision() <= DoubleColumn.MAX_DECIMAL_DIGITS
+                ? (byte) decimal.scale() : DoubleColumn.UNKNOWN_SCALE;
+        } else if (scales != null) {
+            scales[row] = value instanceof Double || value instanceof Float
+                ? DoubleColumn.UNKNOWN_SCALE : DoubleColumn.integerScale(doubles[row]);
+        }
+    }
+
+    /**
+     * Start keeping scales; the doubles stored so far came from integers if they are whole numbers
+     */
+    private void trackScales() {
+        if (scales != null) {
+            return;
+        }
+        scales = new byte[doubles.length];
+        for (int row = 0; row < size; row++) {
+            scales[row] = DoubleColumn.integerScale(doubles[row]);
+        }
+    }
+
+    /**
+     * Append one value of another column; decimals keep their scale
+     */
+    void appendValue(Column column, int row) {
+        if (column instanceof DoubleColumn source) {
+            BigDecimal decimal = source.getDecimal(row);
+            if (decimal != null) {
+                append(decimal);
+                return;
+            }
+        }
+        append(column.get(row));
+    }
+
+    /**
+     * Append all values of another column, copying whole arrays when the representations match
+     */
+    void appendColumn(Column column) {
+        int count = column.size();
+        if (column.getNullCount() == count) {
+            // A block without values says nothing about the type (it is built as text), so it must not widen
+            appendNulls(count);
+            return;
+        }
+        ColumnType columnType = column.getType();
+        
+        if (type == null) {
+            initialize(columnType);
+        } else if (type != columnType) {
+            widen(columnType);
+        }
+        
+        boolean compatible = type == columnType || (type == ColumnType.DOUBLE && columnType == ColumnType.LONG);
+        if (!compatible) {
+            // Widened to text: values go in their string form, which keeps the scale of decimals
+            for (int row = 0; row < count; row++) {
+                append(type == ColumnType.STRING ? column.getString(row) : column.get(row));
+            }
+            return;
+        }
+        
+        ensureCapacity(size + count);
+        if (type == ColumnType.STRING) {
+            appendStrings(column, count);
+        } else if (column instanceof DateColumn source) {
+            System.arraycopy(source.values(), 0, longs, size, count);
+        } else if (column instanceof DoubleColumn source) {
+            System.arraycopy(source.values(), 0, doubles, size, count);
+            if (source.scales() != null) {
+                trackScales();
+                System.arraycopy(source.scales(), 0, scales, size, count);
+            } else if (scales != null) {
+                Arrays.fill(scales, size, size + count, DoubleColumn.UNKNOWN_SCALE);
+            }
+        } else if (column instanceof LongColumn source && type == ColumnType.DOUBLE) {
+            long[] values = source.values();
+            for (int row = 0; row < count; row++) {
+                doubles[size + row] = values[row];
+                if (scales != null) {
+                    scales[size + row] = DoubleColumn.integerScale(values[row]);
+                }
+            }
+        } else if (column instanceof LongColumn source) {
+            System.arraycopy(source.values(), 0, longs, size, count);
+        } else if (column instanceof BooleanColumn source) {
+            BitSet values = source.values();
+            for (int row = values.nextSetBit(0); row >= 0 && row < count; row = values.nextSetBit(row + 1)) {
+                booleans.set(size + row);
+            }
+        } else {
+            throw new IllegalArgumentException("Cannot append a " + column.getClass().getSimpleName()
+                + " to a " + type + " column");
+        }
+        
+        BitSet columnNulls = column.nulls();
+        for (int row = columnNulls.nextSetBit(0); row >= 0; row = columnNulls.nextSetBit(row + 1)) {
+            nulls.set(size + row);
+        }
+        size += count;
+    }
+
+    /**
+     * Freeze the collected values into an immutable column
+     */
+    Column build() {
+        ColumnType resolved = type != null ? type : ColumnType.STRING;
+        if (type == null) {
+            initialize(ColumnType.STRING);
+            ensureCapacity(size);
+        }
+
+        return switch (resolved) {
+            case LONG -> new LongColumn(name, size, longs, nulls);
+            case DOUBLE -> new DoubleColumn(name, size, doubles, scales, nulls);
+            case BOOLEAN -> new BooleanColumn(name, size, booleans, nulls);
+            case DATE -> new DateColumn(name, size, longs, nulls);
+            case STRING -> buildStrings();
+        };
+    }
+
+    /**
+     * Dictionary column if values repeat enough for the codes to pay off, plain strings otherwise
+     */
+    private Column buildStrings() {
+        if (codes != null && dictionary.size() <= size / 2) {
+            return new DictionaryColumn(name, size, codes, dictionary.toArray(new String[0]), nulls);
+        }
+        if (codes != null) {
+            decodeDictionary(size);
+        }
+        return new StringColumn(name, size, strings, nulls);
+    }
+
+    private void setString(int row, String value) {
+        if (codes != null) {
+            int code = encode(value);
+            if (dictionary.size() <= MAX_DICTIONARY_SIZE) {
+                codes[row] = code;
+                return;
+            }
+            decodeDictionary(row);
+        }
+        strings[row] = value;
+    }
+
+    private int encode(String value) {
+        return dictionaryIndex.computeIfAbsent(value, v -> {
+            dictionary.add(v);
+            return dictionary.size() - 1;
+        });
+    }
+
+    /**
+     * Copy text values; the codes of a dictionary column are translated once per distinct value
+     */
+    private void appendStrings(Column column, int count) {
+        if (codes == null && column instanceof StringColumn source) {
+            System.arraycopy(source.values(), 0, strings, size, count);
+            return;
+        }
+
+        if (codes != null && column instanceof DictionaryColumn source
+                && dictionary.size() + source.getDictionarySize() <= MAX_DICTIONARY_SIZE) {
+            int[] translated = new int[source.getDictionarySize()];
+            for (int code = 0; code < translated.length; code++) {
+                translated[code] = encode(source.getDictionaryValue(code));
+            }
+            int[] sourceCodes = source.codes();
+            for (int row = 0; row < count; row++) {
+                int code = sourceCodes[row];
+                codes[size + row] = code != DictionaryColumn.NULL_CODE ? translated[code] : DictionaryColumn.NULL_CODE;
+            }
+            return;
+        }
+
+        for (int row = 0; row < count; row++) {
+            String value = column.getString(row);
+            if (value != null) {
+                setString(size + row, value);
+            } else if (codes != null) {
+                codes[size + row] = DictionaryColumn.NULL_CODE;
+            }
+        }
+    }
+
+    /**
+     * Switch to one String per row for the given number of leading rows
+     */
+    private void decodeDictionary(int rows) {
+        strings = new String[codes.length];
+        for (int row = 0; row < rows; row++) {
+            if (codes[row] != DictionaryColumn.NULL_CODE) {
+                strings[row] = dictionary.get(codes[row]);
+            }
+        }
+        codes = null;
+        dictionaryIndex = null;
+        dictionary = null;
+    }
+
+    private static ColumnType typeOf(Object value) {
+        if (value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte) {
+            return ColumnType.LONG;
+        }
+        if (value instanceof BigInteger big) {
+            return big.bitLength() < 64 ? ColumnType.LONG : ColumnType.DOUBLE;
+        }
+        if (value instanceof Number) {
+            return ColumnType.DOUBLE;
+        }
+        if (value instanceof Boolean) {
+            return ColumnType.BOOLEAN;
+        }
+        if (value instanceof Date) {
+            return ColumnType.DATE;
+        }
+        return ColumnType.STRING;
+    }
+
+    private void initialize(ColumnType newType) {
+        type = newType;
+        int capacity = Math.max(INITIAL_CAPACITY, size);
+        switch (newType) {
+            case LONG, DATE -> longs = new long[capacity];
+            case DOUBLE -> doubles = new double[capacity];
+            case BOOLEAN -> booleans = new BitSet(capacity);
+            case STRING -> {
+                codes = new int[capacity];
+                Arrays.fill(codes, 0, size, DictionaryColumn.NULL_CODE);
+                dictionaryIndex = new HashMap<>();
+                dictionary = new ArrayList<>();
+            }
+        }
+    }
+
+    /**
+     * Convert the values collected so far to a representation that can hold the new value
+     */
+    private void widen(ColumnType valueType) {
+        if (type == ColumnType.DOUBLE && valueType == ColumnType.LONG) {
+            return; // integers are stored as doubles without conversion
+        }
+
+        if (type == ColumnType.LONG && valueType == ColumnType.DOUBLE) {
+            doubles = new double[longs.length];
+            for (int i = 0; i < size; i++) {
+                doubles[i] = longs[i];
+            }
+            longs = null;
+            type = ColumnType.DOUBLE;
+            return;
+        }
+
+        if (type == ColumnType.STRING) {
+            return; // every value is stored as its string form
+        }
+
+        Column current = build();
+        longs = null;
+        doubles = null;
+        scales = null;
+        booleans = null;
+        initialize(ColumnType.STRING);
+        for (int i = 0; i < size; i++) {
+            if (!current.isNull(i)) {
+                setString(i, current.getString(i));
+            }
+        }
+    }
+
+    private int capacity() {
+        return switch (type) {
+            case LONG, DATE -> longs.length;
+            case DOUBLE -> doubles.length;
+            case BOOLEAN -> Integer.MAX_VALUE;
+            case STRING -> codes != null ? codes.length : strings.length;
+        };
+    }
+
+    private void ensureCapacity(int required) {
+        if (type == null || type == ColumnType.BOOLEAN || required <= capacity()) {
+            return;
+        }
+
+        int newCapacity = Math.max(required, capacity() + (capacity() >> 1));
+        switch (type) {
+            case LONG, DATE -> longs = Arrays.copyOf(longs, newCapacity);
+            case DOUBLE -> {
+                doubles = Arrays.copyOf(doubles, newCapacity);
+                if (scales != null) {
+                    scales = Arrays.copyOf(scales, newCapacity);
+                }
+            }
+            case STRING -> {
+                if (codes != null) {
+                    codes = Arrays.copyOf(codes, newCapacity);
+                } else {
+                    strings = Arrays.copyOf(strings, newCapacity);
+                }
+            }
+            default -> { }
+        }
+    }
+}
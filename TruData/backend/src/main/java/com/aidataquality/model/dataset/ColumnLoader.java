@@ -0,0 +1,18 @@
+package com.aidataquality.model.dataset;
+
+import java.util.List;
+
+/**
+ * Decodes the columns of a lazily loaded {@link Dataset} when they are first asked for.
+ * Closed together with the dataset.
+ */
+public interface ColumnLoader extends AutoCloseable {
+
+    /**
+     * Decode the columns at the given positions, returned in the same order
+     */
+    List<Column> load(int[] columns);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,160 @@
+package com.aidataquality.model.dataset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable columnar, in-memory representation of a tabular dataset.
+ * Column names are held once here instead of being repeated in every row,
+ * and each column keeps its values in a primitive or String array.
+ * Datasets built by {@link SpillingDatasetBuilder} may keep part of their columns on disk,
+ * and lazily loaded datasets decode each column from its source the first time it is asked
+ * for; both should be closed when they are no longer needed.
+ */
+public class Dataset implements AutoCloseable {
+
+    private static final Dataset EMPTY = new Dataset(Collections.emptyList(), 0);
+
+    private final List<String> names;
+    private final Map<String, Integer> indexByName;
+    private final Column[] loaded;
+    private volatile List<Column> columns;
+    private final int rowCount;
+    private final SpillFile spillFile;
+    private final ColumnLoader loader;
+
+    public Dataset(List<Column> columns, int rowCount) {
+        this(columns, rowCount, null);
+    }
+
+    Dataset(List<Column> columns, int rowCount, SpillFile spillFile) {
+        this(names(columns), columns.toArray(new Column[0]), rowCount, spillFile, null);
+    }
+
+    /**
+     * Dataset whose columns are decoded by the loader when they are first asked for
+     */
+    public Dataset(List<String> names, int rowCount, ColumnLoader loader) {
+        this(names, new Column[names.size()], rowCount, null, loader);
+    }
+
+    private Dataset(List<String> names, Column[] loaded, int rowCount, SpillFile spillFile, ColumnLoader loader) {
+        this.names = Collections.unmodifiableList(new ArrayList<>(names));
+        this.indexByName = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            indexByName.putIfAbsent(names.get(i), i);
+        }
+        this.loaded = loaded;
+        this.rowCount = rowCount;
+        this.spillFile = spillFile;
+        this.loader = loader;
+        if (loader == null) {
+            this.columns = Collections.unmodifiableList(Arrays.asList(loaded));
+        }
+    }
+
+    private static List<String> names(List<Column> columns) {
+        List<String> names = new ArrayList<>(columns.size());
+        for (Column column : columns) {
+            names.add(column.getName());
+        }
+        return names;
+    }
+
+    public static Dataset empty() {
+        return EMPTY;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return names.size();
+    }
+
+    public boolean isEmpty() {
+        return rowCount == 0;
+    }
+
+    /**
+     * All columns; a lazily loaded dataset decodes the ones not asked for yet in a single pass
+     */
+    public List<Column> getColumns() {
+        List<Column> all = columns;
+        if (all == null) {
+            synchronized (loaded) {
+                load(IntStream.range(0, loaded.length).toArray());
+                all = columns;
+            }
+        }
+        return all;
+    }
+
+    public Column getColumn(int index) {
+        List<Column> all = columns;
+        if (all != null) {
+            return all.get(index);
+        }
+        Objects.checkIndex(index, loaded.length);
+        synchronized (loaded) {
+            load(new int[]{index});
+            return loaded[index];
+        }
+    }
+
+    /**
+     * Column with the given name, or null if the dataset has no such column
+     */
+    public Column getColumn(String name) {
+        Integer index = indexByName.get(name);
+        return index != null ? getColumn(index) : null;
+    }
+
+    public List<String> getColumnNames() {
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Decode those of the given columns that are still missing; callers hold the lock on loaded
+     */
+    private void load(int[] indexes) {
+        int[] missing = Arrays.stream(indexes).filter(i -> loaded[i] == null).toArray();
+        if (missing.length > 0) {
+            List<Column> decoded = loader.load(missing);
+            for (int i = 0; i < missing.length; i++) {
+                loaded[missing[i]] = decoded.get(i);
+            }
+        }
+        if (Arrays.stream(loaded).allMatch(Objects::nonNull)) {
+            columns = Collections.unmodifiableList(Arrays.asList(loaded));
+        }
+    }
+
+    /**
+     * Spill file holding the segments of a spilled dataset, null otherwise
+     */
+    SpillFile getSpillFile() {
+        return spillFile;
+    }
+
+    /**
+     * Delete the spill file of a spilled dataset or release the source of a lazily loaded one;
+     * nothing to do for in-memory datasets
+     */
+    @Override
+    public void close() {
+        if (spillFile != null) {
+            spillFile.close();
+        }
+        if (loader != null) {
+            loader.close();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.aidataquality.model.dataset;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row-at-a-time builder that writes values straight into per-column storage.
+ * Columns may be declared up front (CSV headers) or discovered while reading (JSON keys);
+ * rows that do not set a column get a null in it.
+ */
+public class DatasetBuilder {
+
+    private final List<ColumnBuilder> columns = new ArrayList<>();
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private int rowCount;
+
+    public DatasetBuilder() {
+    }
+
+    public DatasetBuilder(List<String> columnNames) {
+        for (String columnName : columnNames) {
+            addColumn(columnName);
+        }
+    }
+
+    /**
+     * Index of the named column, adding it (null for all previous rows) if it is new
+     */
+    public int addColumn(String name) {
+        Integer index = columnIndex.get(name);
+        if (index != null) {
+            return index;
+        }
+
+        ColumnBuilder column = new ColumnBuilder(name);
+        for (int i = 0; i < rowCount; i++) {
+            column.appendNull();
+        }
+        columns.add(column);
+        columnIndex.put(name, columns.size() - 1);
+        return columns.size() - 1;
+    }
+
+    /**
+     * Set a value of the current row. Only the first value per column and row is kept.
+     */
+    public void set(int column, Object value) {
+        ColumnBuilder builder = columns.get(column);
+        if (builder.size() == rowCount) {
+            builder.append(value);
+        }
+    }
+
+    public void set(String column, Object value) {
+        set(addColumn(column), value);
+    }
+
+    /**
+     * Complete the current row, filling unset columns with null
+     */
+    public void endRow() {
+        for (ColumnBuilder column : columns) {
+            if (column.size() == rowCount) {
+                column.appendNull();
+            }
+        }
+        rowCount++;
+    }
+
+    public void addRow(Map<String, ?> row) {
+        for (Map.Entry<String, ?> entry : row.entrySet()) {
+            set(entry.getKey(), entry.getValue());
+        }
+        endRow();
+    }
+
+    /**
+     * Append all rows of another dataset after the completed rows of this builder.
+     * Columns are matched by name; must not be called while a row is in progress.
+     */
+    public void append(Dataset part) {
+        for (Column column : part.getColumns()) {
+            columns.get(addColumn(column.getName())).appendColumn(column);
+        }
+        rowCount += part.getRowCount();
+        for (ColumnBuilder column : columns) {
+            while (column.size() < rowCount) {
+                column.appendNull();
+            }
+        }
+    }
+
+    /**
+     * Append the given rows (ascending) of another dataset after the completed rows of this
+     * builder. Columns are matched by name and values copied from their segments, so decimals
+     * keep their scale.
+     */
+    public void appendRows(Dataset part, int[] rows) {
+        for (Column column : part.getColumns()) {
+            ColumnBuilder builder = columns.get(addColumn(column.getName()));
+            int next = 0;
+            int start = 0;
+            for (Column segment : column.segments()) {
+                int end = start + segment.size();
+                for (; next < rows.length && rows[next] < end; next++) {
+                    builder.appendValue(segment, rows[next] - start);
+                }
+                start = end;
+            }
+        }
+        rowCount += rows.length;
+        for (ColumnBuilder column : columns) {
+            while (column.size() < rowCount) {
+                column.appendNull();
+            }
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    /**
+     * Build the rows collected so far and start a new, empty set of rows with the same columns
+     */
+    protected Dataset flush() {
+        Dataset batch = buildRows();
+        columns.replaceAll(column -> new ColumnBuilder(column.getName()));
+        rowCount = 0;
+        return batch;
+    }
+
+    public Dataset build() {
+        return buildRows();
+    }
+
+    private Dataset buildRows() {
+        List<Column> built = new ArrayList<>(columns.size());
+        for (ColumnBuilder column : columns) {
+            built.add(column.build());
+        }
+        return new Dataset(built, rowCount);
+    }
+}
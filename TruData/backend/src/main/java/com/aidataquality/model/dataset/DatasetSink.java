@@ -0,0 +1,13 @@
+package com.aidataquality.model.dataset;
+
+/**
+ * Receiver of row batches produced by a streaming reader
+ */
+@FunctionalInterface
+public interface DatasetSink {
+
+    /**
+     * Consume the next batch. Batches arrive in file order and are not retained by the caller.
+     */
+    void accept(Dataset batch);
+}
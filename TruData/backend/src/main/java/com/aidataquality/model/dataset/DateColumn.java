@@ -0,0 +1,37 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+
+import java.util.BitSet;
+import java.util.Date;
+
+/**
+ * Column of timestamps stored as epoch milliseconds in a long[]
+ */
+public class DateColumn extends Column {
+
+    private final long[] epochMillis;
+
+    public DateColumn(String name, int size, long[] epochMillis, BitSet nulls) {
+        super(name, size, nulls);
+        this.epochMillis = epochMillis;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.DATE;
+    }
+
+    long[] values() {
+        return epochMillis;
+    }
+
+    public long getEpochMillis(int row) {
+        return epochMillis[row];
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : new Date(epochMillis[row]);
+    }
+}
@@ -0,0 +1,73 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+
+import java.util.BitSet;
+
+/**
+ * Column of text values with few distinct values, stored as an int code per row into a
+ * dictionary holding every distinct value once. Null rows have the code {@link #NULL_CODE}.
+ */
+public class DictionaryColumn extends Column {
+
+    public static final int NULL_CODE = -1;
+
+    private final int[] codes;
+    private final String[] dictionary;
+
+    public DictionaryColumn(String name, int size, int[] codes, String[] dictionary, BitSet nulls) {
+        super(name, size, nulls);
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.STRING;
+    }
+
+    int[] codes() {
+        return codes;
+    }
+
+    String[] dictionary() {
+        return dictionary;
+    }
+
+    public int getCode(int row) {
+        return codes[row];
+    }
+
+    public int getDictionarySize() {
+        return dictionary.length;
+    }
+
+    public String getDictionaryValue(int code) {
+        return dictionary[code];
+    }
+
+    /**
+     * Number of rows holding each code, indexed by code
+     */
+    public long[] countCodes() {
+        long[] counts = new long[dictionary.length];
+        for (int row = 0; row < size(); row++) {
+            int code = codes[row];
+            if (code != NULL_CODE) {
+                counts[code]++;
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public Object get(int row) {
+        return getString(row);
+    }
+
+    @Override
+    public String getString(int row) {
+        int code = codes[row];
+        return code != NULL_CODE ? dictionary[code] : null;
+    }
+}
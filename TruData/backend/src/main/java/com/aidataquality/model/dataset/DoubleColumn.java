@@ -0,0 +1,137 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+
+/**
+ * Column of 64-bit floating point numbers backed by a double[]. Numbers read from text
+ * (CSV decimals) keep the number of decimal places they were written with, so their string
+ * form is the text they were read from ("1.50", not "1.5") and a column widened to text
+ * does not rewrite them.
+ */
+public class DoubleColumn extends NumericColumn {
+
+    /**
+     * Most significant digits, and most decimal places, of a decimal whose text can be
+     * rebuilt from its double
+     */
+    public static final int MAX_DECIMAL_DIGITS = 15;
+
+    // Scale of a value without a text form, written as Double.toString does
+    static final byte UNKNOWN_SCALE = -1;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_DECIMAL_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final double[] values;
+
+    // Decimal places of each value as read, or null when no value was read from text
+    private final byte[] scales;
+
+    public DoubleColumn(String name, int size, double[] values, BitSet nulls) {
+        this(name, size, values, null, nulls);
+    }
+
+    DoubleColumn(String name, int size, double[] values, byte[] scales, BitSet nulls) {
+        super(name, size, nulls);
+        this.values = values;
+        this.scales = scales;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.DOUBLE;
+    }
+
+    double[] values() {
+        return values;
+    }
+
+    byte[] scales() {
+        return scales;
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public String getString(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        return scales != null && scales[row] != UNKNOWN_SCALE
+            ? toDecimalString(values[row], scales[row])
+            : Double.toString(values[row]);
+    }
+
+    /**
+     * Value at the given row as the decimal it was read from, or null if it was not read from text
+     */
+    BigDecimal getDecimal(int row) {
+        if (isNull(row) || scales == null || scales[row] == UNKNOWN_SCALE) {
+            return null;
+        }
+        return BigDecimal.valueOf(Math.round(values[row] * POWERS_OF_TEN[scales[row]]), scales[row]);
+    }
+
+    /**
+     * Decimal places the value at the given row was read with, or -1 if it was not read from text
+     */
+    public int getScale(int row) {
+        return isNull(row) || scales == null ? UNKNOWN_SCALE : scales[row];
+    }
+
+    /**
+     * Scale under which a whole number in a column of decimals reads back as it was written
+     */
+    static byte integerScale(double value) {
+        return value == Math.rint(value) && Math.abs(value) < POWERS_OF_TEN[MAX_DECIMAL_DIGITS]
+            ? 0 : UNKNOWN_SCALE;
+    }
+
+    /**
+     * Plain decimal text of a value with the given number of decimal places. Exact for
+     * decimals of up to MAX_DECIMAL_DIGITS digits: the double is within a quarter of a unit
+     * of the last place from the decimal it was parsed from.
+     */
+    public static String toDecimalString(double value, int scale) {
+        long unscaled = Math.round(value * POWERS_OF_TEN[scale]);
+        if (scale == 0) {
+            return Long.toString(unscaled);
+        }
+
+        StringBuilder text = new StringBuilder(MAX_DECIMAL_DIGITS + 3);
+        if (unscaled < 0) {
+            text.append('-');
+            unscaled = -unscaled;
+        }
+        String digits = Long.toString(unscaled);
+        int integerDigits = digits.length() - scale;
+        if (integerDigits > 0) {
+            text.append(digits, 0, integerDigits);
+        } else {
+            text.append('0');
+        }
+        text.append('.');
+        for (int i = integerDigits; i < 0; i++) {
+            text.append('0');
+        }
+        text.append(digits, Math.max(0, integerDigits), digits.length());
+        return text.toString();
+    }
+}
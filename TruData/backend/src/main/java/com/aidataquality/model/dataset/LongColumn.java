@@ -0,0 +1,46 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+
+import java.util.BitSet;
+
+/**
+ * Column of 64-bit integers backed by a long[]
+ */
+public class LongColumn extends NumericColumn {
+
+    private final long[] values;
+
+    public LongColumn(String name, int size, long[] values, BitSet nulls) {
+        super(name, size, nulls);
+        this.values = values;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.LONG;
+    }
+
+    long[] values() {
+        return values;
+    }
+
+    public long getLong(int row) {
+        return values[row];
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public String getString(int row) {
+        return isNull(row) ? null : Long.toString(values[row]);
+    }
+}
@@ -0,0 +1,18 @@
+package com.aidataquality.model.dataset;
+
+import java.util.BitSet;
+
+/**
+ * Base class for columns holding primitive numbers
+ */
+public abstract class NumericColumn extends Column {
+
+    protected NumericColumn(String name, int size, BitSet nulls) {
+        super(name, size, nulls);
+    }
+
+    /**
+     * Value at the given row as a double. Undefined for null rows.
+     */
+    public abstract double getDouble(int row);
+}
@@ -0,0 +1,46 @@
+package com.aidataquality.model.dataset;
+
+import java.util.Map;
+
+/**
+ * Row sample of a dataset that had too many rows to keep, in the order of the source rows.
+ * Remembers what the sample cannot tell: how many rows and nulls the source had, and which
+ * source row each sampled row came from.
+ */
+public class SampledDataset extends Dataset {
+
+    private final long sourceRowCount;
+    private final Map<String, Long> sourceNullCounts;
+    private final long[] sourceRows;
+
+    /**
+     * @param sample           the sampled rows; their spill file, if any, now belongs to this dataset
+     * @param sourceNullCounts nulls per column over all source rows
+     * @param sourceRows       index in the source of each sampled row, ascending
+     */
+    public SampledDataset(Dataset sample, long sourceRowCount,
+                          Map<String, Long> sourceNullCounts, long[] sourceRows) {
+        super(sample.getColumns(), sample.getRowCount(), sample.getSpillFile());
+        this.sourceRowCount = sourceRowCount;
+        this.sourceNullCounts = sourceNullCounts;
+        this.sourceRows = sourceRows;
+    }
+
+    public long getSourceRowCount() {
+        return sourceRowCount;
+    }
+
+    /**
+     * Nulls in the named column over all source rows; a column the source did not have is all null
+     */
+    public long getSourceNullCount(String column) {
+        return sourceNullCounts.getOrDefault(column, sourceRowCount);
+    }
+
+    /**
+     * Index in the source of a row of the sample
+     */
+    public long getSourceRow(int row) {
+        return sourceRows[row];
+    }
+}
@@ -0,0 +1,192 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Binary form of a segment in a spill file. Only non-null rows are written (the null bitmap
+ * stays in memory): 8 bytes per number or timestamp, plus a scale byte per decimal read from
+ * text, the bit words of a boolean column, and a varint length followed by UTF-8 bytes per
+ * string. Dictionary-encoded text is written as its dictionary followed by a varint code per row.
+ */
+final class SegmentCodec {
+
+    // Rough per-object overhead of a String and its backing array
+    private static final int STRING_OVERHEAD = 40;
+
+    private SegmentCodec() {
+    }
+
+    static byte[] encode(Column column) throws IOException {
+        BitSet nulls = column.nulls();
+        int size = column.size();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, 8L * size + 64));
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        switch (column.getType()) {
+            case LONG, DATE -> {
+                long[] values = column instanceof LongColumn longs ? longs.values() : ((DateColumn) column).values();
+                for (int row = nulls.nextClearBit(0); row < size; row = nulls.nextClearBit(row + 1)) {
+                    out.writeLong(values[row]);
+                }
+            }
+            case DOUBLE -> {
+                double[] values = ((DoubleColumn) column).values();
+                byte[] scales = ((DoubleColumn) column).scales();
+                out.writeBoolean(scales != null);
+                for (int row = nulls.nextClearBit(0); row < size; row = nulls.nextClearBit(row + 1)) {
+                    out.writeDouble(values[row]);
+                    if (scales != null) {
+                        out.writeByte(scales[row]);
+                    }
+                }
+            }
+            case BOOLEAN -> {
+                long[] words = ((BooleanColumn) column).values().toLongArray();
+                out.writeInt(words.length);
+                for (long word : words) {
+                    out.writeLong(word);
+                }
+            }
+            case STRING -> {
+                if (column instanceof DictionaryColumn dictionary) {
+                    out.writeBoolean(true);
+                    String[] values = dictionary.dictionary();
+                    writeVarInt(out, values.length);
+                    for (String value : values) {
+                        writeString(out, value);
+                    }
+                    int[] codes = dictionary.codes();
+                    for (int row = nulls.nextClearBit(0); row < size; row = nulls.nextClearBit(row + 1)) {
+                        writeVarInt(out, codes[row]);
+                    }
+                } else {
+                    out.writeBoolean(false);
+                    String[] values = ((StringColumn) column).values();
+                    for (int row = nulls.nextClearBit(0); row < size; row = nulls.nextClearBit(row + 1)) {
+                        writeString(out, values[row]);
+                    }
+                }
+            }
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static Column decode(ByteBuffer buffer, SpillStore.Segment segment) {
+        BitSet nulls = segment.nulls;
+        int size = segment.size;
+
+        return switch (segment.type) {
+            case LONG, DATE -> {
+                long[] values = new long[size];
+                for (int row = nulls.nextClearBit(0); row < size; row = nulls.nextClearBit(row + 1)) {
+                    values[row] = buffer.getLong();
+                }
+                yield segment.type == ColumnType.LONG
+                    ? new LongColumn(segment.name, size, values, nulls)
+                    : new DateColumn(segment.name, size, values, nulls);
+            }
+            case DOUBLE -> {
+                double[] values = new double[size];
+                byte[] scales = buffer.get() != 0 ? new byte[size] : null;
+                for (int row = nulls.nextClearBit(0); row < size; row = nulls.nextClearBit(row + 1)) {
+                    values[row] = buffer.getDouble();
+                    if (scales != null) {
+                        scales[row] = buffer.get();
+                    }
+                }
+                yield new DoubleColumn(segment.name, size, values, scales, nulls);
+            }
+            case BOOLEAN -> {
+                long[] words = new long[buffer.getInt()];
+                buffer.asLongBuffer().get(words);
+                yield new BooleanColumn(segment.name, size, BitSet.valueOf(words), nulls);
+            }
+            case STRING -> {
+                if (buffer.get() != 0) {
+                    String[] dictionary = new String[readVarInt(buffer)];
+                    for (int code = 0; code < dictionary.length; code++) {
+                        dictionary[code] = readString(buffer);
+                    }
+                    int[] codes = new int[size];
+                    Arrays.fill(codes, DictionaryColumn.NULL_CODE);
+                    for (int row = nulls.nextClearBit(0); row < size; row = nulls.nextClearBit(row + 1)) {
+                        codes[row] = readVarInt(buffer);
+                    }
+                    yield new DictionaryColumn(segment.name, size, codes, dictionary, nulls);
+                }
+                String[] values = new String[size];
+                for (int row = nulls.nextClearBit(0); row < size; row = nulls.nextClearBit(row + 1)) {
+                    values[row] = readString(buffer);
+                }
+                yield new StringColumn(segment.name, size, values, nulls);
+            }
+        };
+    }
+
+    /**
+     * Approximate heap footprint of a resident segment, used against the store's budget
+     */
+    static long estimateBytes(Column column) {
+        int size = column.size();
+        long bytes = size / 8 + 64L; // null bitmap and headers
+        return bytes + switch (column.getType()) {
+            case LONG, DATE -> 8L * size;
+            case DOUBLE -> ((DoubleColumn) column).scales() != null ? 9L * size : 8L * size;
+            case BOOLEAN -> size / 8;
+            case STRING -> {
+                String[] values = column instanceof DictionaryColumn dictionary
+                    ? dictionary.dictionary()
+                    : ((StringColumn) column).values();
+                long strings = 4L * size;
+                for (String value : values) {
+                    if (value != null) {
+                        strings += STRING_OVERHEAD + value.length();
+                    }
+                }
+                yield strings;
+            }
+        };
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte next = buffer.get();
+            value |= (next & 0x7f) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Row lookup over the consecutive segments of one spilled column. The segment used last is
+ * cached, so a sequential scan goes back to the store once per segment.
+ */
+final class SegmentIndex {
+
+    /**
+     * Rows [start, end) of the column; column is null where the column was absent (all null)
+     */
+    record Slice(int start, int end, Column column) {
+    }
+
+    private static final Slice NONE = new Slice(0, 0, null);
+
+    private final SpillStore store;
+    private final SpillStore.Segment[] segments;
+    private final int[] starts;
+    private Slice cached = NONE;
+
+    /**
+     * @param segments segment per row run, null where the column had no values
+     * @param starts   first row of each segment, followed by the total row count
+     */
+    SegmentIndex(SpillStore store, SpillStore.Segment[] segments, int[] starts) {
+        this.store = store;
+        this.segments = segments;
+        this.starts = starts;
+    }
+
+    Slice slice(int row) {
+        Slice slice = cached;
+        if (row >= slice.start() && row < slice.end()) {
+            return slice;
+        }
+
+        int index = Arrays.binarySearch(starts, 0, segments.length, row);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        slice = segment(index);
+        cached = slice;
+        return slice;
+    }
+
+    int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Rows of the segment at the given position, loaded from the store
+     */
+    Slice segment(int index) {
+        SpillStore.Segment segment = segments[index];
+        return new Slice(starts[index], starts[index + 1], segment != null ? store.load(segment) : null);
+    }
+
+    /**
+     * Null bitmap of the whole column, assembled from the segment bitmaps kept in memory
+     */
+    BitSet nulls() {
+        BitSet nulls = new BitSet(starts[segments.length]);
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i] == null) {
+                nulls.set(starts[i], starts[i + 1]);
+                continue;
+            }
+            BitSet segmentNulls = segments[i].nulls;
+            for (int row = segmentNulls.nextSetBit(0); row >= 0; row = segmentNulls.nextSetBit(row + 1)) {
+                nulls.set(starts[i] + row);
+            }
+        }
+        return nulls;
+    }
+
+    /**
+     * Type the column would have if it had been built in one piece: integers widen to doubles,
+     * any other mix to strings. Segments without values do not take part.
+     */
+    ColumnType resolveType() {
+        ColumnType resolved = null;
+        for (SpillStore.Segment segment : segments) {
+            if (segment == null || !segment.hasValues() || segment.type == resolved) {
+                continue;
+            }
+            if (resolved == null) {
+                resolved = segment.type;
+            } else if ((resolved == ColumnType.LONG || resolved == ColumnType.DOUBLE)
+                    && (segment.type == ColumnType.LONG || segment.type == ColumnType.DOUBLE)) {
+                resolved = ColumnType.DOUBLE;
+            } else {
+                resolved = ColumnType.STRING;
+            }
+        }
+        return resolved != null ? resolved : ColumnType.STRING;
+    }
+}
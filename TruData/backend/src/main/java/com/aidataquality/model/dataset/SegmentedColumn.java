@@ -0,0 +1,102 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Non-numeric column of a spilled dataset. Values of segments stored in another
+ * representation are returned in their string form when the column resolved to STRING.
+ * Its {@link #segments()} are the typed segment columns, dates and dictionaries included.
+ */
+class SegmentedColumn extends Column {
+
+    private final ColumnType type;
+    private final SegmentIndex index;
+
+    SegmentedColumn(String name, int size, ColumnType type, SegmentIndex index) {
+        super(name, size, index.nulls());
+        this.type = type;
+        this.index = index;
+    }
+
+    /**
+     * Column over the given segments, numeric if all of its values are numbers
+     */
+    static Column of(String name, SpillStore store, SpillStore.Segment[] segments, int[] starts) {
+        SegmentIndex index = new SegmentIndex(store, segments, starts);
+        int size = starts[segments.length];
+        ColumnType type = index.resolveType();
+        return type == ColumnType.LONG || type == ColumnType.DOUBLE
+            ? new SegmentedNumericColumn(name, size, type, index)
+            : new SegmentedColumn(name, size, type, index);
+    }
+
+    @Override
+    public ColumnType getType() {
+        return type;
+    }
+
+    @Override
+    public Object get(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        SegmentIndex.Slice slice = index.slice(row);
+        int local = row - slice.start();
+        return type == ColumnType.STRING ? slice.column().getString(local) : slice.column().get(local);
+    }
+
+    @Override
+    public String getString(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        SegmentIndex.Slice slice = index.slice(row);
+        return slice.column().getString(row - slice.start());
+    }
+
+    @Override
+    public Iterable<Column> segments() {
+        return () -> new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < index.segmentCount();
+            }
+
+            @Override
+            public Column next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return resolve(index.segment(next++));
+            }
+        };
+    }
+
+    /**
+     * Segment column as part of this column: segments of another representation become
+     * their string form, and rows where the column was absent a column of nulls
+     */
+    private Column resolve(SegmentIndex.Slice slice) {
+        Column column = slice.column();
+        if (column != null && column.getType() == type) {
+            return column;
+        }
+
+        int rows = slice.end() - slice.start();
+        String[] values = new String[rows];
+        BitSet nulls = new BitSet(rows);
+        for (int row = 0; row < rows; row++) {
+            values[row] = column != null ? column.getString(row) : null;
+            if (values[row] == null) {
+                nulls.set(row);
+            }
+        }
+        return new StringColumn(getName(), rows, values, nulls);
+    }
+}
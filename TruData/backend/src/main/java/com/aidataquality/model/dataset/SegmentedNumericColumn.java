@@ -0,0 +1,112 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Numeric column of a spilled dataset. A DOUBLE column may contain LONG segments,
+ * whose values are widened on access. Its {@link #segments()} are the segment columns,
+ * so decimals keep the scale they were read with.
+ */
+class SegmentedNumericColumn extends NumericColumn {
+
+    private final ColumnType type;
+    private final SegmentIndex index;
+
+    SegmentedNumericColumn(String name, int size, ColumnType type, SegmentIndex index) {
+        super(name, size, index.nulls());
+        this.type = type;
+        this.index = index;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return type;
+    }
+
+    @Override
+    public Iterable<Column> segments() {
+        return () -> new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < index.segmentCount();
+            }
+
+            @Override
+            public Column next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return resolve(index.segment(next++));
+            }
+        };
+    }
+
+    /**
+     * Segment column as part of this column: LONG segments of a DOUBLE column are widened,
+     * and rows where the column was absent or had no values become a column of nulls
+     */
+    private Column resolve(SegmentIndex.Slice slice) {
+        Column column = slice.column();
+        if (column != null && column.getType() == type) {
+            return column;
+        }
+
+        int rows = slice.end() - slice.start();
+        BitSet nulls = new BitSet(rows);
+        if (!(column instanceof NumericColumn numeric)) {
+            nulls.set(0, rows);
+            return type == ColumnType.DOUBLE
+                ? new DoubleColumn(getName(), rows, new double[rows], nulls)
+                : new LongColumn(getName(), rows, new long[rows], nulls);
+        }
+
+        double[] values = new double[rows];
+        for (int row = 0; row < rows; row++) {
+            if (numeric.isNull(row)) {
+                nulls.set(row);
+            } else {
+                values[row] = numeric.getDouble(row);
+            }
+        }
+        return new DoubleColumn(getName(), rows, values, nulls);
+    }
+
+    @Override
+    public double getDouble(int row) {
+        SegmentIndex.Slice slice = index.slice(row);
+        if (!(slice.column() instanceof NumericColumn numeric)) {
+            throw new IllegalStateException("Row " + row + " of column " + getName() + " is null");
+        }
+        return numeric.getDouble(row - slice.start());
+    }
+
+    @Override
+    public Object get(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        if (type == ColumnType.DOUBLE) {
+            return getDouble(row);
+        }
+        SegmentIndex.Slice slice = index.slice(row);
+        return slice.column().get(row - slice.start());
+    }
+
+    @Override
+    public String getString(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        SegmentIndex.Slice slice = index.slice(row);
+        if (type == ColumnType.DOUBLE && !(slice.column() instanceof DoubleColumn)) {
+            return Double.toString(getDouble(row));
+        }
+        return slice.column().getString(row - slice.start());
+    }
+}
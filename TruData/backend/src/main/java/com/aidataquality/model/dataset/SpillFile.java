@@ -0,0 +1,93 @@
+package com.aidataquality.model.dataset;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only file holding the evicted segments of one dataset. It is created on the first
+ * eviction and deleted when the dataset is closed (or, failing that, when the JVM exits).
+ */
+final class SpillFile implements AutoCloseable {
+
+    private final SpillStore store;
+    private final Path directory;
+    private FileChannel channel;
+    private long end;
+    private boolean closed;
+
+    SpillFile(SpillStore store, Path directory) {
+        this.store = store;
+        this.directory = directory;
+    }
+
+    /**
+     * Store the values of an evicted segment unless an earlier eviction already did, or the
+     * dataset was closed while it was being evicted
+     */
+    synchronized void write(SpillStore.Segment segment, Column column) {
+        if (segment.offset >= 0 || closed) {
+            return; // segments are immutable, the copy on disk is still valid
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(SegmentCodec.encode(column));
+            FileChannel target = channel();
+            segment.offset = end;
+            segment.length = buffer.remaining();
+            while (buffer.hasRemaining()) {
+                end += target.write(buffer, end);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill column " + segment.name, e);
+        }
+    }
+
+    synchronized Column read(SpillStore.Segment segment) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(segment.length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, segment.offset + buffer.position()) < 0) {
+                    throw new EOFException("Spill file ended inside column " + segment.name);
+                }
+            }
+            buffer.flip();
+            return SegmentCodec.decode(buffer, segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read spilled column " + segment.name, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        store.release(this);
+        synchronized (this) {
+            closed = true;
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not delete spill file", e);
+            } finally {
+                channel = null;
+            }
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            Files.createDirectories(directory);
+            Path path = Files.createTempFile(directory, "spill-", ".bin");
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                       StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        return channel;
+    }
+}
@@ -0,0 +1,184 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Memory budget for the column segments of spilled datasets, shared by all requests.
+ * Segments stay in memory while they fit in the budget; the least recently used ones are
+ * written to the spill file of their dataset and read back when they are next needed.
+ * Victims are chosen under the store's lock but written and read outside it, so one
+ * request's disk I/O does not hold up the others.
+ */
+public class SpillStore implements AutoCloseable {
+
+    private final Path directory;
+    private final long memoryBudget;
+
+    // Resident segments in access order, eldest first
+    private final LinkedHashMap<Segment, Boolean> resident = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes;
+
+    public SpillStore(Path directory, long memoryBudget) {
+        this.directory = directory;
+        this.memoryBudget = memoryBudget;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Bytes of segment data currently held in memory
+     */
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    SpillFile newFile() {
+        return new SpillFile(this, directory);
+    }
+
+    /**
+     * Take over a freshly built segment column, which may be spilled from now on
+     */
+    Segment add(SpillFile file, Column column) {
+        Segment segment = new Segment(file, column);
+        List<Eviction> evictions;
+        synchronized (this) {
+            evictions = admit(segment);
+        }
+        spill(evictions);
+        return segment;
+    }
+
+    /**
+     * Column of a segment, read back from its spill file if it was evicted
+     */
+    Column load(Segment segment) {
+        List<Eviction> evictions;
+        Column column;
+        synchronized (this) {
+            column = segment.column;
+            if (column != null && resident.get(segment) != null) {
+                return column; // marked as recently used
+            }
+            // A segment still being written out is taken back as it is
+            evictions = column != null ? admit(segment) : List.of();
+        }
+
+        if (column == null) {
+            // Only evicted segments have no column, and they are on disk by then
+            Column read = segment.file.read(segment);
+            synchronized (this) {
+                column = segment.column;
+                if (column == null) {
+                    column = read;
+                    segment.column = column;
+                    evictions = admit(segment);
+                }
+            }
+        }
+
+        spill(evictions);
+        return column;
+    }
+
+    /**
+     * Forget the segments of a dataset that is being closed
+     */
+    synchronized void release(SpillFile file) {
+        Iterator<Segment> segments = resident.keySet().iterator();
+        while (segments.hasNext()) {
+            Segment segment = segments.next();
+            if (segment.file == file) {
+                residentBytes -= segment.bytes;
+                segment.column = null;
+                segments.remove();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        resident.clear();
+        residentBytes = 0;
+    }
+
+    /**
+     * Make a segment resident and pick the least recently used ones that no longer fit,
+     * which keep their column until {@link #spill} has written them
+     */
+    private List<Eviction> admit(Segment segment) {
+        resident.put(segment, Boolean.TRUE);
+        residentBytes += segment.bytes;
+
+        // The segment just admitted always stays, even if it alone exceeds the budget
+        List<Eviction> evictions = new ArrayList<>();
+        Iterator<Segment> eldest = resident.keySet().iterator();
+        while (residentBytes > memoryBudget && resident.size() > 1) {
+            Segment victim = eldest.next();
+            evictions.add(new Eviction(victim, victim.column));
+            residentBytes -= victim.bytes;
+            eldest.remove();
+        }
+        return evictions;
+    }
+
+    /**
+     * Write evicted segments to their spill files, without holding the store's lock, and
+     * drop their columns unless they were loaded again in the meantime
+     */
+    private void spill(List<Eviction> evictions) {
+        for (Eviction eviction : evictions) {
+            Segment victim = eviction.segment();
+            victim.file.write(victim, eviction.column());
+            synchronized (this) {
+                if (!resident.containsKey(victim)) {
+                    victim.column = null;
+                }
+            }
+        }
+    }
+
+    private record Eviction(Segment segment, Column column) {
+    }
+
+    /**
+     * One column's values for a run of consecutive rows. The null bitmap is small and always
+     * kept in memory; the values are either resident or stored at offset in the spill file.
+     */
+    static final class Segment {
+
+        final SpillFile file;
+        final String name;
+        final ColumnType type;
+        final int size;
+        final BitSet nulls;
+        final long bytes;
+
+        Column column;
+        long offset = -1;
+        int length;
+
+        private Segment(SpillFile file, Column column) {
+            this.file = file;
+            this.name = column.getName();
+            this.type = column.getType();
+            this.size = column.size();
+            this.nulls = column.nulls();
+            this.bytes = SegmentCodec.estimateBytes(column);
+            this.column = column;
+        }
+
+        boolean hasValues() {
+            return nulls.cardinality() < size;
+        }
+    }
+}
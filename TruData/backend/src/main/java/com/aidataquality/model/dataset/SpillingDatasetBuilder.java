@@ -0,0 +1,137 @@
+package com.aidataquality.model.dataset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dataset builder that cuts the rows into segments of a fixed number of rows and hands
+ * them to a {@link SpillStore}, which writes cold segments to disk once its memory budget
+ * is used up. The built dataset reads spilled segments back on access and must be closed
+ * to delete its spill file. Data that fits in a single segment is built in memory as usual.
+ */
+public class SpillingDatasetBuilder extends DatasetBuilder {
+
+    private final SpillStore store;
+    private final int segmentRows;
+
+    // Segments of each column in row order, null where the column was absent
+    private final Map<String, List<SpillStore.Segment>> segments = new LinkedHashMap<>();
+    private final List<Integer> starts = new ArrayList<>();
+    private int storedRows;
+
+    // First segment, kept out of the store until a second one shows the data is large
+    private Dataset first;
+    private SpillFile file;
+
+    public SpillingDatasetBuilder(SpillStore store, int segmentRows) {
+        this.store = store;
+        this.segmentRows = Math.max(1, segmentRows);
+    }
+
+    @Override
+    public void endRow() {
+        super.endRow();
+        if (super.getRowCount() >= segmentRows) {
+            addSegment(flush());
+        }
+    }
+
+    /**
+     * Append a parsed part as its own segment (without copying its columns)
+     */
+    @Override
+    public void append(Dataset part) {
+        if (super.getRowCount() > 0) {
+            addSegment(flush());
+        }
+        addSegment(part);
+    }
+
+    /**
+     * Copied rows are cut into segments like rows that are set one by one
+     */
+    @Override
+    public void appendRows(Dataset part, int[] rows) {
+        for (int from = 0; from < rows.length; ) {
+            int to = Math.min(rows.length, from + segmentRows - super.getRowCount());
+            super.appendRows(part, Arrays.copyOfRange(rows, from, to));
+            if (super.getRowCount() >= segmentRows) {
+                addSegment(flush());
+            }
+            from = to;
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return storedRows + (first != null ? first.getRowCount() : 0) + super.getRowCount();
+    }
+
+    @Override
+    public Dataset build() {
+        Dataset last = flush();
+        addSegment(last);
+        if (file == null) {
+            return first != null ? first : last;
+        }
+
+        int[] rowStarts = new int[starts.size() + 1];
+        for (int i = 0; i < starts.size(); i++) {
+            rowStarts[i] = starts.get(i);
+        }
+        rowStarts[starts.size()] = storedRows;
+
+        List<Column> columns = new ArrayList<>(segments.size());
+        for (Map.Entry<String, List<SpillStore.Segment>> entry : segments.entrySet()) {
+            SpillStore.Segment[] columnSegments = entry.getValue().toArray(new SpillStore.Segment[0]);
+            columns.add(SegmentedColumn.of(entry.getKey(), store, columnSegments, rowStarts));
+        }
+        return new Dataset(columns, storedRows, file);
+    }
+
+    /**
+     * Drop the segments collected so far, for a read that failed before the dataset was built
+     */
+    public void discard() {
+        first = null;
+        if (file != null) {
+            file.close();
+        }
+    }
+
+    private void addSegment(Dataset segment) {
+        if (segment.isEmpty()) {
+            return;
+        }
+        if (first == null && file == null) {
+            first = segment;
+            return;
+        }
+        if (first != null) {
+            file = store.newFile();
+            Dataset held = first;
+            first = null;
+            store(held);
+        }
+        store(segment);
+    }
+
+    private void store(Dataset segment) {
+        int count = starts.size();
+        for (Column column : segment.getColumns()) {
+            segments.computeIfAbsent(column.getName(), name -> new ArrayList<>(Collections.nCopies(count, null)))
+                    .add(store.add(file, column));
+        }
+        for (List<SpillStore.Segment> columnSegments : segments.values()) {
+            if (columnSegments.size() == count) {
+                columnSegments.add(null);
+            }
+        }
+        starts.add(storedRows);
+        storedRows += segment.getRowCount();
+    }
+}
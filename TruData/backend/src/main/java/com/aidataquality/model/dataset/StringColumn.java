@@ -0,0 +1,37 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+
+import java.util.BitSet;
+
+/**
+ * Column of text values backed by a String[]
+ */
+public class StringColumn extends Column {
+
+    private final String[] values;
+
+    public StringColumn(String name, int size, String[] values, BitSet nulls) {
+        super(name, size, nulls);
+        this.values = values;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.STRING;
+    }
+
+    String[] values() {
+        return values;
+    }
+
+    @Override
+    public Object get(int row) {
+        return values[row];
+    }
+
+    @Override
+    public String getString(int row) {
+        return values[row];
+    }
+}
@@ -25,6 +25,9 @@ public class ColumnProfile {
     private Double nullPercentage;
     private Double uniquePercentage;
     
+    // Relative standard error of uniqueCount when it was estimated; absent when counted exactly
+    private Double uniqueCountError;
+    
     // Statistical metrics for numeric columns
     private Double mean;
     private Double median;
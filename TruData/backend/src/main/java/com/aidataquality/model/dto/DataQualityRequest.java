@@ -9,6 +9,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -43,5 +44,28 @@ public class DataQualityRequest {
     
     @JsonProperty("dataUrl")
     private String dataUrl;
+    
+    @JsonProperty("streaming")
+    @Builder.Default
+    private Boolean streaming = false;
+    
+    @JsonProperty("quickCheck")
+    @Builder.Default
+    private Boolean quickCheck = false;
+    
+    @JsonProperty("stratifyBy")
+    private String stratifyBy;
+    
+    // Sheets of an uploaded XLSX workbook to analyze ("*" for all); only the first sheet when empty
+    @JsonProperty("sheets")
+    private List<String> sheets;
+    
+    // Columns to analyze, all when empty; the others are skipped while the data is parsed
+    @JsonProperty("includeColumns")
+    private List<String> includeColumns;
+    
+    // Columns to leave out of the analysis
+    @JsonProperty("excludeColumns")
+    private List<String> excludeColumns;
 }
 
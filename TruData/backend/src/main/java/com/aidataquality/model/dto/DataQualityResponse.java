@@ -55,5 +55,24 @@ public class DataQualityResponse {
     
     @JsonProperty("processingTimeMs")
     private Long processingTimeMs;
+    
+    @JsonProperty("quickCheck")
+    private Boolean quickCheck;
+    
+    @JsonProperty("skippedChecks")
+    private List<String> skippedChecks;
+    
+    @JsonProperty("sampled")
+    private Boolean sampled;
+    
+    @JsonProperty("sampleSize")
+    private Long sampleSize;
+    
+    @JsonProperty("estimatedMetrics")
+    private List<String> estimatedMetrics;
+    
+    // Per-sheet results of a multi-sheet workbook analysis; the fields above then roll up all sheets
+    @JsonProperty("sheets")
+    private Map<String, DataQualityResponse> sheets;
 }
 
@@ -0,0 +1,12 @@
+package com.aidataquality.model.enums;
+
+/**
+ * Enumeration of physical column representations in a dataset
+ */
+public enum ColumnType {
+    LONG,       // 64-bit integers
+    DOUBLE,     // 64-bit floating point
+    BOOLEAN,    // bit-packed booleans
+    DATE,       // epoch milliseconds
+    STRING      // text (and anything without a primitive representation)
+}
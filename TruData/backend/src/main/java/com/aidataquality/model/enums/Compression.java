@@ -0,0 +1,36 @@
+package com.aidataquality.model.enums;
+
+import java.util.List;
+
+/**
+ * Enumeration of compression wrappers that uploads may arrive in
+ */
+public enum Compression {
+    NONE(List.of()),
+    GZIP(List.of("gz", "gzip")),
+    ZSTD(List.of("zst", "zstd")),
+    ZIP(List.of("zip"));        // archive: the first file entry is read
+
+    private final List<String> extensions;
+
+    Compression(List<String> extensions) {
+        this.extensions = extensions;
+    }
+
+    /**
+     * File name without a trailing compression extension ("data.csv.gz" -> "data.csv")
+     */
+    public static String stripExtension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0) {
+            return filename;
+        }
+        String extension = filename.substring(dot + 1).toLowerCase();
+        for (Compression compression : values()) {
+            if (compression.extensions.contains(extension)) {
+                return filename.substring(0, dot);
+            }
+        }
+        return filename;
+    }
+}
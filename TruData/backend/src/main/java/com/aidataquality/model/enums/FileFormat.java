@@ -6,8 +6,31 @@ package com.aidataquality.model.enums;
 public enum FileFormat {
     CSV,
     JSON,
+    NDJSON,
     XLSX,
     PARQUET,
-    UNKNOWN
-}
+    ARROW,
+    UNKNOWN;
+
+    /**
+     * Format implied by a file name, looking through a compression extension ("data.csv.gz" is CSV)
+     */
+    public static FileFormat fromFilename(String filename) {
+        if (filename == null) {
+            return UNKNOWN;
+        }
 
+        String name = Compression.stripExtension(filename);
+        String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase();
+
+        return switch (extension) {
+            case "csv", "tsv", "tab", "psv" -> CSV;
+            case "json" -> JSON;
+            case "jsonl", "ndjson" -> NDJSON;
+            case "xlsx", "xls" -> XLSX;
+            case "parquet" -> PARQUET;
+            case "arrow", "arrows", "feather", "ipc" -> ARROW;
+            default -> UNKNOWN;
+        };
+    }
+}
@@ -1,5 +1,8 @@
 package com.aidataquality.service;
 
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DictionaryColumn;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -20,7 +23,7 @@ public class BiasDetectionService {
     /**
      * Detect potential bias in dataset
      */
-    public Map<String, Object> detectBias(List<Map<String, Object>> data) {
+    public Map<String, Object> detectBias(Dataset data) {
         Map<String, Object> biasReport = new HashMap<>();
         
         if (data == null || data.isEmpty()) {
@@ -29,27 +32,35 @@ public class BiasDetectionService {
             return biasReport;
         }
         
-        boolean biasDetected = false;
-        List<String> findings = new ArrayList<>();
-        
-        // Check for sensitive attributes
-        Set<String> columns = data.get(0).keySet();
-        List<String> sensitiveColumns = new ArrayList<>();
-        
-        for (String column : columns) {
-            if (isSensitiveAttribute(column)) {
-                sensitiveColumns.add(column);
-                biasDetected = true;
+        // Analyze distribution of sensitive attributes
+        Map<String, Map<String, Long>> distributions = new LinkedHashMap<>();
+        for (Column column : data.getColumns()) {
+            if (isSensitiveAttribute(column.getName())) {
+                Map<String, Long> distribution = new HashMap<>();
+                updateDistribution(distribution, column);
+                distributions.put(column.getName(), distribution);
             }
         }
         
+        return buildBiasReport(distributions);
+    }
+
+    /**
+     * Build the bias report from value distributions of the sensitive columns
+     */
+    public Map<String, Object> buildBiasReport(Map<String, Map<String, Long>> distributions) {
+        Map<String, Object> biasReport = new HashMap<>();
+        
+        boolean biasDetected = !distributions.isEmpty();
+        List<String> findings = new ArrayList<>();
+        List<String> sensitiveColumns = new ArrayList<>(distributions.keySet());
+        
         if (!sensitiveColumns.isEmpty()) {
             findings.add("Sensitive attributes detected: " + String.join(", ", sensitiveColumns));
             findings.add("These columns may introduce bias in ML models");
             
-            // Analyze distribution of sensitive attributes
             for (String column : sensitiveColumns) {
-                Map<String, Long> distribution = analyzeDistribution(data, column);
+                Map<String, Long> distribution = distributions.get(column);
                 if (isImbalanced(distribution)) {
                     findings.add("Imbalanced distribution in '" + column + "': " + distribution);
                 }
@@ -69,7 +80,7 @@ public class BiasDetectionService {
     /**
      * Check if column name suggests sensitive attribute
      */
-    private boolean isSensitiveAttribute(String columnName) {
+    public boolean isSensitiveAttribute(String columnName) {
         String normalized = columnName.toLowerCase().replaceAll("[_\\s-]", "");
         
         for (String sensitive : SENSITIVE_ATTRIBUTES) {
@@ -82,18 +93,33 @@ public class BiasDetectionService {
     }
 
     /**
-     * Analyze distribution of values in a column
+     * Add the values of a column (or of one batch of it) to its distribution
      */
-    private Map<String, Long> analyzeDistribution(List<Map<String, Object>> data, String column) {
-        Map<String, Long> distribution = new HashMap<>();
+    public void updateDistribution(Map<String, Long> distribution, Column column) {
+        for (Column segment : column.segments()) {
+            updateSegmentDistribution(distribution, segment);
+        }
+    }
+
+    private void updateSegmentDistribution(Map<String, Long> distribution, Column column) {
+        if (column instanceof DictionaryColumn dictionary) {
+            long[] counts = dictionary.countCodes();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    distribution.merge(dictionary.getDictionaryValue(code), counts[code], Long::sum);
+                }
+            }
+            if (column.getNullCount() > 0) {
+                distribution.merge("null", column.getNullCount(), Long::sum);
+            }
+            return;
+        }
         
-        for (Map<String, Object> row : data) {
-            Object value = row.get(column);
-            String key = value != null ? value.toString() : "null";
+        for (int row = 0; row < column.size(); row++) {
+            String value = column.getString(row);
+            String key = value != null ? value : "null";
             distribution.put(key, distribution.getOrDefault(key, 0L) + 1);
         }
-        
-        return distribution;
     }
 
     /**
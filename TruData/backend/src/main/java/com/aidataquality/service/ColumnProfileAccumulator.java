@@ -0,0 +1,391 @@
+package com.aidataquality.service;
+
+import com.aidataquality.config.DataQualityProperties;
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.DateColumn;
+import com.aidataquality.model.dataset.DictionaryColumn;
+import com.aidataquality.model.dataset.DoubleColumn;
+import com.aidataquality.model.dataset.NumericColumn;
+import com.aidataquality.model.dto.ColumnProfile;
+import com.aidataquality.util.Hashing;
+import com.aidataquality.util.HeavyHitters;
+import com.aidataquality.util.HyperLogLog;
+import com.aidataquality.util.LongCountMap;
+import com.aidataquality.util.LongHashSet;
+import com.aidataquality.util.NumberParser;
+import com.aidataquality.util.NumericSummary;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass profile of one column: null counts, per-value frequencies, type evidence and
+ * numeric statistics are all gathered in one walk over the values, and the column type is
+ * resolved when the profile is finished. Fed batch by batch in streaming mode and with a
+ * whole column otherwise. Keeps only per-value frequencies and a summary of the numeric
+ * values, never the rows themselves. Distinct values beyond the exact threshold are counted
+ * by a fixed-size HyperLogLog sketch (64KB by default) instead of being kept, with the most
+ * frequent text values tracked in a Space-Saving summary, and numbers beyond the quantile
+ * threshold by a quantile sketch.
+ */
+public class ColumnProfileAccumulator {
+
+    private final DataProfilingService profilingService;
+    private final String columnName;
+    private final int distinctThreshold;
+    private final int distinctPrecision;
+    private final int heavyHitters;
+
+    private long totalCount;
+    private long nullCount;
+    private long numericCount;
+    private long dateCount;
+    
+    // Frequencies of text values; replaced once there are more distinct values than distinctThreshold
+    // by textSketch for the unique count and frequentValues for the most frequent ones
+    private Map<String, Long> valueCounts = new HashMap<>();
+    private HyperLogLog textSketch;
+    private HeavyHitters frequentValues;
+    
+    // Frequencies of the values of numeric batches, keyed by their double bits;
+    // replaced by numberSketch once there are more distinct numbers than distinctThreshold
+    private LongCountMap numberCounts = new LongCountMap();
+    private HyperLogLog numberSketch;
+    
+    // Decimal places (plus one) each counted decimal was first read with, for its text form
+    // should the column turn out mixed; dropped along with numberCounts
+    private LongCountMap numberScales = new LongCountMap();
+    
+    // Distinct instants of date batches, whose text form only has seconds; likewise replaced by dateSketch
+    private LongHashSet dateValues = new LongHashSet();
+    private HyperLogLog dateSketch;
+    private final NumericSummary numericStats;
+    
+    // Kinds of batches seen; a column typed differently across batches is text once materialized
+    private boolean numericBatches;
+    private boolean unscaledDecimals;
+    private boolean textBatches;
+    private boolean dateBatches;
+
+    ColumnProfileAccumulator(DataProfilingService profilingService, String columnName,
+                             DataQualityProperties.Profiling profiling) {
+        this.profilingService = profilingService;
+        this.columnName = columnName;
+        this.distinctThreshold = profiling.isApproximateDistinct() ? profiling.getDistinctThreshold() : Integer.MAX_VALUE;
+        this.distinctPrecision = profiling.getDistinctPrecision();
+        this.heavyHitters = profiling.getHeavyHitters();
+        this.numericStats = new NumericSummary(profiling.getQuantileThreshold(), profiling.getQuantileSketchSize(),
+            DataProfilingService.OUTLIER_LIMIT);
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    /**
+     * Account for rows in which the column was absent
+     */
+    public void addNulls(long count) {
+        totalCount += count;
+        nullCount += count;
+    }
+
+    /**
+     * Add the values of one batch of the column, segment by segment for a spilled column
+     */
+    public void accept(Column column) {
+        for (Column segment : column.segments()) {
+            acceptSegment(segment);
+        }
+    }
+
+    private void acceptSegment(Column column) {
+        if (column instanceof DictionaryColumn dictionary) {
+            acceptCodes(dictionary);
+            return;
+        }
+        
+        NumericColumn numericColumn = column instanceof NumericColumn n ? n : null;
+        DoubleColumn decimalColumn = column instanceof DoubleColumn d ? d : null;
+        DateColumn dateColumn = column instanceof DateColumn d ? d : null;
+        if (numericColumn != null) {
+            numericBatches = true;
+        } else if (column.getNullCount() < column.size()) {
+            textBatches |= dateColumn == null;
+            dateBatches |= dateColumn != null;
+        }
+        
+        for (int row = 0; row < column.size(); row++) {
+            totalCount++;
+            if (column.isNull(row)) {
+                nullCount++;
+                continue;
+            }
+            
+            // Count by the same representation the materialized column would use,
+            // so batches typed differently (e.g. Boolean vs String) agree on distinct values
+            if (numericColumn != null) {
+                double number = numericColumn.getDouble(row);
+                long bits = Double.doubleToLongBits(number);
+                addNumber(bits);
+                if (decimalColumn != null) {
+                    addScale(bits, decimalColumn.getScale(row));
+                }
+                numericCount++;
+                numericStats.add(number);
+                continue;
+            }
+            
+            Object value = column.get(row);
+            String text = value.toString();
+            if (dateColumn != null) {
+                addDate(dateColumn.getEpochMillis(row));
+            }
+            
+            boolean numeric = profilingService.isNumeric(value);
+            double number = 0;
+            if (numeric) {
+                number = value instanceof Number n ? n.doubleValue() : NumberParser.parseDouble(text);
+                numericCount++;
+                numericStats.add(number);
+            }
+            addText(text, 1, numeric, number);
+            
+            if (profilingService.isDate(text)) {
+                dateCount++;
+            }
+        }
+    }
+
+    private void addNumber(long bits) {
+        if (numberSketch != null) {
+            numberSketch.add(Hashing.finalizeHash(bits));
+            return;
+        }
+        
+        numberCounts.add(bits, 1);
+        if (numberCounts.size() > distinctThreshold) {
+            HyperLogLog sketch = new HyperLogLog(distinctPrecision);
+            numberCounts.forEach((key, count) -> sketch.add(Hashing.finalizeHash(key)));
+            numberSketch = sketch;
+            numberCounts = null;
+            numberScales = null;
+        }
+    }
+
+    private void addScale(long bits, int scale) {
+        if (scale < 0) {
+            unscaledDecimals = true;
+        } else if (numberScales != null && numberScales.get(bits) == 0) {
+            numberScales.add(bits, scale + 1);
+        }
+    }
+
+    /**
+     * Count occurrences of a text value. Past the threshold only its hash goes to the sketch,
+     * numeric text hashed as its number so it matches the numbers of a mixed column.
+     */
+    private void addText(String value, long count, boolean numeric, double number) {
+        if (textSketch != null) {
+            textSketch.add(numeric ? numberHash(number) : Hashing.hash64(value));
+            frequentValues.add(value, count);
+            return;
+        }
+        
+        valueCounts.merge(value, count, Long::sum);
+        if (valueCounts.size() > distinctThreshold) {
+            HyperLogLog sketch = new HyperLogLog(distinctPrecision);
+            HeavyHitters summary = new HeavyHitters(heavyHitters);
+            valueCounts.forEach((text, textCount) -> {
+                sketch.add(textHash(text));
+                summary.add(text, textCount);
+            });
+            textSketch = sketch;
+            frequentValues = summary;
+            valueCounts = null;
+        }
+    }
+
+    private long textHash(String value) {
+        return profilingService.isNumeric(value)
+            ? numberHash(NumberParser.parseDouble(value))
+            : Hashing.hash64(value);
+    }
+
+    private static long numberHash(double number) {
+        return Hashing.finalizeHash(Double.doubleToLongBits(number));
+    }
+
+    private void addDate(long epochMillis) {
+        if (dateSketch != null) {
+            dateSketch.add(Hashing.finalizeHash(epochMillis));
+            return;
+        }
+        
+        dateValues.add(epochMillis);
+        if (dateValues.size() > distinctThreshold) {
+            HyperLogLog sketch = new HyperLogLog(distinctPrecision);
+            dateValues.forEach(value -> sketch.add(Hashing.finalizeHash(value)));
+            dateSketch = sketch;
+            dateValues = null;
+        }
+    }
+
+    /**
+     * Add a dictionary-encoded batch: values are counted, parsed and date-checked once per code
+     */
+    private void acceptCodes(DictionaryColumn column) {
+        textBatches |= column.getNullCount() < column.size();
+        long[] counts = column.countCodes();
+        double[] numbers = new double[counts.length];
+        boolean[] numeric = new boolean[counts.length];
+        
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] == 0) continue;
+            
+            String value = column.getDictionaryValue(code);
+            if (profilingService.isNumeric(value)) {
+                numbers[code] = NumberParser.parseDouble(value);
+                numeric[code] = true;
+                numericCount += counts[code];
+            }
+            addText(value, counts[code], numeric[code], numbers[code]);
+            
+            if (profilingService.isDate(value)) {
+                dateCount += counts[code];
+            }
+        }
+        
+        // Numeric values go in row order, as outliers are reported in the order they were added
+        for (int row = 0; row < column.size(); row++) {
+            int code = column.getCode(row);
+            if (code != DictionaryColumn.NULL_CODE && numeric[code]) {
+                numericStats.add(numbers[code]);
+            }
+        }
+        
+        totalCount += column.size();
+        nullCount += column.getNullCount();
+    }
+
+    /**
+     * Build the final profile from everything accumulated so far
+     */
+    public ColumnProfile finish() {
+        ColumnProfile.ColumnProfileBuilder builder = ColumnProfile.builder();
+        builder.columnName(columnName);
+        
+        boolean mixed = numericBatches && (textBatches || dateBatches);
+        Map<String, Long> counts = mixed ? countsByText() : textCounts();
+        HyperLogLog sketch = distinctSketch(mixed);
+        long uniqueCount;
+        if (sketch != null) {
+            uniqueCount = Math.min(sketch.estimate(), totalCount - nullCount);
+        } else if (mixed) {
+            uniqueCount = counts.size();
+        } else if (dateBatches && !textBatches) {
+            uniqueCount = dateValues.size();
+        } else {
+            uniqueCount = valueCounts.size() + numberCounts.size();
+        }
+        profilingService.applyCountStatistics(builder, totalCount, nullCount, uniqueCount);
+        if (sketch != null) {
+            builder.uniqueCountError(sketch.relativeError());
+        }
+        
+        String dataType = profilingService.resolveDataType(numericCount, dateCount, totalCount - nullCount);
+        builder.dataType(dataType);
+        
+        if ("NUMERIC".equals(dataType)) {
+            profilingService.applyNumericStatistics(numericStats, builder);
+        } else {
+            // Numbers only reach here mixed with text, otherwise the column resolves as numeric
+            profilingService.applyCategoricalStatistics(counts, builder);
+        }
+        
+        List<String> issues = profilingService.detectQualityIssues(dataType, nullCount, totalCount, uniqueCount);
+        if (sketch != null && looksAllDistinct(sketch, uniqueCount)) {
+            issues.add("Nearly all values are unique (possibly an identifier)");
+        }
+        builder.qualityIssues(issues);
+        return builder.build();
+    }
+
+    /**
+     * Text value counts: exact, or the upper bounds of the most frequent values once there
+     * were too many values to count
+     */
+    private Map<String, Long> textCounts() {
+        return valueCounts != null ? valueCounts : frequentValues.counts();
+    }
+
+    /**
+     * The sketch standing in for the values that decide the unique count when there were too
+     * many of them to keep, or null when the count is exact. A mixed column combines its
+     * numbers and its text, whichever of them is sketched taking in the other; numeric text
+     * hashes as its number, the two reading the same once the column is materialized as text.
+     */
+    private HyperLogLog distinctSketch(boolean mixed) {
+        if (mixed) {
+            if (numberSketch == null && textSketch == null) {
+                return null;
+            }
+            HyperLogLog sketch = new HyperLogLog(distinctPrecision);
+            if (numberSketch != null) {
+                sketch.merge(numberSketch);
+            } else {
+                numberCounts.forEach((bits, count) -> sketch.add(Hashing.finalizeHash(bits)));
+            }
+            if (textSketch != null) {
+                sketch.merge(textSketch);
+            } else {
+                valueCounts.keySet().forEach(value -> sketch.add(textHash(value)));
+            }
+            return sketch;
+        }
+        if (textBatches) {
+            return textSketch;
+        }
+        return dateBatches ? dateSketch : numberSketch;
+    }
+
+    /**
+     * Whether an estimate is within two standard errors of one distinct value per non-null
+     * value, where a sketch cannot tell the column apart from an all-distinct one. The unique
+     * count stays the estimate; the column is only flagged as a likely identifier.
+     */
+    private boolean looksAllDistinct(HyperLogLog sketch, long uniqueCount) {
+        long nonNullCount = totalCount - nullCount;
+        return uniqueCount < nonNullCount && uniqueCount >= nonNullCount * (1 - 2 * sketch.relativeError());
+    }
+
+    /**
+     * Value counts keyed by text, the form a column has once a value that does not parse
+     * turned it from numbers to text. Numbers then read as their text form; once they are
+     * only sketched, the counts are those of the text values alone, and once the text values
+     * are too, those of the most frequent ones.
+     */
+    private Map<String, Long> countsByText() {
+        Map<String, Long> byText = new HashMap<>();
+        if (numberCounts != null) {
+            numberCounts.forEach((bits, count) -> byText.merge(numberText(bits), count, Long::sum));
+        }
+        textCounts().forEach((value, count) -> byText.merge(value, count, Long::sum));
+        return byText;
+    }
+
+    /**
+     * Text of a number as the materialized column reads it: decimals with the decimal places
+     * they were read with ("1.50"), integers without a fraction, and doubles that were not
+     * read from text (nor integers stored next to them) as Double.toString writes them
+     */
+    private String numberText(long bits) {
+        double number = Double.longBitsToDouble(bits);
+        long scale = numberScales.get(bits) - 1;
+        if (scale >= 0) {
+            return DoubleColumn.toDecimalString(number, (int) scale);
+        }
+        return unscaledDecimals || number != Math.rint(number) ? Double.toString(number) : Long.toString((long) number);
+    }
+}
@@ -0,0 +1,74 @@
+package com.aidataquality.service;
+
+import com.aidataquality.config.DataQualityProperties;
+import com.aidataquality.ingestion.ParallelTasks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs independent per-column work of one request on the shared processing pool.
+ * At most profiling.parallelism columns of a request are worked on at a time: that many
+ * workers each claim the next column as soon as they finish one, so a slow column does not
+ * hold up the rest. Results come back in column order whatever order they finish in.
+ */
+@Component
+@RequiredArgsConstructor
+public class ColumnTaskRunner {
+
+    private final ForkJoinPool dataProcessingPool;
+    private final DataQualityProperties properties;
+
+    /**
+     * Apply the task to every column and return the results in the order of the columns
+     */
+    public <C, T> List<T> map(List<C> columns, Function<C, T> task) {
+        int workers = Math.min(columns.size(), parallelism());
+        if (workers <= 1) {
+            List<T> results = new ArrayList<>(columns.size());
+            for (C column : columns) {
+                results.add(task.apply(column));
+            }
+            return results;
+        }
+
+        Object[] results = new Object[columns.size()];
+        AtomicInteger next = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            tasks.add(() -> {
+                for (int i = next.getAndIncrement(); i < results.length; i = next.getAndIncrement()) {
+                    results[i] = task.apply(columns.get(i));
+                }
+                return null;
+            });
+        }
+
+        try {
+            ParallelTasks.invokeAll(dataProcessingPool, tasks);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> ordered = (List<T>) new ArrayList<>(Arrays.asList(results));
+        return ordered;
+    }
+
+    /**
+     * Columns of one request worked on at a time; 0 configured means the pool's parallelism
+     */
+    private int parallelism() {
+        int configured = properties.getProfiling().getParallelism();
+        return configured > 0 ? configured : dataProcessingPool.getParallelism();
+    }
+}
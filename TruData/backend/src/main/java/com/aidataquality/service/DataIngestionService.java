@@ -1,26 +1,55 @@
 package com.aidataquality.service;
 
+import com.aidataquality.config.DataQualityProperties;
 import com.aidataquality.exception.DataQualityException;
 import com.aidataquality.exception.UnsupportedFileFormatException;
+import com.aidataquality.ingestion.ArrowReader;
+import com.aidataquality.ingestion.ColumnSelection;
+import com.aidataquality.ingestion.CsvColumnTypes;
+import com.aidataquality.ingestion.CsvDialect;
+import com.aidataquality.ingestion.CsvStreamReader;
+import com.aidataquality.ingestion.DecompressingInput;
+import com.aidataquality.ingestion.HttpDownloader;
+import com.aidataquality.ingestion.JsonRowReader;
+import com.aidataquality.ingestion.ParallelTasks;
+import com.aidataquality.ingestion.ParallelCsvParser;
+import com.aidataquality.ingestion.ParallelNdjsonParser;
+import com.aidataquality.ingestion.ParquetFooterScan;
+import com.aidataquality.ingestion.ParquetReader;
+import com.aidataquality.ingestion.SizeLimitedInputStream;
+import com.aidataquality.ingestion.XlsxReader;
+import com.aidataquality.model.dataset.BatchingDatasetBuilder;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.aidataquality.model.dataset.DatasetSink;
+import com.aidataquality.model.dataset.SampledDataset;
+import com.aidataquality.model.dataset.SpillStore;
+import com.aidataquality.model.dataset.SpillingDatasetBuilder;
+import com.aidataquality.model.enums.Compression;
 import com.aidataquality.model.enums.FileFormat;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.opencsv.CSVReader;
-import com.opencsv.exceptions.CsvException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
-import java.net.URL;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Service for ingesting data from various sources and formats
@@ -31,236 +60,750 @@ import java.util.*;
 public class DataIngestionService {
 
     private final ObjectMapper objectMapper;
+    private final DataQualityProperties properties;
+    private final ForkJoinPool dataProcessingPool;
+    private final HttpClient dataDownloadClient;
+    private final SpillStore spillStore;
 
     /**
-     * Ingest data from a file upload
+     * Ingest data from a file upload. Data with more rows than max-rows-to-process comes back
+     * as a {@link SampledDataset}, stratified by the named column if there is one.
      */
-    public List<Map<String, Object>> ingestFromFile(MultipartFile file) {
+    public Dataset ingestFromFile(MultipartFile file, ColumnSelection selection, String stratifyBy) {
+        FileFormat format = FileFormat.fromFilename(file.getOriginalFilename());
+        boolean large = file.getSize() >= properties.getParsing().getParallelThreshold().toBytes();
+        boolean parallel = format == FileFormat.PARQUET
+            || (large && (format == FileFormat.CSV || format == FileFormat.NDJSON));
+        if (parallel && fitsInMemory(file) && !isCompressed(file)) {
+            return limitRows(readParallel(file, format, selection), stratifyBy);
+        }
+        
+        return ingest(builder -> readFile(file, selection, builder), stratifyBy);
+    }
+
+    /**
+     * Stream a file upload to the sink in fixed-size row batches, without materializing the dataset.
+     * Returns the row sample to analyze instead if there were more rows than max-rows-to-process,
+     * otherwise null.
+     */
+    public Dataset streamFromFile(MultipartFile file, ColumnSelection selection, String stratifyBy, DatasetSink sink) {
+        return stream(builder -> readFile(file, selection, builder), stratifyBy, sink);
+    }
+
+    /**
+     * Ingest the selected sheets of an uploaded workbook concurrently, handing each sheet's
+     * dataset to the analysis before it is closed. Results are keyed by sheet name in workbook order.
+     */
+    public <T> Map<String, T> ingestSheets(MultipartFile file, List<String> sheets, ColumnSelection selection,
+                                           String stratifyBy, BiFunction<String, Dataset, T> analysis) {
+        return readSheets(file, sheets, selection, (sheet, reader) -> {
+            try (Dataset data = ingest(reader, stratifyBy)) {
+                return analysis.apply(sheet, data);
+            }
+        });
+    }
+
+    /**
+     * Stream the selected sheets of an uploaded workbook concurrently, each to a sink of its own.
+     * The analysis gets the sheet's sink and its row sample, or null if the sheet was not sampled.
+     */
+    public <S extends DatasetSink, T> Map<String, T> streamSheets(MultipartFile file, List<String> sheets,
+                                                                  ColumnSelection selection, String stratifyBy,
+                                                                  Supplier<S> sinks, BiFunction<S, Dataset, T> analysis) {
+        return readSheets(file, sheets, selection, (sheet, reader) -> {
+            S sink = sinks.get();
+            try (Dataset sample = stream(reader, stratifyBy, sink)) {
+                return analysis.apply(sink, sample);
+            }
+        });
+    }
+
+    /**
+     * Ingest data from a URL
+     */
+    public Dataset ingestFromUrl(String urlString, ColumnSelection selection, String stratifyBy) {
+        return ingest(builder -> readUrl(urlString, selection, builder), stratifyBy);
+    }
+
+    /**
+     * Stream data from a URL to the sink in fixed-size row batches
+     */
+    public Dataset streamFromUrl(String urlString, ColumnSelection selection, String stratifyBy, DatasetSink sink) {
+        return stream(builder -> readUrl(urlString, selection, builder), stratifyBy, sink);
+    }
+
+    /**
+     * Ingest a request body as it arrives; the filename names its format and compression
+     */
+    public Dataset ingestFromStream(InputStream body, String filename, ColumnSelection selection, String stratifyBy) {
+        return ingest(builder -> readBody(body, filename, selection, builder), stratifyBy);
+    }
+
+    /**
+     * Stream a request body to the sink in fixed-size row batches as it arrives
+     */
+    public Dataset streamFromStream(InputStream body, String filename, ColumnSelection selection,
+                                    String stratifyBy, DatasetSink sink) {
+        return stream(builder -> readBody(body, filename, selection, builder), stratifyBy, sink);
+    }
+
+    /**
+     * Ingest data from inline JSON payload
+     */
+    public Dataset ingestFromInlineData(String jsonData, ColumnSelection selection, String stratifyBy) {
+        return ingest(builder -> readInlineData(jsonData, selection, builder), stratifyBy);
+    }
+
+    /**
+     * Stream an inline JSON payload to the sink in fixed-size row batches
+     */
+    public Dataset streamFromInlineData(String jsonData, ColumnSelection selection, String stratifyBy,
+                                        DatasetSink sink) {
+        return stream(builder -> readInlineData(jsonData, selection, builder), stratifyBy, sink);
+    }
+
+    /**
+     * Run a reader into a new builder. With spilling enabled, large datasets are built in
+     * segments that the spill store may move to disk; the caller must close the dataset.
+     * With a row limit the rows pass through a {@link RowSampler} in batches, so rows beyond
+     * the limit are only kept if they are drawn into the sample.
+     */
+    private Dataset ingest(Consumer<DatasetBuilder> reader, String stratifyBy) {
+        long maxRows = properties.getMaxRowsToProcess();
+        if (maxRows <= 0) {
+            DatasetBuilder builder = newBuilder();
+            try {
+                reader.accept(builder);
+                return builder.build();
+            } catch (RuntimeException e) {
+                discard(builder);
+                throw e;
+            }
+        }
+        
+        RowSampler sampler = newSampler(stratifyBy, null);
+        try {
+            BatchingDatasetBuilder builder = new BatchingDatasetBuilder(ingestBatchRows(), sampler);
+            reader.accept(builder);
+            builder.finish();
+            return sampler.finish();
+        } catch (RuntimeException e) {
+            sampler.discard();
+            throw e;
+        }
+    }
+
+    /**
+     * Run a reader into the sink in batches. With a row limit the batches also go to a
+     * {@link RowSampler}, which stops forwarding them once the limit is passed; the sample is
+     * returned for analysis in place of what the sink saw. Returns null if every row went to the sink.
+     *
+     * Rows up to the limit are thus both analyzed as they arrive and kept, since any of them may
+     * end up in the sample; when the limit is passed the streamed analysis of those rows is
+     * wasted, at most max-rows-to-process rows analyzed twice. Waiting for the end of the data
+     * before analyzing would avoid that, but would no longer overlap parsing and analysis.
+     */
+    private Dataset stream(Consumer<DatasetBuilder> reader, String stratifyBy, DatasetSink sink) {
+        int batchSize = properties.getStreaming().getBatchSize();
+        if (properties.getMaxRowsToProcess() <= 0) {
+            BatchingDatasetBuilder builder = new BatchingDatasetBuilder(batchSize, sink);
+            reader.accept(builder);
+            builder.finish();
+            return null;
+        }
+        
+        RowSampler sampler = newSampler(stratifyBy, sink);
         try {
-            String filename = file.getOriginalFilename();
-            FileFormat format = detectFileFormat(filename);
+            BatchingDatasetBuilder builder = new BatchingDatasetBuilder(batchSize, sampler);
+            reader.accept(builder);
+            builder.finish();
+        } catch (RuntimeException e) {
+            sampler.discard();
+            throw e;
+        }
+        if (!sampler.isSampled()) {
+            sampler.discard();
+            return null;
+        }
+        log.info("Streamed {} rows, more than max-rows-to-process; analyzing the row sample instead", sampler.getRowCount());
+        return sampler.finish();
+    }
+
+    /**
+     * Sample a dataset that was parsed whole, if it has more rows than max-rows-to-process
+     */
+    private Dataset limitRows(Dataset data, String stratifyBy) {
+        long maxRows = properties.getMaxRowsToProcess();
+        if (maxRows <= 0 || data.getRowCount() <= maxRows) {
+            return data;
+        }
+        
+        try (data) {
+            RowSampler sampler = newSampler(stratifyBy, null);
+            sampler.accept(data);
+            return sampler.finish();
+        }
+    }
+
+    private RowSampler newSampler(String stratifyBy, DatasetSink forward) {
+        return new RowSampler(sampleSize(), stratifyBy, this::newBuilder, forward);
+    }
+
+    private int sampleSize() {
+        return (int) Math.min(properties.getMaxRowsToProcess(), Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * Builder for a dataset held by the service: spillable segments when spilling is enabled
+     */
+    private DatasetBuilder newBuilder() {
+        return properties.getSpill().isEnabled()
+            ? new SpillingDatasetBuilder(spillStore, properties.getSpill().getSegmentRows())
+            : new DatasetBuilder();
+    }
+
+    private void discard(DatasetBuilder builder) {
+        if (builder instanceof SpillingDatasetBuilder spilling) {
+            spilling.discard();
+        }
+    }
+
+    /**
+     * Rows per batch handed to the sampler while ingesting: a whole spill segment when spilling,
+     * since each batch is stored as one
+     */
+    private int ingestBatchRows() {
+        return properties.getSpill().isEnabled()
+            ? properties.getSpill().getSegmentRows()
+            : properties.getStreaming().getBatchSize();
+    }
+
+    /**
+     * Parallel parsing holds the whole parsed file in memory at once, so uploads larger than
+     * the spill budget are read sequentially into spillable segments instead
+     */
+    private boolean fitsInMemory(MultipartFile file) {
+        return !properties.getSpill().isEnabled() || file.getSize() <= spillStore.getMemoryBudget();
+    }
+
+    /**
+     * Summarize an uploaded Parquet file from its footer statistics, decoding only what the footer cannot answer
+     */
+    public ParquetFooterScan scanParquetFromFile(MultipartFile file, ColumnSelection selection, long sampleRows) {
+        Path spooled = null;
+        try (DecompressingInput input = DecompressingInput.open(file.getInputStream(), file.getOriginalFilename())) {
+            log.info("Scanning Parquet footer of file: {}", file.getOriginalFilename());
+            spooled = spool(file, input);
+            return scanParquet(spooled, selection, sampleRows);
+        } catch (IOException e) {
+            throw new DataQualityException("Error reading Parquet file: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+
+    /**
+     * Download a Parquet file and summarize it from its footer statistics
+     */
+    public ParquetFooterScan scanParquetFromUrl(String urlString, ColumnSelection selection, long sampleRows) {
+        Path spooled = null;
+        URI uri = parseUrl(urlString);
+        try (DecompressingInput input = DecompressingInput.open(openUrl(uri), filenameOf(uri))) {
+            log.info("Scanning Parquet footer of URL: {}", urlString);
+            spooled = spool(input.getStream());
+            return scanParquet(spooled, selection, sampleRows);
+        } catch (IOException e) {
+            throw new DataQualityException("Error downloading file from URL: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+
+    /**
+     * Summarize a Parquet request body from its footer statistics
+     */
+    public ParquetFooterScan scanParquetFromStream(InputStream body, String filename, ColumnSelection selection,
+                                                   long sampleRows) {
+        Path spooled = null;
+        try (DecompressingInput input = DecompressingInput.open(limitUpload(body), filename)) {
+            log.info("Scanning Parquet footer of streamed upload: {}", filename);
+            spooled = spool(input.getStream());
+            return scanParquet(spooled, selection, sampleRows);
+        } catch (IOException e) {
+            throw new DataQualityException("Error reading Parquet upload: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+
+    private ParquetFooterScan scanParquet(Path spooled, ColumnSelection selection, long sampleRows) throws IOException {
+        ParquetFooterScan scan = ParquetFooterScan.scan(spooled, selection, sampleRows, dataProcessingPool);
+        
+        log.info("Read footer statistics of {} rows, decoded {} of {} columns",
+                 scan.getRowCount(), scan.getDecoded().getColumnCount(), scan.getColumnNames().size());
+        return scan;
+    }
+
+    private void readInlineData(String jsonData, ColumnSelection selection, DatasetBuilder builder) {
+        log.info("Ingesting inline JSON data");
+        
+        try (JsonParser parser = objectMapper.getFactory().createParser(jsonData)) {
+            if (new JsonRowReader(objectMapper, selection).readDocument(parser, builder) < 0) {
+                throw new DataQualityException("Invalid JSON format. Expected array or object.");
+            }
+        } catch (IOException e) {
+            throw new DataQualityException("Error parsing inline JSON data: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read an uploaded file into the builder
+     */
+    private void readFile(MultipartFile file, ColumnSelection selection, DatasetBuilder builder) {
+        try (DecompressingInput input = DecompressingInput.open(file.getInputStream(), file.getOriginalFilename())) {
+            FileFormat format = FileFormat.fromFilename(input.getFilename());
+            
+            log.info("Ingesting file: {} with format: {} (compression: {})",
+                     file.getOriginalFilename(), format, input.getCompression());
             
-            log.info("Ingesting file: {} with format: {}", filename, format);
+            if (format == FileFormat.XLSX || format == FileFormat.PARQUET) {
+                // Zip and Parquet files need random access, so they are read from a spooled copy
+                Path spooled = spool(file, input);
+                try {
+                    readSpooled(spooled, format, selection, builder);
+                } finally {
+                    deleteQuietly(spooled);
+                }
+                return;
+            }
             
-            return switch (format) {
-                case CSV -> ingestCSV(file.getInputStream());
-                case JSON -> ingestJSON(file.getInputStream());
-                case XLSX -> ingestXLSX(file.getInputStream());
-                case PARQUET -> ingestParquet(file.getInputStream());
+            switch (format) {
+                case CSV -> readCSV(input.getStream(), selection, builder);
+                case JSON -> readJSON(input.getStream(), selection, builder);
+                case NDJSON -> readNDJSON(input.getStream(), selection, builder);
+                case ARROW -> readArrow(input.getStream(), selection, builder);
                 default -> throw new UnsupportedFileFormatException("Unsupported file format: " + format);
-            };
+            }
         } catch (IOException e) {
             throw new DataQualityException("Error reading file: " + e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            // Parsers that iterate records report read errors this way
+            throw new DataQualityException("Error reading file: " + e.getCause().getMessage(), e.getCause());
         }
     }
 
     /**
-     * Ingest data from a URL
+     * Download a file from a URL into the builder
      */
-    public List<Map<String, Object>> ingestFromUrl(String urlString) {
+    private void readUrl(String urlString, ColumnSelection selection, DatasetBuilder builder) {
         try {
             log.info("Ingesting data from URL: {}", urlString);
-            URL url = new URL(urlString);
-            
-            String filename = urlString.substring(urlString.lastIndexOf('/') + 1);
-            FileFormat format = detectFileFormat(filename);
+            URI uri = parseUrl(urlString);
             
-            try (InputStream inputStream = url.openStream()) {
-                return switch (format) {
-                    case CSV -> ingestCSV(inputStream);
-                    case JSON -> ingestJSON(inputStream);
-                    case XLSX -> ingestXLSX(inputStream);
-                    default -> throw new UnsupportedFileFormatException("Unsupported file format from URL: " + format);
-                };
+            try (DecompressingInput input = DecompressingInput.open(openUrl(uri), filenameOf(uri))) {
+                readSequential(input, selection, builder);
             }
         } catch (IOException e) {
             throw new DataQualityException("Error downloading file from URL: " + e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            // Parsers that iterate records report a failed or timed-out download this way
+            throw new DataQualityException("Error downloading file from URL: " + e.getCause().getMessage(), e.getCause());
         }
     }
 
     /**
-     * Ingest data from inline JSON payload
+     * Parse a request body while it is still being received, without copying it to disk first
+     * (only Parquet and XLSX, which need random access, are spooled)
+     */
+    private void readBody(InputStream body, String filename, ColumnSelection selection, DatasetBuilder builder) {
+        try (DecompressingInput input = DecompressingInput.open(limitUpload(body), filename)) {
+            log.info("Ingesting streamed upload: {} with format: {} (compression: {})",
+                     filename, FileFormat.fromFilename(input.getFilename()), input.getCompression());
+            readSequential(input, selection, builder);
+        } catch (IOException e) {
+            throw new DataQualityException("Error reading upload: " + e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            // Parsers that iterate records report an aborted upload this way
+            throw new DataQualityException("Error reading upload: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Read a stream front to back in the format its name carries
      */
-    public List<Map<String, Object>> ingestFromInlineData(String jsonData) {
+    private void readSequential(DecompressingInput input, ColumnSelection selection, DatasetBuilder builder) throws IOException {
+        FileFormat format = FileFormat.fromFilename(input.getFilename());
+        InputStream inputStream = input.getStream();
+        switch (format) {
+            case CSV -> readCSV(inputStream, selection, builder);
+            case JSON -> readJSON(inputStream, selection, builder);
+            case NDJSON -> readNDJSON(inputStream, selection, builder);
+            case ARROW -> readArrow(inputStream, selection, builder);
+            case XLSX, PARQUET -> {
+                // Spooled rather than buffered in memory, so only the parts being read are decompressed
+                Path spooled = spool(inputStream);
+                try {
+                    readSpooled(spooled, format, selection, builder);
+                } finally {
+                    deleteQuietly(spooled);
+                }
+            }
+            default -> throw new UnsupportedFileFormatException("Unsupported file format: " + format);
+        }
+    }
+
+    /**
+     * Request bodies are not bounded by the multipart limits, so the upload limit is applied while reading
+     */
+    private InputStream limitUpload(InputStream body) {
+        return new SizeLimitedInputStream(body, properties.getMaxFileSize().toBytes());
+    }
+
+    private URI parseUrl(String urlString) {
         try {
-            log.info("Ingesting inline JSON data");
-            JsonNode rootNode = objectMapper.readTree(jsonData);
-            
-            List<Map<String, Object>> data = new ArrayList<>();
+            URI uri = new URI(urlString);
+            if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())) {
+                throw new DataQualityException("Only http and https URLs are supported: " + urlString);
+            }
+            return uri;
+        } catch (URISyntaxException e) {
+            throw new DataQualityException("Invalid URL: " + urlString, e);
+        }
+    }
+
+    /**
+     * Open a URL on the shared client with the configured timeouts
+     */
+    private InputStream openUrl(URI uri) throws IOException {
+        DataQualityProperties.Download download = properties.getDownload();
+        HttpDownloader downloader = new HttpDownloader(dataDownloadClient, properties.getUrlDownloadTimeout(),
+            download.getRangeThreshold().toBytes(), download.getRangeSize().toBytes(), download.getParallelRanges());
+        return downloader.open(uri);
+    }
+
+    /**
+     * Last path segment of a URL, which names the format (query strings are ignored)
+     */
+    private static String filenameOf(URI uri) {
+        String path = uri.getPath() != null ? uri.getPath() : "";
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Read CSV data in the dialect sniffed from its leading bytes. Files without quotes in the
+     * sample take the byte-level reader; quoted ones keep commons-csv.
+     */
+    private void readCSV(InputStream inputStream, ColumnSelection selection, DatasetBuilder builder) {
+        try {
+            InputStream in = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+            CsvDialect dialect = CsvDialect.sniff(in);
+            log.debug("Sniffed CSV dialect: {}", dialect);
+            long rows;
             
-            if (rootNode.isArray()) {
-                for (JsonNode node : rootNode) {
-                    data.add(objectMapper.convertValue(node, Map.class));
+            if (dialect.quotesSeen()) {
+                try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+                     CSVParser csvParser = new CSVParser(reader, dialect.toFormat())) {
+                    Iterator<String[]> records = csvParser.stream().map(CSVRecord::values).iterator();
+                    rows = readRecords(csvParser.getHeaderNames(), records, dialect, selection, builder);
                 }
-            } else if (rootNode.isObject()) {
-                data.add(objectMapper.convertValue(rootNode, Map.class));
             } else {
-                throw new DataQualityException("Invalid JSON format. Expected array or object.");
+                try (CsvStreamReader records = new CsvStreamReader(in, dialect.newParser())) {
+                    List<String> headers = dialect.header() && records.hasNext() ? List.of(records.next()) : List.of();
+                    rows = readRecords(headers, records, dialect, selection, builder);
+                }
             }
             
-            return data;
+            log.info("Successfully ingested {} rows from CSV", rows);
         } catch (IOException e) {
-            throw new DataQualityException("Error parsing inline JSON data: " + e.getMessage(), e);
+            throw new DataQualityException("Error reading CSV file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Add the columns and records of a CSV file and return the number of rows. A file without
+     * a header gets generated column names for the fields of its first record. Fields of
+     * columns that are not selected are skipped (the byte-level reader does not decode them).
+     */
+    private long readRecords(List<String> headers, Iterator<String[]> records, CsvDialect dialect,
+                             ColumnSelection selection, DatasetBuilder builder) {
+        List<String[]> held = new ArrayList<>();
+        if (!dialect.header() && records.hasNext()) {
+            held.add(records.next());
+            headers = CsvDialect.columnNames(held.get(0).length);
+        }
+        
+        boolean[] selected = selection.select(headers);
+        if (!selection.isAll() && records instanceof CsvStreamReader reader) {
+            reader.select(selected);
+        }
+        int[] columns = new int[headers.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = selected[i] ? builder.addColumn(headers.get(i)) : -1;
+        }
+        
+        // Column types come from the leading records, which are held back until they are known
+        CsvColumnTypes types = new CsvColumnTypes(columns.length);
+        while (held.size() < CsvColumnTypes.SAMPLE_ROWS && records.hasNext()) {
+            held.add(records.next());
+        }
+        for (String[] record : held) {
+            for (int i = 0; i < Math.min(record.length, columns.length); i++) {
+                if (columns[i] >= 0) {
+                    types.sample(i, record[i]);
+                }
+            }
+        }
+        types.finish();
+        
+        long rows = 0;
+        for (String[] record : held) {
+            addRecord(record, columns, types, builder);
+            rows++;
+        }
+        while (records.hasNext()) {
+            addRecord(records.next(), columns, types, builder);
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Add the selected fields of one CSV record with their values converted to their column types
+     */
+    private void addRecord(String[] record, int[] columns, CsvColumnTypes types, DatasetBuilder builder) {
+        int fieldCount = Math.min(record.length, columns.length);
+        for (int i = 0; i < fieldCount; i++) {
+            if (columns[i] >= 0) {
+                builder.set(columns[i], types.convert(i, record[i]));
+            }
         }
+        builder.endRow();
     }
 
     /**
-     * Ingest CSV data
+     * Read a large CSV or JSON Lines upload by spooling it to disk and parsing memory-mapped chunks in parallel
      */
-    private List<Map<String, Object>> ingestCSV(InputStream inputStream) {
+    private Dataset readParallel(MultipartFile file, FileFormat format, ColumnSelection selection) {
+        Path spooled = null;
         try {
-            List<Map<String, Object>> data = new ArrayList<>();
+            log.info("Ingesting file: {} with format: {} (parallel)", file.getOriginalFilename(), format);
+            spooled = spool(file);
             
-            try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
-                 CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT
-                     .builder()
-                     .setHeader()
-                     .setSkipHeaderRecord(true)
-                     .setIgnoreHeaderCase(true)
-                     .setTrim(true)
-                     .build())) {
-                
-                for (CSVRecord record : csvParser) {
-                    Map<String, Object> row = new HashMap<>();
-                    for (String header : csvParser.getHeaderNames()) {
-                        row.put(header, record.get(header));
-                    }
-                    data.add(row);
-                }
+            long chunkSize = properties.getParsing().getChunkSize().toBytes();
+            if (format == FileFormat.CSV && properties.getParsing().isLazyCsv()) {
+                // The indexed dataset keeps the spooled file and deletes it when it is closed
+                Dataset dataset = new ParallelCsvParser(dataProcessingPool, chunkSize).index(spooled, selection);
+                spooled = null;
+                log.info("Indexed {} CSV rows, columns are decoded on first use", dataset.getRowCount());
+                return dataset;
             }
             
-            log.info("Successfully ingested {} rows from CSV", data.size());
-            return data;
+            Dataset dataset = switch (format) {
+                case CSV -> new ParallelCsvParser(dataProcessingPool, chunkSize).parse(spooled, selection);
+                case NDJSON -> new ParallelNdjsonParser(dataProcessingPool, chunkSize, objectMapper).parse(spooled, selection);
+                case PARQUET -> new ParquetReader(spooled, selection).read(dataProcessingPool);
+                default -> throw new UnsupportedFileFormatException("Parallel parsing is not supported for: " + format);
+            };
+            
+            log.info("Successfully ingested {} rows from {}", dataset.getRowCount(), format);
+            return dataset;
         } catch (IOException e) {
-            throw new DataQualityException("Error reading CSV file: " + e.getMessage(), e);
+            throw new DataQualityException("Error reading " + format + " file: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(spooled);
         }
     }
 
     /**
-     * Ingest JSON data
+     * Copy an upload to a temporary file under the configured temp storage path
      */
-    private List<Map<String, Object>> ingestJSON(InputStream inputStream) {
+    private Path spool(MultipartFile file) throws IOException {
+        Path target = createTempFile();
+        file.transferTo(target);
+        return target;
+    }
+
+    /**
+     * Spool an upload, decompressing it on the way if it is compressed
+     */
+    private Path spool(MultipartFile file, DecompressingInput input) throws IOException {
+        return input.isCompressed() ? spool(input.getStream()) : spool(file);
+    }
+
+    private Path spool(InputStream inputStream) throws IOException {
+        Path target = createTempFile();
+        Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+        return target;
+    }
+
+    private Path createTempFile() throws IOException {
+        Path directory = Path.of(properties.getTempStoragePath());
+        Files.createDirectories(directory);
+        return Files.createTempFile(directory, "upload-", ".tmp");
+    }
+
+    /**
+     * Whether an upload starts with compression magic bytes; compressed data cannot be split into chunks
+     */
+    private boolean isCompressed(MultipartFile file) {
+        try (InputStream inputStream = new BufferedInputStream(file.getInputStream())) {
+            return DecompressingInput.detect(inputStream, file.getOriginalFilename()) != Compression.NONE;
+        } catch (IOException e) {
+            throw new DataQualityException("Error reading file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read a format that needs random access from its spooled copy
+     */
+    private void readSpooled(Path spooled, FileFormat format, ColumnSelection selection,
+                             DatasetBuilder builder) throws IOException {
+        if (format == FileFormat.PARQUET) {
+            readParquet(spooled, selection, builder);
+            return;
+        }
+        try (XlsxReader reader = XlsxReader.open(spooled)) {
+            readXLSX(reader, selection, builder);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
         try {
-            JsonNode rootNode = objectMapper.readTree(inputStream);
-            List<Map<String, Object>> data = new ArrayList<>();
-            
-            if (rootNode.isArray()) {
-                for (JsonNode node : rootNode) {
-                    data.add(objectMapper.convertValue(node, Map.class));
-                }
-            } else if (rootNode.isObject()) {
-                data.add(objectMapper.convertValue(rootNode, Map.class));
-            }
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary file {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Read JSON data
+     */
+    private void readJSON(InputStream inputStream, ColumnSelection selection, DatasetBuilder builder) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            long rows = Math.max(0, new JsonRowReader(objectMapper, selection).readDocument(parser, builder));
             
-            log.info("Successfully ingested {} rows from JSON", data.size());
-            return data;
+            log.info("Successfully ingested {} rows from JSON", rows);
         } catch (IOException e) {
             throw new DataQualityException("Error reading JSON file: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Ingest XLSX data
+     * Read JSON Lines data (one object per line)
      */
-    private List<Map<String, Object>> ingestXLSX(InputStream inputStream) {
+    private void readNDJSON(InputStream inputStream, ColumnSelection selection, DatasetBuilder builder) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            long rows = new JsonRowReader(objectMapper, selection).readLines(parser, builder);
+            
+            log.info("Successfully ingested {} rows from JSON Lines", rows);
+        } catch (IOException e) {
+            throw new DataQualityException("Error reading JSON Lines file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read Arrow IPC data (stream or file format), a whole record batch at a time
+     */
+    private void readArrow(InputStream inputStream, ColumnSelection selection, DatasetBuilder builder) {
         try {
-            List<Map<String, Object>> data = new ArrayList<>();
+            long rows = new ArrowReader(inputStream, selection).read(builder);
             
-            try (Workbook workbook = new XSSFWorkbook(inputStream)) {
-                Sheet sheet = workbook.getSheetAt(0); // Read first sheet
-                Iterator<Row> rowIterator = sheet.iterator();
+            log.info("Successfully ingested {} rows from Arrow", rows);
+        } catch (IOException e) {
+            throw new DataQualityException("Error reading Arrow file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Open an uploaded workbook once and run a task per selected sheet on the processing pool.
+     * "*" selects every sheet.
+     */
+    private <T> Map<String, T> readSheets(MultipartFile file, List<String> sheets, ColumnSelection selection,
+                                          BiFunction<String, Consumer<DatasetBuilder>, T> task) {
+        Path spooled = null;
+        try (DecompressingInput input = DecompressingInput.open(file.getInputStream(), file.getOriginalFilename())) {
+            spooled = spool(file, input);
+            try (XlsxReader reader = XlsxReader.open(spooled)) {
+                List<String> names = reader.getSheetNames();
+                List<Integer> selected = selectSheets(names, sheets);
+                
+                log.info("Ingesting {} of {} sheets of workbook: {}", selected.size(), names.size(), file.getOriginalFilename());
                 
-                // Get headers from first row
-                List<String> headers = new ArrayList<>();
-                if (rowIterator.hasNext()) {
-                    Row headerRow = rowIterator.next();
-                    for (Cell cell : headerRow) {
-                        headers.add(getCellValueAsString(cell));
-                    }
+                List<Callable<T>> tasks = new ArrayList<>();
+                for (int sheet : selected) {
+                    tasks.add(() -> task.apply(names.get(sheet), builder -> readSheet(reader, sheet, selection, builder)));
                 }
+                List<T> results = ParallelTasks.invokeAll(dataProcessingPool, tasks);
                 
-                // Read data rows
-                while (rowIterator.hasNext()) {
-                    Row row = rowIterator.next();
-                    Map<String, Object> rowData = new HashMap<>();
-                    
-                    for (int i = 0; i < headers.size(); i++) {
-                        Cell cell = row.getCell(i);
-                        rowData.put(headers.get(i), getCellValue(cell));
-                    }
-                    data.add(rowData);
+                Map<String, T> bySheet = new LinkedHashMap<>();
+                for (int i = 0; i < selected.size(); i++) {
+                    bySheet.put(names.get(selected.get(i)), results.get(i));
                 }
+                return bySheet;
             }
-            
-            log.info("Successfully ingested {} rows from XLSX", data.size());
-            return data;
         } catch (IOException e) {
             throw new DataQualityException("Error reading XLSX file: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(spooled);
         }
     }
 
-    /**
-     * Ingest Parquet data (basic implementation)
-     */
-    private List<Map<String, Object>> ingestParquet(InputStream inputStream) {
-        // Note: Full Parquet support requires Hadoop dependencies
-        // This is a placeholder for the implementation
-        log.warn("Parquet format support is limited. Consider using CSV or JSON for full functionality.");
-        throw new UnsupportedFileFormatException("Parquet format requires additional configuration. Please use CSV, JSON, or XLSX format.");
+    private static List<Integer> selectSheets(List<String> names, List<String> selection) {
+        if (selection.contains("*")) {
+            List<Integer> all = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                all.add(i);
+            }
+            return all;
+        }
+        
+        Set<Integer> selected = new LinkedHashSet<>();
+        for (String name : selection) {
+            int index = names.indexOf(name.trim());
+            if (index < 0) {
+                throw new DataQualityException("Sheet '" + name.trim() + "' not found. Available sheets: " + String.join(", ", names));
+            }
+            selected.add(index);
+        }
+        return new ArrayList<>(selected);
     }
 
-    /**
-     * Detect file format from filename
-     */
-    private FileFormat detectFileFormat(String filename) {
-        if (filename == null) {
-            return FileFormat.UNKNOWN;
+    private void readSheet(XlsxReader reader, int sheet, ColumnSelection selection, DatasetBuilder builder) {
+        try {
+            long rows = reader.readSheet(sheet, selection, builder);
+            
+            log.info("Successfully ingested {} rows from sheet: {}", rows, reader.getSheetNames().get(sheet));
+        } catch (IOException e) {
+            throw new DataQualityException("Error reading XLSX file: " + e.getMessage(), e);
         }
-        
-        String extension = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase();
-        
-        return switch (extension) {
-            case "csv" -> FileFormat.CSV;
-            case "json" -> FileFormat.JSON;
-            case "xlsx", "xls" -> FileFormat.XLSX;
-            case "parquet" -> FileFormat.PARQUET;
-            default -> FileFormat.UNKNOWN;
-        };
     }
 
     /**
-     * Get cell value from Excel cell
+     * Read XLSX data from the first sheet with the event (SAX) model
      */
-    private Object getCellValue(Cell cell) {
-        if (cell == null) {
-            return null;
+    private void readXLSX(XlsxReader reader, ColumnSelection selection, DatasetBuilder builder) {
+        try {
+            long rows = reader.readSheet(0, selection, builder);
+            
+            log.info("Successfully ingested {} rows from XLSX", rows);
+        } catch (IOException e) {
+            throw new DataQualityException("Error reading XLSX file: " + e.getMessage(), e);
         }
-        
-        return switch (cell.getCellType()) {
-            case STRING -> cell.getStringCellValue();
-            case NUMERIC -> DateUtil.isCellDateFormatted(cell) 
-                ? cell.getDateCellValue() 
-                : cell.getNumericCellValue();
-            case BOOLEAN -> cell.getBooleanCellValue();
-            case FORMULA -> cell.getCellFormula();
-            default -> null;
-        };
     }
 
     /**
-     * Get cell value as string
+     * Read Parquet data row group by row group
      */
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return "";
+    private void readParquet(Path file, ColumnSelection selection, DatasetBuilder builder) {
+        try {
+            long rows = new ParquetReader(file, selection).read(builder);
+            
+            log.info("Successfully ingested {} rows from Parquet", rows);
+        } catch (IOException e) {
+            throw new DataQualityException("Error reading Parquet file: " + e.getMessage(), e);
         }
-        
-        return switch (cell.getCellType()) {
-            case STRING -> cell.getStringCellValue();
-            case NUMERIC -> String.valueOf(cell.getNumericCellValue());
-            case BOOLEAN -> String.valueOf(cell.getBooleanCellValue());
-            default -> "";
-        };
     }
 }
-
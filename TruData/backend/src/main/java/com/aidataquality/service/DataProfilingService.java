@@ -1,11 +1,20 @@
 package com.aidataquality.service;
 
+import com.aidataquality.config.DataQualityProperties;
+import com.aidataquality.ingestion.ParquetFooterScan;
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DictionaryColumn;
+import com.aidataquality.model.dataset.NumericColumn;
 import com.aidataquality.model.dto.ColumnProfile;
+import com.aidataquality.util.NumberParser;
+import com.aidataquality.util.NumericSummary;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -13,96 +22,202 @@ import java.util.stream.Collectors;
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class DataProfilingService {
 
+    private static final Pattern ISO_DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}.*");
+    private static final Pattern US_DATE = Pattern.compile("\\d{2}/\\d{2}/\\d{4}.*");
+
+    // Distinct outlier values reported per column
+    static final int OUTLIER_LIMIT = 10;
+
+    private final ColumnTaskRunner columnTasks;
+    private final DataQualityProperties properties;
+
     /**
-     * Profile all columns in the dataset
+     * Profile all columns in the dataset, several at a time on the processing pool
      */
-    public List<ColumnProfile> profileData(List<Map<String, Object>> data) {
+    public List<ColumnProfile> profileData(Dataset data) {
         if (data == null || data.isEmpty()) {
             return Collections.emptyList();
         }
         
-        log.info("Profiling dataset with {} rows", data.size());
+        log.info("Profiling dataset with {} rows", data.getRowCount());
         
-        List<ColumnProfile> profiles = new ArrayList<>();
-        Set<String> columns = data.get(0).keySet();
+        return columnTasks.map(data.getColumns(), this::profileColumn);
+    }
+
+    /**
+     * Profile a single column in one pass over its values; the type is resolved at the end
+     * from the evidence gathered along the way
+     */
+    private ColumnProfile profileColumn(Column column) {
+        ColumnProfileAccumulator accumulator = newAccumulator(column.getName());
+        accumulator.accept(column);
+        return accumulator.finish();
+    }
+
+    /**
+     * Profile a column from footer statistics; value-based fields (uniqueness, distribution,
+     * outliers) are left unset. Columns not stored as numbers take their type from the sample.
+     */
+    public ColumnProfile profileFromStatistics(ParquetFooterScan.ColumnStatistics statistics,
+                                               long totalCount,
+                                               Column sample) {
+        long nullCount = statistics.nullCount();
+        long nonNullCount = totalCount - nullCount;
         
-        for (String column : columns) {
-            ColumnProfile profile = profileColumn(data, column);
-            profiles.add(profile);
+        String dataType;
+        if (nonNullCount == 0) {
+            dataType = "UNKNOWN";
+        } else if (statistics.numeric()) {
+            dataType = "NUMERIC";
+        } else if (sample != null && sample.getNullCount() < sample.size()) {
+            dataType = inferDataType(sample);
+        } else {
+            dataType = "CATEGORICAL";
         }
         
-        return profiles;
+        return ColumnProfile.builder()
+            .columnName(statistics.name())
+            .dataType(dataType)
+            .totalCount(totalCount)
+            .nullCount(nullCount)
+            .nullPercentage(totalCount > 0 ? (nullCount * 100.0 / totalCount) : 0.0)
+            .min(statistics.min())
+            .max(statistics.max())
+            .qualityIssues(detectNullIssues(nullCount, totalCount))
+            .build();
     }
 
     /**
-     * Profile a single column
+     * Move a profile computed on a row sample to the full column: row and null counts become
+     * the ones counted over every row, the unique count is estimated from how often values
+     * repeat within the sample. That estimate has no standard error to report, so the one of a
+     * sketch used on the sample is dropped.
      */
-    private ColumnProfile profileColumn(List<Map<String, Object>> data, String columnName) {
-        ColumnProfile.ColumnProfileBuilder builder = ColumnProfile.builder();
-        builder.columnName(columnName);
+    public void applyFullColumnCounts(ColumnProfile profile, long totalCount, long nullCount, Column sample) {
+        long nonNullCount = totalCount - nullCount;
         
-        // Collect values
-        List<Object> values = data.stream()
-            .map(row -> row.get(columnName))
-            .collect(Collectors.toList());
+        long[] frequencies = valueFrequencies(sample);
+        long distinct = Arrays.stream(frequencies).filter(count -> count > 0).count();
+        long singletons = Arrays.stream(frequencies).filter(count -> count == 1).count();
+        long doubletons = Arrays.stream(frequencies).filter(count -> count == 2).count();
+        long uniqueCount = RowSampler.estimateDistinct(distinct, singletons, doubletons, nonNullCount);
         
-        long totalCount = values.size();
-        long nullCount = values.stream().filter(Objects::isNull).count();
-        long nonNullCount = totalCount - nullCount;
+        profile.setTotalCount(totalCount);
+        profile.setNullCount(nullCount);
+        profile.setUniqueCount(uniqueCount);
+        profile.setUniqueCountError(null);
+        profile.setNullPercentage(totalCount > 0 ? (nullCount * 100.0 / totalCount) : 0.0);
+        profile.setUniquePercentage(nonNullCount > 0 ? (uniqueCount * 100.0 / nonNullCount) : 0.0);
+        profile.setQualityIssues(detectQualityIssues(profile.getDataType(), nullCount, totalCount, uniqueCount));
+    }
+
+    /**
+     * Number of rows holding each distinct non-null value, in no particular order.
+     * Dictionary columns are counted by code without looking at the values, and the
+     * dictionary segments of a spilled column once per distinct value.
+     */
+    private long[] valueFrequencies(Column column) {
+        if (column instanceof DictionaryColumn dictionary) {
+            return dictionary.countCodes();
+        }
         
-        // Get unique values
-        Set<Object> uniqueValues = values.stream()
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet());
-        long uniqueCount = uniqueValues.size();
+        Map<Object, Long> frequencies = new HashMap<>();
+        for (Column segment : column.segments()) {
+            if (segment instanceof DictionaryColumn dictionary) {
+                long[] counts = dictionary.countCodes();
+                for (int code = 0; code < counts.length; code++) {
+                    if (counts[code] > 0) {
+                        frequencies.merge(dictionary.getDictionaryValue(code), counts[code], Long::sum);
+                    }
+                }
+                continue;
+            }
+            
+            for (int row = 0; row < segment.size(); row++) {
+                if (!segment.isNull(row)) {
+                    frequencies.merge(segment.get(row), 1L, Long::sum);
+                }
+            }
+        }
+        return frequencies.values().stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Start an incremental profile of a column whose values arrive in batches
+     */
+    public ColumnProfileAccumulator newAccumulator(String columnName) {
+        return new ColumnProfileAccumulator(this, columnName, properties.getProfiling());
+    }
+
+    /**
+     * Set null and uniqueness counts and their percentages
+     */
+    void applyCountStatistics(ColumnProfile.ColumnProfileBuilder builder,
+                              long totalCount, long nullCount, long uniqueCount) {
+        long nonNullCount = totalCount - nullCount;
         
         builder.totalCount(totalCount)
                .nullCount(nullCount)
                .uniqueCount(uniqueCount)
                .nullPercentage(totalCount > 0 ? (nullCount * 100.0 / totalCount) : 0.0)
                .uniquePercentage(nonNullCount > 0 ? (uniqueCount * 100.0 / nonNullCount) : 0.0);
-        
-        // Determine data type and compute statistics
-        String dataType = inferDataType(values);
-        builder.dataType(dataType);
-        
-        if ("NUMERIC".equals(dataType)) {
-            computeNumericStatistics(values, builder);
-        } else {
-            computeCategoricalStatistics(values, builder);
-        }
-        
-        // Detect outliers and quality issues
-        List<String> qualityIssues = detectQualityIssues(values, dataType, nullCount, totalCount, uniqueCount);
-        builder.qualityIssues(qualityIssues);
-        
-        return builder.build();
     }
 
     /**
      * Infer data type of column
      */
-    private String inferDataType(List<Object> values) {
+    private String inferDataType(Column column) {
+        long nonNullCount = column.size() - column.getNullCount();
+        
+        if (column instanceof NumericColumn) {
+            return nonNullCount == 0 ? "UNKNOWN" : "NUMERIC";
+        }
+        
         long numericCount = 0;
         long dateCount = 0;
-        long nonNullCount = 0;
         
-        for (Object value : values) {
-            if (value == null) continue;
-            
-            nonNullCount++;
-            
-            if (isNumeric(value)) {
-                numericCount++;
+        for (Column segment : column.segments()) {
+            if (segment instanceof DictionaryColumn dictionary) {
+                // Each distinct value is checked once and weighted by its number of rows
+                long[] counts = dictionary.countCodes();
+                for (int code = 0; code < counts.length; code++) {
+                    if (counts[code] == 0) continue;
+                    
+                    String value = dictionary.getDictionaryValue(code);
+                    if (isNumeric(value)) {
+                        numericCount += counts[code];
+                    }
+                    if (isDate(value)) {
+                        dateCount += counts[code];
+                    }
+                }
+                continue;
             }
             
-            if (isDate(value.toString())) {
-                dateCount++;
+            for (int row = 0; row < segment.size(); row++) {
+                Object value = segment.get(row);
+                if (value == null) continue;
+                
+                if (isNumeric(value)) {
+                    numericCount++;
+                }
+                
+                if (isDate(value.toString())) {
+                    dateCount++;
+                }
             }
         }
         
+        return resolveDataType(numericCount, dateCount, nonNullCount);
+    }
+
+    /**
+     * Pick the column type from the share of numeric and date-like values
+     */
+    String resolveDataType(long numericCount, long dateCount, long nonNullCount) {
         if (nonNullCount == 0) return "UNKNOWN";
         
         double numericRatio = numericCount * 1.0 / nonNullCount;
@@ -117,70 +232,50 @@ public class DataProfilingService {
     /**
      * Check if value is numeric
      */
-    private boolean isNumeric(Object value) {
+    boolean isNumeric(Object value) {
         if (value instanceof Number) return true;
         
-        try {
-            Double.parseDouble(value.toString());
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+        return NumberParser.isNumber(value.toString());
     }
 
     /**
      * Check if value looks like a date
      */
-    private boolean isDate(String value) {
-        return value.matches("\\d{4}-\\d{2}-\\d{2}.*") || 
-               value.matches("\\d{2}/\\d{2}/\\d{4}.*");
+    boolean isDate(String value) {
+        // Both patterns need at least ten characters starting with two digits
+        if (value.length() < 10 || !isAsciiDigit(value.charAt(0)) || !isAsciiDigit(value.charAt(1))) {
+            return false;
+        }
+        return ISO_DATE.matcher(value).matches() || US_DATE.matcher(value).matches();
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 
     /**
-     * Compute numeric statistics
+     * Set distribution statistics and IQR outliers from the summary of the numeric values
      */
-    private void computeNumericStatistics(List<Object> values, ColumnProfile.ColumnProfileBuilder builder) {
-        DescriptiveStatistics stats = new DescriptiveStatistics();
-        List<Double> numericValues = new ArrayList<>();
-        
-        for (Object value : values) {
-            if (value == null) continue;
+    void applyNumericStatistics(NumericSummary stats, ColumnProfile.ColumnProfileBuilder builder) {
+        if (stats.getCount() > 0) {
+            double[] quartiles = stats.percentiles(25, 50, 75);
+            double q1 = quartiles[0];
+            double q3 = quartiles[2];
             
-            try {
-                double numValue;
-                if (value instanceof Number) {
-                    numValue = ((Number) value).doubleValue();
-                } else {
-                    numValue = Double.parseDouble(value.toString());
-                }
-                stats.addValue(numValue);
-                numericValues.add(numValue);
-            } catch (NumberFormatException e) {
-                // Skip non-numeric values
-            }
-        }
-        
-        if (stats.getN() > 0) {
             builder.mean(stats.getMean())
-                   .median(stats.getPercentile(50))
+                   .median(quartiles[1])
                    .stdDev(stats.getStandardDeviation())
                    .min(stats.getMin())
                    .max(stats.getMax())
-                   .q1(stats.getPercentile(25))
-                   .q3(stats.getPercentile(75));
+                   .q1(q1)
+                   .q3(q3);
             
             // Detect outliers using IQR method
-            double q1 = stats.getPercentile(25);
-            double q3 = stats.getPercentile(75);
             double iqr = q3 - q1;
             double lowerBound = q1 - 1.5 * iqr;
             double upperBound = q3 + 1.5 * iqr;
             
-            List<Object> outliers = numericValues.stream()
-                .filter(v -> v < lowerBound || v > upperBound)
-                .distinct()
-                .limit(10)
-                .collect(Collectors.toList());
+            List<Object> outliers = new ArrayList<>(stats.outliers(lowerBound, upperBound));
             
             if (!outliers.isEmpty()) {
                 builder.hasOutliers(true)
@@ -190,16 +285,9 @@ public class DataProfilingService {
     }
 
     /**
-     * Compute categorical statistics
+     * Set top values and value counts from per-value frequencies
      */
-    private void computeCategoricalStatistics(List<Object> values, ColumnProfile.ColumnProfileBuilder builder) {
-        Map<String, Long> valueCounts = values.stream()
-            .filter(Objects::nonNull)
-            .collect(Collectors.groupingBy(
-                Object::toString,
-                Collectors.counting()
-            ));
-        
+    void applyCategoricalStatistics(Map<String, Long> valueCounts, ColumnProfile.ColumnProfileBuilder builder) {
         // Get top 10 values
         List<String> topValues = valueCounts.entrySet().stream()
             .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
@@ -216,8 +304,24 @@ public class DataProfilingService {
     /**
      * Detect quality issues in column
      */
-    private List<String> detectQualityIssues(List<Object> values, String dataType, 
-                                              long nullCount, long totalCount, long uniqueCount) {
+    List<String> detectQualityIssues(String dataType, long nullCount, long totalCount, long uniqueCount) {
+        List<String> issues = detectNullIssues(nullCount, totalCount);
+        
+        if (uniqueCount == 1 && nullCount == 0) {
+            issues.add("Column has only one unique value (constant column)");
+        }
+        
+        if (uniqueCount == totalCount - nullCount && totalCount > 10) {
+            issues.add("All values are unique (possibly an identifier)");
+        }
+        
+        return issues;
+    }
+
+    /**
+     * Detect issues that only depend on the null count
+     */
+    private List<String> detectNullIssues(long nullCount, long totalCount) {
         List<String> issues = new ArrayList<>();
         
         double nullPercentage = totalCount > 0 ? (nullCount * 100.0 / totalCount) : 0.0;
@@ -228,14 +332,6 @@ public class DataProfilingService {
             issues.add("Moderate null percentage: " + String.format("%.2f%%", nullPercentage));
         }
         
-        if (uniqueCount == 1 && nullCount == 0) {
-            issues.add("Column has only one unique value (constant column)");
-        }
-        
-        if (uniqueCount == totalCount - nullCount && totalCount > 10) {
-            issues.add("All values are unique (possibly an identifier)");
-        }
-        
         return issues;
     }
 }
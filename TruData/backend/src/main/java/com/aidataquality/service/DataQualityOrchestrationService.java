@@ -1,5 +1,9 @@
 package com.aidataquality.service;
 
+import com.aidataquality.ingestion.ColumnSelection;
+import com.aidataquality.ingestion.ParquetFooterScan;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.SampledDataset;
 import com.aidataquality.model.dto.*;
 import com.aidataquality.model.enums.DataType;
 import com.aidataquality.model.enums.FileFormat;
@@ -9,9 +13,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -22,6 +32,24 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class DataQualityOrchestrationService {
 
+    /**
+     * Leading rows decoded in a quick check for type inference and PII detection
+     */
+    private static final long QUICK_CHECK_SAMPLE_ROWS = 10_000;
+
+    /**
+     * Response fields measured on the row sample when a dataset exceeds max-rows-to-process
+     */
+    private static final List<String> SAMPLED_METRICS = List.of(
+        "qualityMetrics.duplicateRows", "qualityMetrics.duplicatePercentage", "qualityMetrics.uniquenessScore",
+        "qualityMetrics.inconsistentValues", "qualityMetrics.consistencyScore",
+        "columnProfiles.uniqueCount", "columnProfiles.uniquePercentage", "columnProfiles.dataType",
+        "columnProfiles.mean", "columnProfiles.median", "columnProfiles.stdDev", "columnProfiles.min",
+        "columnProfiles.max", "columnProfiles.q1", "columnProfiles.q3", "columnProfiles.outlierValues",
+        "columnProfiles.topValues", "columnProfiles.valueCounts",
+        "duplicateAnalysis", "healthScore"
+    );
+
     private final DataIngestionService dataIngestionService;
     private final DataProfilingService dataProfilingService;
     private final QualityMetricsService qualityMetricsService;
@@ -37,11 +65,29 @@ public class DataQualityOrchestrationService {
         
         log.info("Starting data quality analysis for file: {}", file.getOriginalFilename());
         
-        // Step 1: Data Ingestion
-        List<Map<String, Object>> data = dataIngestionService.ingestFromFile(file);
-        
-        // Step 2-4: Process and analyze
-        DataQualityResponse response = processAndAnalyze(data, request, file.getOriginalFilename());
+        DataQualityResponse response;
+        if (isQuickCheck(request, file.getOriginalFilename())) {
+            // Counts and ranges come from the Parquet footer instead of a full read
+            ParquetFooterScan scan = dataIngestionService.scanParquetFromFile(file, columnSelection(request), QUICK_CHECK_SAMPLE_ROWS);
+            response = processFooterScan(scan, request, file.getOriginalFilename());
+        } else if (isWorkbookAnalysis(request, file.getOriginalFilename())) {
+            response = processWorkbook(file, request);
+        } else if (Boolean.TRUE.equals(request.getStreaming())) {
+            // Steps 1-4 overlap: every ingested batch is analyzed before the next one is read
+            StreamingAnalyzer analyzer = createStreamingAnalyzer(request);
+            // Past max-rows-to-process the analysis falls back to the row sample kept alongside
+            try (Dataset sample = dataIngestionService.streamFromFile(file, columnSelection(request), request.getStratifyBy(), analyzer)) {
+                response = sample != null
+                    ? processAndAnalyze(sample, request, file.getOriginalFilename())
+                    : processStreamed(analyzer, request, file.getOriginalFilename());
+            }
+        } else {
+            // Step 1: Data Ingestion (closing the dataset deletes anything it spilled to disk)
+            try (Dataset data = dataIngestionService.ingestFromFile(file, columnSelection(request), request.getStratifyBy())) {
+                // Step 2-4: Process and analyze
+                response = processAndAnalyze(data, request, file.getOriginalFilename());
+            }
+        }
         
         long processingTime = System.currentTimeMillis() - startTime;
         response.setProcessingTimeMs(processingTime);
@@ -60,11 +106,25 @@ public class DataQualityOrchestrationService {
         
         log.info("Starting data quality analysis from URL: {}", url);
         
-        // Step 1: Data Ingestion
-        List<Map<String, Object>> data = dataIngestionService.ingestFromUrl(url);
-        
-        // Step 2-4: Process and analyze
-        DataQualityResponse response = processAndAnalyze(data, request, url);
+        DataQualityResponse response;
+        if (isQuickCheck(request, url)) {
+            ParquetFooterScan scan = dataIngestionService.scanParquetFromUrl(url, columnSelection(request), QUICK_CHECK_SAMPLE_ROWS);
+            response = processFooterScan(scan, request, url);
+        } else if (Boolean.TRUE.equals(request.getStreaming())) {
+            StreamingAnalyzer analyzer = createStreamingAnalyzer(request);
+            // Past max-rows-to-process the analysis falls back to the row sample kept alongside
+            try (Dataset sample = dataIngestionService.streamFromUrl(url, columnSelection(request), request.getStratifyBy(), analyzer)) {
+                response = sample != null
+                    ? processAndAnalyze(sample, request, url)
+                    : processStreamed(analyzer, request, url);
+            }
+        } else {
+            // Step 1: Data Ingestion (closing the dataset deletes anything it spilled to disk)
+            try (Dataset data = dataIngestionService.ingestFromUrl(url, columnSelection(request), request.getStratifyBy())) {
+                // Step 2-4: Process and analyze
+                response = processAndAnalyze(data, request, url);
+            }
+        }
         
         long processingTime = System.currentTimeMillis() - startTime;
         response.setProcessingTimeMs(processingTime);
@@ -74,6 +134,45 @@ public class DataQualityOrchestrationService {
         return response;
     }
 
+    /**
+     * Analyze data quality from a request body, parsed while it is still being received
+     */
+    public DataQualityResponse analyzeFromStream(InputStream body, String filename, DataQualityRequest request) {
+        long startTime = System.currentTimeMillis();
+        
+        log.info("Starting data quality analysis for streamed upload: {}", filename);
+        
+        DataQualityResponse response;
+        if (isQuickCheck(request, filename)) {
+            ParquetFooterScan scan = dataIngestionService.scanParquetFromStream(body, filename, columnSelection(request),
+                                                                         QUICK_CHECK_SAMPLE_ROWS);
+            response = processFooterScan(scan, request, filename);
+        } else if (Boolean.TRUE.equals(request.getStreaming())) {
+            // Receiving, parsing and analysis overlap: each batch is analyzed before more of the body is read
+            StreamingAnalyzer analyzer = createStreamingAnalyzer(request);
+            // Past max-rows-to-process the analysis falls back to the row sample kept alongside
+            try (Dataset sample = dataIngestionService.streamFromStream(body, filename, columnSelection(request), request.getStratifyBy(), analyzer)) {
+                response = sample != null
+                    ? processAndAnalyze(sample, request, filename)
+                    : processStreamed(analyzer, request, filename);
+            }
+        } else {
+            // Step 1: Data Ingestion (closing the dataset deletes anything it spilled to disk)
+            try (Dataset data = dataIngestionService.ingestFromStream(body, filename, columnSelection(request), request.getStratifyBy())) {
+                // Step 2-4: Process and analyze
+                response = processAndAnalyze(data, request, filename);
+            }
+        }
+        
+        long processingTime = System.currentTimeMillis() - startTime;
+        response.setProcessingTimeMs(processingTime);
+        
+        log.info("Analysis complete. Health Score: {}, Processing Time: {}ms", 
+                 response.getHealthScore(), processingTime);
+        
+        return response;
+    }
+
     /**
      * Analyze data quality from inline JSON
      */
@@ -82,11 +181,22 @@ public class DataQualityOrchestrationService {
         
         log.info("Starting data quality analysis from inline data");
         
-        // Step 1: Data Ingestion
-        List<Map<String, Object>> data = dataIngestionService.ingestFromInlineData(jsonData);
-        
-        // Step 2-4: Process and analyze
-        DataQualityResponse response = processAndAnalyze(data, request, "inline-data");
+        DataQualityResponse response;
+        if (Boolean.TRUE.equals(request.getStreaming())) {
+            StreamingAnalyzer analyzer = createStreamingAnalyzer(request);
+            // Past max-rows-to-process the analysis falls back to the row sample kept alongside
+            try (Dataset sample = dataIngestionService.streamFromInlineData(jsonData, columnSelection(request), request.getStratifyBy(), analyzer)) {
+                response = sample != null
+                    ? processAndAnalyze(sample, request, "inline-data")
+                    : processStreamed(analyzer, request, "inline-data");
+            }
+        } else {
+            // Step 1: Data Ingestion (closing the dataset deletes anything it spilled to disk)
+            try (Dataset data = dataIngestionService.ingestFromInlineData(jsonData, columnSelection(request), request.getStratifyBy())) {
+                // Step 2-4: Process and analyze
+                response = processAndAnalyze(data, request, "inline-data");
+            }
+        }
         
         long processingTime = System.currentTimeMillis() - startTime;
         response.setProcessingTimeMs(processingTime);
@@ -99,11 +209,12 @@ public class DataQualityOrchestrationService {
     /**
      * Core processing and analysis workflow
      */
-    private DataQualityResponse processAndAnalyze(List<Map<String, Object>> data, 
+    private DataQualityResponse processAndAnalyze(Dataset data, 
                                                    DataQualityRequest request,
                                                    String sourceName) {
-        // Generate analysis ID
-        String analysisId = UUID.randomUUID().toString();
+        if (data instanceof SampledDataset sample) {
+            return processSampled(sample, request, sourceName);
+        }
         
         // Step 2: Data Profiling
         log.info("Step 1/4: Profiling data...");
@@ -111,18 +222,414 @@ public class DataQualityOrchestrationService {
         
         // Step 3: Quality Metrics Computation
         log.info("Step 2/4: Computing quality metrics...");
+        DuplicateTracker duplicates = new DuplicateTracker();
+        duplicates.accept(data);
         QualityMetrics qualityMetrics = qualityMetricsService.computeMetrics(
-            data, 
+            data.getRowCount(),
+            duplicates.getTotalDuplicates(),
+            qualityMetricsService.countSchemaViolations(data, request.getSchemaDefinition()),
             columnProfiles, 
             request.getSchemaDefinition()
         );
         
         // PII Detection
-        PIIFindings piiFindings = null;
+        Map<String, List<String>> piiByColumn = null;
         if (Boolean.TRUE.equals(request.getPerformPIICheck())) {
             log.info("Step 3/4: Detecting PII...");
-            Map<String, List<String>> piiByColumn = piiDetectionService.detectPII(data);
+            piiByColumn = piiDetectionService.detectPII(data);
+        }
+        
+        // Bias Detection
+        Map<String, Object> biasReport = null;
+        if (Boolean.TRUE.equals(request.getPerformBiasCheck())) {
+            log.info("Detecting bias...");
+            biasReport = biasDetectionService.detectBias(data);
+        }
+        
+        // Generate duplicate analysis
+        DuplicateAnalysis duplicateAnalysis = healthScoreService.generateDuplicateAnalysis(
+            duplicates.getTotalRows(),
+            duplicates.getTotalDuplicates(),
+            duplicates.getDuplicateRowIndices(),
+            columnProfiles
+        );
+        
+        return buildResponse(request, sourceName, data.getRowCount(), data.getColumnNames(),
+                             columnProfiles, qualityMetrics, piiByColumn, biasReport, duplicateAnalysis);
+    }
+
+    /**
+     * Analyze the row sample ingestion kept of data with more rows than max-rows-to-process.
+     * Row and null counts still cover every row; everything measured on values is estimated
+     * from the sample and listed in the response.
+     */
+    private DataQualityResponse processSampled(SampledDataset sample,
+                                               DataQualityRequest request,
+                                               String sourceName) {
+        long totalRows = sample.getSourceRowCount();
+        
+        log.info("Step 1/4: Profiling a sample of {} of {} rows...", sample.getRowCount(), totalRows);
+        List<ColumnProfile> columnProfiles = dataProfilingService.profileData(sample);
+        for (ColumnProfile profile : columnProfiles) {
+            String name = profile.getColumnName();
+            dataProfilingService.applyFullColumnCounts(profile, totalRows, sample.getSourceNullCount(name),
+                                                       sample.getColumn(name));
+        }
+        
+        // Counts found in the sample are projected onto the full row count
+        log.info("Step 2/4: Computing quality metrics...");
+        List<Integer> duplicateRowIndices = new ArrayList<>();
+        long duplicateRows = RowSampler.estimateDuplicateRows(sample, duplicateRowIndices);
+        long schemaViolations = Math.round(qualityMetricsService.countSchemaViolations(sample, request.getSchemaDefinition())
+            * (double) totalRows / sample.getRowCount());
+        QualityMetrics qualityMetrics = qualityMetricsService.computeMetrics(
+            totalRows,
+            duplicateRows,
+            schemaViolations,
+            columnProfiles,
+            request.getSchemaDefinition()
+        );
+        
+        List<String> estimatedMetrics = new ArrayList<>(SAMPLED_METRICS);
+        if (request.getSchemaDefinition() != null && !request.getSchemaDefinition().isEmpty()) {
+            estimatedMetrics.addAll(List.of("qualityMetrics.schemaViolations", "qualityMetrics.accuracyScore"));
+        }
+        
+        Map<String, List<String>> piiByColumn = null;
+        if (Boolean.TRUE.equals(request.getPerformPIICheck())) {
+            log.info("Step 3/4: Detecting PII...");
+            piiByColumn = piiDetectionService.detectPII(sample);
+            estimatedMetrics.add("piiFindings");
+        }
+        
+        Map<String, Object> biasReport = null;
+        if (Boolean.TRUE.equals(request.getPerformBiasCheck())) {
+            log.info("Detecting bias...");
+            biasReport = biasDetectionService.detectBias(sample);
+            estimatedMetrics.addAll(List.of("qualityMetrics.biasDetected", "qualityMetrics.biasScore"));
+        }
+        
+        DuplicateAnalysis duplicateAnalysis = healthScoreService.generateDuplicateAnalysis(
+            totalRows,
+            duplicateRows,
+            duplicateRowIndices,
+            columnProfiles
+        );
+        
+        DataQualityResponse response = buildResponse(request, sourceName, totalRows, sample.getColumnNames(),
+                                                     columnProfiles, qualityMetrics, piiByColumn, biasReport, duplicateAnalysis);
+        response.setSampled(true);
+        response.setSampleSize((long) sample.getRowCount());
+        response.setEstimatedMetrics(estimatedMetrics);
+        return response;
+    }
+
+    /**
+     * Finish an analysis whose data was pushed through a {@link StreamingAnalyzer} batch by batch
+     */
+    private DataQualityResponse processStreamed(StreamingAnalyzer analyzer,
+                                                DataQualityRequest request,
+                                                String sourceName) {
+        log.info("Finishing streamed analysis of {} rows", analyzer.getRowCount());
+        
+        List<ColumnProfile> columnProfiles = analyzer.finishColumnProfiles();
+        DuplicateTracker duplicates = analyzer.getDuplicateTracker();
+        
+        QualityMetrics qualityMetrics = qualityMetricsService.computeMetrics(
+            analyzer.getRowCount(),
+            duplicates.getTotalDuplicates(),
+            analyzer.getSchemaViolations(),
+            columnProfiles,
+            request.getSchemaDefinition()
+        );
+        
+        Map<String, List<String>> piiByColumn = null;
+        if (Boolean.TRUE.equals(request.getPerformPIICheck())) {
+            piiByColumn = analyzer.getRowCount() > 0
+                ? piiDetectionService.detectPII(analyzer.getPiiSamples())
+                : Map.of();
+        }
+        
+        Map<String, Object> biasReport = null;
+        if (Boolean.TRUE.equals(request.getPerformBiasCheck())) {
+            biasReport = analyzer.getRowCount() > 0
+                ? biasDetectionService.buildBiasReport(analyzer.getBiasDistributions())
+                : biasDetectionService.detectBias(Dataset.empty());
+        }
+        
+        DuplicateAnalysis duplicateAnalysis = healthScoreService.generateDuplicateAnalysis(
+            duplicates.getTotalRows(),
+            duplicates.getTotalDuplicates(),
+            duplicates.getDuplicateRowIndices(),
+            columnProfiles
+        );
+        
+        return buildResponse(request, sourceName, analyzer.getRowCount(), analyzer.getColumnNames(),
+                             columnProfiles, qualityMetrics, piiByColumn, biasReport, duplicateAnalysis);
+    }
+
+    /**
+     * Analyze the selected sheets of a workbook concurrently, each as a dataset of its own,
+     * and roll their results up into a workbook-level response
+     */
+    private DataQualityResponse processWorkbook(MultipartFile file, DataQualityRequest request) {
+        String workbookName = file.getOriginalFilename();
+        
+        Map<String, DataQualityResponse> sheets;
+        if (Boolean.TRUE.equals(request.getStreaming())) {
+            sheets = dataIngestionService.streamSheets(file, request.getSheets(), columnSelection(request),
+                request.getStratifyBy(), () -> createStreamingAnalyzer(request),
+                (analyzer, sample) -> sample != null
+                    ? processAndAnalyze(sample, request, workbookName)
+                    : processStreamed(analyzer, request, workbookName));
+        } else {
+            sheets = dataIngestionService.ingestSheets(file, request.getSheets(), columnSelection(request),
+                request.getStratifyBy(),
+                (sheet, data) -> processAndAnalyze(data, request, workbookName));
+        }
+        
+        return rollUpSheets(request, workbookName, sheets);
+    }
+
+    /**
+     * Workbook-level response: counts are summed over the sheets, scores are recomputed from
+     * the combined counts and column-level findings are named "sheet!column"
+     */
+    private DataQualityResponse rollUpSheets(DataQualityRequest request,
+                                             String workbookName,
+                                             Map<String, DataQualityResponse> sheets) {
+        log.info("Rolling up the analyses of {} sheets", sheets.size());
+        
+        long totalRows = 0;
+        long duplicateRows = 0;
+        long schemaViolations = 0;
+        List<ColumnProfile> columnProfiles = new ArrayList<>();
+        List<String> columnNames = new ArrayList<>();
+        Map<String, List<String>> piiByColumn = new LinkedHashMap<>();
+        Map<String, Long> duplicatesByColumn = new LinkedHashMap<>();
+        List<DataQualityIssue> columnIssues = new ArrayList<>();
+        List<String> biasedSheets = new ArrayList<>();
+        Set<String> estimatedMetrics = new LinkedHashSet<>();
+        
+        for (Map.Entry<String, DataQualityResponse> entry : sheets.entrySet()) {
+            String sheet = entry.getKey();
+            DataQualityResponse result = entry.getValue();
+            QualityMetrics metrics = result.getQualityMetrics();
             
+            totalRows += metrics.getTotalRows();
+            duplicateRows += metrics.getDuplicateRows();
+            schemaViolations += metrics.getSchemaViolations();
+            columnProfiles.addAll(result.getColumnProfiles());
+            for (String column : result.getSummary().getColumnNames()) {
+                columnNames.add(sheet + "!" + column);
+            }
+            if (result.getPiiFindings() != null) {
+                result.getPiiFindings().getPiiByColumn().forEach((column, types) -> piiByColumn.put(sheet + "!" + column, types));
+            }
+            result.getDuplicateAnalysis().getDuplicatesByColumn()
+                .forEach((column, count) -> duplicatesByColumn.put(sheet + "!" + column, count));
+            for (DataQualityIssue issue : result.getIssues()) {
+                if (issue.getColumnName() != null) {
+                    columnIssues.add(DataQualityIssue.builder()
+                        .issueType(issue.getIssueType())
+                        .severity(issue.getSeverity())
+                        .columnName(sheet + "!" + issue.getColumnName())
+                        .description(issue.getDescription())
+                        .affectedRows(issue.getAffectedRows())
+                        .recommendation(issue.getRecommendation())
+                        .build());
+                }
+            }
+            if (Boolean.TRUE.equals(metrics.getBiasDetected())) {
+                biasedSheets.add(sheet);
+            }
+            if (result.getEstimatedMetrics() != null) {
+                estimatedMetrics.addAll(result.getEstimatedMetrics());
+            }
+        }
+        
+        // Profiles only contribute counts and types here, so their unqualified names do not matter
+        QualityMetrics qualityMetrics = qualityMetricsService.computeMetrics(
+            totalRows,
+            duplicateRows,
+            schemaViolations,
+            columnProfiles,
+            request.getSchemaDefinition()
+        );
+        if (Boolean.TRUE.equals(request.getPerformBiasCheck())) {
+            qualityMetrics.setBiasDetected(!biasedSheets.isEmpty());
+            qualityMetrics.setBiasDescription(biasedSheets.isEmpty()
+                ? "No significant bias detected in any sheet"
+                : "Potential bias detected in sheets: " + String.join(", ", biasedSheets));
+            qualityMetrics.setBiasScore(biasedSheets.isEmpty() ? 95.0 : 60.0);
+        }
+        
+        PIIFindings piiFindings = null;
+        if (Boolean.TRUE.equals(request.getPerformPIICheck())) {
+            piiFindings = PIIFindings.builder()
+                .piiDetected(!piiByColumn.isEmpty())
+                .totalPIIColumns(piiByColumn.size())
+                .piiByColumn(piiByColumn)
+                .recommendations(piiDetectionService.generateRecommendations(piiByColumn))
+                .build();
+        }
+        
+        double healthScore = healthScoreService.computeHealthScore(qualityMetrics);
+        
+        // Workbook-wide issues come from the combined metrics, column issues from the sheets
+        List<DataQualityIssue> issues = healthScoreService.generateIssues(List.of(), qualityMetrics, piiFindings);
+        issues.addAll(columnIssues);
+        
+        DuplicateAnalysis duplicateAnalysis = healthScoreService.generateDuplicateAnalysis(
+            totalRows, duplicateRows, List.of(), List.of());
+        duplicateAnalysis.setDuplicatesByColumn(duplicatesByColumn);
+        
+        DatasetSummary summary = DatasetSummary.builder()
+            .fileFormat(detectFileFormat(workbookName))
+            .dataType(request.getDataType() != null ? request.getDataType() : DataType.TABULAR)
+            .rowCount(totalRows)
+            .columnCount((long) columnNames.size())
+            .totalCells(qualityMetrics.getTotalCells())
+            .hasHeader(true)
+            .columnNames(columnNames.toArray(new String[0]))
+            .build();
+        
+        return DataQualityResponse.builder()
+            .analysisId(UUID.randomUUID().toString())
+            .timestamp(LocalDateTime.now())
+            .healthScore(healthScore)
+            .qualityLevel(healthScoreService.determineQualityLevel(healthScore))
+            .summary(summary)
+            .qualityMetrics(qualityMetrics)
+            .issues(issues)
+            .recommendations(healthScoreService.generateRecommendations(healthScore, qualityMetrics, issues))
+            .piiFindings(piiFindings)
+            .duplicateAnalysis(duplicateAnalysis)
+            .sampled(estimatedMetrics.isEmpty() ? null : true)
+            .estimatedMetrics(estimatedMetrics.isEmpty() ? null : new ArrayList<>(estimatedMetrics))
+            .sheets(sheets)
+            .build();
+    }
+
+    /**
+     * Finish a quick check of a Parquet file: counts, completeness and numeric ranges come from
+     * footer statistics, types and PII are judged from the decoded sample and checks that need
+     * every value are skipped and listed in the response
+     */
+    private DataQualityResponse processFooterScan(ParquetFooterScan scan,
+                                                  DataQualityRequest request,
+                                                  String sourceName) {
+        log.info("Step 1/4: Profiling {} rows from Parquet footer statistics...", scan.getRowCount());
+        
+        // Columns the footer could not describe were decoded and are profiled as usual
+        Map<String, ColumnProfile> decodedProfiles = new HashMap<>();
+        for (ColumnProfile profile : dataProfilingService.profileData(scan.getDecoded())) {
+            decodedProfiles.put(profile.getColumnName(), profile);
+        }
+        
+        List<ColumnProfile> columnProfiles = new ArrayList<>();
+        for (String columnName : scan.getColumnNames()) {
+            ParquetFooterScan.ColumnStatistics statistics = scan.getStatistics(columnName);
+            ColumnProfile profile = statistics != null
+                ? dataProfilingService.profileFromStatistics(
+                    statistics, scan.getRowCount(), scan.getSample().getColumn(columnName))
+                : decodedProfiles.get(columnName);
+            if (profile != null) {
+                columnProfiles.add(profile);
+            }
+        }
+        
+        List<String> skippedChecks = new ArrayList<>(List.of("uniqueness", "outliers"));
+        boolean schemaSkipped = request.getSchemaDefinition() != null && !request.getSchemaDefinition().isEmpty();
+        if (schemaSkipped) {
+            skippedChecks.add("schemaValidation");
+        }
+        
+        // Skipped dimensions get no score rather than a perfect one, and drop out of the health score
+        log.info("Step 2/4: Computing quality metrics...");
+        QualityMetrics qualityMetrics = qualityMetricsService.computeMetrics(
+            scan.getRowCount(),
+            null,
+            schemaSkipped ? null : 0L,
+            columnProfiles,
+            null
+        );
+        
+        Map<String, List<String>> piiByColumn = null;
+        if (Boolean.TRUE.equals(request.getPerformPIICheck())) {
+            log.info("Step 3/4: Detecting PII in the first {} rows...", scan.getSample().getRowCount());
+            piiByColumn = piiDetectionService.detectPII(scan.getSample());
+        }
+        
+        if (Boolean.TRUE.equals(request.getPerformBiasCheck())) {
+            skippedChecks.add("bias");
+        }
+        
+        DataQualityResponse response = buildResponse(request, sourceName, scan.getRowCount(), scan.getColumnNames(),
+                                                     columnProfiles, qualityMetrics, piiByColumn, null, null);
+        response.setQuickCheck(true);
+        response.setSkippedChecks(skippedChecks);
+        return response;
+    }
+
+    /**
+     * Quick checks read footer statistics, so they only apply to Parquet sources
+     */
+    private boolean isQuickCheck(DataQualityRequest request, String sourceName) {
+        if (!Boolean.TRUE.equals(request.getQuickCheck())) {
+            return false;
+        }
+        if (detectFileFormat(sourceName) != FileFormat.PARQUET) {
+            log.info("Quick check is only available for Parquet files, running a full analysis");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sheet selection reads workbook parts concurrently, so it only applies to uploaded XLSX files
+     */
+    private boolean isWorkbookAnalysis(DataQualityRequest request, String sourceName) {
+        if (request.getSheets() == null || request.getSheets().isEmpty()) {
+            return false;
+        }
+        if (detectFileFormat(sourceName) != FileFormat.XLSX) {
+            log.info("Sheet selection is only available for XLSX files, ignoring sheets: {}", request.getSheets());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Columns the request restricts the analysis to; the readers skip all others while parsing
+     */
+    private static ColumnSelection columnSelection(DataQualityRequest request) {
+        return ColumnSelection.of(request.getIncludeColumns(), request.getExcludeColumns());
+    }
+
+    private StreamingAnalyzer createStreamingAnalyzer(DataQualityRequest request) {
+        return new StreamingAnalyzer(dataProfilingService, qualityMetricsService,
+                                     piiDetectionService, biasDetectionService, request);
+    }
+
+    /**
+     * Combine the analysis results into the final response
+     */
+    private DataQualityResponse buildResponse(DataQualityRequest request,
+                                              String sourceName,
+                                              long rowCount,
+                                              List<String> columnNames,
+                                              List<ColumnProfile> columnProfiles,
+                                              QualityMetrics qualityMetrics,
+                                              Map<String, List<String>> piiByColumn,
+                                              Map<String, Object> biasReport,
+                                              DuplicateAnalysis duplicateAnalysis) {
+        // Generate analysis ID
+        String analysisId = UUID.randomUUID().toString();
+        
+        // PII findings
+        PIIFindings piiFindings = null;
+        if (piiByColumn != null) {
             // Update column profiles with PII information
             for (ColumnProfile profile : columnProfiles) {
                 if (piiByColumn.containsKey(profile.getColumnName())) {
@@ -139,11 +646,8 @@ public class DataQualityOrchestrationService {
                 .build();
         }
         
-        // Bias Detection
-        if (Boolean.TRUE.equals(request.getPerformBiasCheck())) {
-            log.info("Detecting bias...");
-            Map<String, Object> biasReport = biasDetectionService.detectBias(data);
-            
+        // Bias findings
+        if (biasReport != null) {
             qualityMetrics.setBiasDetected((Boolean) biasReport.get("biasDetected"));
             qualityMetrics.setBiasDescription((String) biasReport.get("description"));
             qualityMetrics.setBiasScore(
@@ -165,20 +669,15 @@ public class DataQualityOrchestrationService {
             healthScore, qualityMetrics, issues
         );
         
-        // Generate duplicate analysis
-        DuplicateAnalysis duplicateAnalysis = healthScoreService.generateDuplicateAnalysis(
-            data, columnProfiles
-        );
-        
         // Build dataset summary
         DatasetSummary summary = DatasetSummary.builder()
             .fileFormat(detectFileFormat(sourceName))
             .dataType(request.getDataType() != null ? request.getDataType() : DataType.TABULAR)
-            .rowCount((long) data.size())
-            .columnCount((long) (data.isEmpty() ? 0 : data.get(0).size()))
-            .totalCells((long) data.size() * (data.isEmpty() ? 0 : data.get(0).size()))
+            .rowCount(rowCount)
+            .columnCount((long) columnNames.size())
+            .totalCells(rowCount * columnNames.size())
             .hasHeader(true)
-            .columnNames(data.isEmpty() ? new String[0] : data.get(0).keySet().toArray(new String[0]))
+            .columnNames(columnNames.toArray(new String[0]))
             .build();
         
         // Build final response
@@ -205,15 +704,7 @@ public class DataQualityOrchestrationService {
             return FileFormat.JSON;
         }
         
-        String extension = sourceName.substring(sourceName.lastIndexOf('.') + 1).toLowerCase();
-        
-        return switch (extension) {
-            case "csv" -> FileFormat.CSV;
-            case "json" -> FileFormat.JSON;
-            case "xlsx", "xls" -> FileFormat.XLSX;
-            case "parquet" -> FileFormat.PARQUET;
-            default -> FileFormat.UNKNOWN;
-        };
+        return FileFormat.fromFilename(sourceName);
     }
 }
 
@@ -0,0 +1,71 @@
+package com.aidataquality.service;
+
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.util.Hashing;
+import com.aidataquality.util.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks exact duplicate rows across batches using 64-bit row fingerprints
+ * instead of keeping every row string
+ */
+public class DuplicateTracker {
+
+    // Row indices reported in the duplicate analysis
+    private static final int MAX_REPORTED_INDICES = 100;
+
+    private final LongHashSet fingerprints = new LongHashSet();
+    private final List<Integer> duplicateRowIndices = new ArrayList<>();
+    private long totalRows;
+    private long totalDuplicates;
+
+    /**
+     * Add the rows of the next batch, or of a whole dataset
+     */
+    public void accept(Dataset batch) {
+        long[] rowFingerprints = fingerprints(batch);
+        for (int row = 0; row < rowFingerprints.length; row++) {
+            if (!fingerprints.add(rowFingerprints[row])) {
+                totalDuplicates++;
+                if (duplicateRowIndices.size() < MAX_REPORTED_INDICES) {
+                    duplicateRowIndices.add((int) (totalRows + row));
+                }
+            }
+        }
+        totalRows += rowFingerprints.length;
+    }
+
+    /**
+     * Hash of the non-null values of each row keyed by column position, built a column at a
+     * time so that lazily loaded and spilled columns are read sequentially. Skipping nulls
+     * keeps fingerprints stable when a column first appears in a later batch.
+     */
+    static long[] fingerprints(Dataset data) {
+        long[] rowFingerprints = new long[data.getRowCount()];
+        for (int c = 0; c < data.getColumnCount(); c++) {
+            Column column = data.getColumn(c);
+            for (int row = 0; row < rowFingerprints.length; row++) {
+                String value = column.getString(row);
+                if (value != null) {
+                    rowFingerprints[row] = Hashing.finalizeHash(rowFingerprints[row] * 31 + Hashing.hash64(value) + c);
+                }
+            }
+        }
+        return rowFingerprints;
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public long getTotalDuplicates() {
+        return totalDuplicates;
+    }
+
+    public List<Integer> getDuplicateRowIndices() {
+        return duplicateRowIndices;
+    }
+}
@@ -23,21 +23,37 @@ public class HealthScoreService {
     private static final double TIMELINESS_WEIGHT = 0.05;
 
     /**
-     * Compute overall health score
+     * Compute overall health score; dimensions that were not checked (null scores) are left
+     * out and the weights of the others scaled up to make up for them
      */
     public double computeHealthScore(QualityMetrics metrics) {
-        double healthScore = 
-            metrics.getCompletenessScore() * COMPLETENESS_WEIGHT +
-            metrics.getUniquenessScore() * UNIQUENESS_WEIGHT +
-            metrics.getValidityScore() * VALIDITY_WEIGHT +
-            metrics.getConsistencyScore() * CONSISTENCY_WEIGHT +
-            metrics.getAccuracyScore() * ACCURACY_WEIGHT +
-            metrics.getTimelinessScore() * TIMELINESS_WEIGHT;
+        double[][] weightedScores = {
+            {score(metrics.getCompletenessScore()), COMPLETENESS_WEIGHT},
+            {score(metrics.getUniquenessScore()), UNIQUENESS_WEIGHT},
+            {score(metrics.getValidityScore()), VALIDITY_WEIGHT},
+            {score(metrics.getConsistencyScore()), CONSISTENCY_WEIGHT},
+            {score(metrics.getAccuracyScore()), ACCURACY_WEIGHT},
+            {score(metrics.getTimelinessScore()), TIMELINESS_WEIGHT}
+        };
+        
+        double weightedSum = 0.0;
+        double totalWeight = 0.0;
+        for (double[] weightedScore : weightedScores) {
+            if (!Double.isNaN(weightedScore[0])) {
+                weightedSum += weightedScore[0] * weightedScore[1];
+                totalWeight += weightedScore[1];
+            }
+        }
+        double healthScore = totalWeight > 0 ? weightedSum / totalWeight : 0.0;
         
         log.info("Computed overall health score: {}", healthScore);
         return Math.round(healthScore * 100.0) / 100.0;
     }
 
+    private static double score(Double score) {
+        return score != null ? score : Double.NaN;
+    }
+
     /**
      * Determine quality level from health score
      */
@@ -69,7 +85,7 @@ public class HealthScoreService {
         }
         
         // Check uniqueness issues
-        if (metrics.getDuplicatePercentage() > 5) {
+        if (metrics.getDuplicatePercentage() != null && metrics.getDuplicatePercentage() > 5) {
             issues.add(DataQualityIssue.builder()
                 .issueType("DUPLICATES")
                 .severity(metrics.getDuplicatePercentage() > 20 ? "HIGH" : "MEDIUM")
@@ -144,7 +160,7 @@ public class HealthScoreService {
             recommendations.add("Improve data completeness by addressing missing values");
         }
         
-        if (metrics.getUniquenessScore() < 85) {
+        if (metrics.getUniquenessScore() != null && metrics.getUniquenessScore() < 85) {
             recommendations.add("Remove or investigate duplicate records");
         }
         
@@ -160,28 +176,15 @@ public class HealthScoreService {
     }
 
     /**
-     * Generate duplicate analysis
+     * Generate duplicate analysis from the duplicate counts of a {@link DuplicateTracker} or
+     * of a sample estimate
      */
-    public DuplicateAnalysis generateDuplicateAnalysis(List<Map<String, Object>> data,
+    public DuplicateAnalysis generateDuplicateAnalysis(long totalRows,
+                                                        long totalDuplicates,
+                                                        List<Integer> duplicateRowIndices,
                                                         List<ColumnProfile> columnProfiles) {
-        Set<String> uniqueRows = new HashSet<>();
-        List<Integer> duplicateRowIndices = new ArrayList<>();
-        long totalDuplicates = 0;
-        
-        for (int i = 0; i < data.size(); i++) {
-            Map<String, Object> row = data.get(i);
-            String rowString = row.values().stream()
-                .map(v -> v != null ? v.toString() : "null")
-                .reduce("", (a, b) -> a + "|" + b);
-            
-            if (!uniqueRows.add(rowString)) {
-                duplicateRowIndices.add(i);
-                totalDuplicates++;
-            }
-        }
-        
-        double duplicatePercentage = data.size() > 0 
-            ? (totalDuplicates * 100.0 / data.size()) : 0.0;
+        double duplicatePercentage = totalRows > 0 
+            ? (totalDuplicates * 100.0 / totalRows) : 0.0;
         
         // Analyze duplicates by column
         Map<String, Long> duplicatesByColumn = new HashMap<>();
@@ -1,5 +1,8 @@
 package com.aidataquality.service;
 
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -11,8 +14,12 @@ import java.util.regex.Pattern;
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class PIIDetectionService {
 
+    // Number of non-null values per column that are checked against the patterns
+    public static final int SAMPLE_SIZE = 100;
+
     // PII detection patterns
     private static final Map<String, Pattern> PII_PATTERNS = new HashMap<>();
     
@@ -37,46 +44,69 @@ public class PIIDetectionService {
         "dob", "date_of_birth", "birthdate"
     );
 
+    private final ColumnTaskRunner columnTasks;
+
     /**
      * Detect PII in dataset
      */
-    public Map<String, List<String>> detectPII(List<Map<String, Object>> data) {
+    public Map<String, List<String>> detectPII(Dataset data) {
         if (data == null || data.isEmpty()) {
             return Collections.emptyMap();
         }
         
-        Map<String, List<String>> piiByColumn = new HashMap<>();
+        // Sample values from each column
+        Map<String, List<String>> samplesByColumn = new LinkedHashMap<>();
+        for (Column column : data.getColumns()) {
+            List<String> samples = new ArrayList<>();
+            collectSamples(column, samples);
+            samplesByColumn.put(column.getName(), samples);
+        }
         
-        // Get column names from first row
-        Set<String> columns = data.get(0).keySet();
+        return detectPII(samplesByColumn);
+    }
+
+    /**
+     * Detect PII from up to {@link #SAMPLE_SIZE} sampled values per column, several columns
+     * at a time on the processing pool
+     */
+    public Map<String, List<String>> detectPII(Map<String, List<String>> samplesByColumn) {
+        List<Map.Entry<String, List<String>>> columns = new ArrayList<>(samplesByColumn.entrySet());
+        List<List<String>> piiTypesByColumn = columnTasks.map(columns, columnSamples ->
+            detectPII(columnSamples.getKey(), columnSamples.getValue()));
         
-        for (String column : columns) {
-            List<String> piiTypes = new ArrayList<>();
-            
-            // Check column name
-            if (isPIIColumnName(column)) {
-                piiTypes.add("COLUMN_NAME_MATCH");
-            }
-            
-            // Sample values from column
-            List<String> sampleValues = getSampleValues(data, column, 100);
-            
-            // Check patterns
-            for (Map.Entry<String, Pattern> entry : PII_PATTERNS.entrySet()) {
-                if (hasPatternMatch(sampleValues, entry.getValue())) {
-                    piiTypes.add(entry.getKey());
-                }
-            }
-            
+        Map<String, List<String>> piiByColumn = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            List<String> piiTypes = piiTypesByColumn.get(i);
             if (!piiTypes.isEmpty()) {
-                piiByColumn.put(column, piiTypes);
-                log.info("PII detected in column '{}': {}", column, piiTypes);
+                piiByColumn.put(columns.get(i).getKey(), piiTypes);
+                log.info("PII detected in column '{}': {}", columns.get(i).getKey(), piiTypes);
             }
         }
         
         return piiByColumn;
     }
 
+    /**
+     * PII types suggested by the name and sampled values of one column
+     */
+    private List<String> detectPII(String column, List<String> sampleValues) {
+        List<String> piiTypes = new ArrayList<>();
+        
+        // Check column name
+        if (isPIIColumnName(column)) {
+            piiTypes.add("COLUMN_NAME_MATCH");
+        }
+        
+        // Check patterns
+        for (Map.Entry<String, Pattern> entry : PII_PATTERNS.entrySet()) {
+            if (hasPatternMatch(sampleValues, entry.getValue())) {
+                piiTypes.add(entry.getKey());
+            }
+        }
+        
+        return piiTypes;
+    }
+
     /**
      * Check if column name suggests PII
      */
@@ -94,23 +124,17 @@ public class PIIDetectionService {
     }
 
     /**
-     * Get sample values from column
+     * Add non-null values from the column to the samples until {@link #SAMPLE_SIZE} are collected
      */
-    private List<String> getSampleValues(List<Map<String, Object>> data, String column, int maxSamples) {
-        List<String> samples = new ArrayList<>();
-        int count = 0;
-        
-        for (Map<String, Object> row : data) {
-            if (count >= maxSamples) break;
+    public void collectSamples(Column column, List<String> samples) {
+        for (int row = 0; row < column.size(); row++) {
+            if (samples.size() >= SAMPLE_SIZE) break;
             
-            Object value = row.get(column);
+            String value = column.getString(row);
             if (value != null) {
-                samples.add(value.toString());
-                count++;
+                samples.add(value);
             }
         }
-        
-        return samples;
     }
 
     /**
@@ -1,24 +1,35 @@
 package com.aidataquality.service;
 
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DictionaryColumn;
 import com.aidataquality.model.dto.ColumnProfile;
 import com.aidataquality.model.dto.QualityMetrics;
+import com.aidataquality.util.NumberParser;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service for computing data quality metrics
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class QualityMetricsService {
 
+    private final ColumnTaskRunner columnTasks;
+
     /**
-     * Compute comprehensive quality metrics
+     * Compute quality metrics from row-level counts gathered by the caller, which counts
+     * duplicate rows once per dataset (see {@link DuplicateTracker}). A null count means the
+     * check was not run, and its score is left unset.
      */
-    public QualityMetrics computeMetrics(List<Map<String, Object>> data, 
+    public QualityMetrics computeMetrics(long totalRows,
+                                         Long duplicateRows,
+                                         Long schemaViolations,
                                          List<ColumnProfile> columnProfiles,
                                          Map<String, String> schemaDefinition) {
         log.info("Computing quality metrics for dataset");
@@ -26,22 +37,22 @@ public class QualityMetricsService {
         QualityMetrics.QualityMetricsBuilder builder = QualityMetrics.builder();
         
         // Completeness metrics
-        computeCompletenessMetrics(data, columnProfiles, builder);
+        computeCompletenessMetrics(columnProfiles, builder);
         
         // Uniqueness metrics
-        computeUniquenessMetrics(data, builder);
+        computeUniquenessMetrics(totalRows, duplicateRows, builder);
         
         // Validity metrics
-        computeValidityMetrics(data, columnProfiles, schemaDefinition, builder);
+        computeValidityMetrics(columnProfiles, schemaDefinition, builder);
         
         // Consistency metrics
-        computeConsistencyMetrics(data, columnProfiles, builder);
+        computeConsistencyMetrics(columnProfiles, builder);
         
         // Accuracy metrics (schema-based)
-        computeAccuracyMetrics(data, schemaDefinition, builder);
+        computeAccuracyMetrics(totalRows, schemaViolations, schemaDefinition, builder);
         
         // Timeliness metrics
-        computeTimelinessMetrics(data, columnProfiles, builder);
+        computeTimelinessMetrics(columnProfiles, builder);
         
         return builder.build();
     }
@@ -49,8 +60,7 @@ public class QualityMetricsService {
     /**
      * Compute completeness metrics
      */
-    private void computeCompletenessMetrics(List<Map<String, Object>> data,
-                                            List<ColumnProfile> columnProfiles,
+    private void computeCompletenessMetrics(List<ColumnProfile> columnProfiles,
                                             QualityMetrics.QualityMetricsBuilder builder) {
         long totalCells = 0;
         long nullCells = 0;
@@ -74,29 +84,17 @@ public class QualityMetricsService {
     /**
      * Compute uniqueness metrics (duplicate detection)
      */
-    private void computeUniquenessMetrics(List<Map<String, Object>> data,
+    private void computeUniquenessMetrics(long totalRows, Long duplicateRows,
                                           QualityMetrics.QualityMetricsBuilder builder) {
-        long totalRows = data.size();
-        
-        // Find exact duplicate rows
-        Set<String> uniqueRows = new HashSet<>();
-        long duplicateRows = 0;
-        
-        for (Map<String, Object> row : data) {
-            String rowString = row.values().stream()
-                .map(v -> v != null ? v.toString() : "null")
-                .collect(Collectors.joining("|"));
-            
-            if (!uniqueRows.add(rowString)) {
-                duplicateRows++;
-            }
+        builder.totalRows(totalRows);
+        if (duplicateRows == null) {
+            return;
         }
         
         double duplicatePercentage = totalRows > 0 ? (duplicateRows * 100.0 / totalRows) : 0.0;
         double uniquenessScore = 100.0 - duplicatePercentage;
         
-        builder.totalRows(totalRows)
-               .duplicateRows(duplicateRows)
+        builder.duplicateRows(duplicateRows)
                .duplicatePercentage(duplicatePercentage)
                .uniquenessScore(uniquenessScore);
         
@@ -106,8 +104,7 @@ public class QualityMetricsService {
     /**
      * Compute validity metrics
      */
-    private void computeValidityMetrics(List<Map<String, Object>> data,
-                                        List<ColumnProfile> columnProfiles,
+    private void computeValidityMetrics(List<ColumnProfile> columnProfiles,
                                         Map<String, String> schemaDefinition,
                                         QualityMetrics.QualityMetricsBuilder builder) {
         long invalidValues = 0;
@@ -138,8 +135,7 @@ public class QualityMetricsService {
     /**
      * Compute consistency metrics
      */
-    private void computeConsistencyMetrics(List<Map<String, Object>> data,
-                                           List<ColumnProfile> columnProfiles,
+    private void computeConsistencyMetrics(List<ColumnProfile> columnProfiles,
                                            QualityMetrics.QualityMetricsBuilder builder) {
         long inconsistentValues = 0;
         long totalValues = 0;
@@ -149,7 +145,7 @@ public class QualityMetricsService {
             totalValues += profile.getTotalCount();
             
             // If a column has mixed types or unusual patterns, count as inconsistent
-            if ("CATEGORICAL".equals(profile.getDataType())) {
+            if ("CATEGORICAL".equals(profile.getDataType()) && profile.getUniqueCount() != null) {
                 long nonNullCount = profile.getTotalCount() - profile.getNullCount();
                 if (profile.getUniqueCount() > nonNullCount * 0.8 && nonNullCount > 10) {
                     // High cardinality might indicate inconsistency
@@ -169,28 +165,70 @@ public class QualityMetricsService {
     }
 
     /**
-     * Compute accuracy metrics based on schema validation
+     * Count values that do not match the expected type of their column in the schema.
+     * The columns are checked several at a time on the processing pool.
+     * Can be called per batch and summed.
      */
-    private void computeAccuracyMetrics(List<Map<String, Object>> data,
-                                        Map<String, String> schemaDefinition,
-                                        QualityMetrics.QualityMetricsBuilder builder) {
+    public long countSchemaViolations(Dataset data, Map<String, String> schemaDefinition) {
+        if (schemaDefinition == null || schemaDefinition.isEmpty()) {
+            return 0;
+        }
+        
+        List<Map.Entry<Column, String>> checks = new ArrayList<>();
+        for (Map.Entry<String, String> schema : schemaDefinition.entrySet()) {
+            Column column = data.getColumn(schema.getKey());
+            if (column != null) {
+                checks.add(Map.entry(column, schema.getValue()));
+            }
+        }
+        
+        return columnTasks.map(checks, check -> countSchemaViolations(check.getKey(), check.getValue()))
+            .stream()
+            .mapToLong(Long::longValue)
+            .sum();
+    }
+
+    /**
+     * Count the values of one column that do not match the expected type
+     */
+    private long countSchemaViolations(Column column, String expectedType) {
         long schemaViolations = 0;
         
-        if (schemaDefinition != null && !schemaDefinition.isEmpty()) {
-            for (Map<String, Object> row : data) {
-                for (Map.Entry<String, String> schema : schemaDefinition.entrySet()) {
-                    String column = schema.getKey();
-                    String expectedType = schema.getValue();
-                    Object value = row.get(column);
-                    
-                    if (value != null && !validateType(value, expectedType)) {
-                        schemaViolations++;
+        for (Column segment : column.segments()) {
+            if (segment instanceof DictionaryColumn dictionary) {
+                // Validate each distinct value once and charge it for all of its rows
+                long[] counts = dictionary.countCodes();
+                for (int code = 0; code < counts.length; code++) {
+                    if (counts[code] > 0 && !validateType(dictionary.getDictionaryValue(code), expectedType)) {
+                        schemaViolations += counts[code];
                     }
                 }
+                continue;
+            }
+            
+            for (int row = 0; row < segment.size(); row++) {
+                Object value = segment.get(row);
+                
+                if (value != null && !validateType(value, expectedType)) {
+                    schemaViolations++;
+                }
             }
         }
         
-        long totalValues = data.size() * (schemaDefinition != null ? schemaDefinition.size() : 1);
+        return schemaViolations;
+    }
+
+    /**
+     * Compute accuracy metrics based on schema validation
+     */
+    private void computeAccuracyMetrics(long totalRows, Long schemaViolations,
+                                        Map<String, String> schemaDefinition,
+                                        QualityMetrics.QualityMetricsBuilder builder) {
+        if (schemaViolations == null) {
+            return;
+        }
+        
+        long totalValues = totalRows * (schemaDefinition != null ? schemaDefinition.size() : 1);
         double accuracyScore = totalValues > 0 
             ? (100.0 - (schemaViolations * 100.0 / totalValues))
             : 95.0; // Default to high score if no schema
@@ -204,8 +242,7 @@ public class QualityMetricsService {
     /**
      * Compute timeliness metrics for temporal data
      */
-    private void computeTimelinessMetrics(List<Map<String, Object>> data,
-                                          List<ColumnProfile> columnProfiles,
+    private void computeTimelinessMetrics(List<ColumnProfile> columnProfiles,
                                           QualityMetrics.QualityMetricsBuilder builder) {
         // Check if dataset has temporal columns
         boolean hasTemporalData = columnProfiles.stream()
@@ -234,25 +271,15 @@ public class QualityMetricsService {
     }
 
     private boolean isInteger(Object value) {
-        try {
-            if (value instanceof Number) {
-                return ((Number) value).doubleValue() == ((Number) value).intValue();
-            }
-            Integer.parseInt(value.toString());
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue() == ((Number) value).intValue();
         }
+        return NumberParser.isInt(value.toString());
     }
 
     private boolean isNumeric(Object value) {
         if (value instanceof Number) return true;
-        try {
-            Double.parseDouble(value.toString());
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+        return NumberParser.isNumber(value.toString());
     }
 
     private boolean isBoolean(Object value) {
@@ -0,0 +1,489 @@
+package com.aidataquality.service;
+
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.aidataquality.model.dataset.DatasetSink;
+import com.aidataquality.model.dataset.SampledDataset;
+import com.aidataquality.model.dataset.SpillingDatasetBuilder;
+import com.aidataquality.util.LongHashSet;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a fixed-size row sample of data that arrives in batches, so a dataset too large to
+ * analyze in full is never held whole. Ingestion feeds it as the sink of a batching builder.
+ *
+ * Rows are kept in a reservoir (Algorithm R), so every row has the same chance of being
+ * picked in a single pass whatever the number of rows, which is only known at the end. Until
+ * the reservoir is full every row is kept and batches are stored whole (and forwarded, for a
+ * streaming analysis that turns out not to need the sample); after that the rows drawn into
+ * the reservoir are copied out of their batch, and the rows they replaced are dropped once
+ * the copies outgrow twice the sample. Rows and nulls per column are counted over every row.
+ *
+ * With a stratification column the rows of each of its values are counted too, and one row
+ * per value is kept aside the same way. At the end every value gets a share of the sample in
+ * proportion to its rows, drawn from the reservoir, and at least one row while there are no
+ * more values than sample rows, so rare groups are not lost. The seed is fixed, so the same
+ * data always yields the same sample.
+ */
+@Slf4j
+public class RowSampler implements DatasetSink {
+
+    private static final long SEED = 0x5EED_2024L;
+
+    // Row indices reported in the duplicate analysis
+    private static final int MAX_REPORTED_INDICES = 100;
+
+    private static final int NONE = -1;
+
+    private final int sampleSize;
+    private final String stratifyBy;
+    private final Supplier<DatasetBuilder> storage;
+    private final DatasetSink forward;
+    private final SplittableRandom random = new SplittableRandom(SEED);
+
+    private long rowCount;
+    private final Map<String, Long> nullCounts = new LinkedHashMap<>();
+
+    // Kept rows: the first headRows are rows of head, the others rows of builder in order.
+    // Until the reservoir overflows, builder holds every row and head is not used.
+    private DatasetBuilder builder;
+    private Dataset head;
+    private int headRows;
+    private int keptRows;
+    private long[] keptSources = new long[64];
+    private int[] keptStrata = new int[64];
+
+    // Kept row in each reservoir slot, null until there are more rows than slots
+    private int[] slots;
+
+    // Index and row count of every value of the stratification column, and the kept row
+    // standing in for each value; floors is dropped once there are more values than slots
+    private final Map<String, Integer> strataIndex = new HashMap<>();
+    private long[] strataSizes = new long[16];
+    private int[] floors;
+    private boolean strataColumnSeen;
+
+    /**
+     * @param storage builders for the kept rows and the sample, so that they spill like any
+     *                dataset held by the service
+     * @param forward sink handed every batch until the rows no longer fit, or null
+     */
+    public RowSampler(int sampleSize, String stratifyBy, Supplier<DatasetBuilder> storage, DatasetSink forward) {
+        this.sampleSize = sampleSize;
+        this.stratifyBy = stratifyBy != null && !stratifyBy.isBlank() ? stratifyBy : null;
+        this.storage = storage;
+        this.forward = forward;
+        this.builder = storage.get();
+        if (this.stratifyBy != null) {
+            floors = new int[16];
+        }
+    }
+
+    @Override
+    public void accept(Dataset batch) {
+        countNulls(batch);
+        int[] strata = stratifyBy != null ? strataOf(batch) : null;
+        int rows = batch.getRowCount();
+
+        if (slots == null && rowCount + rows <= sampleSize) {
+            builder.append(batch);
+            for (int row = 0; row < rows; row++) {
+                int stratum = strata != null ? strata[row] : 0;
+                keep(rowCount + row, stratum);
+                if (strata != null) {
+                    offerFloor(stratum, keptRows - 1);
+                }
+            }
+            rowCount += rows;
+            if (forward != null) {
+                forward.accept(batch);
+            }
+            return;
+        }
+
+        if (slots == null) {
+            log.info("More than {} rows, keeping a reservoir sample of that size", sampleSize);
+            head = builder.build();
+            headRows = keptRows;
+            builder = storage.get();
+            slots = new int[sampleSize];
+            for (int row = 0; row < keptRows; row++) {
+                slots[row] = row;
+            }
+        }
+
+        // Large parts are drawn from in slices, so the copies never grow far past the limit
+        for (int from = 0; from < rows; from += sampleSize) {
+            sample(batch, strata, from, (int) Math.min(rows, (long) from + sampleSize));
+            if (keptRows >= 2L * keptLimit()) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Whether there were more rows than the sample holds
+     */
+    public boolean isSampled() {
+        return slots != null;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Every row as one dataset if they all fit in the sample, otherwise the sample as a
+     * {@link SampledDataset} in the order of the source rows
+     */
+    public Dataset finish() {
+        if (slots == null) {
+            return builder.build();
+        }
+
+        if (stratifyBy != null && !strataColumnSeen) {
+            log.warn("Stratification column '{}' not found, sampling rows uniformly", stratifyBy);
+        }
+        int[] selected = stratifyBy != null && strataColumnSeen
+            ? selectStrata()
+            : Arrays.copyOf(slots, (int) Math.min(rowCount, sampleSize));
+        Arrays.sort(selected);
+
+        Dataset sample = copy(selected);
+        long[] sourceRows = new long[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            sourceRows[i] = keptSources[selected[i]];
+        }
+        return new SampledDataset(sample, rowCount, new LinkedHashMap<>(nullCounts), sourceRows);
+    }
+
+    /**
+     * Drop the rows kept so far, for a read that failed or a streaming analysis that did not need them
+     */
+    public void discard() {
+        if (builder instanceof SpillingDatasetBuilder spilling) {
+            spilling.discard();
+        }
+        if (head != null) {
+            head.close();
+            head = null;
+        }
+    }
+
+    /**
+     * Duplicate rows expected in the full dataset, from how often rows repeat within the
+     * sample. Duplicates found in the sample are added to duplicateRowIndices as indices of
+     * the full dataset.
+     */
+    public static long estimateDuplicateRows(SampledDataset sample, List<Integer> duplicateRowIndices) {
+        LongHashSet seen = new LongHashSet(sample.getRowCount());
+        LongHashSet repeated = new LongHashSet();
+        LongHashSet repeatedTwice = new LongHashSet();
+
+        long[] fingerprints = DuplicateTracker.fingerprints(sample);
+        for (int row = 0; row < fingerprints.length; row++) {
+            long fingerprint = fingerprints[row];
+            if (!seen.add(fingerprint)) {
+                long sourceRow = sample.getSourceRow(row);
+                if (duplicateRowIndices.size() < MAX_REPORTED_INDICES && sourceRow <= Integer.MAX_VALUE) {
+                    duplicateRowIndices.add((int) sourceRow);
+                }
+                if (!repeated.add(fingerprint)) {
+                    repeatedTwice.add(fingerprint);
+                }
+            }
+        }
+
+        long totalRows = sample.getSourceRowCount();
+        long distinct = estimateDistinct(seen.size(), seen.size() - repeated.size(),
+                                         repeated.size() - repeatedTwice.size(), totalRows);
+        return totalRows - distinct;
+    }
+
+    /**
+     * Distinct values in a population estimated from a sample with the bias-corrected Chao1
+     * estimator: values seen once hint at values never seen, values seen twice that most were.
+     * The result lies between the distinct values of the sample and the population size.
+     */
+    static long estimateDistinct(long distinct, long singletons, long doubletons, long population) {
+        double unseen = singletons * (singletons - 1) / (2.0 * (doubletons + 1));
+        return Math.max(distinct, Math.min(population, Math.round(distinct + unseen)));
+    }
+
+    /**
+     * Draw rows [from, to) of a batch into the reservoir, copying the ones that are kept
+     */
+    private void sample(Dataset batch, int[] strata, int from, int to) {
+        int[] copied = new int[to - from];
+        int count = 0;
+        for (int row = from; row < to; row++) {
+            long index = rowCount++;
+            int keptRow = keptRows;
+            boolean kept = false;
+
+            long slot = index < sampleSize ? index : random.nextLong(index + 1);
+            if (slot < sampleSize) {
+                slots[(int) slot] = keptRow;
+                kept = true;
+            }
+            if (strata != null) {
+                kept |= offerFloor(strata[row], keptRow);
+            }
+
+            if (kept) {
+                keep(index, strata != null ? strata[row] : 0);
+                copied[count++] = row;
+            }
+        }
+        builder.appendRows(batch, Arrays.copyOf(copied, count));
+    }
+
+    /**
+     * Count a row of a stratum and make it the stratum's stand-in with probability one in
+     * the stratum's rows so far, a reservoir of one
+     */
+    private boolean offerFloor(int stratum, int keptRow) {
+        long size = ++strataSizes[stratum];
+        if (floors == null || (size > 1 && random.nextLong(size) != 0)) {
+            return false;
+        }
+        floors[stratum] = keptRow;
+        return true;
+    }
+
+    private void keep(long sourceRow, int stratum) {
+        if (keptRows == keptSources.length) {
+            keptSources = Arrays.copyOf(keptSources, keptRows * 2);
+            keptStrata = Arrays.copyOf(keptStrata, keptRows * 2);
+        }
+        keptSources[keptRows] = sourceRow;
+        keptStrata[keptRows] = stratum;
+        keptRows++;
+    }
+
+    private int keptLimit() {
+        return sampleSize + (floors != null ? strataIndex.size() : 0);
+    }
+
+    /**
+     * Drop kept rows that no longer stand in a slot or for a stratum
+     */
+    private void compact() {
+        int[] live = liveRows();
+        Dataset compacted = copy(live);
+
+        int[] moved = new int[keptRows];
+        Arrays.fill(moved, NONE);
+        for (int i = 0; i < live.length; i++) {
+            moved[live[i]] = i;
+            keptSources[i] = keptSources[live[i]];
+            keptStrata[i] = keptStrata[live[i]];
+        }
+        for (int i = 0; i < slots.length && i < rowCount; i++) {
+            slots[i] = moved[slots[i]];
+        }
+        if (floors != null) {
+            for (int s = 0; s < strataIndex.size(); s++) {
+                floors[s] = moved[floors[s]];
+            }
+        }
+
+        head = compacted;
+        headRows = live.length;
+        keptRows = live.length;
+        builder = storage.get();
+    }
+
+    private int[] liveRows() {
+        boolean[] live = new boolean[keptRows];
+        for (int i = 0; i < slots.length && i < rowCount; i++) {
+            live[slots[i]] = true;
+        }
+        if (floors != null) {
+            for (int s = 0; s < strataIndex.size(); s++) {
+                live[floors[s]] = true;
+            }
+        }
+
+        int[] rows = new int[keptRows];
+        int count = 0;
+        for (int row = 0; row < keptRows; row++) {
+            if (live[row]) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Copy the given kept rows (ascending) into a new dataset with every column seen so far,
+     * releasing the rows kept before
+     */
+    private Dataset copy(int[] rows) {
+        int split = 0;
+        while (split < rows.length && rows[split] < headRows) {
+            split++;
+        }
+        int[] tail = new int[rows.length - split];
+        for (int i = split; i < rows.length; i++) {
+            tail[i - split] = rows[i] - headRows;
+        }
+
+        DatasetBuilder copy = storage.get();
+        for (String column : nullCounts.keySet()) {
+            copy.addColumn(column);
+        }
+        copy.appendRows(head, Arrays.copyOf(rows, split));
+        try (Dataset rest = builder.build()) {
+            copy.appendRows(rest, tail);
+        }
+        head.close();
+        return copy.build();
+    }
+
+    private void countNulls(Dataset batch) {
+        int rows = batch.getRowCount();
+        Set<String> present = new HashSet<>(batch.getColumnNames());
+        for (Map.Entry<String, Long> entry : nullCounts.entrySet()) {
+            if (!present.contains(entry.getKey())) {
+                entry.setValue(entry.getValue() + rows);
+            }
+        }
+        for (Column column : batch.getColumns()) {
+            // A column first seen now was null in every earlier row
+            nullCounts.merge(column.getName(), rowCount + column.getNullCount(),
+                             (count, batchNulls) -> count + batchNulls - rowCount);
+        }
+    }
+
+    /**
+     * Stratum of every row of a batch, adding the values not seen before
+     */
+    private int[] strataOf(Dataset batch) {
+        Column column = batch.getColumn(stratifyBy);
+        strataColumnSeen |= column != null;
+
+        int[] strata = new int[batch.getRowCount()];
+        for (int row = 0; row < strata.length; row++) {
+            String value = column != null ? column.getString(row) : null;
+            Integer stratum = strataIndex.get(value);
+            if (stratum == null) {
+                stratum = strataIndex.size();
+                strataIndex.put(value, stratum);
+                if (stratum == strataSizes.length) {
+                    strataSizes = Arrays.copyOf(strataSizes, stratum * 2);
+                }
+                if (floors != null && strataIndex.size() > sampleSize) {
+                    floors = null;
+                } else if (floors != null && stratum == floors.length) {
+                    floors = Arrays.copyOf(floors, stratum * 2);
+                }
+            }
+            strata[row] = stratum;
+        }
+        return strata;
+    }
+
+    /**
+     * Kept rows of the stratified sample: each stratum's quota drawn from its rows in the
+     * reservoir, or its stand-in when the reservoir has none. A stratum the reservoir left
+     * short of its quota is made up for by strata with rows to spare, in order.
+     */
+    private int[] selectStrata() {
+        int strataCount = strataIndex.size();
+        int[] quotas = allocate(strataSizes, strataCount, rowCount);
+
+        int filled = (int) Math.min(rowCount, sampleSize);
+        int[] poolSizes = new int[strataCount];
+        for (int i = 0; i < filled; i++) {
+            poolSizes[keptStrata[slots[i]]]++;
+        }
+        int[][] pools = new int[strataCount][];
+        for (int s = 0; s < strataCount; s++) {
+            pools[s] = new int[poolSizes[s]];
+            poolSizes[s] = 0;
+        }
+        for (int i = 0; i < filled; i++) {
+            int s = keptStrata[slots[i]];
+            pools[s][poolSizes[s]++] = slots[i];
+        }
+
+        int[] taken = new int[strataCount];
+        long shortfall = 0;
+        for (int s = 0; s < strataCount; s++) {
+            if (pools[s].length == 0 && floors != null) {
+                pools[s] = new int[] {floors[s]};
+            }
+            taken[s] = Math.min(quotas[s], pools[s].length);
+            shortfall += quotas[s] - taken[s];
+        }
+        for (int s = 0; s < strataCount && shortfall > 0; s++) {
+            int extra = (int) Math.min(shortfall, pools[s].length - taken[s]);
+            taken[s] += extra;
+            shortfall -= extra;
+        }
+
+        int[] selected = new int[Arrays.stream(taken).sum()];
+        int next = 0;
+        for (int s = 0; s < strataCount; s++) {
+            // The first taken[s] of a partial shuffle are a uniform subset of the pool
+            int[] pool = pools[s];
+            for (int i = 0; i < taken[s]; i++) {
+                int j = i + random.nextInt(pool.length - i);
+                int swap = pool[i];
+                pool[i] = pool[j];
+                pool[j] = swap;
+                selected[next++] = pool[i];
+            }
+        }
+
+        log.info("Sampled {} of {} rows in {} strata of '{}'", selected.length, rowCount, strataCount, stratifyBy);
+        return selected;
+    }
+
+    /**
+     * Sample rows per stratum in proportion to its size, largest remainders rounded up.
+     * Each stratum first gets one row when there are enough rows to go around.
+     */
+    private int[] allocate(long[] strataSizes, int strataCount, long rowCount) {
+        int total = (int) Math.min(sampleSize, rowCount);
+        int floor = strataCount <= total ? 1 : 0;
+
+        long shared = total - (long) floor * strataCount;
+        long pool = rowCount - (long) floor * strataCount;
+        int[] quotas = new int[strataCount];
+        double[] remainders = new double[strataCount];
+        long allocated = 0;
+        for (int s = 0; s < strataCount; s++) {
+            double share = pool > 0 ? (double) shared * (strataSizes[s] - floor) / pool : 0.0;
+            quotas[s] = floor + (int) share;
+            remainders[s] = share - (int) share;
+            allocated += quotas[s];
+        }
+
+        Integer[] byRemainder = new Integer[strataCount];
+        for (int s = 0; s < strataCount; s++) {
+            byRemainder[s] = s;
+        }
+        Arrays.sort(byRemainder, (a, b) -> Double.compare(remainders[b], remainders[a]));
+        for (int i = 0; allocated < total && i < strataCount; i++) {
+            int s = byRemainder[i];
+            if (quotas[s] < strataSizes[s]) {
+                quotas[s]++;
+                allocated++;
+            }
+        }
+        return quotas;
+    }
+}
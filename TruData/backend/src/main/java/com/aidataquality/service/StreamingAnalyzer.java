@@ -0,0 +1,115 @@
+package com.aidataquality.service;
+
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetSink;
+import com.aidataquality.model.dto.ColumnProfile;
+import com.aidataquality.model.dto.DataQualityRequest;
+
+import java.util.*;
+
+/**
+ * Per-request sink that pushes each row batch through profiling, schema validation,
+ * duplicate tracking, PII sampling and bias distributions, so the full dataset
+ * never has to be resident in memory.
+ */
+public class StreamingAnalyzer implements DatasetSink {
+
+    private final DataProfilingService dataProfilingService;
+    private final QualityMetricsService qualityMetricsService;
+    private final PIIDetectionService piiDetectionService;
+    private final BiasDetectionService biasDetectionService;
+    private final DataQualityRequest request;
+
+    private final Map<String, ColumnProfileAccumulator> profiles = new LinkedHashMap<>();
+    private final Map<String, List<String>> piiSamples = new LinkedHashMap<>();
+    private final Map<String, Map<String, Long>> biasDistributions = new LinkedHashMap<>();
+    private final DuplicateTracker duplicateTracker = new DuplicateTracker();
+    private long schemaViolations;
+
+    public StreamingAnalyzer(DataProfilingService dataProfilingService,
+                             QualityMetricsService qualityMetricsService,
+                             PIIDetectionService piiDetectionService,
+                             BiasDetectionService biasDetectionService,
+                             DataQualityRequest request) {
+        this.dataProfilingService = dataProfilingService;
+        this.qualityMetricsService = qualityMetricsService;
+        this.piiDetectionService = piiDetectionService;
+        this.biasDetectionService = biasDetectionService;
+        this.request = request;
+    }
+
+    @Override
+    public void accept(Dataset batch) {
+        long previousRows = duplicateTracker.getTotalRows();
+        
+        for (Column column : batch.getColumns()) {
+            String name = column.getName();
+            
+            // Columns first seen in a later batch were null in all earlier rows
+            ColumnProfileAccumulator accumulator = profiles.computeIfAbsent(name, n -> {
+                ColumnProfileAccumulator created = dataProfilingService.newAccumulator(n);
+                created.addNulls(previousRows);
+                return created;
+            });
+            accumulator.accept(column);
+            
+            if (Boolean.TRUE.equals(request.getPerformPIICheck())) {
+                piiDetectionService.collectSamples(column, piiSamples.computeIfAbsent(name, n -> new ArrayList<>()));
+            }
+            
+            if (Boolean.TRUE.equals(request.getPerformBiasCheck()) && biasDetectionService.isSensitiveAttribute(name)) {
+                Map<String, Long> distribution = biasDistributions.computeIfAbsent(name, n -> {
+                    Map<String, Long> created = new HashMap<>();
+                    if (previousRows > 0) {
+                        created.put("null", previousRows);
+                    }
+                    return created;
+                });
+                biasDetectionService.updateDistribution(distribution, column);
+            }
+        }
+        
+        schemaViolations += qualityMetricsService.countSchemaViolations(batch, request.getSchemaDefinition());
+        duplicateTracker.accept(batch);
+    }
+
+    public long getRowCount() {
+        return duplicateTracker.getTotalRows();
+    }
+
+    public List<String> getColumnNames() {
+        return new ArrayList<>(profiles.keySet());
+    }
+
+    /**
+     * Finish the profile of every column seen in the stream
+     */
+    public List<ColumnProfile> finishColumnProfiles() {
+        if (getRowCount() == 0) {
+            return Collections.emptyList();
+        }
+        
+        List<ColumnProfile> columnProfiles = new ArrayList<>(profiles.size());
+        for (ColumnProfileAccumulator accumulator : profiles.values()) {
+            columnProfiles.add(accumulator.finish());
+        }
+        return columnProfiles;
+    }
+
+    public long getSchemaViolations() {
+        return schemaViolations;
+    }
+
+    public DuplicateTracker getDuplicateTracker() {
+        return duplicateTracker;
+    }
+
+    public Map<String, List<String>> getPiiSamples() {
+        return piiSamples;
+    }
+
+    public Map<String, Map<String, Long>> getBiasDistributions() {
+        return biasDistributions;
+    }
+}
@@ -0,0 +1,36 @@
+package com.aidataquality.util;
+
+/**
+ * Fast non-cryptographic 64-bit hashing helpers
+ */
+public final class Hashing {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private Hashing() {
+    }
+
+    /**
+     * 64-bit hash of a character sequence. Collisions are negligible below billions of values.
+     */
+    public static long hash64(CharSequence value) {
+        long hash = SEED ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+            hash = Long.rotateLeft(hash, 29);
+        }
+        return finalizeHash(hash);
+    }
+
+    /**
+     * Final avalanche step (MurmurHash3 fmix64)
+     */
+    public static long finalizeHash(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,127 @@
+package com.aidataquality.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Space-Saving summary of the most frequent values of a stream, in a fixed number of counters.
+ * A value not tracked when the counters are full takes over the one with the lowest count and
+ * inherits that count, so counts are upper bounds, too high by at most the total count divided
+ * by the capacity; every value more frequent than that is tracked. Counters sit in a min-heap
+ * so that weighted adds (dictionary codes, merged counts) cost O(log capacity).
+ */
+public class HeavyHitters {
+
+    private final int capacity;
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final String[] values;
+    private final long[] counts;
+    private int size;
+
+    public HeavyHitters(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.values = new String[capacity];
+        this.counts = new long[capacity];
+    }
+
+    /**
+     * Add count occurrences of a value
+     */
+    public void add(String value, long count) {
+        Integer position = positions.get(value);
+        if (position != null) {
+            counts[position] += count;
+            siftDown(position);
+            return;
+        }
+
+        if (size < capacity) {
+            values[size] = value;
+            counts[size] = count;
+            positions.put(value, size);
+            siftUp(size++);
+            return;
+        }
+
+        // Replace the least frequent value, which the new one may have displaced unseen
+        positions.remove(values[0]);
+        values[0] = value;
+        counts[0] += count;
+        positions.put(value, 0);
+        siftDown(0);
+    }
+
+    /**
+     * Upper bounds of the counts of the tracked values, most frequent first
+     */
+    public Map<String, Long> counts() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(counts[b], counts[a]));
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i : order) {
+            result.put(values[i], counts[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Largest amount by which a reported count may exceed the true count
+     */
+    public long maxError() {
+        return size < capacity ? 0 : counts[0];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (counts[parent] <= counts[position]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+        long count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+        positions.put(values[a], a);
+        positions.put(values[b], b);
+    }
+}
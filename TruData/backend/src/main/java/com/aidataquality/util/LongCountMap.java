@@ -0,0 +1,124 @@
+package com.aidataquality.util;
+
+/**
+ * Open-addressing hash map from primitive longs to occurrence counts (no boxing, ~16-32 bytes per entry)
+ */
+public class LongCountMap {
+
+    /**
+     * Receives the keys of the map with their counts
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long count);
+    }
+
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] counts;
+    private int size;
+    private long emptyKeyCount;
+
+    public LongCountMap() {
+        this(1024);
+    }
+
+    public LongCountMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new long[capacity];
+        counts = new long[capacity];
+    }
+
+    /**
+     * Add count occurrences of a key
+     */
+    public void add(long key, long count) {
+        if (key == EMPTY) {
+            if (emptyKeyCount == 0) {
+                size++;
+            }
+            emptyKeyCount += count;
+            return;
+        }
+
+        int mask = keys.length - 1;
+        int index = (int) mix(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                counts[index] += count;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        counts[index] = count;
+        size++;
+        if (size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Occurrences of a key, 0 if it was never added
+     */
+    public long get(long key) {
+        if (key == EMPTY) {
+            return emptyKeyCount;
+        }
+
+        int mask = keys.length - 1;
+        int index = (int) mix(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return counts[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Number of distinct keys
+     */
+    public int size() {
+        return size;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        if (emptyKeyCount > 0) {
+            consumer.accept(EMPTY, emptyKeyCount);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], counts[i]);
+            }
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        keys = new long[newCapacity];
+        counts = new long[newCapacity];
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int index = (int) mix(oldKeys[i]) & mask;
+            while (keys[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = oldKeys[i];
+            counts[index] = oldCounts[i];
+        }
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,220 @@
+package com.aidataquality.util;
+
+/**
+ * Number recognition and parsing without exceptions or allocation on the common path.
+ *
+ * {@link #isNumber} accepts exactly the strings {@link Double#parseDouble} accepts, and
+ * {@link #isInt} exactly those {@link Integer#parseInt} accepts, so callers can test text
+ * cells instead of catching NumberFormatException for each one. {@link #parseDouble} reads
+ * plain integers and decimals directly and leaves exponents, hex and special values to the JDK.
+ */
+public final class NumberParser {
+
+    // Powers of ten that are exact doubles
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // Largest mantissa that is an exact double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private NumberParser() {
+    }
+
+    /**
+     * Whether Double.parseDouble would accept the text: decimal or hex floating-point
+     * literals with optional sign, exponent and type suffix, NaN and Infinity, with
+     * surrounding whitespace ignored
+     */
+    public static boolean isNumber(CharSequence text) {
+        int end = text.length();
+        int i = 0;
+        while (i < end && text.charAt(i) <= ' ') {
+            i++;
+        }
+        while (end > i && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (i == end) {
+            return false;
+        }
+
+        char c = text.charAt(i);
+        if (c == '+' || c == '-') {
+            i++;
+        }
+        if (i == end) {
+            return false;
+        }
+        c = text.charAt(i);
+        if (c == 'N') {
+            return matches(text, i, end, "NaN");
+        }
+        if (c == 'I') {
+            return matches(text, i, end, "Infinity");
+        }
+        if (c == '0' && i + 1 < end && (text.charAt(i + 1) == 'x' || text.charAt(i + 1) == 'X')) {
+            return isHexNumber(text, i + 2, end);
+        }
+
+        boolean digits = false;
+        boolean point = false;
+        for (; i < end; i++) {
+            c = text.charAt(i);
+            if (isDigit(c)) {
+                digits = true;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (!digits) {
+            return false;
+        }
+        if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i = skipExponent(text, i + 1, end);
+            if (i < 0) {
+                return false;
+            }
+        }
+        return i == end || (i == end - 1 && isTypeSuffix(text.charAt(i)));
+    }
+
+    /**
+     * Whether Integer.parseInt would accept the text: an optional sign and decimal digits
+     * within the int range
+     */
+    public static boolean isInt(CharSequence text) {
+        int length = text.length();
+        if (length == 0) {
+            return false;
+        }
+        int i = 0;
+        boolean negative = false;
+        char first = text.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (length == 1) {
+                return false;
+            }
+        }
+
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        for (; i < length; i++) {
+            int digit = Character.digit(text.charAt(i), 10);
+            if (digit < 0) {
+                return false;
+            }
+            value = value * 10 + digit;
+            if (value > limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Value of text that {@link #isNumber} accepts, equal to Double.parseDouble's result.
+     * Plain numbers whose digits fit in 53 bits with up to 22 decimals are computed
+     * without allocating; anything else is handed to Double.parseDouble.
+     */
+    public static double parseDouble(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int scale = 0;
+        boolean digits = false;
+        boolean point = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                digits = true;
+                mantissa = mantissa * 10 + (c - '0');
+                if (point) {
+                    scale++;
+                }
+                if (mantissa > MAX_EXACT_MANTISSA || scale >= POWERS_OF_TEN.length) {
+                    return Double.parseDouble(text.toString());
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return Double.parseDouble(text.toString());
+            }
+        }
+        if (!digits) {
+            return Double.parseDouble(text.toString());
+        }
+
+        // Both operands are exact, so a single multiplication or division rounds correctly
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Hex literal after "0x": hex digits with an optional point, then a required binary exponent
+     */
+    private static boolean isHexNumber(CharSequence text, int i, int end) {
+        boolean digits = false;
+        boolean point = false;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (Character.digit(c, 16) >= 0 && c < 128) {
+                digits = true;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (!digits || i == end || (text.charAt(i) != 'p' && text.charAt(i) != 'P')) {
+            return false;
+        }
+        i = skipExponent(text, i + 1, end);
+        return i >= 0 && (i == end || (i == end - 1 && isTypeSuffix(text.charAt(i))));
+    }
+
+    /**
+     * Position after an exponent's optional sign and digits, or -1 without digits
+     */
+    private static int skipExponent(CharSequence text, int i, int end) {
+        if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+            i++;
+        }
+        int start = i;
+        while (i < end && isDigit(text.charAt(i))) {
+            i++;
+        }
+        return i > start ? i : -1;
+    }
+
+    private static boolean matches(CharSequence text, int start, int end, String expected) {
+        if (end - start != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (text.charAt(start + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTypeSuffix(char c) {
+        return c == 'f' || c == 'F' || c == 'd' || c == 'D';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
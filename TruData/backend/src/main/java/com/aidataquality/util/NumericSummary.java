@@ -0,0 +1,238 @@
+package com.aidataquality.util;
+
+import org.apache.commons.math3.stat.descriptive.rank.Percentile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One-pass summary of a stream of numbers in bounded memory: count, mean and variance by
+ * Welford's method, min and max, and percentiles. Values are kept as they are up to
+ * exactThreshold, so smaller columns get exact percentiles and outliers in the order they
+ * came; past it they go to a {@link QuantileSketch} and only the most extreme values are
+ * remembered as outlier candidates. Summaries of parts of a stream {@link #merge merge} into
+ * the summary of the whole.
+ */
+public class NumericSummary {
+
+    private final int exactThreshold;
+    private final int sketchSize;
+    private final int outlierLimit;
+
+    private long count;
+    private double mean;
+    private double sumOfSquaredDeviations;
+    private double min;
+    private double max;
+
+    // The values in arrival order until there are more than exactThreshold, then null
+    private double[] values = new double[16];
+    private QuantileSketch sketch;
+
+    // Once sketched: the smallest distinct values ascending, and the largest negated ascending
+    private double[] lowest;
+    private int lowestCount;
+    private double[] highest;
+    private int highestCount;
+
+    /**
+     * @param exactThreshold values kept exactly before switching to the sketch
+     * @param sketchSize     accuracy parameter k of the sketch
+     * @param outlierLimit   distinct outliers reported at most
+     */
+    public NumericSummary(int exactThreshold, int sketchSize, int outlierLimit) {
+        this.exactThreshold = exactThreshold;
+        this.sketchSize = sketchSize;
+        this.outlierLimit = outlierLimit;
+    }
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        sumOfSquaredDeviations += delta * (value - mean);
+        if (value < min || count == 1) {
+            min = value;
+        }
+        if (value > max || count == 1) {
+            max = value;
+        }
+
+        if (sketch != null) {
+            addToSketch(value);
+            return;
+        }
+
+        if (count > values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[(int) count - 1] = value;
+        if (count > exactThreshold) {
+            startSketch((int) count);
+        }
+    }
+
+    /**
+     * Add everything another summary has seen, as if its values had been added after the
+     * values of this one; the other summary is left as it was. The moments combine exactly
+     * (Chan et al.), and the result is sketched once there are more values than exactThreshold
+     * or either summary already was.
+     */
+    public void merge(NumericSummary other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0 || other.min < min) {
+            min = other.min;
+        }
+        if (count == 0 || other.max > max) {
+            max = other.max;
+        }
+        long previous = count;
+        count += other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / count;
+        sumOfSquaredDeviations += other.sumOfSquaredDeviations + delta * delta * previous * other.count / count;
+
+        if (sketch == null && other.sketch == null && count <= exactThreshold) {
+            if (count > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, (int) count));
+            }
+            System.arraycopy(other.values, 0, values, (int) previous, (int) other.count);
+            return;
+        }
+
+        if (sketch == null) {
+            startSketch((int) previous);
+        }
+        if (other.sketch == null) {
+            for (int i = 0; i < other.count; i++) {
+                addToSketch(other.values[i]);
+            }
+            return;
+        }
+        sketch.merge(other.sketch);
+        for (int i = 0; i < other.lowestCount; i++) {
+            lowestCount = offer(lowest, lowestCount, other.lowest[i]);
+        }
+        for (int i = 0; i < other.highestCount; i++) {
+            highestCount = offer(highest, highestCount, other.highest[i]);
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count > 0 ? mean : Double.NaN;
+    }
+
+    /**
+     * Sample standard deviation (n - 1 denominator), 0 for a single value
+     */
+    public double getStandardDeviation() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        return count == 1 ? 0.0 : Math.sqrt(sumOfSquaredDeviations / (count - 1));
+    }
+
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    /**
+     * Values at the given percentiles (0 to 100), in the order asked for
+     */
+    public double[] percentiles(double... percentiles) {
+        double[] result = new double[percentiles.length];
+        if (sketch == null) {
+            // One copy of the values serves all percentiles, sharing the selection pivots
+            Percentile percentile = new Percentile();
+            percentile.setData(values, 0, (int) count);
+            for (int i = 0; i < percentiles.length; i++) {
+                result[i] = percentile.evaluate(percentiles[i]);
+            }
+            return result;
+        }
+
+        double[] fractions = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            fractions[i] = percentiles[i] / 100.0;
+        }
+        return sketch.quantiles(fractions);
+    }
+
+    /**
+     * Distinct values below lower or above upper: the first ones seen when exact, otherwise
+     * the ones furthest outside the bounds
+     */
+    public List<Double> outliers(double lower, double upper) {
+        if (sketch == null) {
+            Set<Double> outliers = new LinkedHashSet<>();
+            for (int i = 0; i < count && outliers.size() < outlierLimit; i++) {
+                if (values[i] < lower || values[i] > upper) {
+                    outliers.add(values[i]);
+                }
+            }
+            return new ArrayList<>(outliers);
+        }
+
+        List<Double> candidates = new ArrayList<>();
+        for (int i = 0; i < lowestCount && lowest[i] < lower; i++) {
+            candidates.add(lowest[i]);
+        }
+        for (int i = 0; i < highestCount && -highest[i] > upper; i++) {
+            candidates.add(-highest[i]);
+        }
+        candidates.sort(Comparator.comparingDouble((Double value) -> Math.max(lower - value, value - upper)).reversed());
+        return candidates.subList(0, Math.min(outlierLimit, candidates.size()));
+    }
+
+    /**
+     * Move the first kept values into a new sketch and stop keeping values
+     */
+    private void startSketch(int kept) {
+        sketch = new QuantileSketch(sketchSize);
+        lowest = new double[outlierLimit];
+        highest = new double[outlierLimit];
+        double[] exact = values;
+        values = null;
+        for (int i = 0; i < kept; i++) {
+            addToSketch(exact[i]);
+        }
+    }
+
+    private void addToSketch(double value) {
+        sketch.add(value);
+        lowestCount = offer(lowest, lowestCount, value);
+        highestCount = offer(highest, highestCount, -value);
+    }
+
+    /**
+     * Keep value among the smallest distinct values of a sorted array holding size of them
+     */
+    private static int offer(double[] smallest, int size, double value) {
+        if (size == smallest.length && value >= smallest[size - 1]) {
+            return size;
+        }
+        int position = Arrays.binarySearch(smallest, 0, size, value);
+        if (position >= 0) {
+            return size;
+        }
+        position = -position - 1;
+        int moved = Math.min(size, smallest.length - 1) - position;
+        System.arraycopy(smallest, position, smallest, position + 1, moved);
+        smallest[position] = value;
+        return Math.min(size + 1, smallest.length);
+    }
+}
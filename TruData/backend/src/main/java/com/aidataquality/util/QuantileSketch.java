@@ -0,0 +1,166 @@
+package com.aidataquality.util;
+
+import java.util.Arrays;
+
+/**
+ * KLL quantile sketch: approximate quantiles of a stream of doubles in about 3k retained values
+ * whatever the number of values. Values arrive in level 0; a level over its capacity is sorted
+ * and every other value moves up a level, where each value stands for twice as many. Capacities
+ * shrink by 2/3 going down from the top level, which keeps the rank error of a quantile within
+ * a few multiples of count / k. Compaction alternates which half of a level moves up instead
+ * of flipping a coin, so the same values always give the same quantiles. Sketches of parts of
+ * a stream merge level by level into the sketch of the whole.
+ */
+public class QuantileSketch {
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_CAPACITY = 2;
+
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    private boolean[] oddHalf = new boolean[1];
+    private int height = 1;
+    private int retained;
+    private int maxRetained;
+    private long count;
+
+    public QuantileSketch(int k) {
+        if (k < MIN_CAPACITY * 4) {
+            throw new IllegalArgumentException("Quantile sketch size must be at least " + MIN_CAPACITY * 4 + ": " + k);
+        }
+        this.k = k;
+        this.levels[0] = new double[Math.min(k + 1, 64)];
+        this.maxRetained = capacity(0);
+    }
+
+    public void add(double value) {
+        append(0, value);
+        count++;
+        if (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * Add everything another sketch has seen; the other sketch is left as it was
+     */
+    public void merge(QuantileSketch other) {
+        while (height < other.height) {
+            grow();
+        }
+        for (int h = 0; h < other.height; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        count += other.count;
+        while (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Values at the given fractions (0 to 1) of the sorted stream, in the order asked for
+     */
+    public double[] quantiles(double... fractions) {
+        double[] result = new double[fractions.length];
+        if (count == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+
+        // Retained values sorted with the number of values each one stands for
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        Integer[] order = new Integer[retained];
+        int n = 0;
+        for (int h = 0; h < height; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                values[n] = levels[h][i];
+                weights[n] = 1L << h;
+                order[n] = n;
+                n++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        for (int q = 0; q < fractions.length; q++) {
+            double rank = fractions[q] * count;
+            long cumulative = 0;
+            result[q] = values[order[n - 1]];
+            for (int i = 0; i < n; i++) {
+                cumulative += weights[order[i]];
+                if (cumulative > rank) {
+                    result[q] = values[order[i]];
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void append(int level, double value) {
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][sizes[level]++] = value;
+        retained++;
+    }
+
+    /**
+     * Compact full levels from the bottom up until the sketch is back under its total capacity
+     */
+    private void compress() {
+        for (int h = 0; h < height; h++) {
+            if (sizes[h] >= capacity(h)) {
+                if (h + 1 == height) {
+                    grow();
+                }
+                compact(h);
+                if (retained < maxRetained) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sort a level and move every other value up; with an odd size the smallest value stays
+     */
+    private void compact(int h) {
+        double[] items = levels[h];
+        int size = sizes[h];
+        Arrays.sort(items, 0, size);
+
+        int start = size & 1;
+        int offset = oddHalf[h] ? 1 : 0;
+        oddHalf[h] = !oddHalf[h];
+        for (int i = start + offset; i < size; i += 2) {
+            append(h + 1, items[i]);
+        }
+        retained -= size - start;
+        sizes[h] = start;
+    }
+
+    private void grow() {
+        height++;
+        levels = Arrays.copyOf(levels, height);
+        sizes = Arrays.copyOf(sizes, height);
+        oddHalf = Arrays.copyOf(oddHalf, height);
+        levels[height - 1] = new double[64];
+        maxRetained = 0;
+        for (int h = 0; h < height; h++) {
+            maxRetained += capacity(h);
+        }
+    }
+
+    private int capacity(int h) {
+        int depth = height - 1 - h;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+}
@@ -0,0 +1,133 @@
+package com.aidataquality.controller;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "app.data-quality.max-file-size=4KB",
+    // Out of the source tree, and without the request-level logging of the dev profile
+    "logging.file.name=target/logs/trudata.log",
+    "logging.level.root=INFO",
+    "logging.level.org.springframework=INFO"
+})
+@AutoConfigureMockMvc
+class DataQualityControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    private static byte[] csv(int rows) {
+        StringBuilder csv = new StringBuilder("id,name,score\n");
+        for (int row = 0; row < rows; row++) {
+            csv.append(row).append(",name-").append(row).append(',').append(row % 100).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Workbook with a people sheet (10 rows, one of them repeated), an orders sheet (5 rows) and a notes sheet
+     */
+    private static MockMultipartFile workbook() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream bytes = new ByteArrayOutputStream()) {
+            Sheet people = workbook.createSheet("people");
+            addRow(people, "id", "name", "city");
+            for (int row = 0; row < 10; row++) {
+                int id = row == 9 ? 8 : row;
+                addRow(people, id, "name-" + id, id % 2 == 0 ? "Oslo" : "Bergen");
+            }
+            Sheet orders = workbook.createSheet("orders");
+            addRow(orders, "order", "amount");
+            for (int row = 0; row < 5; row++) {
+                addRow(orders, "o-" + row, row * 2.5);
+            }
+            addRow(workbook.createSheet("notes"), "note");
+            workbook.write(bytes);
+            return new MockMultipartFile("file", "book.xlsx", null, bytes.toByteArray());
+        }
+    }
+
+    private static void addRow(Sheet sheet, Object... values) {
+        Row row = sheet.createRow(sheet.getPhysicalNumberOfRows());
+        for (int c = 0; c < values.length; c++) {
+            if (values[c] instanceof Number number) {
+                row.createCell(c).setCellValue(number.doubleValue());
+            } else {
+                row.createCell(c).setCellValue(values[c].toString());
+            }
+        }
+    }
+
+    @Test
+    void streamedBodyWithinTheLimitIsAnalyzed() throws Exception {
+        mvc.perform(post("/api/v1/data-quality/analyze/stream")
+                .param("filename", "data.csv")
+                .contentType("text/csv")
+                .content(csv(20)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.summary.rowCount").value(20));
+    }
+
+    @Test
+    void streamedBodyOverTheFileSizeLimitIsRejected() throws Exception {
+        mvc.perform(post("/api/v1/data-quality/analyze/stream")
+                .param("filename", "data.csv")
+                .contentType("text/csv")
+                .content(csv(2_000)))
+            .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void streamedAnalysisStopsAtTheFileSizeLimit() throws Exception {
+        mvc.perform(post("/api/v1/data-quality/analyze/stream")
+                .param("filename", "data.csv")
+                .param("streaming", "true")
+                .contentType("text/csv")
+                .content(csv(2_000)))
+            .andExpect(status().isPayloadTooLarge());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void selectedSheetsAreAnalyzedSeparatelyAndRolledUp(boolean streaming) throws Exception {
+        mvc.perform(multipart("/api/v1/data-quality/analyze/file")
+                .file(workbook())
+                .param("sheets", "people,orders")
+                .param("streaming", Boolean.toString(streaming)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.sheets.people.summary.rowCount").value(10))
+            .andExpect(jsonPath("$.sheets.people.qualityMetrics.duplicateRows").value(1))
+            .andExpect(jsonPath("$.sheets.orders.summary.rowCount").value(5))
+            .andExpect(jsonPath("$.sheets.notes").doesNotExist())
+            .andExpect(jsonPath("$.summary.rowCount").value(15))
+            .andExpect(jsonPath("$.summary.columnCount").value(5))
+            .andExpect(jsonPath("$.summary.columnNames[0]").value("people!id"))
+            .andExpect(jsonPath("$.summary.columnNames[3]").value("orders!order"))
+            .andExpect(jsonPath("$.qualityMetrics.duplicateRows").value(1));
+    }
+
+    @Test
+    void unknownSheetIsRejected() throws Exception {
+        mvc.perform(multipart("/api/v1/data-quality/analyze/file")
+                .file(workbook())
+                .param("sheets", "people,missing"))
+            .andExpect(status().isBadRequest());
+    }
+}
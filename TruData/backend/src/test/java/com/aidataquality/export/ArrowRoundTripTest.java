@@ -0,0 +1,373 @@
+package com.aidataquality.export;
+
+import com.aidataquality.ingestion.ArrowReader;
+import com.aidataquality.ingestion.ColumnSelection;
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.aidataquality.model.dataset.DictionaryColumn;
+import com.aidataquality.model.dto.ColumnProfile;
+import com.aidataquality.model.dto.DataQualityResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArrowRoundTripTest {
+
+    private static final int SCHEMA = 1;
+    private static final int DICTIONARY_BATCH = 2;
+    private static final int RECORD_BATCH = 3;
+    private static final int INT = 2;
+    private static final int UTF8 = 5;
+    private static final long COLOR_DICTIONARY = 7;
+
+    private static Dataset read(byte[] stream, ColumnSelection selection) throws IOException {
+        DatasetBuilder builder = new DatasetBuilder();
+        new ArrowReader(new ByteArrayInputStream(stream), selection).read(builder);
+        return builder.build();
+    }
+
+    private static byte[] write(DataQualityResponse response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ArrowProfileWriter.write(response, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void profilesRoundTripWithNulls() throws IOException {
+        ColumnProfile amount = ColumnProfile.builder()
+                .columnName("amount").dataType("NUMERIC")
+                .totalCount(10L).nullCount(2L).uniqueCount(7L)
+                .nullPercentage(20.0).mean(12.5).min(-3.0).max(40.0)
+                .valueCounts(Map.of("12.5", 3L))
+                .topValues(List.of("12.5", "7"))
+                .hasPII(false).hasOutliers(true).outlierValues(List.of(40.0))
+                .qualityIssues(List.of())
+                .build();
+        ColumnProfile email = ColumnProfile.builder()
+                .columnName("email").dataType("TEXT")
+                .totalCount(10L).nullCount(0L)
+                .hasPII(true).piiTypes(List.of("EMAIL"))
+                .build();
+        DataQualityResponse response = DataQualityResponse.builder()
+                .columnProfiles(List.of(amount, email))
+                .build();
+
+        Dataset data = read(write(response), ColumnSelection.ALL);
+
+        assertEquals(2, data.getRowCount());
+        assertEquals(24, data.getColumnCount());
+        Column sheet = data.getColumn("sheet");
+        assertTrue(sheet.isNull(0) && sheet.isNull(1));
+        assertEquals("amount", data.getColumn("columnName").getString(0));
+        assertEquals("email", data.getColumn("columnName").getString(1));
+
+        assertEquals(7L, ((Number) data.getColumn("uniqueCount").get(0)).longValue());
+        assertTrue(data.getColumn("uniqueCount").isNull(1));
+        assertEquals(-3.0, ((Number) data.getColumn("min").get(0)).doubleValue());
+        assertTrue(data.getColumn("min").isNull(1));
+        assertTrue(data.getColumn("median").isNull(0));
+
+        assertEquals(Boolean.TRUE, data.getColumn("hasOutliers").get(0));
+        assertTrue(data.getColumn("hasOutliers").isNull(1));
+        assertEquals(Boolean.TRUE, data.getColumn("hasPII").get(1));
+
+        // Lists and maps are read as their text form, as nested Parquet values are
+        assertEquals("[12.5, 7]", data.getColumn("topValues").getString(0));
+        assertTrue(data.getColumn("topValues").isNull(1));
+        assertEquals("[EMAIL]", data.getColumn("piiTypes").getString(1));
+        assertEquals("[]", data.getColumn("qualityIssues").getString(0));
+        assertEquals("{12.5=3}", data.getColumn("valueCounts").getString(0));
+    }
+
+    @Test
+    void sheetsRoundTripWithTheirNames() throws IOException {
+        DataQualityResponse orders = DataQualityResponse.builder()
+                .columnProfiles(List.of(ColumnProfile.builder().columnName("id").build()))
+                .build();
+        DataQualityResponse empty = DataQualityResponse.builder().build();
+        DataQualityResponse response = DataQualityResponse.builder()
+                .sheets(Map.of("Orders", orders, "Empty", empty))
+                .build();
+
+        Dataset data = read(write(response), ColumnSelection.only(List.of("sheet", "columnName", "totalCount")));
+
+        assertEquals(List.of("sheet", "columnName", "totalCount"), data.getColumnNames());
+        assertEquals(1, data.getRowCount());
+        assertEquals("Orders", data.getColumn("sheet").getString(0));
+        assertEquals("id", data.getColumn("columnName").getString(0));
+        assertTrue(data.getColumn("totalCount").isNull(0));
+    }
+
+    @Test
+    void dictionaryEncodedTextBecomesADictionaryColumn() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writeSchema(stream);
+        writeDictionary(stream, false, "red", "green", "blue");
+        writeBatch(stream, new Long[] {1L, 2L, null, 4L, 5L, 6L}, new Integer[] {2, null, 0, 2, null, 1});
+        writeEndOfStream(stream);
+
+        Dataset data = read(stream.toByteArray(), ColumnSelection.ALL);
+
+        assertEquals(List.of("id", "color"), data.getColumnNames());
+        assertEquals(Arrays.asList("1", "2", null, "4", "5", "6"), strings(data.getColumn("id")));
+        DictionaryColumn color = assertInstanceOf(DictionaryColumn.class, data.getColumn("color"));
+        assertEquals(Arrays.asList("blue", null, "red", "blue", null, "green"), strings(color));
+        assertEquals(2, color.getNullCount());
+        assertEquals(3, color.getDictionarySize());
+    }
+
+    @Test
+    void deltaDictionariesAppendToTheDictionary() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writeSchema(stream);
+        writeDictionary(stream, false, "red", "green", "blue");
+        writeBatch(stream, new Long[] {1L, 2L, 3L}, new Integer[] {2, null, 0});
+        writeDictionary(stream, true, "black");
+        writeBatch(stream, new Long[] {4L, 5L, 6L, 7L}, new Integer[] {3, 0, 3, null});
+        writeEndOfStream(stream);
+
+        Dataset data = read(stream.toByteArray(), ColumnSelection.only(List.of("color")));
+
+        assertEquals(List.of("color"), data.getColumnNames());
+        assertEquals(Arrays.asList("blue", null, "red", "black", "red", "black", null), strings(data.getColumn("color")));
+    }
+
+    @Test
+    void dictionaryBeforeItIsSentIsAnError() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writeSchema(stream);
+        writeBatch(stream, new Long[] {1L}, new Integer[] {0});
+        writeEndOfStream(stream);
+
+        assertThrows(IOException.class, () -> read(stream.toByteArray(), ColumnSelection.ALL));
+    }
+
+    @Test
+    void flatBufferFieldsReadBackThroughTheirVtable() {
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        int name = builder.createString("héllo");
+        builder.startTable(4);
+        builder.addOffset(0, name);
+        builder.addLong(2, -5);
+        builder.addByte(3, 9);
+        int root = builder.endTable();
+        ByteBuffer bb = ByteBuffer.wrap(builder.finish(root)).order(ByteOrder.LITTLE_ENDIAN);
+
+        int table = bb.getInt(0);
+        int vtable = table - bb.getInt(table);
+        assertEquals(4 + 2 * 4, bb.getShort(vtable));
+        assertEquals(0, bb.getShort(vtable + 4 + 2), "absent field");
+        assertEquals(-5, bb.getLong(table + bb.getShort(vtable + 4 + 4)));
+        assertEquals(9, bb.get(table + bb.getShort(vtable + 4 + 6)));
+
+        int nameField = table + bb.getShort(vtable + 4);
+        int string = nameField + bb.getInt(nameField);
+        byte[] bytes = new byte[bb.getInt(string)];
+        bb.get(string + 4, bytes);
+        assertEquals("héllo", new String(bytes, StandardCharsets.UTF_8));
+        assertEquals(0, bb.get(string + 4 + bytes.length), "strings are zero-terminated");
+        assertEquals(0, table % 4);
+        assertEquals(0, (table + bb.getShort(vtable + 4 + 4)) % 8, "longs are 8-byte aligned");
+    }
+
+    private static List<String> strings(Column column) {
+        List<String> values = new ArrayList<>();
+        for (int row = 0; row < column.size(); row++) {
+            values.add(column.getString(row));
+        }
+        return values;
+    }
+
+    /**
+     * Schema of a nullable int64 id and a utf8 color encoded with 32-bit indices into a dictionary
+     */
+    private static void writeSchema(ByteArrayOutputStream out) throws IOException {
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        int id = field(builder, "id", intType(builder, 64), -1);
+        int color = field(builder, "color", emptyTable(builder), COLOR_DICTIONARY);
+        int fields = builder.createOffsetVector(new int[] {id, color});
+
+        builder.startTable(4);
+        builder.addShort(0, 0);
+        builder.addOffset(1, fields);
+        int schema = builder.endTable();
+        writeMessage(out, builder, SCHEMA, schema, new Body());
+    }
+
+    private static int intType(FlatBufferBuilder builder, int bitWidth) {
+        builder.startTable(2);
+        builder.addInt(0, bitWidth);
+        builder.addBoolean(1, true);
+        return builder.endTable();
+    }
+
+    private static int emptyTable(FlatBufferBuilder builder) {
+        builder.startTable(0);
+        return builder.endTable();
+    }
+
+    private static int field(FlatBufferBuilder builder, String name, int type, long dictionaryId) {
+        int nameString = builder.createString(name);
+        int encoding = 0;
+        if (dictionaryId >= 0) {
+            int indexType = intType(builder, 32);
+            builder.startTable(4);
+            builder.addLong(0, dictionaryId);
+            builder.addOffset(1, indexType);
+            encoding = builder.endTable();
+        }
+        int children = builder.createOffsetVector(new int[0]);
+
+        builder.startTable(7);
+        builder.addOffset(0, nameString);
+        builder.addBoolean(1, true);
+        builder.addByte(2, dictionaryId >= 0 ? UTF8 : INT);
+        builder.addOffset(3, type);
+        if (encoding != 0) {
+            builder.addOffset(4, encoding);
+        }
+        builder.addOffset(5, children);
+        return builder.endTable();
+    }
+
+    private static void writeDictionary(ByteArrayOutputStream out, boolean delta, String... values) throws IOException {
+        Body body = new Body();
+        body.node(values.length, 0);
+        body.buffer(new byte[0]);
+        ByteBuffer offsets = ByteBuffer.allocate((values.length + 1) * 4).order(ByteOrder.LITTLE_ENDIAN);
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        offsets.putInt(0);
+        for (String value : values) {
+            data.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            offsets.putInt(data.size());
+        }
+        body.buffer(offsets.array());
+        body.buffer(data.toByteArray());
+
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        int recordBatch = recordBatch(builder, values.length, body);
+        builder.startTable(3);
+        builder.addLong(0, COLOR_DICTIONARY);
+        builder.addOffset(1, recordBatch);
+        builder.addBoolean(2, delta);
+        int dictionaryBatch = builder.endTable();
+        writeMessage(out, builder, DICTIONARY_BATCH, dictionaryBatch, body);
+    }
+
+    private static void writeBatch(ByteArrayOutputStream out, Long[] ids, Integer[] colors) throws IOException {
+        Body body = new Body();
+        ByteBuffer idValues = ByteBuffer.allocate(ids.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        for (Long id : ids) {
+            idValues.putLong(id != null ? id : 0);
+        }
+        body.node(ids.length, nullCount(ids));
+        body.buffer(validity(ids));
+        body.buffer(idValues.array());
+
+        ByteBuffer indices = ByteBuffer.allocate(colors.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (Integer color : colors) {
+            indices.putInt(color != null ? color : 0);
+        }
+        body.node(colors.length, nullCount(colors));
+        body.buffer(validity(colors));
+        body.buffer(indices.array());
+
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        writeMessage(out, builder, RECORD_BATCH, recordBatch(builder, ids.length, body), body);
+    }
+
+    private static int recordBatch(FlatBufferBuilder builder, int rows, Body body) {
+        int nodes = builder.createLongPairVector(body.flatten(body.nodes));
+        int buffers = builder.createLongPairVector(body.flatten(body.buffers));
+        builder.startTable(5);
+        builder.addLong(0, rows);
+        builder.addOffset(1, nodes);
+        builder.addOffset(2, buffers);
+        return builder.endTable();
+    }
+
+    private static long nullCount(Object[] values) {
+        return Arrays.stream(values).filter(value -> value == null).count();
+    }
+
+    private static byte[] validity(Object[] values) {
+        byte[] bits = new byte[(values.length + 7) / 8];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                bits[i / 8] |= (byte) (1 << (i % 8));
+            }
+        }
+        return bits;
+    }
+
+    private static void writeMessage(ByteArrayOutputStream out, FlatBufferBuilder builder, int headerType, int header,
+                                     Body body) {
+        byte[] data = body.data.toByteArray();
+        builder.startTable(5);
+        builder.addShort(0, 4);
+        builder.addByte(1, headerType);
+        builder.addOffset(2, header);
+        builder.addLong(3, data.length);
+        byte[] metadata = builder.finish(builder.endTable());
+
+        int padded = (metadata.length + 7) & ~7;
+        writeInt(out, 0xFFFFFFFF);
+        writeInt(out, padded);
+        out.writeBytes(metadata);
+        out.writeBytes(new byte[padded - metadata.length]);
+        out.writeBytes(data);
+    }
+
+    private static void writeEndOfStream(ByteArrayOutputStream out) {
+        writeInt(out, 0xFFFFFFFF);
+        writeInt(out, 0);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.writeBytes(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array());
+    }
+
+    /**
+     * Field nodes, buffer locations and the 8-byte aligned buffers of a batch
+     */
+    private static final class Body {
+
+        private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        private final List<long[]> nodes = new ArrayList<>();
+        private final List<long[]> buffers = new ArrayList<>();
+
+        void node(long length, long nullCount) {
+            nodes.add(new long[] {length, nullCount});
+        }
+
+        void buffer(byte[] bytes) {
+            buffers.add(new long[] {data.size(), bytes.length});
+            data.writeBytes(bytes);
+            data.writeBytes(new byte[(-bytes.length) & 7]);
+        }
+
+        long[] flatten(List<long[]> pairs) {
+            long[] flat = new long[pairs.size() * 2];
+            for (int i = 0; i < pairs.size(); i++) {
+                flat[i * 2] = pairs.get(i)[0];
+                flat[i * 2 + 1] = pairs.get(i)[1];
+            }
+            return flat;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.aidataquality.model.enums.ColumnType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvColumnTypesTest {
+
+    /**
+     * Build one column from values typed by a sample of their first sampleRows
+     */
+    private static Column read(int sampleRows, String... values) {
+        CsvColumnTypes types = new CsvColumnTypes(1);
+        for (int row = 0; row < sampleRows; row++) {
+            types.sample(0, values[row]);
+        }
+        types.finish();
+
+        DatasetBuilder builder = new DatasetBuilder(List.of("value"));
+        for (String value : values) {
+            builder.set(0, types.convert(0, value));
+            builder.endRow();
+        }
+        Dataset dataset = builder.build();
+        return dataset.getColumn(0);
+    }
+
+    @Test
+    void parsesPlainNumbersOnly() {
+        assertEquals(42L, CsvColumnTypes.parseNumber("42"));
+        assertEquals(-7L, CsvColumnTypes.parseNumber("-7"));
+        assertEquals(new BigDecimal("1.50"), CsvColumnTypes.parseNumber("1.50"));
+        assertEquals(new BigDecimal("-0.001"), CsvColumnTypes.parseNumber("-0.001"));
+
+        for (String text : new String[] {"007", "+5", "-0", "-0.00", "1e5", "1.5E-3", ".5", "5.", "1.2.3",
+                                         "NaN", "Infinity", "0x1F", "1d", "", "-", "9223372036854775808",
+                                         "1234567890.1234567", "0.0000000000000001"}) {
+            assertNull(CsvColumnTypes.parseNumber(text), text);
+        }
+    }
+
+    @Test
+    void blankCellsAreNullAndDoNotDecideTheType() {
+        Column column = read(4, "1", "", "  ", "3");
+
+        assertEquals(ColumnType.LONG, column.getType());
+        assertEquals(2, column.getNullCount());
+        assertTrue(column.isNull(1));
+        assertTrue(column.isNull(2));
+    }
+
+    @Test
+    void blankCellsOfTextColumnsAreNull() {
+        Column column = read(3, "a", " ", "b");
+
+        assertEquals(ColumnType.STRING, column.getType());
+        assertTrue(column.isNull(1));
+        assertEquals("b", column.getString(2));
+    }
+
+    @Test
+    void decimalsKeepTheirText() {
+        Column column = read(5, "1.50", "10", "-0.05", "12345678.90", "0.000001");
+
+        assertEquals(ColumnType.DOUBLE, column.getType());
+        assertEquals(1.5, column.get(0));
+        assertEquals("1.50", column.getString(0));
+        assertEquals("10", column.getString(1));
+        assertEquals("-0.05", column.getString(2));
+        assertEquals("12345678.90", column.getString(3));
+        assertEquals("0.000001", column.getString(4));
+    }
+
+    @Test
+    void widenedColumnKeepsTheTextOfEarlierNumbers() {
+        Column column = read(2, "1.50", "2.00", "7", "N/A", "3.10");
+
+        assertEquals(ColumnType.STRING, column.getType());
+        assertEquals(List.of("1.50", "2.00", "7", "N/A", "3.10"),
+                     List.of(column.getString(0), column.getString(1), column.getString(2),
+                             column.getString(3), column.getString(4)));
+    }
+
+    @Test
+    void integerColumnWidenedToDecimalsAndTextKeepsItsIntegers() {
+        Column column = read(2, "100", "25", "2.5", "n/a");
+
+        assertEquals(ColumnType.STRING, column.getType());
+        assertEquals("100", column.getString(0));
+        assertEquals("2.5", column.getString(2));
+    }
+
+    @Test
+    void numbersWithExponentsAreText() {
+        assertEquals(ColumnType.STRING, read(2, "1e5", "2.5E-3").getType());
+    }
+}
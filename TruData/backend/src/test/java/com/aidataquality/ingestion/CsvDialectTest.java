@@ -0,0 +1,86 @@
+package com.aidataquality.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvDialectTest {
+
+    private static CsvDialect sniff(String text) {
+        byte[] sample = text.getBytes(StandardCharsets.UTF_8);
+        return CsvDialect.sniff(sample, sample.length, true);
+    }
+
+    @Test
+    void sniffsDelimiters() {
+        assertEquals(',', sniff("a,b,c\n1,2,3\n4,5,6\n").delimiter());
+        assertEquals('\t', sniff("a\tb\tc\n1\t2\t3\n4\t5\t6\n").delimiter());
+        assertEquals('|', sniff("a|b|c\n1|2|3\n4|5|6\n").delimiter());
+        assertEquals(';', sniff("a;b;c\n1,5;2,5;3\n4,5;5,5;6\n").delimiter());
+    }
+
+    @Test
+    void delimitersInsideQuotesDoNotCount() {
+        CsvDialect dialect = sniff("name;note\n\"Smith, J\";\"a, b, c\"\n\"Doe, K\";\"d, e\"\n");
+
+        assertEquals(';', dialect.delimiter());
+        assertTrue(dialect.quotesSeen());
+    }
+
+    @Test
+    void sniffsSingleQuotes() {
+        CsvDialect dialect = sniff("id,name\n1,'Smith, J'\n2,'Doe'\n");
+
+        assertEquals('\'', dialect.quote());
+        assertEquals(',', dialect.delimiter());
+    }
+
+    @Test
+    void recordsEndAtAnyLineSeparator() {
+        assertEquals('\t', sniff("a\tb\r\n1\t2\r\n3\t4\r\n").delimiter());
+        assertEquals('|', sniff("a|b\r1|2\r3|4\r").delimiter());
+    }
+
+    @Test
+    void textHeaderOverNumbersIsAHeader() {
+        assertTrue(sniff("id,amount\n1,2.5\n2,3.5\n3,4.5\n").header());
+    }
+
+    @Test
+    void numericFirstRecordIsData() {
+        assertFalse(sniff("1,2.5\n2,3.5\n3,4.5\n").header());
+    }
+
+    @Test
+    void firstRecordOfFixedLengthTextIsData() {
+        assertFalse(sniff("AB12,X\nCD34,Y\nEF56,Z\n").header());
+    }
+
+    @Test
+    void headerDiffersFromFixedLengthText() {
+        assertTrue(sniff("code,flag\nCD34,Y\nEF56,N\n").header());
+    }
+
+    @Test
+    void firstRecordOfNumbersAndFreeTextIsData() {
+        // The free-text column says nothing, and the numeric columns say the first record fits in
+        assertFalse(sniff("1,Alice Smith,30\n2,Bob,25\n3,Carol Jones,41\n").header());
+    }
+
+    @Test
+    void headerIsTheDefaultWithoutEvidence() {
+        assertTrue(sniff("name,city\nAlice Smith,Paris\nBob,New York\n").header());
+        assertTrue(sniff("only,one\n").header());
+    }
+
+    @Test
+    void recordCutOffByAnIncompleteSampleIsIgnored() {
+        byte[] sample = "a|b\n1|2\n3|4\n5,6,7,8,9".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals('|', CsvDialect.sniff(sample, sample.length, false).delimiter());
+    }
+}
@@ -0,0 +1,117 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.enums.Compression;
+import com.aidataquality.model.enums.FileFormat;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DecompressingInputTest {
+
+    private static final byte[] CSV = "id,name\n1,a\n2,b\n".repeat(1_000).getBytes(StandardCharsets.UTF_8);
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] zstd(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new ZstdOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] zip(String... namesAndContents) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                out.putNextEntry(new ZipEntry(namesAndContents[i]));
+                out.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] readAll(byte[] raw, String filename, Compression compression, String name)
+            throws IOException {
+        try (DecompressingInput input = DecompressingInput.open(new ByteArrayInputStream(raw), filename)) {
+            assertEquals(compression, input.getCompression());
+            assertEquals(name, input.getFilename());
+            return input.getStream().readAllBytes();
+        }
+    }
+
+    @Test
+    void gzipAndZstdAreDecompressed() throws IOException {
+        assertArrayEquals(CSV, readAll(gzip(CSV), "data.csv.gz", Compression.GZIP, "data.csv"));
+        assertArrayEquals(CSV, readAll(zstd(CSV), "data.csv.zst", Compression.ZSTD, "data.csv"));
+    }
+
+    @Test
+    void compressionIsFoundByMagicBytesNotByName() throws IOException {
+        assertArrayEquals(CSV, readAll(gzip(CSV), "data.csv", Compression.GZIP, "data.csv"));
+        assertArrayEquals(CSV, readAll(CSV, "data.csv.gz", Compression.NONE, "data.csv"));
+    }
+
+    @Test
+    void zipContributesItsFirstDataEntry() throws IOException {
+        byte[] archive = zip(
+            "export/", "",
+            "__MACOSX/export/._data.csv", "metadata",
+            "export/.DS_Store", "metadata",
+            "export/data.csv", "id\n1\n",
+            "export/other.json", "[]");
+
+        assertArrayEquals("id\n1\n".getBytes(StandardCharsets.UTF_8),
+                          readAll(archive, "export.zip", Compression.ZIP, "export/data.csv"));
+    }
+
+    @Test
+    void zipNamedXlsxIsTheWorkbookItself() throws IOException {
+        byte[] workbook = zip("[Content_Types].xml", "<Types/>");
+        assertArrayEquals(workbook, readAll(workbook, "book.xlsx", Compression.NONE, "book.xlsx"));
+    }
+
+    @Test
+    void zipWithoutDataIsAnError() throws IOException {
+        byte[] archive = zip("__MACOSX/._data.csv", "metadata");
+        assertThrows(IOException.class,
+                     () -> DecompressingInput.open(new ByteArrayInputStream(archive), "export.zip"));
+    }
+
+    @Test
+    void shortStreamsAreNotCompressed() throws IOException {
+        try (DecompressingInput input = DecompressingInput.open(new ByteArrayInputStream(new byte[] {0x1f}), null)) {
+            assertFalse(input.isCompressed());
+            assertArrayEquals(new byte[] {0x1f}, input.getStream().readAllBytes());
+        }
+    }
+
+    @Test
+    void formatIsTakenFromTheNameWithoutItsCompressionExtension() {
+        assertEquals(FileFormat.CSV, FileFormat.fromFilename("data.csv.gz"));
+        assertEquals(FileFormat.NDJSON, FileFormat.fromFilename("events.JSONL.zst"));
+        assertEquals(FileFormat.PARQUET, FileFormat.fromFilename("part-0.parquet"));
+        assertEquals(FileFormat.UNKNOWN, FileFormat.fromFilename("archive.zip"));
+        assertEquals(FileFormat.UNKNOWN, FileFormat.fromFilename(null));
+    }
+}
@@ -0,0 +1,189 @@
+package com.aidataquality.ingestion;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpDownloaderTest {
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+    private static final int RANGE_SIZE = 1_000;
+
+    private final byte[] data = new byte[4_500];
+    private final List<String> ranges = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private HttpServer server;
+
+    // How the ranged endpoint misbehaves
+    private volatile boolean wrongContentRange;
+    private volatile boolean truncateRanges;
+    private volatile long chunkDelayMillis;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        new Random(3).nextBytes(data);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/plain", exchange -> serve(exchange, false));
+        server.createContext("/ranged", exchange -> serve(exchange, true));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+    }
+
+    private HttpDownloader downloader(Duration readTimeout) {
+        return new HttpDownloader(client, readTimeout, 1, RANGE_SIZE, 2);
+    }
+
+    private void serve(HttpExchange exchange, boolean acceptsRanges) throws IOException {
+        try (exchange) {
+            if (acceptsRanges) {
+                exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+            }
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.getResponseHeaders().set("Content-Length", Integer.toString(data.length));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            if (!acceptsRanges || range == null) {
+                exchange.sendResponseHeaders(200, data.length);
+                send(exchange.getResponseBody(), 0, truncateRanges ? data.length / 2 : data.length);
+                return;
+            }
+
+            ranges.add(range);
+            Matcher matcher = RANGE.matcher(range);
+            assertTrue(matcher.matches(), range);
+            int start = Integer.parseInt(matcher.group(1));
+            int end = Integer.parseInt(matcher.group(2));
+            int shift = wrongContentRange && start > 0 ? 1 : 0;
+            exchange.getResponseHeaders().set("Content-Range",
+                "bytes " + (start + shift) + "-" + (end + shift) + "/" + data.length);
+            exchange.sendResponseHeaders(206, end - start + 1);
+            send(exchange.getResponseBody(), start, truncateRanges && start > 0 ? start + 10 : end + 1);
+        }
+    }
+
+    /**
+     * Bytes [from, to) of the data in four chunks, pausing before each one
+     */
+    private void send(OutputStream body, int from, int to) throws IOException {
+        int chunk = Math.max(1, (to - from + 3) / 4);
+        for (int position = from; position < to; position += chunk) {
+            if (chunkDelayMillis > 0) {
+                try {
+                    Thread.sleep(chunkDelayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            body.write(data, position, Math.min(chunk, to - position));
+            body.flush();
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void serverWithoutRangesIsReadInOneRequest() throws IOException {
+        assertArrayEquals(data, readAll(downloader(Duration.ofSeconds(5)).open(uri("/plain"))));
+        assertEquals(List.of(), ranges);
+    }
+
+    @Test
+    void serverWithRangesIsReadInOrderedRanges() throws IOException {
+        assertArrayEquals(data, readAll(downloader(Duration.ofSeconds(5)).open(uri("/ranged"))));
+        assertEquals(List.of("bytes=0-999", "bytes=1000-1999", "bytes=2000-2999", "bytes=3000-3999", "bytes=4000-4499"),
+                     ranges.stream().sorted().toList());
+    }
+
+    @Test
+    void objectsBelowTheThresholdAreNotRanged() throws IOException {
+        HttpDownloader downloader = new HttpDownloader(client, Duration.ofSeconds(5), data.length + 1, RANGE_SIZE, 2);
+        assertArrayEquals(data, readAll(downloader.open(uri("/ranged"))));
+        assertEquals(List.of(), ranges);
+    }
+
+    @Test
+    void wrongContentRangeIsAnError() throws IOException {
+        wrongContentRange = true;
+        InputStream in = downloader(Duration.ofSeconds(5)).open(uri("/ranged"));
+        IOException failure = assertThrows(IOException.class, () -> readAll(in));
+        assertTrue(failure.getMessage().contains("Content-Range"), failure.getMessage());
+    }
+
+    @Test
+    void rangeEndingEarlyIsAnError() throws IOException {
+        truncateRanges = true;
+        InputStream in = downloader(Duration.ofSeconds(5)).open(uri("/ranged"));
+        assertThrows(IOException.class, () -> readAll(in));
+    }
+
+    @Test
+    void bodyEndingEarlyIsAnError() throws IOException {
+        truncateRanges = true;
+        InputStream in = downloader(Duration.ofSeconds(5)).open(uri("/plain"));
+        assertThrows(IOException.class, () -> readAll(in));
+    }
+
+    @Test
+    void slowRangesThatKeepSendingDoNotTimeOut() throws IOException {
+        // Each range takes four pauses, well over the read timeout, but data never stops for long
+        chunkDelayMillis = 150;
+        assertArrayEquals(data, readAll(downloader(Duration.ofMillis(400)).open(uri("/ranged"))));
+    }
+
+    @Test
+    void stalledRangeTimesOut() throws IOException {
+        chunkDelayMillis = 1_500;
+        InputStream in = downloader(Duration.ofMillis(300)).open(uri("/ranged"));
+        assertThrows(HttpTimeoutException.class, () -> readAll(in));
+    }
+
+    @Test
+    void stalledBodyTimesOut() throws IOException {
+        chunkDelayMillis = 1_500;
+        InputStream in = downloader(Duration.ofMillis(300)).open(uri("/plain"));
+        assertThrows(HttpTimeoutException.class, () -> readAll(in));
+    }
+}
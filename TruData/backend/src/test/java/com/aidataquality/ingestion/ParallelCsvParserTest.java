@@ -0,0 +1,132 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelCsvParserTest {
+
+    private static final int ROWS = 2_000;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Rows whose notes hold quoted line feeds, CRLFs, delimiters and escaped quotes, so that
+     * nominal chunk cuts land inside quoted fields
+     */
+    private static String quotedCsv(String lineSeparator) {
+        StringBuilder text = new StringBuilder("id,name,note").append(lineSeparator);
+        for (int row = 0; row < ROWS; row++) {
+            String note = switch (row % 6) {
+                case 0 -> "plain";
+                case 1 -> "\"first line\nsecond line\"";
+                case 2 -> "\"a, b and c\"";
+                case 3 -> "\"she said \"\"hi\"\"\"";
+                case 4 -> "\"windows\r\nline\"";
+                default -> "";
+            };
+            text.append(row).append(",name-").append(row % 17).append(',').append(note).append(lineSeparator);
+        }
+        return text.toString();
+    }
+
+    private Path write(String name, String text) throws IOException {
+        Path file = directory.resolve(name);
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    /**
+     * Every value of the dataset matches commons-csv, with blank cells read as nulls
+     */
+    private static void assertParsedAsCommonsCsv(String text, Dataset data) throws IOException {
+        List<CSVRecord> records = CSVFormat.DEFAULT.parse(new StringReader(text)).getRecords();
+        List<String> headers = records.get(0).toList();
+        assertEquals(headers, data.getColumnNames());
+        assertEquals(records.size() - 1, data.getRowCount());
+
+        for (int i = 0; i < headers.size(); i++) {
+            Column column = data.getColumn(i);
+            for (int row = 0; row < data.getRowCount(); row++) {
+                String expected = records.get(row + 1).get(i);
+                assertEquals(expected.isEmpty() ? null : expected, column.getString(row),
+                             headers.get(i) + " row " + row);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {7, 61, 1_000, 4L << 20})
+    void quotedLineFeedsAcrossChunkBoundaries(long chunkSize) throws IOException {
+        String text = quotedCsv("\n");
+        ParallelCsvParser parser = new ParallelCsvParser(ForkJoinPool.commonPool(), chunkSize);
+        assertParsedAsCommonsCsv(text, parser.parse(write("quoted.csv", text), ColumnSelection.ALL));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {7, 61, 1_000})
+    void crlfRecordsAcrossChunkBoundaries(long chunkSize) throws IOException {
+        String text = quotedCsv("\r\n");
+        ParallelCsvParser parser = new ParallelCsvParser(ForkJoinPool.commonPool(), chunkSize);
+        assertParsedAsCommonsCsv(text, parser.parse(write("crlf.csv", text), ColumnSelection.ALL));
+    }
+
+    @Test
+    void strayQuotesFallBackToASingleChunk() throws IOException {
+        // A quote inside an unquoted field is a literal, but it flips the parity count of
+        // every chunk after it, so cuts land inside quoted fields
+        StringBuilder text = new StringBuilder("id,size,note\n");
+        for (int row = 0; row < ROWS; row++) {
+            String size = row == 10 ? "5\" screen" : "size-" + row % 5;
+            text.append(row).append(',').append(size).append(",\"line\nbreak ").append(row).append("\"\n");
+        }
+        String csv = text.toString();
+        ParallelCsvParser parser = new ParallelCsvParser(ForkJoinPool.commonPool(), 64);
+        assertParsedAsCommonsCsv(csv, parser.parse(write("stray.csv", csv), ColumnSelection.ALL));
+    }
+
+    @Test
+    void indexDecodesTheSameValuesAsParse() throws IOException {
+        String text = quotedCsv("\n");
+        ParallelCsvParser parser = new ParallelCsvParser(ForkJoinPool.commonPool(), 61);
+        try (Dataset indexed = parser.index(write("indexed.csv", text), ColumnSelection.ALL)) {
+            assertParsedAsCommonsCsv(text, indexed);
+        }
+    }
+
+    @Test
+    void unselectedColumnsAreSkipped() throws IOException {
+        String text = quotedCsv("\n");
+        ParallelCsvParser parser = new ParallelCsvParser(ForkJoinPool.commonPool(), 61);
+        Dataset data = parser.parse(write("selected.csv", text), ColumnSelection.only(List.of("id", "note")));
+
+        assertEquals(List.of("id", "note"), data.getColumnNames());
+        assertNull(data.getColumn("name"));
+        assertEquals("first line\nsecond line", data.getColumn("note").getString(1));
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() throws IOException {
+        Path file = write("broken.csv", "id,note\n1,\"never closed\n2,x\n");
+        ParallelCsvParser parser = new ParallelCsvParser(ForkJoinPool.commonPool(), 4);
+        assertThrows(IOException.class, () -> parser.parse(file, ColumnSelection.ALL));
+    }
+}
@@ -0,0 +1,109 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.aidataquality.model.enums.ColumnType;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelNdjsonParserTest {
+
+    private static final int ROWS = 2_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Lines of varying length, with blank lines, CRLFs, escaped line feeds in strings and a
+     * column that only appears halfway through
+     */
+    private static String lines() {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < ROWS; row++) {
+            text.append("{\"id\":").append(row)
+                .append(",\"name\":\"name-").append(row % 17).append(row % 5 == 0 ? "\\nsecond line" : "").append('"');
+            if (row >= ROWS / 2) {
+                text.append(",\"late\":").append(row).append(".5");
+            }
+            text.append('}').append(row % 4 == 0 ? "\r\n" : "\n");
+            if (row % 100 == 0) {
+                text.append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    private Path write(String text) throws IOException {
+        Path file = directory.resolve("rows.jsonl");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private Dataset readSequentially(Path file) throws IOException {
+        DatasetBuilder builder = new DatasetBuilder();
+        try (JsonParser parser = objectMapper.getFactory().createParser(file.toFile())) {
+            new JsonRowReader(objectMapper, ColumnSelection.ALL).readLines(parser, builder);
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {7, 61, 1_000, 4L << 20})
+    void blocksAreReadAsOneSequentialPass(long chunkSize) throws IOException {
+        Path file = write(lines());
+        Dataset expected = readSequentially(file);
+        ParallelNdjsonParser parser = new ParallelNdjsonParser(ForkJoinPool.commonPool(), chunkSize, objectMapper);
+        Dataset parsed = parser.parse(file, ColumnSelection.ALL);
+
+        assertEquals(ROWS, parsed.getRowCount());
+        assertEquals(expected.getColumnNames(), parsed.getColumnNames());
+        for (int i = 0; i < expected.getColumnCount(); i++) {
+            assertEquals(expected.getColumn(i).getType(), parsed.getColumn(i).getType());
+            for (int row = 0; row < ROWS; row++) {
+                assertEquals(expected.getColumn(i).getString(row), parsed.getColumn(i).getString(row),
+                             expected.getColumn(i).getName() + " row " + row);
+            }
+        }
+        assertEquals(ROWS / 2, parsed.getColumn("late").getNullCount());
+    }
+
+    @Test
+    void malformedLineIsAnIOException() throws IOException {
+        Path file = write(lines() + "{\"id\": oops}\n");
+        ParallelNdjsonParser parser = new ParallelNdjsonParser(ForkJoinPool.commonPool(), 61, objectMapper);
+        assertThrows(IOException.class, () -> parser.parse(file, ColumnSelection.ALL));
+    }
+
+    @Test
+    void blocksOfOnlyNullsDoNotWidenTheColumn() throws IOException {
+        // Explicit nulls for the first half, so the first blocks hold no value of "late"
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < ROWS; row++) {
+            text.append("{\"id\":").append(row).append(",\"late\":")
+                .append(row < ROWS / 2 ? "null" : row + ".5").append("}\n");
+        }
+        Path file = write(text.toString());
+        ParallelNdjsonParser parser = new ParallelNdjsonParser(ForkJoinPool.commonPool(), 7, objectMapper);
+        Dataset parsed = parser.parse(file, ColumnSelection.ALL);
+
+        assertEquals(ColumnType.DOUBLE, readSequentially(file).getColumn("late").getType());
+        assertEquals(ColumnType.DOUBLE, parsed.getColumn("late").getType());
+        assertEquals(ROWS / 2, parsed.getColumn("late").getNullCount());
+        assertEquals("1999.5", parsed.getColumn("late").getString(ROWS - 1));
+    }
+}
@@ -0,0 +1,93 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.dataset.Dataset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParquetFooterScanTest {
+
+    private static final int ROWS = 5_000;
+
+    @TempDir
+    Path directory;
+
+    private static long nullRows() {
+        long nulls = 0;
+        for (int row = 0; row < ROWS; row++) {
+            if (row % 7 == 3) {
+                nulls++;
+            }
+        }
+        return nulls;
+    }
+
+    @Test
+    void flatColumnsAreAnsweredFromTheFooter() throws IOException {
+        Path file = ParquetTestFiles.write(directory.resolve("rows.parquet"), ROWS);
+        ParquetFooterScan scan = ParquetFooterScan.scan(file, ColumnSelection.ALL, 0, ForkJoinPool.commonPool());
+
+        assertEquals(ROWS, scan.getRowCount());
+        assertEquals(List.of("id", "name", "score", "active", "day", "price", "tags"), scan.getColumnNames());
+
+        ParquetFooterScan.ColumnStatistics id = scan.getStatistics("id");
+        assertTrue(id.numeric());
+        assertEquals(0, id.nullCount());
+        assertEquals(0.0, id.min());
+        assertEquals(ROWS - 1.0, id.max());
+
+        ParquetFooterScan.ColumnStatistics score = scan.getStatistics("score");
+        assertEquals(nullRows(), score.nullCount());
+        assertEquals(0.0, score.min());
+        assertEquals((ROWS - 1) / 8.0, score.max());
+
+        ParquetFooterScan.ColumnStatistics price = scan.getStatistics("price");
+        assertTrue(price.numeric());
+        assertEquals(0.0, price.min());
+        assertEquals(ParquetTestFiles.price(ROWS - 1).doubleValue(), price.max());
+
+        // Dates and text have null counts but no numeric range
+        for (String name : List.of("name", "active", "day")) {
+            ParquetFooterScan.ColumnStatistics statistics = scan.getStatistics(name);
+            assertFalse(statistics.numeric(), name);
+            assertEquals(nullRows(), statistics.nullCount(), name);
+            assertNull(statistics.min(), name);
+            assertNull(statistics.max(), name);
+        }
+    }
+
+    @Test
+    void nestedColumnsAreDecoded() throws IOException {
+        Path file = ParquetTestFiles.write(directory.resolve("rows.parquet"), ROWS);
+        ParquetFooterScan scan = ParquetFooterScan.scan(file, ColumnSelection.ALL, 0, ForkJoinPool.commonPool());
+
+        assertNull(scan.getStatistics("tags"));
+        Dataset decoded = scan.getDecoded();
+        assertEquals(List.of("tags"), decoded.getColumnNames());
+        assertEquals(ROWS, decoded.getRowCount());
+        assertEquals(nullRows(), decoded.getColumn("tags").getNullCount());
+        assertEquals("[t0, t1]", decoded.getColumn("tags").getString(2));
+        assertTrue(scan.getSample().isEmpty());
+    }
+
+    @Test
+    void sampleHoldsTheLeadingRowsOfEveryColumn() throws IOException {
+        Path file = ParquetTestFiles.write(directory.resolve("rows.parquet"), ROWS);
+        Dataset sample = ParquetFooterScan.scan(file, ColumnSelection.ALL, 100, ForkJoinPool.commonPool()).getSample();
+
+        assertEquals(100, sample.getRowCount());
+        assertEquals(List.of("id", "name", "score", "active", "day", "price", "tags"), sample.getColumnNames());
+        for (int row = 0; row < 100; row++) {
+            assertEquals((long) row, sample.getColumn("id").get(row));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.aidataquality.model.enums.ColumnType;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParquetReaderTest {
+
+    private static final int ROWS = 5_000;
+
+    @TempDir
+    Path directory;
+
+    private Dataset readSequentially(Path file, ColumnSelection projection) throws IOException {
+        DatasetBuilder builder = new DatasetBuilder();
+        assertEquals(ROWS, new ParquetReader(file, projection).read(builder));
+        return builder.build();
+    }
+
+    @Test
+    void valuesAreConvertedByLogicalType() throws IOException {
+        Path file = ParquetTestFiles.write(directory.resolve("rows.parquet"), ROWS);
+        Dataset data = readSequentially(file, ColumnSelection.ALL);
+
+        assertEquals(List.of("id", "name", "score", "active", "day", "price", "tags"), data.getColumnNames());
+        assertEquals(ColumnType.LONG, data.getColumn("id").getType());
+        assertEquals(ColumnType.STRING, data.getColumn("name").getType());
+        assertEquals(ColumnType.DOUBLE, data.getColumn("score").getType());
+        assertEquals(ColumnType.BOOLEAN, data.getColumn("active").getType());
+        assertEquals(ColumnType.DATE, data.getColumn("day").getType());
+        assertEquals(ColumnType.DOUBLE, data.getColumn("price").getType());
+
+        for (int row = 0; row < ROWS; row++) {
+            assertEquals((long) row, data.getColumn("id").get(row));
+            if (row % 7 == 3) {
+                assertTrue(data.getColumn("name").isNull(row));
+                assertTrue(data.getColumn("day").isNull(row));
+                continue;
+            }
+            assertEquals("name-" + row % 11, data.getColumn("name").getString(row));
+            assertEquals(row / 8.0, data.getColumn("score").get(row));
+            assertEquals(row % 2 == 0, data.getColumn("active").get(row));
+            assertEquals(new Date((ParquetTestFiles.FIRST_DAY + row % 30) * 86_400_000L),
+                         data.getColumn("day").get(row));
+            assertEquals(ParquetTestFiles.price(row).doubleValue(), data.getColumn("price").get(row));
+        }
+        assertEquals("[t0, t1]", data.getColumn("tags").getString(2));
+    }
+
+    @Test
+    void rowGroupsDecodedInParallelMatchASequentialRead() throws IOException {
+        Path file = ParquetTestFiles.write(directory.resolve("groups.parquet"), ROWS);
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file))) {
+            assertTrue(reader.getRowGroups().size() > 4, "row groups: " + reader.getRowGroups().size());
+        }
+
+        Dataset expected = readSequentially(file, ColumnSelection.ALL);
+        Dataset parallel = new ParquetReader(file, ColumnSelection.ALL).read(ForkJoinPool.commonPool());
+
+        assertEquals(expected.getRowCount(), parallel.getRowCount());
+        assertEquals(expected.getColumnNames(), parallel.getColumnNames());
+        for (int i = 0; i < expected.getColumnCount(); i++) {
+            Column want = expected.getColumn(i);
+            Column got = parallel.getColumn(i);
+            assertEquals(want.getType(), got.getType(), want.getName());
+            for (int row = 0; row < ROWS; row++) {
+                assertEquals(want.getString(row), got.getString(row), want.getName() + " row " + row);
+            }
+        }
+    }
+
+    @Test
+    void onlyProjectedColumnsAreRead() throws IOException {
+        Path file = ParquetTestFiles.write(directory.resolve("projected.parquet"), ROWS);
+        ColumnSelection projection = ColumnSelection.only(List.of("price", "id"));
+        Dataset data = new ParquetReader(file, projection).read(ForkJoinPool.commonPool());
+        assertEquals(List.of("id", "price"), data.getColumnNames());
+        assertEquals(ROWS, data.getRowCount());
+    }
+}
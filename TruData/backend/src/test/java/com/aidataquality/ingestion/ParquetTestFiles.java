@@ -0,0 +1,77 @@
+package com.aidataquality.ingestion;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+/**
+ * Parquet files for the reader tests, written with small row groups so that there are many
+ */
+final class ParquetTestFiles {
+
+    static final MessageType SCHEMA = MessageTypeParser.parseMessageType("""
+        message row {
+          required int64 id;
+          optional binary name (STRING);
+          optional double score;
+          optional boolean active;
+          optional int32 day (DATE);
+          optional int64 price (DECIMAL(12, 2));
+          optional group tags (LIST) {
+            repeated group list {
+              optional binary element (STRING);
+            }
+          }
+        }
+        """);
+
+    static final long FIRST_DAY = 19_000;
+
+    private ParquetTestFiles() {
+    }
+
+    static BigDecimal price(int row) {
+        return BigDecimal.valueOf(row * 125L, 2);
+    }
+
+    /**
+     * Rows with a null in every optional column of each seventh row
+     */
+    static Path write(Path file, int rows) throws IOException {
+        SimpleGroupFactory groups = new SimpleGroupFactory(SCHEMA);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter
+                .builder(new org.apache.hadoop.fs.Path(file.toUri()))
+                .withConf(new Configuration())
+                .withType(SCHEMA)
+                .withRowGroupSize(4 * 1024)
+                .withPageSize(1024)
+                .withDictionaryPageSize(1024)
+                .build()) {
+            for (int row = 0; row < rows; row++) {
+                Group group = groups.newGroup().append("id", (long) row);
+                if (row % 7 != 3) {
+                    group.append("name", "name-" + row % 11)
+                         .append("score", row / 8.0)
+                         .append("active", row % 2 == 0)
+                         .append("day", (int) (FIRST_DAY + row % 30))
+                         .append("price", price(row).unscaledValue().longValueExact());
+                    Group tags = group.addGroup("tags");
+                    for (int tag = 0; tag < row % 3; tag++) {
+                        tags.addGroup("list").append("element", Binary.fromString("t" + tag));
+                    }
+                }
+                writer.write(group);
+            }
+        }
+        return file;
+    }
+}
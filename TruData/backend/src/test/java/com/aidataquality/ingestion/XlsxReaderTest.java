@@ -0,0 +1,117 @@
+package com.aidataquality.ingestion;
+
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.aidataquality.model.enums.ColumnType;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XlsxReaderTest {
+
+    private static final int ROWS = 500;
+    private static final Date START = new Date(1_700_000_000_000L / 86_400_000 * 86_400_000);
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    /**
+     * A sheet of typed cells, with gaps, a date format, formulas and an error result, followed
+     * by a small second sheet
+     */
+    @BeforeEach
+    void writeWorkbook() throws IOException {
+        file = directory.resolve("book.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+            Sheet data = workbook.createSheet("data");
+            Row header = data.createRow(0);
+            List<String> names = List.of("id", "name", "active", "joined", "double", "ratio");
+            for (int c = 0; c < names.size(); c++) {
+                header.createCell(c).setCellValue(names.get(c));
+            }
+            for (int r = 0; r < ROWS; r++) {
+                Row row = data.createRow(r + 1);
+                row.createCell(0).setCellValue(r);
+                if (r % 10 != 0) {
+                    row.createCell(1).setCellValue("name-" + r % 7);
+                }
+                row.createCell(2).setCellValue(r % 2 == 0);
+                row.createCell(3).setCellValue(new Date(START.getTime() + r * 86_400_000L));
+                row.getCell(3).setCellStyle(dateStyle);
+                row.createCell(4).setCellFormula("A" + (r + 2) + "*2");
+                row.createCell(5).setCellFormula(r == 3 ? "1/0" : "A" + (r + 2) + "/4");
+            }
+
+            Sheet other = workbook.createSheet("other");
+            other.createRow(0).createCell(0).setCellValue("code");
+            other.createRow(1).createCell(0).setCellValue("x");
+
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(out);
+        }
+    }
+
+    private Dataset read(int sheet) throws IOException {
+        DatasetBuilder builder = new DatasetBuilder();
+        try (XlsxReader reader = XlsxReader.open(file)) {
+            reader.readSheet(sheet, ColumnSelection.ALL, builder);
+        }
+        return builder.build();
+    }
+
+    @Test
+    void cellsAreReadWithTheirTypes() throws IOException {
+        Dataset data = read(0);
+
+        assertEquals(ROWS, data.getRowCount());
+        assertEquals(List.of("id", "name", "active", "joined", "double", "ratio"), data.getColumnNames());
+        assertEquals(ColumnType.DOUBLE, data.getColumn("id").getType());
+        assertEquals(ColumnType.BOOLEAN, data.getColumn("active").getType());
+        assertEquals(ColumnType.DATE, data.getColumn("joined").getType());
+        for (int row = 0; row < ROWS; row++) {
+            assertEquals((double) row, data.getColumn("id").get(row));
+            assertEquals(row % 10 == 0 ? null : "name-" + row % 7, data.getColumn("name").getString(row));
+            assertEquals(row % 2 == 0, data.getColumn("active").get(row));
+            assertEquals(new Date(START.getTime() + row * 86_400_000L), data.getColumn("joined").get(row));
+            // Formulas give their cached results
+            assertEquals(2.0 * row, data.getColumn("double").get(row));
+        }
+    }
+
+    @Test
+    void errorResultsAreMissing() throws IOException {
+        Dataset data = read(0);
+        assertTrue(data.getColumn("ratio").isNull(3));
+        assertEquals(1, data.getColumn("ratio").getNullCount());
+        assertEquals(1.0, data.getColumn("ratio").get(4));
+    }
+
+    @Test
+    void sheetsAreReadByPosition() throws IOException {
+        try (XlsxReader reader = XlsxReader.open(file)) {
+            assertEquals(List.of("data", "other"), reader.getSheetNames());
+        }
+        Dataset other = read(1);
+        assertEquals(List.of("code"), other.getColumnNames());
+        assertEquals("x", other.getColumn("code").getString(0));
+    }
+}
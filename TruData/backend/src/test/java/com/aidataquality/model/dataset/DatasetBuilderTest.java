@@ -0,0 +1,91 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatasetBuilderTest {
+
+    private static Column column(Object... values) {
+        DatasetBuilder builder = new DatasetBuilder();
+        for (Object value : values) {
+            builder.set("column", value);
+            builder.endRow();
+        }
+        return builder.build().getColumn("column");
+    }
+
+    @Test
+    void columnsTakeTheTypeOfTheirValues() {
+        assertEquals(ColumnType.LONG, column(1L, 2, null).getType());
+        assertEquals(ColumnType.DOUBLE, column(1.5, null, 2.5).getType());
+        assertEquals(ColumnType.BOOLEAN, column(true, false).getType());
+        assertEquals(ColumnType.DATE, column(new Date(0), null).getType());
+        assertEquals(ColumnType.STRING, column("a", "b").getType());
+        // Without a value there is nothing to go by
+        assertEquals(ColumnType.STRING, column(null, null).getType());
+    }
+
+    @Test
+    void columnsWidenToHoldEveryValue() {
+        Column numbers = column(1L, 2.5, 3L);
+        assertEquals(ColumnType.DOUBLE, numbers.getType());
+        assertEquals(1.0, numbers.get(0));
+        assertEquals(2.5, numbers.get(1));
+
+        Column mixed = column(7L, "n/a", true);
+        assertEquals(ColumnType.STRING, mixed.getType());
+        assertEquals("7", mixed.getString(0));
+        assertEquals("n/a", mixed.getString(1));
+        assertEquals("true", mixed.getString(2));
+    }
+
+    @Test
+    void unsetValuesAreNull() {
+        DatasetBuilder builder = new DatasetBuilder(List.of("id", "name"));
+        builder.addRow(Map.of("id", 1L));
+        builder.addRow(Map.of("id", 2L, "name", "b"));
+        builder.addRow(Map.of("late", 3.5));
+        Dataset data = builder.build();
+
+        assertEquals(3, data.getRowCount());
+        assertEquals(List.of("id", "name", "late"), data.getColumnNames());
+        Column name = data.getColumn("name");
+        assertTrue(name.isNull(0));
+        assertNull(name.getString(0));
+        assertEquals("b", name.getString(1));
+        assertEquals(2, name.getNullCount());
+        Column late = data.getColumn("late");
+        assertEquals(ColumnType.DOUBLE, late.getType());
+        assertTrue(late.isNull(0) && late.isNull(1));
+        assertFalse(late.isNull(2));
+        assertNull(data.getColumn("missing"));
+    }
+
+    @Test
+    void manyRowsKeepTheirValues() {
+        DatasetBuilder builder = new DatasetBuilder();
+        for (int row = 0; row < 10_000; row++) {
+            builder.set("id", (long) row);
+            builder.set("even", row % 2 == 0);
+            builder.set("label", row % 3 == 0 ? null : "label-" + row);
+            builder.endRow();
+        }
+        Dataset data = builder.build();
+
+        assertEquals(10_000, data.getRowCount());
+        for (int row = 0; row < 10_000; row++) {
+            assertEquals((long) row, data.getColumn("id").get(row));
+            assertEquals(row % 2 == 0, data.getColumn("even").get(row));
+            assertEquals(row % 3 == 0 ? null : "label-" + row, data.getColumn("label").getString(row));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.aidataquality.model.dataset;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DictionaryColumnTest {
+
+    private static Dataset column(List<?> values) {
+        DatasetBuilder builder = new DatasetBuilder(List.of("value"));
+        for (Object value : values) {
+            builder.set(0, value);
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    private static Dataset repeated(int rows, int distinct, String prefix) {
+        DatasetBuilder builder = new DatasetBuilder(List.of("value"));
+        for (int row = 0; row < rows; row++) {
+            builder.set(0, row % 10 == 9 ? null : prefix + row % distinct);
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    @Test
+    void repeatedTextIsStoredAsCodes() {
+        Dataset data = column(List.of("red", "green", "red", "blue", "red", "green"));
+        DictionaryColumn column = assertInstanceOf(DictionaryColumn.class, data.getColumn("value"));
+
+        assertEquals(3, column.getDictionarySize());
+        assertEquals("red", column.getDictionaryValue(column.getCode(0)));
+        assertEquals(column.getCode(0), column.getCode(2));
+        assertArrayEquals(new long[] {3, 2, 1}, column.countCodes());
+        assertEquals("blue", column.getString(3));
+    }
+
+    @Test
+    void nullRowsHaveTheNullCode() {
+        Dataset data = repeated(1_000, 5, "v");
+        DictionaryColumn column = assertInstanceOf(DictionaryColumn.class, data.getColumn("value"));
+
+        assertEquals(100, column.getNullCount());
+        assertEquals(DictionaryColumn.NULL_CODE, column.getCode(9));
+        assertNull(column.get(9));
+        assertEquals(900, Arrays.stream(column.countCodes()).sum());
+    }
+
+    @Test
+    void mostlyDistinctTextIsStoredAsStrings() {
+        Dataset data = column(List.of("a", "b", "c", "a"));
+        assertInstanceOf(StringColumn.class, data.getColumn("value"));
+        assertEquals("c", data.getColumn("value").getString(2));
+    }
+
+    @Test
+    void dictionaryPastItsSizeLimitFallsBackToStrings() {
+        // Each value appears twice, but there are more distinct values than a dictionary holds
+        int distinct = 70_000;
+        DatasetBuilder builder = new DatasetBuilder(List.of("value"));
+        for (int row = 0; row < 2 * distinct; row++) {
+            builder.set(0, "v" + row % distinct);
+            builder.endRow();
+        }
+        Column column = builder.build().getColumn("value");
+
+        assertInstanceOf(StringColumn.class, column);
+        for (int row = 0; row < 2 * distinct; row += 997) {
+            assertEquals("v" + row % distinct, column.getString(row));
+        }
+    }
+
+    @Test
+    void widenedColumnsAreEncodedAsText() {
+        Dataset data = column(Arrays.asList(7L, 8L, null, 7L, "n/a", "n/a", 8L, 7L));
+        DictionaryColumn column = assertInstanceOf(DictionaryColumn.class, data.getColumn("value"));
+
+        assertEquals(3, column.getDictionarySize());
+        assertEquals("7", column.getString(0));
+        assertNull(column.getString(2));
+        assertEquals("n/a", column.getString(5));
+    }
+
+    @Test
+    void appendedDictionariesAreTranslatedByValue() {
+        DatasetBuilder merged = new DatasetBuilder(List.of("value"));
+        merged.append(repeated(100, 4, "a"));
+        merged.append(repeated(100, 4, "b"));
+        merged.append(repeated(100, 4, "a"));
+        DictionaryColumn column = assertInstanceOf(DictionaryColumn.class, merged.build().getColumn("value"));
+
+        assertEquals(8, column.getDictionarySize());
+        assertEquals(30, column.getNullCount());
+        for (int row = 0; row < 300; row++) {
+            String prefix = row / 100 == 1 ? "b" : "a";
+            assertEquals(row % 10 == 9 ? null : prefix + row % 100 % 4, column.getString(row), "row " + row);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.aidataquality.model.dataset;
+
+import com.aidataquality.model.enums.ColumnType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpillStoreTest {
+
+    private static final int ROWS = 1000;
+    private static final int SEGMENT_ROWS = 100;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Rows with a column of every type, nulls in each, and text that widens partway through
+     */
+    private static void fill(DatasetBuilder builder) {
+        for (int row = 0; row < ROWS; row++) {
+            boolean isNull = row % 7 == 3;
+            builder.set("id", isNull ? null : (long) row);
+            builder.set("price", isNull ? null : new BigDecimal(row + ".50"));
+            builder.set("flag", isNull ? null : row % 3 == 0);
+            builder.set("seen", isNull ? null : new Date(1_700_000_000_000L + row * 1234L));
+            builder.set("category", isNull ? null : "c" + row % 5);
+            builder.set("label", isNull ? null : "label-" + row);
+            builder.set("code", row < 500 ? (Object) (long) row : "x" + row);
+            if (row >= 200) {
+                builder.set("late", "v" + row % 3);
+            }
+            builder.endRow();
+        }
+    }
+
+    private static Dataset build(DatasetBuilder builder) {
+        fill(builder);
+        return builder.build();
+    }
+
+    @Test
+    void spilledDatasetReadsBackAsBuiltInMemory() {
+        Dataset expected = build(new DatasetBuilder());
+        try (SpillStore store = new SpillStore(directory, 1);
+             Dataset spilled = build(new SpillingDatasetBuilder(store, SEGMENT_ROWS))) {
+            assertEquals(expected.getColumnNames(), spilled.getColumnNames());
+            assertEquals(expected.getRowCount(), spilled.getRowCount());
+
+            for (int i = 0; i < expected.getColumnCount(); i++) {
+                Column want = expected.getColumn(i);
+                Column got = spilled.getColumn(i);
+                assertEquals(want.getType(), got.getType(), want.getName());
+                assertEquals(want.getNullCount(), got.getNullCount(), want.getName());
+                for (int row = 0; row < ROWS; row++) {
+                    assertEquals(want.isNull(row), got.isNull(row), want.getName() + " row " + row);
+                    assertEquals(want.get(row), got.get(row), want.getName() + " row " + row);
+                    assertEquals(want.getString(row), got.getString(row), want.getName() + " row " + row);
+                }
+            }
+        }
+    }
+
+    @Test
+    void segmentsKeepTheirTypedForm() {
+        try (SpillStore store = new SpillStore(directory, 1);
+             Dataset spilled = build(new SpillingDatasetBuilder(store, SEGMENT_ROWS))) {
+            List<Column> dates = parts(spilled.getColumn("seen"));
+            assertEquals(ROWS / SEGMENT_ROWS, dates.size());
+            for (Column part : dates) {
+                assertInstanceOf(DateColumn.class, part);
+            }
+
+            for (Column part : parts(spilled.getColumn("category"))) {
+                assertInstanceOf(DictionaryColumn.class, part);
+            }
+
+            // Integer segments of a column that turned to text are parts of text
+            Column code = spilled.getColumn("code");
+            assertEquals(ColumnType.STRING, code.getType());
+            int start = 0;
+            for (Column part : parts(code)) {
+                assertEquals(ColumnType.STRING, part.getType());
+                for (int row = 0; row < part.size(); row++) {
+                    assertEquals(code.getString(start + row), part.getString(row));
+                }
+                start += part.size();
+            }
+            assertEquals(ROWS, start);
+
+            // Rows before the column first appeared are a part of nulls
+            Column late = parts(spilled.getColumn("late")).get(0);
+            assertEquals(SEGMENT_ROWS, late.getNullCount());
+        }
+    }
+
+    @Test
+    void missingSegmentOfNumericColumnIsNotReadAsZero() {
+        try (SpillStore store = new SpillStore(directory, 1)) {
+            SpillingDatasetBuilder builder = new SpillingDatasetBuilder(store, SEGMENT_ROWS);
+            for (int row = 0; row < 2 * SEGMENT_ROWS; row++) {
+                builder.set("other", (long) row);
+                if (row >= SEGMENT_ROWS) {
+                    builder.set("late", 1.5);
+                }
+                builder.endRow();
+            }
+            try (Dataset spilled = builder.build()) {
+                NumericColumn late = (NumericColumn) spilled.getColumn("late");
+                assertTrue(late.isNull(0));
+                assertThrows(IllegalStateException.class, () -> late.getDouble(0));
+                assertEquals(1.5, late.getDouble(SEGMENT_ROWS));
+            }
+        }
+    }
+
+    @Test
+    void segmentWithoutValuesOfNumericColumnIsAPartOfNulls() {
+        try (SpillStore store = new SpillStore(directory, 1)) {
+            SpillingDatasetBuilder builder = new SpillingDatasetBuilder(store, SEGMENT_ROWS);
+            for (int row = 0; row < 2 * SEGMENT_ROWS; row++) {
+                builder.set("early", row < SEGMENT_ROWS ? (Object) (long) row : null);
+                builder.endRow();
+            }
+            try (Dataset spilled = builder.build()) {
+                List<Column> parts = parts(spilled.getColumn("early"));
+                assertEquals(2, parts.size());
+                assertInstanceOf(NumericColumn.class, parts.get(1));
+                assertEquals(SEGMENT_ROWS, parts.get(1).getNullCount());
+            }
+        }
+    }
+
+    @Test
+    void residentSegmentsStayWithinBudget() {
+        long budget = 16 * 1024;
+        try (SpillStore store = new SpillStore(directory, budget);
+             Dataset spilled = build(new SpillingDatasetBuilder(store, SEGMENT_ROWS))) {
+            for (Column column : spilled.getColumns()) {
+                for (int row = 0; row < ROWS; row++) {
+                    column.getString(row);
+                }
+                assertTrue(store.getResidentBytes() <= budget, column.getName());
+            }
+        }
+    }
+
+    @Test
+    void codecRoundTripsEveryColumnType() throws Exception {
+        Dataset dataset = build(new DatasetBuilder());
+        try (SpillStore store = new SpillStore(directory, Long.MAX_VALUE)) {
+            SpillFile file = store.newFile();
+            for (Column column : dataset.getColumns()) {
+                SpillStore.Segment segment = store.add(file, column);
+                Column decoded = SegmentCodec.decode(ByteBuffer.wrap(SegmentCodec.encode(column)), segment);
+                assertEquals(column.getClass(), decoded.getClass(), column.getName());
+                for (int row = 0; row < ROWS; row++) {
+                    assertEquals(column.getString(row), decoded.getString(row), column.getName() + " row " + row);
+                }
+            }
+            file.close();
+        }
+    }
+
+    private static List<Column> parts(Column column) {
+        List<Column> parts = new ArrayList<>();
+        column.segments().forEach(parts::add);
+        return parts;
+    }
+}
@@ -0,0 +1,217 @@
+package com.aidataquality.service;
+
+import com.aidataquality.config.DataQualityProperties;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.aidataquality.model.dto.ColumnProfile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnProfileAccumulatorTest {
+
+    private static final int ROWS = 1_000;
+    private static final int BATCH_ROWS = 128;
+    private static final long FIRST_DAY = 1_700_000_000_000L;
+    // Well past the distinct threshold of sketchingService()
+    private static final int SKETCHED_ROWS = 50_000;
+
+    private static DataProfilingService service() {
+        DataQualityProperties properties = new DataQualityProperties();
+        return new DataProfilingService(new ColumnTaskRunner(ForkJoinPool.commonPool(), properties), properties);
+    }
+
+    private static DataProfilingService sketchingService() {
+        DataQualityProperties properties = new DataQualityProperties();
+        properties.getProfiling().setDistinctThreshold(1_000);
+        properties.getProfiling().setDistinctPrecision(14);
+        properties.getProfiling().setHeavyHitters(100);
+        return new DataProfilingService(new ColumnTaskRunner(ForkJoinPool.commonPool(), properties), properties);
+    }
+
+    private static IntFunction<Object> values(String column) {
+        return switch (column) {
+            case "count" -> row -> row % 10 == 9 ? null : (Object) (long) (row % 250);
+            case "score" -> row -> row / 8.0;
+            case "label" -> row -> "label-" + row % 7;
+            // Several instants per day, a millisecond apart
+            case "day" -> row -> new Date(FIRST_DAY + row % 40 * 86_400_000L + row % 3);
+            case "flag" -> row -> row % 3 == 0 ? "unknown" : (Object) (row % 2 == 0);
+            default -> throw new IllegalArgumentException(column);
+        };
+    }
+
+    private static Dataset rows(String column, IntFunction<Object> values, int from, int to) {
+        DatasetBuilder builder = new DatasetBuilder(List.of(column));
+        for (int row = from; row < to; row++) {
+            builder.set(0, values.apply(row));
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    private static Dataset batch(Object... values) {
+        DatasetBuilder builder = new DatasetBuilder();
+        for (Object value : values) {
+            builder.set("column", value);
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    private static ColumnProfile sketchedProfile(IntFunction<Object> values) {
+        ColumnProfileAccumulator accumulator = sketchingService().newAccumulator("column");
+        accumulator.accept(rows("column", values, 0, SKETCHED_ROWS).getColumn("column"));
+        return accumulator.finish();
+    }
+
+    private static void assertSameProfile(ColumnProfile expected, ColumnProfile actual) {
+        assertEquals(expected.getDataType(), actual.getDataType());
+        assertEquals(expected.getTotalCount(), actual.getTotalCount());
+        assertEquals(expected.getNullCount(), actual.getNullCount());
+        assertEquals(expected.getUniqueCount(), actual.getUniqueCount());
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        assertEquals(expected.getMedian(), actual.getMedian());
+        assertEquals(expected.getQ1(), actual.getQ1());
+        assertEquals(expected.getQ3(), actual.getQ3());
+        if (expected.getMean() != null) {
+            assertEquals(expected.getMean(), actual.getMean(), 1e-9);
+            assertEquals(expected.getStdDev(), actual.getStdDev(), 1e-9);
+        }
+        assertEquals(expected.getTopValues(), actual.getTopValues());
+        assertEquals(expected.getValueCounts(), actual.getValueCounts());
+        assertEquals(expected.getQualityIssues(), actual.getQualityIssues());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"count", "score", "label", "day", "flag"})
+    void batchesGiveTheProfileOfTheWholeColumn(String column) {
+        DataProfilingService service = service();
+        IntFunction<Object> values = values(column);
+        ColumnProfile whole = service.profileData(rows(column, values, 0, ROWS)).get(0);
+
+        ColumnProfileAccumulator accumulator = service.newAccumulator(column);
+        for (int start = 0; start < ROWS; start += BATCH_ROWS) {
+            accumulator.accept(rows(column, values, start, Math.min(ROWS, start + BATCH_ROWS)).getColumn(column));
+        }
+
+        assertSameProfile(whole, accumulator.finish());
+    }
+
+    @Test
+    void numbersAreSummarizedInOnePass() {
+        // 1..100 with a null after every fifth value
+        ColumnProfile profile = service().profileData(rows("value",
+            row -> row % 6 == 5 ? null : (Object) (long) (row - row / 6 + 1), 0, 120)).get(0);
+
+        assertEquals("NUMERIC", profile.getDataType());
+        assertEquals(120, profile.getTotalCount());
+        assertEquals(20, profile.getNullCount());
+        assertEquals(100, profile.getUniqueCount());
+        assertEquals(1.0, profile.getMin());
+        assertEquals(100.0, profile.getMax());
+        assertEquals(50.5, profile.getMean(), 1e-9);
+        assertEquals(50.5, profile.getMedian(), 1e-9);
+    }
+
+    @Test
+    void datesAreDistinctToTheMillisecond() {
+        ColumnProfile profile = service().profileData(rows("day", values("day"), 0, ROWS)).get(0);
+        assertEquals(120, profile.getUniqueCount());
+    }
+
+    @Test
+    void topValuesAreTheMostFrequent() {
+        // label-k appears k + 1 times
+        DatasetBuilder builder = new DatasetBuilder(List.of("label"));
+        for (int k = 0; k < 12; k++) {
+            for (int i = 0; i <= k; i++) {
+                builder.set(0, "label-" + k);
+                builder.endRow();
+            }
+        }
+        ColumnProfile profile = service().profileData(builder.build()).get(0);
+
+        assertEquals(List.of("label-11", "label-10", "label-9", "label-8", "label-7", "label-6",
+                             "label-5", "label-4", "label-3", "label-2"), profile.getTopValues());
+        assertEquals(12L, profile.getValueCounts().get("label-11"));
+    }
+
+    @Test
+    void textPastTheThresholdIsSketched() {
+        // Every other row is "common", the rest are 25,000 distinct values
+        ColumnProfile profile = sketchedProfile(row -> row % 2 == 0 ? "common" : "value-" + row);
+
+        long distinct = SKETCHED_ROWS / 2 + 1;
+        assertNotNull(profile.getUniqueCountError());
+        assertEquals(distinct, profile.getUniqueCount(), 4 * profile.getUniqueCountError() * distinct);
+        assertEquals("common", profile.getTopValues().get(0));
+        long common = profile.getValueCounts().get("common");
+        assertTrue(common >= SKETCHED_ROWS / 2 && common <= SKETCHED_ROWS / 2 + SKETCHED_ROWS / 100,
+                   "common counted " + common);
+    }
+
+    @Test
+    void textWithinTheThresholdIsCountedExactly() {
+        ColumnProfile profile = sketchedProfile(row -> "value-" + row % 500);
+        assertEquals(500, profile.getUniqueCount());
+        assertNull(profile.getUniqueCountError());
+        profile.getValueCounts().values().forEach(count -> assertEquals(SKETCHED_ROWS / 500, count));
+    }
+
+    @Test
+    void estimatesAreNotRoundedUpToAllDistinct() {
+        ColumnProfile profile = sketchedProfile(row -> "id-" + row);
+
+        assertTrue(profile.getUniqueCount() <= SKETCHED_ROWS);
+        if (profile.getUniqueCount() < SKETCHED_ROWS) {
+            assertTrue(profile.getQualityIssues().contains("Nearly all values are unique (possibly an identifier)"),
+                       profile.getQualityIssues().toString());
+        }
+    }
+
+    @Test
+    void mixedColumnsCombineNumbersAndText() {
+        // Numbers in the first half, text in the second; the text repeats the numbers 0..999
+        ColumnProfile profile = sketchedProfile(
+            row -> row < SKETCHED_ROWS / 2 ? (Object) (long) row : Long.toString(row % 1_000));
+        double error = profile.getUniqueCountError();
+        assertEquals(SKETCHED_ROWS / 2, profile.getUniqueCount(), 4 * error * SKETCHED_ROWS / 2);
+    }
+
+    @Test
+    void numbersOfMixedBatchesReadAsTheMaterializedText() {
+        // Decimals read from text keep their decimal places once the column turns to text
+        Dataset decimals = batch(new BigDecimal("1.50"), 2L, new BigDecimal("1.50"), new BigDecimal("0.125"), null);
+        Dataset integers = batch(2L, 7L);
+        Dataset text = batch("n/a", "1.50", "n/a");
+        DataProfilingService service = service();
+
+        ColumnProfileAccumulator accumulator = service.newAccumulator("column");
+        DatasetBuilder whole = new DatasetBuilder();
+        for (Dataset part : List.of(decimals, integers, text)) {
+            accumulator.accept(part.getColumn("column"));
+            whole.append(part);
+        }
+        ColumnProfile streamed = accumulator.finish();
+        ColumnProfile materialized = service.profileData(whole.build()).get(0);
+
+        assertEquals(Map.of("1.50", 3L, "2", 2L, "0.125", 1L, "7", 1L, "n/a", 2L), materialized.getValueCounts());
+        assertEquals(materialized.getValueCounts(), streamed.getValueCounts());
+        assertEquals(materialized.getTopValues(), streamed.getTopValues());
+        assertEquals(materialized.getUniqueCount(), streamed.getUniqueCount());
+    }
+}
@@ -0,0 +1,84 @@
+package com.aidataquality.service;
+
+import com.aidataquality.config.DataQualityProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnTaskRunnerTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final DataQualityProperties properties = new DataQualityProperties();
+
+    @AfterEach
+    void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void resultsComeBackInColumnOrder() {
+        List<Integer> columns = IntStream.range(0, 40).boxed().toList();
+        ColumnTaskRunner runner = new ColumnTaskRunner(pool, properties);
+
+        // Early columns are the slowest, so they finish last
+        List<String> results = runner.map(columns, column -> {
+            pause(40 - column);
+            return "column-" + column;
+        });
+
+        assertEquals(columns.stream().map(column -> "column-" + column).toList(), results);
+    }
+
+    @Test
+    void atMostTheConfiguredColumnsRunAtATime() {
+        properties.getProfiling().setParallelism(2);
+        ColumnTaskRunner runner = new ColumnTaskRunner(pool, properties);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        runner.map(IntStream.range(0, 20).boxed().toList(), column -> {
+            mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            threads.add(Thread.currentThread().getName());
+            pause(5);
+            running.decrementAndGet();
+            return column;
+        });
+
+        assertTrue(mostRunning.get() <= 2, "columns at a time: " + mostRunning.get());
+        assertTrue(threads.size() <= 2, threads.toString());
+    }
+
+    @Test
+    void oneWorkerRunsTheColumnsInTheCallerThread() {
+        properties.getProfiling().setParallelism(1);
+        ColumnTaskRunner runner = new ColumnTaskRunner(pool, properties);
+        List<String> threads = new ArrayList<>();
+
+        List<Integer> results = runner.map(List.of(3, 1, 2), column -> {
+            threads.add(Thread.currentThread().getName());
+            return column * 10;
+        });
+
+        assertEquals(List.of(30, 10, 20), results);
+        assertEquals(List.of(Thread.currentThread().getName()), threads.stream().distinct().toList());
+    }
+}
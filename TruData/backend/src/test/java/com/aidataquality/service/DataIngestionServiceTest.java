@@ -0,0 +1,98 @@
+package com.aidataquality.service;
+
+import com.aidataquality.config.DataQualityProperties;
+import com.aidataquality.exception.DataQualityException;
+import com.aidataquality.ingestion.ColumnSelection;
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.SpillStore;
+import com.aidataquality.model.enums.ColumnType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataIngestionServiceTest {
+
+    private final DataQualityProperties properties = new DataQualityProperties();
+
+    @TempDir
+    Path directory;
+
+    private DataIngestionService service() {
+        return new DataIngestionService(new ObjectMapper(), properties, ForkJoinPool.commonPool(),
+                                        HttpClient.newHttpClient(), new SpillStore(directory, Long.MAX_VALUE));
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, null, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void jsonArrayOfObjectsIsReadRowByRow() {
+        String json = """
+            [
+              {"id": 1, "name": "a", "score": 1.5, "active": true, "tags": ["x", "y"]},
+              {"id": 2, "name": null, "score": 2, "active": false, "address": {"city": "Oslo"}},
+              {"id": 3}
+            ]
+            """;
+        Dataset data = service().ingestFromFile(file("rows.json", json), ColumnSelection.ALL, null);
+
+        assertEquals(3, data.getRowCount());
+        assertEquals(List.of("id", "name", "score", "active", "tags", "address"), data.getColumnNames());
+        assertEquals(ColumnType.LONG, data.getColumn("id").getType());
+        assertEquals(ColumnType.DOUBLE, data.getColumn("score").getType());
+        assertEquals(ColumnType.BOOLEAN, data.getColumn("active").getType());
+        assertEquals(2, data.getColumn("name").getNullCount());
+        // Nested values are kept in their string form
+        assertEquals("[x, y]", data.getColumn("tags").getString(0));
+        assertEquals("{city=Oslo}", data.getColumn("address").getString(1));
+        Column active = data.getColumn("active");
+        assertTrue(active.isNull(2));
+    }
+
+    @Test
+    void singleObjectIsOneRow() {
+        Dataset data = service().ingestFromInlineData("{\"id\": 7, \"name\": \"only\"}", ColumnSelection.ALL, null);
+        assertEquals(1, data.getRowCount());
+        assertEquals("only", data.getColumn("name").getString(0));
+    }
+
+    @Test
+    void streamedJsonArrivesInBatches() {
+        properties.getStreaming().setBatchSize(10);
+        StringBuilder json = new StringBuilder("[");
+        for (int row = 0; row < 25; row++) {
+            json.append(row > 0 ? "," : "").append("{\"id\":").append(row).append('}');
+        }
+        json.append(']');
+
+        List<Dataset> batches = new ArrayList<>();
+        service().streamFromInlineData(json.toString(), ColumnSelection.ALL, null, batches::add);
+
+        assertEquals(List.of(10, 10, 5), batches.stream().map(Dataset::getRowCount).toList());
+        assertEquals(24L, batches.get(2).getColumn("id").get(4));
+    }
+
+    @Test
+    void jsonThatIsNotRowsIsRejected() {
+        DataIngestionService service = service();
+        ColumnSelection all = ColumnSelection.ALL;
+        assertThrows(DataQualityException.class, () -> service.ingestFromInlineData("42", all, null));
+        assertThrows(DataQualityException.class, () -> service.ingestFromInlineData("[1, 2]", all, null));
+        MockMultipartFile broken = file("broken.json", "[{\"id\": 1}, {\"id\"");
+        assertThrows(DataQualityException.class, () -> service.ingestFromFile(broken, all, null));
+    }
+}
@@ -0,0 +1,66 @@
+package com.aidataquality.service;
+
+import com.aidataquality.config.DataQualityProperties;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.aidataquality.model.dto.ColumnProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataProfilingServiceTest {
+
+    private static final int SAMPLE_ROWS = 5_000;
+
+    private static DataProfilingService service() {
+        DataQualityProperties properties = new DataQualityProperties();
+        properties.getProfiling().setDistinctThreshold(1_000);
+        return new DataProfilingService(new ColumnTaskRunner(ForkJoinPool.commonPool(), properties), properties);
+    }
+
+    @Test
+    void sampledProfilesCarryNoSketchError() {
+        // Past the distinct threshold, so the sample itself is profiled with a sketch
+        DatasetBuilder builder = new DatasetBuilder();
+        for (int row = 0; row < SAMPLE_ROWS; row++) {
+            builder.set("id", "id-" + row);
+            builder.endRow();
+        }
+        Dataset sample = builder.build();
+        DataProfilingService service = service();
+        ColumnProfile profile = service.profileData(sample).get(0);
+        assertNotNull(profile.getUniqueCountError());
+
+        service.applyFullColumnCounts(profile, 1_000_000, 10, sample.getColumn("id"));
+
+        assertNull(profile.getUniqueCountError());
+        assertEquals(1_000_000, profile.getTotalCount());
+        assertEquals(10, profile.getNullCount());
+        // Every sampled value is a singleton, so the estimate reaches the non-null count
+        assertEquals(999_990, profile.getUniqueCount());
+        assertTrue(profile.getQualityIssues().stream().anyMatch(issue -> issue.contains("unique")));
+    }
+
+    @Test
+    void repeatedSampleValuesKeepTheEstimateNearTheSample() {
+        DatasetBuilder builder = new DatasetBuilder();
+        for (int row = 0; row < SAMPLE_ROWS; row++) {
+            builder.set("status", "status-" + row % 20);
+            builder.endRow();
+        }
+        Dataset sample = builder.build();
+        DataProfilingService service = service();
+        ColumnProfile profile = service.profileData(sample).get(0);
+        assertNull(profile.getUniqueCountError());
+
+        service.applyFullColumnCounts(profile, 1_000_000, 0, sample.getColumn("status"));
+
+        assertNull(profile.getUniqueCountError());
+        assertEquals(20, profile.getUniqueCount());
+    }
+}
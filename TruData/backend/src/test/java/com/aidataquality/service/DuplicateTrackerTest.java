@@ -0,0 +1,84 @@
+package com.aidataquality.service;
+
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DuplicateTrackerTest {
+
+    private static Dataset rows(List<String> columns, Object[]... rows) {
+        DatasetBuilder builder = new DatasetBuilder(columns);
+        for (Object[] row : rows) {
+            for (int c = 0; c < row.length; c++) {
+                builder.set(c, row[c]);
+            }
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    @Test
+    void repeatedRowsAreCountedAfterTheirFirstOccurrence() {
+        DuplicateTracker duplicates = new DuplicateTracker();
+        duplicates.accept(rows(List.of("id", "name"),
+            new Object[] {1L, "a"},
+            new Object[] {2L, "b"},
+            new Object[] {1L, "a"},
+            new Object[] {1L, "a"},
+            new Object[] {2L, "c"}));
+
+        assertEquals(5, duplicates.getTotalRows());
+        assertEquals(2, duplicates.getTotalDuplicates());
+        assertEquals(List.of(2, 3), duplicates.getDuplicateRowIndices());
+    }
+
+    @Test
+    void valuesAreKeyedByColumnPosition() {
+        DuplicateTracker duplicates = new DuplicateTracker();
+        duplicates.accept(rows(List.of("x", "y"),
+            new Object[] {"a", null},
+            new Object[] {null, "a"},
+            new Object[] {"a", "b"},
+            new Object[] {"b", "a"},
+            new Object[] {null, null},
+            new Object[] {null, null}));
+
+        assertEquals(1, duplicates.getTotalDuplicates());
+        assertEquals(List.of(5), duplicates.getDuplicateRowIndices());
+    }
+
+    @Test
+    void batchesFindTheDuplicatesOfTheWholeDataset() {
+        Object[][] all = new Object[1_000][];
+        for (int row = 0; row < all.length; row++) {
+            all[row] = new Object[] {(long) (row % 300), row % 7 == 0 ? null : "v" + row % 300};
+        }
+        DuplicateTracker whole = new DuplicateTracker();
+        whole.accept(rows(List.of("id", "value"), all));
+
+        DuplicateTracker batched = new DuplicateTracker();
+        for (int start = 0; start < all.length; start += 128) {
+            Object[][] batch = Arrays.copyOfRange(all, start, Math.min(all.length, start + 128));
+            batched.accept(rows(List.of("id", "value"), batch));
+        }
+
+        assertEquals(whole.getTotalRows(), batched.getTotalRows());
+        assertEquals(whole.getTotalDuplicates(), batched.getTotalDuplicates());
+        assertEquals(whole.getDuplicateRowIndices(), batched.getDuplicateRowIndices());
+    }
+
+    @Test
+    void aColumnFirstSeenInALaterBatchWasNullBefore() {
+        DuplicateTracker duplicates = new DuplicateTracker();
+        duplicates.accept(rows(List.of("id"), new Object[] {1L}));
+        duplicates.accept(rows(List.of("id", "late"), new Object[] {1L, null}, new Object[] {1L, "x"}));
+
+        assertEquals(1, duplicates.getTotalDuplicates());
+        assertEquals(List.of(1), duplicates.getDuplicateRowIndices());
+    }
+}
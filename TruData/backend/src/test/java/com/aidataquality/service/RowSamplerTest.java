@@ -0,0 +1,199 @@
+package com.aidataquality.service;
+
+import com.aidataquality.model.dataset.BatchingDatasetBuilder;
+import com.aidataquality.model.dataset.Column;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.aidataquality.model.dataset.SampledDataset;
+import com.aidataquality.model.dataset.SpillStore;
+import com.aidataquality.model.dataset.SpillingDatasetBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowSamplerTest {
+
+    private static final int ROWS = 20_000;
+    private static final int SAMPLE_SIZE = 2_000;
+    private static final int BATCH_ROWS = 700;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Rows numbered by "id"; "value" is null in every third row and "late" only appears halfway
+     */
+    private static void fill(DatasetBuilder builder, int rows) {
+        for (int row = 0; row < rows; row++) {
+            builder.set("id", (long) row);
+            builder.set("value", row % 3 == 0 ? null : "v" + row % 50);
+            builder.set("price", new BigDecimal(row + ".50"));
+            if (row >= rows / 2) {
+                builder.set("late", (long) row);
+            }
+            builder.endRow();
+        }
+    }
+
+    private static Dataset sample(RowSampler sampler, int rows) {
+        BatchingDatasetBuilder builder = new BatchingDatasetBuilder(BATCH_ROWS, sampler);
+        fill(builder, rows);
+        builder.finish();
+        return sampler.finish();
+    }
+
+    private static Dataset sample(int rows, IntFunction<String> strata) {
+        RowSampler sampler = new RowSampler(SAMPLE_SIZE, "group", DatasetBuilder::new, null);
+        BatchingDatasetBuilder builder = new BatchingDatasetBuilder(BATCH_ROWS, sampler);
+        for (int row = 0; row < rows; row++) {
+            builder.set("id", (long) row);
+            builder.set("group", strata.apply(row));
+            builder.endRow();
+        }
+        builder.finish();
+        return sampler.finish();
+    }
+
+    @Test
+    void rowsWithinTheLimitAreKeptWholeAndForwarded() {
+        List<Dataset> forwarded = new ArrayList<>();
+        RowSampler sampler = new RowSampler(SAMPLE_SIZE, null, DatasetBuilder::new, forwarded::add);
+        Dataset data = sample(sampler, SAMPLE_SIZE);
+
+        assertFalse(sampler.isSampled());
+        assertFalse(data instanceof SampledDataset);
+        assertEquals(SAMPLE_SIZE, data.getRowCount());
+        assertEquals(SAMPLE_SIZE, forwarded.stream().mapToInt(Dataset::getRowCount).sum());
+        for (int row = 0; row < SAMPLE_SIZE; row++) {
+            assertEquals((long) row, data.getColumn("id").get(row));
+        }
+    }
+
+    @Test
+    void forwardingStopsOnceTheLimitIsPassed() {
+        List<Dataset> forwarded = new ArrayList<>();
+        RowSampler sampler = new RowSampler(SAMPLE_SIZE, null, DatasetBuilder::new, forwarded::add);
+        Dataset data = sample(sampler, ROWS);
+
+        // The whole batches within the limit were forwarded as well as kept; a streaming
+        // analysis of them is replaced by the analysis of the sample
+        assertTrue(sampler.isSampled());
+        assertInstanceOf(SampledDataset.class, data);
+        assertEquals(SAMPLE_SIZE / BATCH_ROWS * BATCH_ROWS, forwarded.stream().mapToInt(Dataset::getRowCount).sum());
+    }
+
+    @Test
+    void sampleKeepsSourceRowsAndCountsOfEveryRow() {
+        RowSampler sampler = new RowSampler(SAMPLE_SIZE, null, DatasetBuilder::new, null);
+        SampledDataset sample = assertInstanceOf(SampledDataset.class, sample(sampler, ROWS));
+
+        assertEquals(SAMPLE_SIZE, sample.getRowCount());
+        assertEquals(ROWS, sample.getSourceRowCount());
+        assertEquals((ROWS + 2) / 3, sample.getSourceNullCount("value"));
+        assertEquals(ROWS / 2, sample.getSourceNullCount("late"));
+        assertEquals(0, sample.getSourceNullCount("price"));
+
+        Column id = sample.getColumn("id");
+        Column late = sample.getColumn("late");
+        long previous = -1;
+        for (int row = 0; row < sample.getRowCount(); row++) {
+            long source = sample.getSourceRow(row);
+            assertTrue(source > previous, "rows in source order");
+            previous = source;
+            assertEquals(source, id.get(row));
+            assertEquals(source >= ROWS / 2 ? source : null, late.get(row));
+            assertEquals(source + ".50", sample.getColumn("price").getString(row));
+        }
+    }
+
+    @Test
+    void everyPositionIsEquallyLikelyToBeSampled() {
+        int buckets = 10;
+        int[] counts = new int[buckets];
+        RowSampler sampler = new RowSampler(SAMPLE_SIZE, null, DatasetBuilder::new, null);
+        SampledDataset sample = (SampledDataset) sample(sampler, ROWS);
+        for (int row = 0; row < sample.getRowCount(); row++) {
+            counts[(int) (sample.getSourceRow(row) * buckets / ROWS)]++;
+        }
+
+        // 200 rows expected per bucket, with a standard deviation of about 13
+        int expected = SAMPLE_SIZE / buckets;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            assertTrue(Math.abs(counts[bucket] - expected) < 60, "bucket " + bucket + ": " + counts[bucket]);
+        }
+    }
+
+    @Test
+    void spilledRowsAreSampledAsInMemory() throws IOException {
+        RowSampler inMemory = new RowSampler(SAMPLE_SIZE, null, DatasetBuilder::new, null);
+        Dataset expected = sample(inMemory, ROWS);
+        try (SpillStore store = new SpillStore(directory, 1)) {
+            RowSampler spilling = new RowSampler(SAMPLE_SIZE, null, () -> new SpillingDatasetBuilder(store, BATCH_ROWS), null);
+            try (Dataset sample = sample(spilling, ROWS)) {
+                // The reservoir and the sample are cut into segments too, so they can spill
+                int segments = 0;
+                for (Column ignored : sample.getColumn("id").segments()) {
+                    segments++;
+                }
+                assertEquals((SAMPLE_SIZE + BATCH_ROWS - 1) / BATCH_ROWS, segments);
+                assertEquals(expected.getColumnNames(), sample.getColumnNames());
+                for (String name : expected.getColumnNames()) {
+                    for (int row = 0; row < SAMPLE_SIZE; row++) {
+                        assertEquals(expected.getColumn(name).getString(row), sample.getColumn(name).getString(row));
+                    }
+                }
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(List.of(), files.toList(), "spill files left behind");
+            }
+        }
+    }
+
+    @Test
+    void strataGetProportionalSharesAndRareStrataAreKept() {
+        // One row in 2,000 is "rare": a uniform sample of 2,000 would miss it a third of the time
+        Dataset sample = sample(ROWS, row -> row % 2_000 == 7 ? "rare" : row % 4 == 0 ? "small" : "large");
+        Column group = sample.getColumn("group");
+        int rare = 0;
+        int small = 0;
+        for (int row = 0; row < sample.getRowCount(); row++) {
+            rare += "rare".equals(group.getString(row)) ? 1 : 0;
+            small += "small".equals(group.getString(row)) ? 1 : 0;
+        }
+
+        assertEquals(SAMPLE_SIZE, sample.getRowCount());
+        assertTrue(rare >= 1);
+        // Quotas are drawn from the reservoir, which may hold a few rows fewer than a quota
+        assertEquals(SAMPLE_SIZE / 4, small, 25);
+    }
+
+    @Test
+    void strataOnlySeenOnceStillGetTheirRow() {
+        Dataset sample = sample(ROWS, row -> row == ROWS - 1 ? "last" : "rest");
+        Column group = sample.getColumn("group");
+        assertEquals("last", group.getString(sample.getRowCount() - 1));
+    }
+
+    @Test
+    void chao1StaysBetweenSampleAndPopulation() {
+        // No value seen once: nothing suggests unseen values
+        assertEquals(100, RowSampler.estimateDistinct(100, 0, 50, 10_000));
+        // Singletons against doubletons: 100 + 40 * 39 / (2 * 11)
+        assertEquals(171, RowSampler.estimateDistinct(100, 40, 10, 10_000));
+        // Every value seen once is capped at the population
+        assertEquals(5_000, RowSampler.estimateDistinct(2_000, 2_000, 0, 5_000));
+    }
+}
@@ -0,0 +1,114 @@
+package com.aidataquality.service;
+
+import com.aidataquality.config.DataQualityProperties;
+import com.aidataquality.model.dataset.BatchingDatasetBuilder;
+import com.aidataquality.model.dataset.Dataset;
+import com.aidataquality.model.dataset.DatasetBuilder;
+import com.aidataquality.model.dto.ColumnProfile;
+import com.aidataquality.model.dto.DataQualityRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingAnalyzerTest {
+
+    private static final int ROWS = 1_000;
+    private static final int BATCH_ROWS = 64;
+
+    private final DataQualityProperties properties = new DataQualityProperties();
+    private final ColumnTaskRunner columnTasks = new ColumnTaskRunner(ForkJoinPool.commonPool(), properties);
+    private final DataProfilingService profilingService = new DataProfilingService(columnTasks, properties);
+
+    private StreamingAnalyzer analyzer(boolean biasCheck) {
+        DataQualityRequest request = DataQualityRequest.builder()
+            .performPIICheck(true)
+            .performBiasCheck(biasCheck)
+            .build();
+        return new StreamingAnalyzer(profilingService, new QualityMetricsService(columnTasks),
+                                     new PIIDetectionService(columnTasks), new BiasDetectionService(), request);
+    }
+
+    /**
+     * Rows whose batches type some columns differently: "flag" is boolean in most batches and
+     * text in those with an "unknown", and "late" only appears halfway through
+     */
+    private static void fill(DatasetBuilder builder) {
+        for (int row = 0; row < ROWS; row++) {
+            builder.set("id", (long) (row % 900));
+            builder.set("score", row % 7 == 0 ? null : (row % 40) / 4.0);
+            builder.set("flag", row / BATCH_ROWS % 3 == 2 && row % 5 == 0 ? "unknown" : (Object) (row % 900 % 2 == 0));
+            builder.set("gender", row % 3 == 0 ? "F" : "M");
+            if (row >= ROWS / 2) {
+                builder.set("late", "v" + row % 900 % 10);
+            }
+            builder.endRow();
+        }
+    }
+
+    private static StreamingAnalyzer stream(StreamingAnalyzer analyzer) {
+        BatchingDatasetBuilder builder = new BatchingDatasetBuilder(BATCH_ROWS, analyzer);
+        fill(builder);
+        builder.finish();
+        return analyzer;
+    }
+
+    @Test
+    void streamedProfilesMatchTheMaterializedProfiles() {
+        DatasetBuilder whole = new DatasetBuilder();
+        fill(whole);
+        List<ColumnProfile> expected = profilingService.profileData(whole.build());
+        List<ColumnProfile> streamed = stream(analyzer(false)).finishColumnProfiles();
+
+        assertEquals(expected.size(), streamed.size());
+        for (int i = 0; i < expected.size(); i++) {
+            ColumnProfile want = expected.get(i);
+            ColumnProfile got = streamed.get(i);
+            String name = want.getColumnName();
+            assertEquals(name, got.getColumnName());
+            assertEquals(want.getDataType(), got.getDataType(), name);
+            assertEquals(want.getTotalCount(), got.getTotalCount(), name);
+            assertEquals(want.getNullCount(), got.getNullCount(), name);
+            assertEquals(want.getUniqueCount(), got.getUniqueCount(), name);
+            if ("NUMERIC".equals(want.getDataType())) {
+                assertEquals(want.getMean(), got.getMean(), 1e-9, name);
+                assertEquals(want.getMin(), got.getMin(), name);
+                assertEquals(want.getMax(), got.getMax(), name);
+            } else {
+                assertEquals(want.getValueCounts(), got.getValueCounts(), name);
+            }
+        }
+    }
+
+    @Test
+    void duplicatesAreFoundAcrossBatches() {
+        StreamingAnalyzer analyzer = analyzer(false);
+        for (int pass = 0; pass < 2; pass++) {
+            DatasetBuilder batch = new DatasetBuilder();
+            for (int row = 0; row < BATCH_ROWS; row++) {
+                batch.set("id", (long) row);
+                batch.set("name", "name-" + row % 16);
+                batch.endRow();
+            }
+            analyzer.accept(batch.build());
+        }
+
+        // The second batch repeats the first row by row
+        assertEquals(2 * BATCH_ROWS, analyzer.getRowCount());
+        assertEquals(BATCH_ROWS, analyzer.getDuplicateTracker().getTotalDuplicates());
+        assertEquals(BATCH_ROWS, analyzer.getDuplicateTracker().getDuplicateRowIndices().get(0));
+    }
+
+    @Test
+    void distributionsOfSensitiveColumnsCoverEveryRow() {
+        StreamingAnalyzer analyzer = stream(analyzer(true));
+
+        Map<String, Long> gender = analyzer.getBiasDistributions().get("gender");
+        assertEquals(Map.of("F", (long) (ROWS + 2) / 3, "M", (long) ROWS - (ROWS + 2) / 3), gender);
+        assertTrue(analyzer.getPiiSamples().containsKey("late"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.aidataquality.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeavyHittersTest {
+
+    @Test
+    void countsAreExactWhileValuesFit() {
+        HeavyHitters summary = new HeavyHitters(10);
+        summary.add("a", 3);
+        summary.add("b", 1);
+        summary.add("a", 2);
+        summary.add("c", 4);
+
+        assertEquals(Map.of("a", 5L, "c", 4L, "b", 1L), summary.counts());
+        assertEquals(List.of("a", "c", "b"), new ArrayList<>(summary.counts().keySet()));
+        assertEquals(0, summary.maxError());
+    }
+
+    @Test
+    void frequentValuesSurviveAStreamOfRareOnes() {
+        int capacity = 200;
+        int rows = 200_000;
+        long[] exact = new long[10];
+        HeavyHitters summary = new HeavyHitters(capacity);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < rows; i++) {
+            if (random.nextInt(2) == 0) {
+                // Half the rows hold one of ten frequent values, each well above rows / capacity
+                int value = random.nextInt(10);
+                exact[value]++;
+                summary.add("frequent-" + value, 1);
+            } else {
+                summary.add("rare-" + i, 1);
+            }
+        }
+
+        Map<String, Long> counts = summary.counts();
+        assertEquals(capacity, summary.size());
+        assertTrue(summary.maxError() <= rows / capacity);
+        for (int value = 0; value < exact.length; value++) {
+            Long count = counts.get("frequent-" + value);
+            assertTrue(count != null, "frequent-" + value + " was dropped");
+            assertTrue(count >= exact[value] && count <= exact[value] + rows / capacity,
+                       "frequent-" + value + ": " + count + " for " + exact[value]);
+        }
+    }
+
+    @Test
+    void weightedCountsKeepTheirOrder() {
+        HeavyHitters summary = new HeavyHitters(3);
+        for (int value = 1; value <= 100; value++) {
+            summary.add("v" + value, value);
+        }
+        assertEquals(List.of("v100", "v99", "v98"), new ArrayList<>(summary.counts().keySet()));
+    }
+}
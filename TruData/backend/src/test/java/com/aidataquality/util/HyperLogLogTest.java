@@ -0,0 +1,79 @@
+package com.aidataquality.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    private static final int PRECISION = 14;
+
+    private static HyperLogLog sketchOf(long from, long to) {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (long value = from; value < to; value++) {
+            sketch.add(Hashing.finalizeHash(value));
+        }
+        return sketch;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000})
+    void estimateIsWithinFourStandardErrors(int cardinality) {
+        HyperLogLog sketch = sketchOf(0, cardinality);
+        double error = Math.abs(sketch.estimate() - cardinality) / (double) cardinality;
+        assertTrue(error <= 4 * sketch.relativeError(), cardinality + " estimated as " + sketch.estimate());
+    }
+
+    @Test
+    void smallCardinalitiesAreNearlyExact() {
+        // Few registers are set, so the estimate is close to linear counting
+        for (int cardinality = 1; cardinality <= 50; cardinality++) {
+            assertEquals(cardinality, sketchOf(0, cardinality).estimate(), 1, "cardinality " + cardinality);
+        }
+    }
+
+    @Test
+    void repeatedValuesAreCountedOnce() {
+        HyperLogLog sketch = sketchOf(0, 10_000);
+        long estimate = sketch.estimate();
+        for (int i = 0; i < 5; i++) {
+            for (long value = 0; value < 10_000; value++) {
+                sketch.add(Hashing.finalizeHash(value));
+            }
+        }
+        assertEquals(estimate, sketch.estimate());
+    }
+
+    @Test
+    void textHashesAreEstimatedLikeNumbers() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 200_000; i++) {
+            sketch.add(Hashing.hash64("value-" + i));
+        }
+        double error = Math.abs(sketch.estimate() - 200_000) / 200_000.0;
+        assertTrue(error <= 4 * sketch.relativeError(), "estimated as " + sketch.estimate());
+    }
+
+    @Test
+    void mergedSketchEstimatesTheUnion() {
+        HyperLogLog merged = sketchOf(0, 60_000);
+        merged.merge(sketchOf(40_000, 100_000));
+        assertEquals(sketchOf(0, 100_000).estimate(), merged.estimate());
+    }
+
+    @Test
+    void sketchesOfDifferentPrecisionDoNotMerge() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new HyperLogLog(PRECISION + 1)));
+    }
+
+    @Test
+    void relativeErrorFollowsThePrecision() {
+        assertEquals(1.04 / 128, new HyperLogLog(14).relativeError(), 1e-12);
+        assertEquals(1.04 / 256, new HyperLogLog(16).relativeError(), 1e-12);
+    }
+}
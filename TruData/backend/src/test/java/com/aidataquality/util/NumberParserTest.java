@@ -0,0 +1,125 @@
+package com.aidataquality.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NumberParserTest {
+
+    private static final String ALPHABET = "0123456789.eE+-xXpPfFdDaNIny \t";
+
+    private static final List<String> EDGE_CASES = List.of(
+        "", " ", "+", "-", ".", "..", "e5", ".e5", "5.", ".5", "-.5", "+.5e-3", "1e", "1e+", "1e-0",
+        "1.5f", "1.5F", "2d", "2D", "1ef", "1e5d", "1.2.3", "--1", "+-1", " 42 ", "\t-3.25\n",
+        "NaN", "-NaN", "+Infinity", "-Infinity", "Infinity", "infinity", "nan", "Inf",
+        "0x1p3", "0X1.8P-1", "0x.8p1", "0x1.", "0x1p", "0x1pf", "0xp1", "0x1p1d", "0x", "0xg1p1",
+        "007", "-0", "0.000", "1_000", "1,5", "١٢٣", "9007199254740993", "123456789012345678901234567890",
+        "0.1000000000000000055511151231257827", "4.9e-324", "2.4703282292062328e-324", "1.7976931348623157e308",
+        "1.7976931348623159e308", "0.00000000000000000000001", "12345678901234567.5");
+
+    private static boolean jdkAccepts(String text) {
+        try {
+            Double.parseDouble(text);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean jdkAcceptsInt(String text) {
+        try {
+            Integer.parseInt(text);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void assertParsedAsJdk(String text) {
+        assertEquals(Double.doubleToLongBits(Double.parseDouble(text)),
+                     Double.doubleToLongBits(NumberParser.parseDouble(text)), text);
+    }
+
+    @Test
+    void isNumberMatchesTheJdkOnEdgeCases() {
+        for (String text : EDGE_CASES) {
+            assertEquals(jdkAccepts(text), NumberParser.isNumber(text), text);
+        }
+    }
+
+    @Test
+    void isNumberMatchesTheJdkOnRandomText() {
+        SplittableRandom random = new SplittableRandom(17);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            text.setLength(0);
+            int length = 1 + random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            String value = text.toString();
+            assertEquals(jdkAccepts(value), NumberParser.isNumber(value), value);
+        }
+    }
+
+    @Test
+    void isIntMatchesTheJdk() {
+        List<String> cases = List.of("", "+", "-", "0", "+0", "-0", "007", "2147483647", "2147483648",
+            "-2147483648", "-2147483649", "99999999999", "1.0", "1e3", " 1", "١٢٣", "+-1");
+        for (String text : cases) {
+            assertEquals(jdkAcceptsInt(text), NumberParser.isInt(text), text);
+        }
+
+        SplittableRandom random = new SplittableRandom(23);
+        for (int i = 0; i < 100_000; i++) {
+            String value = Long.toString(random.nextLong(-4_000_000_000L, 4_000_000_000L));
+            assertEquals(jdkAcceptsInt(value), NumberParser.isInt(value), value);
+        }
+    }
+
+    @Test
+    void parseDoubleMatchesTheJdkOnEdgeCases() {
+        for (String text : EDGE_CASES) {
+            if (jdkAccepts(text)) {
+                assertParsedAsJdk(text);
+            }
+        }
+    }
+
+    @Test
+    void parseDoubleRoundTripsShortestForms() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 200_000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (Double.isFinite(value)) {
+                String text = Double.toString(value);
+                assertEquals(Double.doubleToLongBits(value), Double.doubleToLongBits(NumberParser.parseDouble(text)), text);
+            }
+        }
+    }
+
+    @Test
+    void parseDoubleMatchesTheJdkOnPlainDecimals() {
+        SplittableRandom random = new SplittableRandom(11);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            // Up to 20 digits with the point anywhere, crossing the 53-bit and 10^22 fast-path limits
+            text.setLength(0);
+            if (random.nextBoolean()) {
+                text.append(random.nextBoolean() ? '-' : '+');
+            }
+            int digits = 1 + random.nextInt(20);
+            int point = random.nextInt(digits + 1);
+            for (int j = 0; j < digits; j++) {
+                if (j == point) {
+                    text.append('.');
+                }
+                text.append((char) ('0' + random.nextInt(10)));
+            }
+            assertParsedAsJdk(text.toString());
+        }
+    }
+}
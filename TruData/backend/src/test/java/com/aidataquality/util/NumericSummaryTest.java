@@ -0,0 +1,121 @@
+package com.aidataquality.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NumericSummaryTest {
+
+    private static final int THRESHOLD = 1_000;
+    private static final int SKETCH_SIZE = 256;
+    private static final int OUTLIER_LIMIT = 5;
+    private static final double[] PERCENTILES = {25, 50, 75};
+
+    private static NumericSummary summary() {
+        return new NumericSummary(THRESHOLD, SKETCH_SIZE, OUTLIER_LIMIT);
+    }
+
+    private static double[] gaussian(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            // Box-Muller: mean 100, standard deviation 15
+            double u = 1.0 - random.nextDouble();
+            values[i] = 100 + 15 * Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+        }
+        return values;
+    }
+
+    /**
+     * Summary of the values added in parts of the given sizes, merged in order
+     */
+    private static NumericSummary merged(double[] values, int... parts) {
+        NumericSummary merged = summary();
+        int start = 0;
+        for (int size : parts) {
+            NumericSummary part = summary();
+            for (int i = start; i < start + size; i++) {
+                part.add(values[i]);
+            }
+            merged.merge(part);
+            start += size;
+        }
+        return merged;
+    }
+
+    private static NumericSummary added(double[] values) {
+        NumericSummary summary = summary();
+        for (double value : values) {
+            summary.add(value);
+        }
+        return summary;
+    }
+
+    private static void assertSameMoments(NumericSummary expected, NumericSummary actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getMean(), actual.getMean(), 1e-9);
+        assertEquals(expected.getStandardDeviation(), actual.getStandardDeviation(), 1e-9);
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+    }
+
+    @Test
+    void mergedExactSummariesEqualOneSummary() {
+        double[] values = gaussian(900, 1);
+        NumericSummary expected = added(values);
+        NumericSummary actual = merged(values, 100, 0, 500, 300);
+
+        assertSameMoments(expected, actual);
+        assertArrayEquals(expected.percentiles(PERCENTILES), actual.percentiles(PERCENTILES));
+        assertEquals(expected.outliers(70, 130), actual.outliers(70, 130));
+    }
+
+    @Test
+    void mergePastTheThresholdSketches() {
+        double[] values = gaussian(1_600, 2);
+        NumericSummary expected = added(values);
+        NumericSummary actual = merged(values, 800, 800);
+
+        assertSameMoments(expected, actual);
+        assertArrayEquals(expected.percentiles(PERCENTILES), actual.percentiles(PERCENTILES));
+    }
+
+    @Test
+    void mergedSketchedSummariesKeepRanksAndExtremes() {
+        double[] values = gaussian(200_000, 3);
+        NumericSummary expected = added(values);
+        NumericSummary actual = merged(values, 50_000, 500, 99_500, 50_000);
+        assertSameMoments(expected, actual);
+
+        // Quartiles of N(100, 15) are 100 -/+ 10.1; a rank error of 1% moves them about 0.4
+        double[] quartiles = actual.percentiles(PERCENTILES);
+        assertEquals(89.9, quartiles[0], 0.6);
+        assertEquals(100, quartiles[1], 0.6);
+        assertEquals(110.1, quartiles[2], 0.6);
+
+        // The most extreme values survive the merge
+        List<Double> outliers = actual.outliers(40, 160);
+        assertEquals(expected.outliers(40, 160), outliers);
+        assertTrue(outliers.contains(actual.getMin()) || outliers.contains(actual.getMax()));
+    }
+
+    @Test
+    void mergingAnEmptySummaryChangesNothing() {
+        NumericSummary summary = summary();
+        summary.merge(summary());
+        assertEquals(0, summary.getCount());
+        assertTrue(Double.isNaN(summary.getMean()));
+
+        summary.add(3);
+        summary.add(5);
+        summary.merge(summary());
+        assertEquals(4, summary.getMean());
+        assertEquals(3, summary.getMin());
+        assertEquals(5, summary.getMax());
+    }
+}
@@ -0,0 +1,99 @@
+package com.aidataquality.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+    private static final int K = 256;
+    private static final int N = 1_000_000;
+    private static final double[] FRACTIONS = {0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999};
+
+    /**
+     * 0 to n - 1 in random order, so a value is its own rank
+     */
+    private static double[] shuffled(int n) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            double swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+        return values;
+    }
+
+    private static void assertRankError(QuantileSketch sketch, int n) {
+        assertEquals(n, sketch.getCount());
+        double[] quantiles = sketch.quantiles(FRACTIONS);
+        for (int i = 0; i < FRACTIONS.length; i++) {
+            double rankError = Math.abs(quantiles[i] - FRACTIONS[i] * n) / n;
+            assertTrue(rankError < 2.0 / K, "quantile " + FRACTIONS[i] + " at rank error " + rankError);
+        }
+    }
+
+    @Test
+    void rankErrorOfShuffledValuesIsBounded() {
+        QuantileSketch sketch = new QuantileSketch(K);
+        for (double value : shuffled(N)) {
+            sketch.add(value);
+        }
+        assertRankError(sketch, N);
+    }
+
+    @Test
+    void rankErrorOfSortedValuesIsBounded() {
+        QuantileSketch ascending = new QuantileSketch(K);
+        QuantileSketch descending = new QuantileSketch(K);
+        for (int i = 0; i < N; i++) {
+            ascending.add(i);
+            descending.add(N - 1 - i);
+        }
+        assertRankError(ascending, N);
+        assertRankError(descending, N);
+    }
+
+    @Test
+    void mergedSketchesKeepTheRankError() {
+        double[] values = shuffled(N);
+        QuantileSketch merged = new QuantileSketch(K);
+        int parts = 7;
+        for (int part = 0; part < parts; part++) {
+            QuantileSketch sketch = new QuantileSketch(K);
+            for (int i = part * N / parts; i < (part + 1) * N / parts; i++) {
+                sketch.add(values[i]);
+            }
+            merged.merge(sketch);
+        }
+        assertRankError(merged, N);
+    }
+
+    @Test
+    void fewValuesGiveExactQuantiles() {
+        QuantileSketch sketch = new QuantileSketch(K);
+        for (double value : shuffled(100)) {
+            sketch.add(value);
+        }
+        assertArrayEquals(new double[] {0, 25, 50, 99}, sketch.quantiles(0.0, 0.25, 0.5, 1.0));
+    }
+
+    @Test
+    void emptySketchHasNoQuantiles() {
+        assertTrue(Double.isNaN(new QuantileSketch(K).quantiles(0.5)[0]));
+    }
+
+    @Test
+    void tooSmallSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(4));
+    }
+}
@@ -17,7 +17,7 @@ export default function ChartsSection({ metrics, columnProfiles }: ChartsSection
     { name: 'Consistency', score: metrics.consistencyScore, fill: COLORS[3] },
     { name: 'Accuracy', score: metrics.accuracyScore, fill: COLORS[4] },
     { name: 'Timeliness', score: metrics.timelinessScore, fill: COLORS[5] },
-  ];
+  ].filter(metric => metric.score !== undefined);
 
   // Null Percentage by Column
   const nullPercentageData = columnProfiles
@@ -60,6 +60,10 @@ export default function MetricsGrid({ metrics }: MetricsGridProps) {
   return (
     <div className="grid md:grid-cols-2 lg:grid-cols-3 gap-4">
       {metricCards.map((metric) => {
+        // Quick checks leave out the scores of dimensions they skipped
+        if (metric.score === undefined) {
+          return null;
+        }
         const Icon = metric.icon;
         return (
           <div key={metric.title} className="card hover:shadow-lg transition-shadow">
@@ -30,18 +30,19 @@ export interface QualityMetrics {
   totalCells: number;
   nullCells: number;
   nullPercentage: number;
-  uniquenessScore: number;
+  // Left out when a quick check skipped the dimension
+  uniquenessScore?: number;
   totalRows: number;
-  duplicateRows: number;
-  duplicatePercentage: number;
+  duplicateRows?: number;
+  duplicatePercentage?: number;
   validityScore: number;
   invalidValues: number;
   invalidPercentage: number;
   consistencyScore: number;
   inconsistentValues: number;
   inconsistentPercentage: number;
-  accuracyScore: number;
-  schemaViolations: number;
+  accuracyScore?: number;
+  schemaViolations?: number;
   timelinessScore: number;
   hasTemporalData: boolean;
   biasScore?: number;
@@ -57,6 +58,7 @@ export interface ColumnProfile {
   uniqueCount: number;
   nullPercentage: number;
   uniquePercentage: number;
+  uniqueCountError?: number;
   mean?: number;
   median?: number;
   stdDev?: number;